@@ -0,0 +1,203 @@
+package ai;
+
+import geometry.PointXY;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import benchmarks.MazePreset;
+import logic.Agent;
+import logic.Direction;
+import logic.GameState;
+import logic.Maze;
+import logic.Predator;
+import logic.Prey;
+import logic.powerup.PowerUp;
+import pathfinding.NodeIndex;
+
+/**
+ * Measures the bytes allocated per tick by each AILogic, and writes the
+ * results as JSON.
+ *
+ * JMH's allocation profiler needs the whole JMH harness, so this is a plain
+ * program: for each AILogic, a game on a seeded maze is run a tick at a time.
+ * Each tick, the AI calculates the next move of every agent (as
+ * GameLogic.setNonPlayerMoves() does), then each agent steps one node in its
+ * chosen direction and any pill a prey lands on is removed. After a warm-up
+ * (so the AI's caches are filled and the JIT has compiled the AI), the bytes
+ * allocated by this thread over the measured ticks are read from the
+ * ThreadMXBean. Moving the agents doesn't allocate, so everything counted is
+ * allocated by the AI.
+ *
+ * The output is a JSON array with one object per AILogic, holding the number
+ * of measured ticks, the bytes allocated and the bytes per tick. The file
+ * name is the first argument, or "ai-alloc.json" if there isn't one.
+ *
+ * @author agent
+ * @version 2026-10-17
+ */
+public class AIAllocationMeasurement {
+
+	private static final int SIZE = 20;
+	private static final long SEED = 11L;
+	private static final int NUM_PREDATORS = 2;
+	private static final int NUM_PREY = 3;
+	private static final int WARMUP_TICKS = 20000;
+	private static final int MEASURED_TICKS = 20000;
+
+	public static void main(String[] args) throws IOException {
+
+		String fileName = (args.length > 0) ? args[0] : "ai-alloc.json";
+		MazePreset preset = MazePreset.LEVEL_3_9;
+
+		com.sun.management.ThreadMXBean threads =
+				(com.sun.management.ThreadMXBean)
+				ManagementFactory.getThreadMXBean();
+		if (!threads.isThreadAllocatedMemorySupported()) {
+			throw new IllegalStateException(
+					"Thread allocation counting isn't supported by this JVM.");
+		}
+		threads.setThreadAllocatedMemoryEnabled(true);
+		long threadID = Thread.currentThread().getId();
+
+		StringBuilder json = new StringBuilder();
+		json.append("[\n");
+		String[] names = new String[] {"AILogicSimple", "AILogicPartition",
+				"OrionAI", "AILogicRandom"};
+		for (int n = 0; n < names.length; ++n) {
+			Maze maze = new Maze(MazePreset.squareDimensions(SIZE),
+					preset.createConfig(SEED));
+			NodeIndex nodeIndex = new NodeIndex(maze);
+			GameState state = createState(maze, nodeIndex);
+			List<Agent> agents = new ArrayList<Agent>();
+			agents.addAll(state.getPredators());
+			agents.addAll(state.getPrey());
+			AILogic ai = createAI(names[n], maze);
+
+			for (int i = 0; i < WARMUP_TICKS; ++i) {
+				tick(ai, agents, state, nodeIndex);
+			}
+
+			long before = threads.getThreadAllocatedBytes(threadID);
+			for (int i = 0; i < MEASURED_TICKS; ++i) {
+				tick(ai, agents, state, nodeIndex);
+			}
+			long after = threads.getThreadAllocatedBytes(threadID);
+			long allocated = after - before;
+
+			if (n > 0) {
+				json.append(",\n");
+			}
+			json.append("  {\"ai\": \"").append(names[n])
+				.append("\", \"size\": ").append(SIZE)
+				.append(", \"preset\": \"").append(preset)
+				.append("\", \"ticks\": ").append(MEASURED_TICKS)
+				.append(", \"allocatedBytes\": ").append(allocated)
+				.append(", \"bytesPerTick\": ")
+				.append((double) allocated / MEASURED_TICKS)
+				.append("}");
+		}
+		json.append("\n]\n");
+
+		Writer writer = new FileWriter(fileName);
+		try {
+			writer.write(json.toString());
+		} finally {
+			writer.close();
+		}
+	}
+
+	private static AILogic createAI(String name, Maze maze) {
+		if (name.equals("AILogicSimple")) {
+			return new AILogicSimple(maze);
+		} else if (name.equals("AILogicPartition")) {
+			return new AILogicPartition(maze);
+		} else if (name.equals("OrionAI")) {
+			return new OrionAI(-6.648677643928376, -9.762598527682236,
+					-6.989690911188684, -0.09381008981411121, 3.84021643204839,
+					0.9608407438213487);
+		}
+		return new AILogicRandom();
+	}
+
+	/**
+	 * Create a game with a pill on every node, and the agents spread out
+	 * evenly over the nodes.
+	 */
+	private static GameState createState(Maze maze, NodeIndex nodeIndex) {
+
+		int size = nodeIndex.size();
+		Set<PointXY> pills = new HashSet<PointXY>();
+		for (int i = 0; i < size; ++i) {
+			pills.add(nodeIndex.getPoint(i));
+		}
+
+		int numAgents = NUM_PREDATORS + NUM_PREY;
+		List<Predator> predators = new ArrayList<Predator>();
+		List<Prey> prey = new ArrayList<Prey>();
+		for (int id = 1; id <= numAgents; ++id) {
+			PointXY pos = nodeIndex.getPoint((id - 1) * size / numAgents);
+			if (id <= NUM_PREDATORS) {
+				predators.add(new Predator(id, false, pos, 2, 0));
+			} else {
+				prey.add(new Prey(id, false, pos, 2, 0));
+			}
+		}
+
+		return new GameState(maze, predators, prey, pills,
+				new HashMap<PointXY, PowerUp>(),
+				new HashMap<PointXY, PowerUp>(), 0);
+	}
+
+	private static void tick(AILogic ai, List<Agent> agents, GameState state,
+			NodeIndex nodeIndex) {
+
+		ai.calcNextMove(agents, state);
+
+		int numAgents = agents.size();
+		for (int i = 0; i < numAgents; ++i) {
+			Agent agent = agents.get(i);
+			int node = nodeIndex.getIndex(agent.getPosition());
+			int slot = directionSlot(agent.getNextMove().getDirection());
+			if (node == NodeIndex.NO_NODE || slot == NodeIndex.NO_NODE) {
+				continue;
+			}
+			int next = nodeIndex.getNeighbour(node, slot);
+			if (next == NodeIndex.NO_NODE) {
+				continue;
+			}
+			PointXY pos = nodeIndex.getPoint(next);
+			agent.setPosition(pos);
+			if (agent instanceof Prey && state.hasPill(pos)) {
+				state.removePill(pos);
+			}
+		}
+	}
+
+	/**
+	 * Get the NodeIndex neighbour slot for a direction (the reverse of
+	 * NodeIndex.slotDirection()).
+	 */
+	private static int directionSlot(Direction dir) {
+		switch (dir) {
+			case Left:
+				return 0;
+			case Right:
+				return 1;
+			case Up:
+				return 2;
+			case Down:
+				return 3;
+			default:
+				return NodeIndex.NO_NODE;
+		}
+	}
+
+}
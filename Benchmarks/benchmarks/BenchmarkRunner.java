@@ -0,0 +1,44 @@
+package benchmarks;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import ai.AIAllocationMeasurement;
+import pathfinding.PathHeapMeasurement;
+
+/**
+ * Runs every benchmark and writes the results as JSON.
+ * 
+ * The JMH results are written to <prefix>-jmh.json, the retained heap per 
+ * stored path (which JMH can't measure) to <prefix>-heap.json and the bytes 
+ * allocated per tick by each AILogic to <prefix>-alloc.json. The prefix is 
+ * the first argument, or "benchmark-results" if there isn't one. Any further 
+ * arguments are used as the benchmark include pattern (default: all).
+ * 
+ * @author agent
+ * @version 2026-10-17
+ */
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws RunnerException, IOException {
+		
+		String prefix = (args.length > 0) ? args[0] : "benchmark-results";
+		String include = (args.length > 1) ? args[1] : ".*Benchmark.*";
+		
+		Options options = new OptionsBuilder()
+				.include(include)
+				.resultFormat(ResultFormatType.JSON)
+				.result(prefix + "-jmh.json")
+				.build();
+		new Runner(options).run();
+		
+		PathHeapMeasurement.main(new String[] {prefix + "-heap.json"});
+		AIAllocationMeasurement.main(new String[] {prefix + "-alloc.json"});
+	}
+	
+}
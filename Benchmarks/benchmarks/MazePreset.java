@@ -0,0 +1,70 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import geometry.PointXY;
+import geometry.PolygonShape;
+import logic.MazeConfig;
+
+/**
+ * The MazeConfig presets the benchmarks are run with.
+ * 
+ * DEFAULT is the MazeConfig default constructor. The LEVEL presets are the
+ * maze configs used by the levels in assets/data/config/levels_config.json 
+ * (levels 1-2 and levels 3-9 respectively), and should be kept in step with 
+ * that file.
+ * 
+ * @author agent
+ * @version 2026-10-17
+ */
+public enum MazePreset {
+
+	DEFAULT(10, 50, 0.0, 0.8),
+	LEVEL_1_2(10, 50, 0.5, 0.6),
+	LEVEL_3_9(2, 50, 0.2, 0.6);
+	
+	private final int maxLength;
+	private final int loopLimit;
+	private final double deadEndMinProp;
+	private final double ranPathMaxProp;
+	
+	private MazePreset(int maxLength, int loopLimit, double deadEndMinProp, 
+			double ranPathMaxProp) {
+		this.maxLength = maxLength;
+		this.loopLimit = loopLimit;
+		this.deadEndMinProp = deadEndMinProp;
+		this.ranPathMaxProp = ranPathMaxProp;
+	}
+	
+	/**
+	 * Create a MazeConfig for this preset, seeded so that every run of a 
+	 * benchmark uses the same maze.
+	 * 
+	 * @param seed - the seed for the maze.
+	 * @return the MazeConfig.
+	 */
+	public MazeConfig createConfig(long seed) {
+		MazeConfig config = 
+				new MazeConfig(maxLength, loopLimit, deadEndMinProp, ranPathMaxProp);
+		config.setSeed(seed);
+		return config;
+	}
+	
+	/**
+	 * Create the dimensions of a square maze with the given number of nodes
+	 * along each side.
+	 * 
+	 * @param size - the number of nodes along each side.
+	 * @return the dimensions of the maze.
+	 */
+	public static PolygonShape squareDimensions(int size) {
+		List<PointXY> vertices = new ArrayList<PointXY>();
+		vertices.add(new PointXY(0, 0));
+		vertices.add(new PointXY(0, size - 1));
+		vertices.add(new PointXY(size - 1, size - 1));
+		vertices.add(new PointXY(size - 1, 0));
+		return new PolygonShape(vertices);
+	}
+	
+}
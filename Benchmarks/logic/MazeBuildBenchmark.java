@@ -0,0 +1,179 @@
+package logic;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import benchmarks.MazePreset;
+import geometry.PolygonShape;
+
+/**
+ * Times each phase of building a maze, for each generator.
+ *
+ * The phases are createEmptyMaze (the grid itself) followed by the generator's
+ * own phases. Before each timed call, the maze is built up to (but not
+ * including) the phase being timed. The fill phase is fillIterate for the
+ * Classic generator and fillFrontier for the Linear generator, and the Linear
+ * generator has no removeSquares phase (so that phase times an empty call).
+ * The total phase times a whole build.
+ *
+ * The benchmark lives in the logic package so it can run the generators'
+ * phases one at a time.
+ *
+ * @author agent
+ * @version 2026-10-17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MazeBuildBenchmark {
+
+	private static final String[] PHASES = new String[] {
+		"createEmptyMaze", "addInitialPath", "fillRandom", "fill",
+		"appendDeadends", "removeSquares", "total"
+	};
+
+	@Param({"5", "10", "25", "50", "100", "200"})
+	public int size;
+
+	@Param({"DEFAULT", "LEVEL_1_2", "LEVEL_3_9"})
+	public MazePreset preset;
+
+	@Param({"Classic", "Linear"})
+	public MazeGeneratorType generator;
+
+	@Param({"createEmptyMaze", "addInitialPath", "fillRandom", "fill",
+		"appendDeadends", "removeSquares", "total"})
+	public String phase;
+
+	private PolygonShape dimensions;
+	private MazeConfig config;
+	private int phaseIndex;
+
+	private MazeGenerator mazeGenerator;
+	private Maze maze;
+
+	@Setup(Level.Trial)
+	public void setUpTrial() {
+		dimensions = MazePreset.squareDimensions(size);
+		config = preset.createConfig(size);
+		phaseIndex = -1;
+		for (int i = 0; i < PHASES.length; ++i) {
+			if (PHASES[i].equals(phase)) {
+				phaseIndex = i;
+			}
+		}
+		if (phaseIndex < 0) {
+			throw new IllegalArgumentException("Unknown phase: " + phase);
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void setUpInvocation() {
+		mazeGenerator = MazeGeneratorCreator.create(generator);
+		maze = null;
+
+		// Build the maze up to the phase being timed
+		if (phaseIndex > 0 && phaseIndex < PHASES.length - 1) {
+			maze = Maze.createEmpty(dimensions, config);
+			begin(mazeGenerator, maze, new Random(config.getSeed()));
+			for (int i = 1; i < phaseIndex; ++i) {
+				runPhase(mazeGenerator, i);
+			}
+		}
+	}
+
+	@TearDown(Level.Invocation)
+	public void tearDownInvocation() {
+		if (maze != null) {
+			end(mazeGenerator);
+		}
+	}
+
+	@Benchmark
+	public Maze buildPhase() {
+		if (phaseIndex == 0) {
+			return Maze.createEmpty(dimensions, config);
+		} else if (phaseIndex == PHASES.length - 1) {
+			return new Maze(dimensions, config, mazeGenerator);
+		}
+		runPhase(mazeGenerator, phaseIndex);
+		return maze;
+	}
+
+	private void begin(MazeGenerator gen, Maze empty, Random random) {
+		if (gen instanceof ClassicMazeGenerator) {
+			((ClassicMazeGenerator) gen).begin(empty, config, random);
+		} else {
+			((LinearMazeGenerator) gen).begin(empty, config, random);
+		}
+	}
+
+	private void end(MazeGenerator gen) {
+		if (gen instanceof ClassicMazeGenerator) {
+			((ClassicMazeGenerator) gen).end();
+		} else {
+			((LinearMazeGenerator) gen).end();
+		}
+	}
+
+	private static void runPhase(MazeGenerator gen, int index) {
+		if (gen instanceof ClassicMazeGenerator) {
+			ClassicMazeGenerator classic = (ClassicMazeGenerator) gen;
+			switch (index) {
+				case 1:
+					classic.addInitialPath();
+					break;
+				case 2:
+					classic.fillRandom();
+					break;
+				case 3:
+					classic.fillIterate();
+					break;
+				case 4:
+					classic.appendDeadends();
+					break;
+				case 5:
+					classic.removeSquares();
+					break;
+				default:
+					break;
+			}
+		} else {
+			LinearMazeGenerator linear = (LinearMazeGenerator) gen;
+			switch (index) {
+				case 1:
+					linear.addInitialPath();
+					break;
+				case 2:
+					linear.fillRandom();
+					break;
+				case 3:
+					linear.fillFrontier();
+					break;
+				case 4:
+					linear.appendDeadends();
+					break;
+				default:
+					break;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,103 @@
+package pathfinding;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import benchmarks.MazePreset;
+import logic.Maze;
+
+/**
+ * Measures the throughput of generateAllPaths() (whole tables per second) for
+ * each PathFinderType.
+ *
+ * Each PathFinderType has its own range of maze sizes: the Recursive
+ * PathFinder takes far too long on anything but small mazes. The full BFS
+ * table for a 100x100 maze takes around 300MB, so the BFS sizes stop there
+ * (and the fork needs a large enough heap).
+ *
+ * @author agent
+ * @version 2026-10-17
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class GenerateAllPathsBenchmark {
+
+	@State(Scope.Thread)
+	public static class BFSState {
+
+		@Param({"5", "10", "25", "50", "100"})
+		public int size;
+
+		@Param({"1", "4"})
+		public int threads;
+
+		@Param({"LEVEL_3_9"})
+		public MazePreset preset;
+
+		public Maze maze;
+		public PathFinder pathFinder;
+
+		@Setup(Level.Trial)
+		public void setUpTrial() {
+			maze = new Maze(MazePreset.squareDimensions(size),
+					preset.createConfig(size));
+		}
+
+		@Setup(Level.Invocation)
+		public void setUpInvocation() {
+			pathFinder = PathFinderCreator.create(PathFinderType.BFS, maze, threads);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class RecursiveState {
+
+		@Param({"5", "8", "12"})
+		public int size;
+
+		@Param({"LEVEL_3_9"})
+		public MazePreset preset;
+
+		public Maze maze;
+		public PathFinder pathFinder;
+
+		@Setup(Level.Trial)
+		public void setUpTrial() {
+			maze = new Maze(MazePreset.squareDimensions(size),
+					preset.createConfig(size));
+		}
+
+		@Setup(Level.Invocation)
+		public void setUpInvocation() {
+			pathFinder = PathFinderCreator.create(PathFinderType.Recursive, maze);
+		}
+	}
+
+	@Benchmark
+	public PathFinder bfs(BFSState state) {
+		state.pathFinder.generateAllPaths();
+		return state.pathFinder;
+	}
+
+	@Benchmark
+	public PathFinder recursive(RecursiveState state) {
+		state.pathFinder.generateAllPaths();
+		return state.pathFinder;
+	}
+
+}
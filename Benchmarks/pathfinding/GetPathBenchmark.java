@@ -0,0 +1,189 @@
+package pathfinding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import benchmarks.MazePreset;
+import geometry.PointXY;
+import logic.Maze;
+
+/**
+ * Measures the latency of getPath(start, end) when the path is already stored
+ * (a hit) and when it has to be worked out (a miss).
+ *
+ * For the BFS PathFinder, a hit is a target whose row is already filled; the
+ * rows for the sampled targets are filled during setup, so hits can be
+ * measured on mazes too large for the whole table. A miss uses a new
+ * PathFinder for every call, so the row is always filled by the call.
+ *
+ * For the Recursive PathFinder, a hit is after generateAllPaths() and a miss
+ * is on a new PathFinder.
+ *
+ * @author agent
+ * @version 2026-10-17
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GetPathBenchmark {
+
+	// The number of (start, end) pairs sampled from the maze
+	private static final int NUM_PAIRS = 1024;
+
+	/**
+	 * The maze and the sampled (start, end) pairs, which are cycled through.
+	 */
+	public abstract static class PairState {
+
+		public Maze maze;
+		public PointXY[] starts;
+		public PointXY[] ends;
+		private int next;
+
+		void createMaze(int size, MazePreset preset) {
+			maze = new Maze(MazePreset.squareDimensions(size),
+					preset.createConfig(size));
+
+			List<PointXY> points = new ArrayList<PointXY>(maze.getNodes().keySet());
+			Random random = new Random(size);
+			starts = new PointXY[NUM_PAIRS];
+			ends = new PointXY[NUM_PAIRS];
+			for (int i = 0; i < NUM_PAIRS; ++i) {
+				starts[i] = points.get(random.nextInt(points.size()));
+				ends[i] = points.get(random.nextInt(points.size()));
+			}
+			next = 0;
+		}
+
+		int nextPair() {
+			next = (next + 1) % NUM_PAIRS;
+			return next;
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class BFSHitState extends PairState {
+
+		@Param({"5", "10", "25", "50", "100", "200"})
+		public int size;
+
+		@Param({"LEVEL_3_9"})
+		public MazePreset preset;
+
+		public PathFinder pathFinder;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			createMaze(size, preset);
+			pathFinder = PathFinderCreator.create(PathFinderType.BFS, maze, 1);
+			for (int i = 0; i < NUM_PAIRS; ++i) {
+				pathFinder.getPath(starts[i], ends[i]);
+			}
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class BFSMissState extends PairState {
+
+		@Param({"5", "10", "25", "50", "100", "200"})
+		public int size;
+
+		@Param({"LEVEL_3_9"})
+		public MazePreset preset;
+
+		public PathFinder pathFinder;
+
+		@Setup(Level.Trial)
+		public void setUpTrial() {
+			createMaze(size, preset);
+		}
+
+		@Setup(Level.Invocation)
+		public void setUpInvocation() {
+			pathFinder = PathFinderCreator.create(PathFinderType.BFS, maze, 1);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class RecursiveHitState extends PairState {
+
+		@Param({"5", "8", "12"})
+		public int size;
+
+		@Param({"LEVEL_3_9"})
+		public MazePreset preset;
+
+		public PathFinder pathFinder;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			createMaze(size, preset);
+			pathFinder = PathFinderCreator.create(PathFinderType.Recursive, maze);
+			pathFinder.generateAllPaths();
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class RecursiveMissState extends PairState {
+
+		@Param({"5", "8", "12"})
+		public int size;
+
+		@Param({"LEVEL_3_9"})
+		public MazePreset preset;
+
+		public PathFinder pathFinder;
+
+		@Setup(Level.Trial)
+		public void setUpTrial() {
+			createMaze(size, preset);
+		}
+
+		@Setup(Level.Invocation)
+		public void setUpInvocation() {
+			pathFinder = PathFinderCreator.create(PathFinderType.Recursive, maze);
+		}
+	}
+
+	@Benchmark
+	public Path bfsHit(BFSHitState state) {
+		int i = state.nextPair();
+		return state.pathFinder.getPath(state.starts[i], state.ends[i]);
+	}
+
+	@Benchmark
+	public Path bfsMiss(BFSMissState state) {
+		int i = state.nextPair();
+		return state.pathFinder.getPath(state.starts[i], state.ends[i]);
+	}
+
+	@Benchmark
+	public Path recursiveHit(RecursiveHitState state) {
+		int i = state.nextPair();
+		return state.pathFinder.getPath(state.starts[i], state.ends[i]);
+	}
+
+	@Benchmark
+	public Path recursiveMiss(RecursiveMissState state) {
+		int i = state.nextPair();
+		return state.pathFinder.getPath(state.starts[i], state.ends[i]);
+	}
+
+}
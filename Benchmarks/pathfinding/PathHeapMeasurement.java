@@ -0,0 +1,99 @@
+package pathfinding;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+import benchmarks.MazePreset;
+import logic.Maze;
+
+/**
+ * Measures the heap retained per stored path by each PathFinderType, and
+ * writes the results as JSON.
+ *
+ * JMH measures time rather than retained memory, so this is a plain program:
+ * for each type and maze size, the used heap is measured (after garbage
+ * collection) before and after creating a PathFinder and generating all of
+ * its paths. Each measurement is repeated and the smallest value kept, to
+ * reduce noise from the collector.
+ *
+ * The output is a JSON array with one object per (type, size), holding the
+ * number of stored paths, the retained bytes and the bytes per path. The file
+ * name is the first argument, or "path-heap.json" if there isn't one.
+ *
+ * @author agent
+ * @version 2026-10-17
+ */
+public class PathHeapMeasurement {
+
+	private static final int[] BFS_SIZES = new int[] {5, 10, 25, 50};
+	private static final int[] RECURSIVE_SIZES = new int[] {5, 8, 12};
+	private static final int REPEATS = 3;
+
+	public static void main(String[] args) throws IOException {
+
+		String fileName = (args.length > 0) ? args[0] : "path-heap.json";
+		MazePreset preset = MazePreset.LEVEL_3_9;
+
+		StringBuilder json = new StringBuilder();
+		json.append("[\n");
+		boolean first = true;
+		for (PathFinderType type : PathFinderType.values()) {
+			int[] sizes = (type == PathFinderType.BFS) ? BFS_SIZES : RECURSIVE_SIZES;
+			for (int size : sizes) {
+				Maze maze = new Maze(MazePreset.squareDimensions(size),
+						preset.createConfig(size));
+
+				long retained = Long.MAX_VALUE;
+				long stored = 0;
+				for (int i = 0; i < REPEATS; ++i) {
+					long before = usedHeap();
+					PathFinder pathFinder = PathFinderCreator.create(type, maze, 1);
+					pathFinder.generateAllPaths();
+					long after = usedHeap();
+
+					stored = pathFinder.numStoredPaths();
+					retained = Math.min(retained, after - before);
+				}
+
+				if (!first) {
+					json.append(",\n");
+				}
+				first = false;
+				json.append("  {\"type\": \"").append(type)
+					.append("\", \"size\": ").append(size)
+					.append(", \"preset\": \"").append(preset)
+					.append("\", \"storedPaths\": ").append(stored)
+					.append(", \"retainedBytes\": ").append(retained)
+					.append(", \"bytesPerPath\": ")
+					.append(stored > 0 ? (double) retained / stored : 0.0)
+					.append("}");
+			}
+		}
+		json.append("\n]\n");
+
+		Writer writer = new FileWriter(fileName);
+		try {
+			writer.write(json.toString());
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Get the used heap in bytes, after asking for a garbage collection.
+	 */
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 4; ++i) {
+			System.gc();
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+}
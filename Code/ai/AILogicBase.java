@@ -5,7 +5,7 @@ import java.util.List;
 
 import logic.Maze;
 import pathfinding.PathFinder;
-import pathfinding.PathFinderCreator;
+import pathfinding.PathFinderCache;
 import pathfinding.PathFinderType;
 import pathfinding.PathGenerator;
 import progress.ProgressTask;
@@ -14,14 +14,34 @@ public abstract class AILogicBase implements AILogic {
 
 	private PathFinder pathFinder;
 	
+	// The distances from each agent's node, rebuilt when the agent moves node
+	private DistanceFieldCache distanceFields;
+	
 	public AILogicBase(Maze maze) {
-		pathFinder = PathFinderCreator.create(PathFinderType.BFS, maze);
+		pathFinder = PathFinderCache.get(PathFinderType.BFS, maze);
+		
+		// Load the paths from disk now if we can, so the path generation 
+		// progress task is complete before it even starts.
+		pathFinder.loadAllPaths();
+		
+		distanceFields = new DistanceFieldCache(maze);
 	}
 	
 	protected PathFinder getPathFinder() {
 		return pathFinder;
 	}
-
+	
+	/**
+	 * Get the distance fields from the agents' nodes. Distances to (or from)
+	 * an agent should be read from these, as each field is only worked out 
+	 * when its agent moves to a new node.
+	 * 
+	 * @return the distance field cache.
+	 */
+	protected DistanceFieldCache getDistanceFields() {
+		return distanceFields;
+	}
+	
 	@Override
 	public List<ProgressTask> getProgressTasks() {
 		List<ProgressTask> tasks = new ArrayList<ProgressTask>();
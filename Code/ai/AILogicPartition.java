@@ -2,23 +2,28 @@ package ai;
 
 import geometry.PointXY;
 
+import java.util.AbstractSet;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
 import java.util.Set;
 
 import logic.Agent;
 import logic.Direction;
 import logic.GameState;
 import logic.Maze;
+import logic.MazePartition;
+import logic.PillStore;
 import logic.Predator;
 import logic.Prey;
 
-import pathfinding.Path;
+import pathfinding.NodeIndex;
+import pathfinding.PathFinder;
 
 import utils.NumberUtils;
 
@@ -28,13 +33,17 @@ import utils.NumberUtils;
  * This class implements the AILogic interface. To calculate the next move for 
  * the prey, the maze is partitioned such that each maze square is assigned to 
  * the nearest prey. The prey then go to the nearest pill in their partition. 
+ * The partition is found with a single breadth-first search seeded from every
+ * prey at once, and is only recalculated when a prey moves to a new square.
  * 
  * If the predator is within a certain distance of a prey, the prey will assess
  * which positions in the maze are safer than its current position, then pick
  * one of those safer positions at random to move to. (This is continually 
  * re-assessed in case the movement of the predator changes the situation.) 
  * The safer positions which contain pills are prioritised over those which 
- * don't.
+ * don't. The distances to and from the agents are read from a distance
+ * field per agent (see DistanceFieldCache), so finding every safer position 
+ * is a single pass over the maze's nodes.
  * 
  * If the predator is further than the specified distance, but moving to the 
  * next square will make the prey within the distance, the prey is set to stay
@@ -48,25 +57,109 @@ import utils.NumberUtils;
  */
 public class AILogicPartition extends AILogicBase {
 
-	private Map<Agent, Set<PointXY>> partition;
+	// The number of random squares tried when picking a new random target
+	// (a square is no good if it's where the agent already is)
+	private static final int MAX_TARGET_TRIES = 4;
+
+	private MazePartition partition;
+	
+	// The target of each agent (null if it has none). A target is cleared by
+	// setting it to null rather than removing the agent, so the map doesn't
+	// need a new entry each time a target is picked.
 	private Map<Agent, PointXY> targets;
 	
+	// Used to pick random targets (NumberUtils.randomInt(min, max) creates a
+	// new Random on every call)
+	private Random random;
+	
+	// The node index of the maze, used when partitioning the maze
+	private NodeIndex nodeIndex;
+	
+	// The search queue used when partitioning the maze
+	private int[] partitionQueue;
+	
+	// The IDs and maze nodes of the prey when the partition was last 
+	// calculated (in ID order)
+	private int[] partitionPreyIDs;
+	private int[] partitionPreyNodes;
+	
+	// The prey, in ID order, reused each time the maze is partitioned
+	private List<Prey> partitionPrey;
+	
+	// The working storage for the search for the closest pill in a prey's
+	// partition. Nodes are marked as visited by stamping them with the 
+	// number of the current search, so nothing needs clearing in between.
+	private int[] pillSearchQueue;
+	private int[] pillSearchParents;
+	private int[] pillSearchStamps;
+	private int pillSearchStamp;
+	
 	private int runFromPredDist = 5;
 	private Map<Direction, Direction[]> runDirections;
 	
 	private Map<Agent, Set<PointXY>> saferPositions;
 	
+	// The predators within the run from distance of the prey being moved, 
+	// their distance fields and their distances (reused for each prey)
+	private List<Predator> closePredators;
+	private List<DistanceField> closePredatorFields;
+	private int[] closePredatorDists;
+	
+	// Whether the path to each node from the prey being moved goes too close 
+	// to a predator, by node
+	private boolean[] blocked;
+	
+	// The safer positions, and the positions to pick a target from (reused
+	// for each prey)
+	private List<PointXY> saferPositionList;
+	private List<PointXY> pickFromPositions;
+	
 	public AILogicPartition(Maze maze) {
+		this(maze, new Random());
+	}
+	
+	/**
+	 * Constructor for AILogicPartition, which picks the prey's random targets
+	 * with the given Random.
+	 * 
+	 * @param maze - the maze the game is played in.
+	 * @param random - the Random to pick random targets with.
+	 */
+	public AILogicPartition(Maze maze, Random random) {
 		super(maze);
-		this.partition = new HashMap<Agent, Set<PointXY>>();
+		
+		this.nodeIndex = new NodeIndex(maze);
+		PointXY[] points = new PointXY[nodeIndex.size()];
+		for (int i = 0; i < points.length; ++i) {
+			points[i] = nodeIndex.getPoint(i);
+		}
+		this.partition = new MazePartition(points);
+		this.partitionQueue = new int[nodeIndex.size()];
+		this.partitionPreyIDs = new int[0];
+		this.partitionPreyNodes = new int[0];
+		this.partitionPrey = new ArrayList<Prey>();
+		
+		this.pillSearchQueue = new int[nodeIndex.size()];
+		this.pillSearchParents = new int[nodeIndex.size()];
+		this.pillSearchStamps = new int[nodeIndex.size()];
+		this.pillSearchStamp = 0;
+		
 		this.targets = new HashMap<Agent, PointXY>();
+		this.random = random;
 		
 		this.saferPositions = new HashMap<Agent, Set<PointXY>>();
 		
+		this.closePredators = new ArrayList<Predator>();
+		this.closePredatorFields = new ArrayList<DistanceField>();
+		this.blocked = new boolean[nodeIndex.size()];
+		this.closePredatorDists = new int[0];
+		this.saferPositionList = new ArrayList<PointXY>();
+		this.pickFromPositions = new ArrayList<PointXY>();
+		
 		initialiseRunDirections();
 	}
 	
-	public Map<Agent, Set<PointXY>> getPartition() {
+	public MazePartition getPartition() {
 		return partition;
 	}
 	
@@ -107,7 +200,10 @@ public class AILogicPartition extends AILogicBase {
 		
 		partitionMaze(agents, state);
 		
-		for (Agent agent : agents) {
+		// Index the list rather than iterate it, so no Iterator is created.
+		int numAgents = agents.size();
+		for (int i = 0; i < numAgents; ++i) {
+			Agent agent = agents.get(i);
 			if (agent instanceof Predator) {
 				calcNextMovePredator(agent, state);
 			} else if (agent instanceof Prey) {
@@ -123,8 +219,11 @@ public class AILogicPartition extends AILogicBase {
 	private void partitionMaze(List<Agent> agents, GameState state) {
 		
 		// Extract just the prey and order than by ID
-		List<Prey> allPrey = new ArrayList<Prey>();
-		for (Agent agent : agents) {
+		List<Prey> allPrey = partitionPrey;
+		allPrey.clear();
+		int numAgents = agents.size();
+		for (int i = 0; i < numAgents; ++i) {
+			Agent agent = agents.get(i);
 			if (agent instanceof Prey) {
 				Prey p = (Prey) agent;
 				allPrey.add(p);
@@ -137,147 +236,274 @@ public class AILogicPartition extends AILogicBase {
 		}
 		
 		// Sort the prey into Agent ID order
-		Collections.sort(allPrey, new AgentComparator());
+		sortByID(allPrey);
 		
-		// Reset the partition field
-		resetPartition(allPrey);
+		// The partition only changes when a prey moves to a different square
+		// (or a prey is removed), so there's nothing to do if they haven't.
+		if (!preyMovedNode(allPrey)) {
+			return;
+		}
+		
+		// Do a multi-source Breadth-First Search, starting from every prey at 
+		// once. Each node is assigned to the prey whose search reaches it 
+		// first. As the prey are added to the queue in ID order, every layer
+		// of the search stays in owner ID order, so if there's a tie the 
+		// agent with the lowest ID is always chosen.
+		partition.clear();
+		int head = 0;
+		int tail = 0;
+		int numPrey = allPrey.size();
+		for (int i = 0; i < numPrey; ++i) {
+			Prey prey = allPrey.get(i);
+			int node = nodeIndex.getIndex(prey.getPosition());
+			if (node == NodeIndex.NO_NODE || 
+				partition.getOwner(node) != MazePartition.NO_OWNER) {
+				continue;
+			}
+			partition.setOwner(node, prey.getID());
+			partitionQueue[tail++] = node;
+		}
 		
-		// Loop through each maze square, finding the closest Agent. 
-		// If there's a tie, the agent with the lowest ID is always chosen.
-		Maze maze = state.getMaze();
-		Set<PointXY> mazeNodes = maze.getNodes().keySet();
-		for (PointXY node : mazeNodes) {
+		while (head < tail) {
+			int current = partitionQueue[head++];
+			int owner = partition.getOwner(current);
 			
-			int shortestPath = Integer.MAX_VALUE;
-			Prey nearestPrey = null;
-			for (int i = 0; i < allPrey.size(); ++i) {
-				Prey prey = allPrey.get(i);
-				
-				PointXY preyPos = prey.getPosition();
-				Path path = getPathFinder().getPath(node, preyPos);
-				if (path == null) {
+			for (int slot = 0; slot < NodeIndex.NUM_SLOTS; ++slot) {
+				int neighbour = nodeIndex.getNeighbour(current, slot);
+				if (neighbour == NodeIndex.NO_NODE || 
+					partition.getOwner(neighbour) != MazePartition.NO_OWNER) {
 					continue;
 				}
-				int length = path.getLength();
-				if (length < shortestPath) {
-					nearestPrey = prey;
-					shortestPath = length;
-				}
-				
-			}
-			
-			if (nearestPrey != null) {
-				Set<PointXY> preyNodes = partition.get(nearestPrey);
-				preyNodes.add(node);
-				partition.put(nearestPrey, preyNodes);
-			} else {
-				System.err.println("AILogicPartition: something's gone wrong");
+				partition.setOwner(neighbour, owner);
+				partitionQueue[tail++] = neighbour;
 			}
 		}
 		
+		if (tail != partition.size()) {
+			System.err.println("AILogicPartition: something's gone wrong");
+		}
+		
 	}
 	
-	private void resetPartition(List<Prey> allPrey) {
-		partition.clear();
+	/**
+	 * Sort the prey into Agent ID order, in place. There are only ever a few
+	 * prey (and they're usually already in order), so an insertion sort is 
+	 * quickest, and unlike Collections.sort() it doesn't allocate.
+	 * 
+	 * @param prey - the prey to sort.
+	 */
+	private static void sortByID(List<Prey> prey) {
+		
+		int size = prey.size();
+		for (int i = 1; i < size; ++i) {
+			Prey p = prey.get(i);
+			int j = i - 1;
+			while (j >= 0 && prey.get(j).getID() > p.getID()) {
+				prey.set(j + 1, prey.get(j));
+				--j;
+			}
+			prey.set(j + 1, p);
+		}
+	}
+	
+	/**
+	 * Check whether any prey has moved to a different maze node (or the set
+	 * of prey has changed) since the partition was last calculated, and 
+	 * record the current prey nodes.
+	 * 
+	 * @param allPrey - the prey, in ID order.
+	 * @return true if the partition needs recalculating, false otherwise.
+	 */
+	private boolean preyMovedNode(List<Prey> allPrey) {
+		
+		int numPrey = allPrey.size();
+		boolean moved = (numPrey != partitionPreyIDs.length);
+		if (moved) {
+			partitionPreyIDs = new int[numPrey];
+			partitionPreyNodes = new int[numPrey];
+		}
 		
-		for (Prey prey : allPrey) {
-			Set<PointXY> nodes = new HashSet<PointXY>();
-			partition.put(prey, nodes);
+		for (int i = 0; i < numPrey; ++i) {
+			Prey prey = allPrey.get(i);
+			int node = nodeIndex.getIndex(prey.getPosition());
+			if (partitionPreyIDs[i] != prey.getID() || 
+				partitionPreyNodes[i] != node) {
+				moved = true;
+				partitionPreyIDs[i] = prey.getID();
+				partitionPreyNodes[i] = node;
+			}
 		}
 		
+		return moved;
 	}
 	
 	private void calcNextMovePrey(Agent agent, GameState state) {
 		
-		// Find the closest Predator.
-		Path closestPredatorPath = findClosestPredatorPath(agent, state);
+		// Find the distance to the closest Predator.
+		int closestPredatorDist = findClosestPredatorDist(agent, state);
 		
 		// Is the predator too close? If so, run away!
-		int closestPredatorDist = closestPredatorPath.getLength();
-		if (closestPredatorDist > 0 && closestPredatorDist <= runFromPredDist) {
+		// (The run from distance counts the points on the path, including the
+		// prey's own position, so it is one more than the number of steps.)
+		if (closestPredatorDist != PathFinder.NO_PATH && 
+			closestPredatorDist < runFromPredDist) {
 			setNextMoveAvoidPredator(agent, state);
 			return;
 		}
 		
-		Set<PointXY> empty = new HashSet<PointXY>();
-		saferPositions.put(agent, empty);
+		// Not running, so there are no safer positions to show.
+		getSaferPositionSet(agent).clear();
 		
 		// If the predator isn't close, let's go to the nearest pill in this
 		// prey's partition.
-		// Extract all the maze squares assigned to this prey.
-		Set<PointXY> preyNodes = partition.get(agent);
-		if (preyNodes != null && preyNodes.size() != 0) {
-			
-			// Loop over each of this prey's assigned nodes.
-			// Extract those that have a pill.
-			Set<PointXY> pillNodes = new HashSet<PointXY>();
-			for (PointXY node : preyNodes) {
-				if (state.hasPill(node) ) {
-					pillNodes.add(node);
-				}
+		// Loop over each of the maze squares assigned to this prey, checking
+		// whether any have a pill. (The partition holds the maze squares in
+		// node index order.)
+		int agentID = agent.getID();
+		PillStore pills = state.getPillStore();
+		boolean hasPills = false;
+		for (int i = 0; i < partition.size(); ++i) {
+			if (partition.getOwner(i) == agentID && pills.hasPill(i)) {
+				hasPills = true;
+				break;
 			}
+		}
+		
+		if (hasPills) {
+			PointXY preyPos = agent.getPosition();
+			int next = findFirstStepToPill(preyPos, agentID, state);
 			
-			if (pillNodes.size() != 0) {
-				PointXY preyPos = agent.getPosition();
-				Path closestPillPath = getPathFinder().getPath(preyPos, 
-															   pillNodes);
+			if (next != NodeIndex.NO_NODE) {
+				PointXY nextSquare = nodeIndex.getPoint(next);
 				
-				if (closestPillPath.getLength() > 1) {
-					PointXY nextSquare = closestPillPath.getPoint(1);
-					
-					List<Predator> predators = state.getPredators();
-					
-					// Find the closest Predator.
-					int closestPredPathLength = Integer.MAX_VALUE;
-					for (Predator p : predators) {
-						PointXY predatorPos = p.getPosition();
-						Path path = getPathFinder().getPath(nextSquare, 
-															predatorPos);
-						if (path.getLength() < closestPredPathLength) {
-							closestPredPathLength = path.getLength();
-						}
-					}
-					if (closestPredPathLength <= runFromPredDist) {
-						agent.setNextMoveDirection(Direction.None);
-						return;
+				List<Predator> predators = state.getPredators();
+				
+				// Find the closest Predator.
+				int closestPredDist = Integer.MAX_VALUE;
+				int numPredators = predators.size();
+				for (int i = 0; i < numPredators; ++i) {
+					DistanceField predatorField = 
+							getDistanceFields().getField(predators.get(i));
+					int dist = (predatorField != null) ? 
+							predatorField.getDistance(next) : PathFinder.NO_PATH;
+					if (dist < closestPredDist) {
+						closestPredDist = dist;
 					}
 				}
+				if (closestPredDist < runFromPredDist) {
+					agent.setNextMoveDirection(Direction.None);
+					return;
+				}
 				
-				// Use the closestPillPath to get the direction in which to 
-				// travel.
-				setDirectionFromPath(agent, closestPillPath);
-			} else {
-				pickRandomTarget(agent, state);
+				// Use the first step towards the closest pill as the 
+				// direction in which to travel.
+				agent.setNextMoveDirection(getDirection(preyPos, nextSquare));
 			}
-			
 		} else {
-			pickRandomTarget(agent, state);			
+			pickRandomTarget(agent, state);
 		}
 		
 	}
 	
-	private void pickRandomTarget(Agent agent, GameState state) {
+	/**
+	 * Find the first step along the shortest path to the closest pill in the
+	 * given prey's partition. This is the same Breadth-First Search as 
+	 * PathFinder.getPath(start, goals) (so it picks the same pill when there's
+	 * a tie), but it tests the nodes directly rather than building a set of 
+	 * goals, and it doesn't build a Path.
+	 * 
+	 * @param start - the prey's position.
+	 * @param agentID - the prey's ID.
+	 * @param state - the current game state.
+	 * @return the index of the node to move to, or NO_NODE if the prey is 
+	 * already on a pill, no pill can be reached or the prey isn't on a node.
+	 */
+	private int findFirstStepToPill(PointXY start, int agentID, 
+			GameState state) {
 		
-		PointXY agentPos = agent.getPosition();
+		int startNode = nodeIndex.getIndex(start);
+		if (startNode == NodeIndex.NO_NODE || isPillInPartition(startNode, 
+				agentID, state)) {
+			return NodeIndex.NO_NODE;
+		}
 		
+		pillSearchStamp++;
+		if (pillSearchStamp == Integer.MAX_VALUE) {
+			Arrays.fill(pillSearchStamps, 0);
+			pillSearchStamp = 1;
+		}
+		
+		int head = 0;
+		int tail = 0;
+		pillSearchStamps[startNode] = pillSearchStamp;
+		pillSearchQueue[tail++] = startNode;
+		
+		int goal = NodeIndex.NO_NODE;
+		while (goal == NodeIndex.NO_NODE && head < tail) {
+			int current = pillSearchQueue[head++];
+			
+			for (int slot = 0; slot < NodeIndex.NUM_SLOTS; ++slot) {
+				int neighbour = nodeIndex.getNeighbour(current, slot);
+				if (neighbour == NodeIndex.NO_NODE || 
+					pillSearchStamps[neighbour] == pillSearchStamp) {
+					continue;
+				}
+				pillSearchStamps[neighbour] = pillSearchStamp;
+				pillSearchParents[neighbour] = current;
+				pillSearchQueue[tail++] = neighbour;
+				
+				if (isPillInPartition(neighbour, agentID, state)) {
+					goal = neighbour;
+					break;
+				}
+			}
+		}
+		
+		if (goal == NodeIndex.NO_NODE) {
+			return NodeIndex.NO_NODE;
+		}
+		
+		// Walk back from the pill until we reach the step after the start.
+		int node = goal;
+		while (pillSearchParents[node] != startNode) {
+			node = pillSearchParents[node];
+		}
+		return node;
+	}
+	
+	private boolean isPillInPartition(int node, int agentID, GameState state) {
+		return partition.getOwner(node) == agentID && 
+			   state.getPillStore().hasPill(node);
+	}
+	
+	private void pickRandomTarget(Agent agent, GameState state) {
+		
+		// Use the first step towards the target as the direction in which to 
+		// travel.
 		PointXY target = targets.get(agent);
-		if (target == null) {
-			// Pick a random square from the maze.
-			target = state.getMaze().getRandomPoint();
-			targets.put(agent, target);
+		if (target != null && setDirectionTowards(agent, target)) {
+			return;
 		}
-		Path targetPath = getPathFinder().getPath(agentPos, target);
-		// Use the targetPath to get the direction in which to travel.
-		if (!setDirectionFromPath(agent, targetPath)) {
-			targets.remove(agent);
+		
+		// There's no target, or we've reached it, so pick a new random square
+		// from the maze now (rather than relying on being called again next 
+		// frame, which the AIScheduler doesn't do unless something changes).
+		for (int i = 0; i < MAX_TARGET_TRIES; ++i) {
+			target = state.getMaze().getRandomPoint(random);
+			if (setDirectionTowards(agent, target)) {
+				targets.put(agent, target);
+				return;
+			}
 		}
+		targets.put(agent, null);
 		
 	}
 	
-	private boolean setDirectionFromPath(Agent agent, Path path) {
+	private boolean setDirectionTowards(Agent agent, PointXY target) {
 		
-		if (path.getLength() > 1) {
-			Direction dir = getDirection(path.getPoint(0), path.getPoint(1));
+		PointXY agentPos = agent.getPosition();
+		Direction dir = getPathFinder().getFirstDirection(agentPos, target);
+		if (dir != Direction.None) {
 			agent.setNextMoveDirection(dir);
 			return true;
 		}
@@ -285,34 +511,45 @@ public class AILogicPartition extends AILogicBase {
 		return false;
 	}
 	
-	private Path findClosestPredatorPath(Agent agent, GameState state) {
+	private int findClosestPredatorDist(Agent agent, GameState state) {
 		
-		PointXY preyPos = agent.getPosition();
+		DistanceField field = getDistanceFields().getField(agent);
+		if (field == null) {
+			return PathFinder.NO_PATH;
+		}
 		List<Predator> predators = state.getPredators();
 		
 		// Find the closest Predator.
-		Path closestPredPath = null;
-		int closestPredPathLength = Integer.MAX_VALUE;
-		for (Predator p : predators) {
-			PointXY predatorPos = p.getPosition();
-			Path path = getPathFinder().getPath(preyPos, predatorPos);
-			if (path.getLength() < closestPredPathLength) {
-				closestPredPathLength = path.getLength();
-				closestPredPath = path;
+		int closestPredDist = PathFinder.NO_PATH;
+		int numPredators = predators.size();
+		for (int i = 0; i < numPredators; ++i) {
+			Predator p = predators.get(i);
+			int dist = field.getDistance(p.getPosition());
+			if (dist == PathFinder.NO_PATH) {
+				continue;
+			}
+			if (closestPredDist == PathFinder.NO_PATH || 
+				dist < closestPredDist) {
+				closestPredDist = dist;
 			}
 		}
 		
-		return closestPredPath;
+		return closestPredDist;
 	}
 	
 	private void setNextMoveAvoidPredator(Agent agent, GameState state) {
 		
-		PointXY agentPos = agent.getPosition();
+		// The paths considered are those in the search tree of the prey's 
+		// distance field, so the path checked is the path followed.
+		DistanceField field = getDistanceFields().getField(agent);
+		if (field == null) {
+			return;
+		}
 		
 		// Find the distance to all the predators within the run from predator
 		// distance.
-		Map<Predator, Integer> predatorDist = findClosePredators(agent, state);
-		if (predatorDist.size() == 0) {
+		findClosePredators(field, state);
+		if (closePredators.size() == 0) {
 			// This method should only be called when at least one predator is
 			// close by - something's gone wrong.
 			return;
@@ -324,31 +561,36 @@ public class AILogicPartition extends AILogicBase {
 			// Check whether the current target is still reasonable (i.e. if the
 			// predator has moved onto or close to the target path, we should 
 			// find a new path.)
-			Path targetPath = getPathFinder().getPath(agentPos, target);
-			if (pathTooCloseToPredators(targetPath, predatorDist, state)) {
+			int targetNode = nodeIndex.getIndex(target);
+			if (targetNode == NodeIndex.NO_NODE || 
+				pathTooCloseToPredators(field, targetNode)) {
 				reevaluatePath = true;
 			}
 		} 
 		
-		// The current target node is ok, so set the move using that.
-		if (!reevaluatePath && target != null) {
-			setMoveFromTarget(agent, state);
+		// The current target node is ok, so set the move using that (unless 
+		// we've already reached it).
+		if (!reevaluatePath && target != null && 
+			setMoveFromTarget(agent, field)) {
 			return;
 		}
 		
-		// Either the current target now involves going too close to a predator
-		// or no target exists yet. Either way, we should find a new target.
+		// Either the current target now involves going too close to a 
+		// predator, we've reached it, or no target exists yet. Either way, we
+		// should find a new target now.
 		
 		// The list of positions in the maze which we can get too without 
 		// getting any closer to the nearby predators.
-		List<PointXY> saferPositions = 
-				findSaferPositions(agentPos, state, predatorDist);
+		List<PointXY> saferPositions = findSaferPositions(field);
 			
 		// Add the data to the member variable (currently only used for 
 		// debugging).
-		Set<PointXY> safe = new HashSet<PointXY>();
-		safe.addAll(saferPositions);
-		this.saferPositions.put(agent, safe);
+		Set<PointXY> safe = getSaferPositionSet(agent);
+		safe.clear();
+		int numSafer = saferPositions.size();
+		for (int i = 0; i < numSafer; ++i) {
+			safe.add(saferPositions.get(i));
+		}
 		
 		if (saferPositions.size() == 0) {
 			// We're in the safest possible position...for now!
@@ -357,121 +599,196 @@ public class AILogicPartition extends AILogicBase {
 		}
 		
 		// Find a new target
-		Set<Predator> closePredators = predatorDist.keySet();
-		findNewTarget(agent, state, saferPositions, closePredators);
+		if (!findNewTarget(agent, state, saferPositions)) {
+			// The only safer position is where we are already.
+			agent.setNextMoveDirection(Direction.None);
+			return;
+		}
 		
 		// Set the move using the target
-		setMoveFromTarget(agent, state);
+		setMoveFromTarget(agent, field);
 	}
 	
-	private Map<Predator, Integer> findClosePredators(Agent agent, 
-			GameState state) {
-		
-		PointXY agentPos = agent.getPosition();
+	/**
+	 * Get the set of safer positions for the given agent, creating it the 
+	 * first time. The same set is reused from then on, so filling it doesn't
+	 * allocate.
+	 */
+	private Set<PointXY> getSaferPositionSet(Agent agent) {
+		
+		Set<PointXY> safe = saferPositions.get(agent);
+		if (safe == null) {
+			safe = new NodePointSet(nodeIndex);
+			saferPositions.put(agent, safe);
+		}
+		return safe;
+	}
+	
+	/**
+	 * Find the predators within the run from distance of the agent whose 
+	 * distance field is given, filling in closePredators, closePredatorFields
+	 * and closePredatorDists.
+	 */
+	private void findClosePredators(DistanceField field, GameState state) {
 		
 		List<Predator> allPredators = state.getPredators();
-		Map<Predator, Integer> predatorDist = new HashMap<Predator, Integer>();
-		
-		for (Predator predator : allPredators) {
-			PointXY predatorPos = predator.getPosition();
-			Path path = getPathFinder().getPath(agentPos, predatorPos);
-			Integer length = path.getLength();
-			if (length <= runFromPredDist) {
-				predatorDist.put(predator, length);
-			}
+		int numPredators = allPredators.size();
+		closePredators.clear();
+		closePredatorFields.clear();
+		if (closePredatorDists.length < numPredators) {
+			closePredatorDists = new int[numPredators];
 		}
 		
-		return predatorDist;
+		for (int i = 0; i < numPredators; ++i) {
+			Predator predator = allPredators.get(i);
+			int dist = field.getDistance(predator.getPosition());
+			if (dist != PathFinder.NO_PATH && dist < runFromPredDist) {
+				closePredatorDists[closePredators.size()] = dist;
+				closePredators.add(predator);
+				closePredatorFields.add(getDistanceFields().getField(predator));
+			}
+		}
 	}
 	
-	private void setMoveFromTarget(Agent agent, GameState state) {
-		
-		PointXY agentPos = agent.getPosition();
+	/**
+	 * Set the agent's move to the first step towards its target. If the agent
+	 * has reached the target (or can't get to it), the target is cleared and
+	 * the move is left unchanged.
+	 * 
+	 * @return true if the move was set, false otherwise.
+	 */
+	private boolean setMoveFromTarget(Agent agent, DistanceField field) {
 		
 		PointXY target = targets.get(agent);
 		
-		Path targetPath = getPathFinder().getPath(agentPos, target);
-		// Use the targetPath to get the direction in which to travel.
-		if (!setDirectionFromPath(agent, targetPath)) {
-			targets.remove(agent);
+		// Use the first step towards the target as the direction in which to 
+		// travel.
+		int next = field.getFirstStep(nodeIndex.getIndex(target));
+		if (next == NodeIndex.NO_NODE) {
+			targets.put(agent, null);
+			return false;
 		}
+		agent.setNextMoveDirection(getDirection(agent.getPosition(), 
+				nodeIndex.getPoint(next)));
+		return true;
 	}
 	
-	private boolean pathTooCloseToPredators(Path path, 
-			Map<Predator, Integer> predatorDist, GameState state) {
-		
-		Set<Predator> closePredators = predatorDist.keySet();
-		boolean tooClose = false;
-		for (Predator predator : closePredators) {
-			PointXY predatorPos = predator.getPosition();
-			int pathLength = path.getLength();
-			for (int i = 1; i < pathLength; ++i) {
-				PointXY pathNode = path.getPoint(i);
-				Path predPath = getPathFinder().getPath(pathNode, predatorPos);
-				int dist = predPath.getLength();
-				int currentDist = predatorDist.get(predator);
-				if (dist <= currentDist) {
-					tooClose = true;
-					break;
-				}
-			}
-			if (tooClose) {
-				break;
+	/**
+	 * Check whether the given node is as close to one of the close predators
+	 * as that predator currently is to the prey.
+	 */
+	private boolean tooCloseToPredators(int node) {
+		
+		int numClose = closePredators.size();
+		for (int i = 0; i < numClose; ++i) {
+			if (closePredatorFields.get(i).getDistance(node) <= 
+					closePredatorDists[i]) {
+				return true;
 			}
 		}
-		
-		return tooClose;
+		return false;
 	}
 	
-	private List<PointXY> findSaferPositions(PointXY agentPos, GameState state, 
-			Map<Predator, Integer> predatorDist) {
-		
-		List<PointXY> saferPositions = new ArrayList<PointXY>();
+	/**
+	 * Check whether any node after the start of the path to the given node 
+	 * (in the search tree of the prey's distance field) is too close to a
+	 * predator. The path is followed back from the target, so this is at 
+	 * most (path length x close predators) array reads.
+	 */
+	private boolean pathTooCloseToPredators(DistanceField field, int target) {
+		
+		if (field.getDistance(target) == PathFinder.NO_PATH) {
+			return false;
+		}
 		
-		Maze maze = state.getMaze();
-		Set<PointXY> allPositions = maze.getNodes().keySet();
+		int source = field.getSource();
+		for (int node = target; node != source; node = field.getParent(node)) {
+			if (tooCloseToPredators(node)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Find the nodes the prey can get to without going too close to a 
+	 * predator. The nodes are visited in search order, so the path to each 
+	 * node is blocked if the path to its parent is blocked or the node itself
+	 * is too close: one pass of (nodes x close predators) array reads.
+	 */
+	private List<PointXY> findSaferPositions(DistanceField field) {
+		
+		List<PointXY> saferPositions = saferPositionList;
+		saferPositions.clear();
+		
+		int numReached = field.getNumReached();
+		blocked[field.getSource()] = false;
+		for (int i = 1; i < numReached; ++i) {
+			int node = field.getReached(i);
+			blocked[node] = blocked[field.getParent(node)] || 
+							tooCloseToPredators(node);
+		}
 		
-		for (PointXY pos : allPositions) {
-			Path path = getPathFinder().getPath(agentPos, pos);
-			
-			boolean tooClose = 
-					pathTooCloseToPredators(path, predatorDist, state);
-			if (!tooClose) {
-				saferPositions.add(pos);
+		// List them in node order (rather than search order), as they were 
+		// before.
+		int size = nodeIndex.size();
+		for (int node = 0; node < size; ++node) {
+			if (field.getDistance(node) != PathFinder.NO_PATH && 
+				!blocked[node]) {
+				saferPositions.add(nodeIndex.getPoint(node));
 			}
 		}
 		
 		return saferPositions;
 	}
 	
-	private void findNewTarget(Agent agent, GameState state, 
-			List<PointXY> saferPositions, Set<Predator> closePredators) {
+	/**
+	 * Pick a new target for the agent from the safer positions (other than 
+	 * the agent's own position), preferring those with a pill.
+	 * 
+	 * @return true if a target was picked, false if there are no safer 
+	 * positions other than the agent's own.
+	 */
+	private boolean findNewTarget(Agent agent, GameState state, 
+			List<PointXY> saferPositions) {
 		
-		List<PointXY> pickFromPositions = new ArrayList<PointXY>();
+		PointXY agentPos = agent.getPosition();
+		pickFromPositions.clear();
 		
-		Set<PointXY> pills = state.getPills();
-		for (PointXY safePos : saferPositions) {
-			if (pills.contains(safePos)) {
+		int numSafer = saferPositions.size();
+		for (int i = 0; i < numSafer; ++i) {
+			PointXY safePos = saferPositions.get(i);
+			if (!safePos.equals(agentPos) && state.hasPill(safePos)) {
 				pickFromPositions.add(safePos);
 			}
 		}
 		
 		if (pickFromPositions.size() == 0) {
-			pickFromPositions.addAll(saferPositions);
+			for (int i = 0; i < numSafer; ++i) {
+				PointXY safePos = saferPositions.get(i);
+				if (!safePos.equals(agentPos)) {
+					pickFromPositions.add(safePos);
+				}
+			}
+		}
+		
+		if (pickFromPositions.size() == 0) {
+			targets.put(agent, null);
+			return false;
 		}
 		
-		int furthestDist = -1;
+		int furthestDist = Integer.MIN_VALUE;
+		int numClose = closePredators.size();
 		for (int i = 0; i < 1; ++i) {
 			// Pick a random point from the list of safer positions
-			int index = NumberUtils.randomInt(0, pickFromPositions.size() - 1);
+			int index = NumberUtils.randomInt(random, 0, 
+					pickFromPositions.size() - 1);
 			PointXY newPos = pickFromPositions.get(index);
 			int closestPredatorDist = Integer.MAX_VALUE;
-			for (Predator predator : closePredators) {
-				PointXY predatorPos = predator.getPosition();
-				Path path = getPathFinder().getPath(predatorPos, newPos);
-				int pathLength = path.getLength();
-				if (pathLength < closestPredatorDist) {
-					closestPredatorDist = pathLength;
+			for (int j = 0; j < numClose; ++j) {
+				int dist = closePredatorFields.get(j).getDistance(newPos);
+				if (dist < closestPredatorDist) {
+					closestPredatorDist = dist;
 				}
 			}
 			if (closestPredatorDist > furthestDist) {
@@ -480,38 +797,42 @@ public class AILogicPartition extends AILogicBase {
 			}
 		}
 		
+		return true;
 	}
 	
 	private void calcNextMovePredator(Agent agent, GameState state) {
 		
 		// Find the closest prey.
-		Path closestPreyPath = findClosestPreyPath(agent, state);
+		Prey closestPrey = findClosestPrey(agent, state);
 		
-		// Use the closestPreyPath to get the direction in which to travel.
-		if (closestPreyPath.getLength() > 1) {
-			Direction dir = getDirection(closestPreyPath.getPoint(0), 
-										 closestPreyPath.getPoint(1));
-			agent.setNextMoveDirection(dir);
+		// Use the first step towards the closest prey as the direction in 
+		// which to travel.
+		if (closestPrey != null) {
+			setDirectionTowards(agent, closestPrey.getPosition());
 		}
 	}
 
-	private Path findClosestPreyPath(Agent agent, GameState state) {
-		PointXY predatorPos = agent.getPosition();
+	private Prey findClosestPrey(Agent agent, GameState state) {
+		DistanceField field = getDistanceFields().getField(agent);
+		if (field == null) {
+			return null;
+		}
 		List<Prey> prey = state.getPrey();
 		
 		// Find the closest Prey.
-		Path closestPreyPath = null;
-		int closestPreyPathLength = Integer.MAX_VALUE;
-		for (Prey p : prey) {
-			PointXY preyPos = p.getPosition();
-			Path path = getPathFinder().getPath(predatorPos, preyPos);
-			if (path.getLength() < closestPreyPathLength) {
-				closestPreyPathLength = path.getLength();
-				closestPreyPath = path;
+		Prey closestPrey = null;
+		int closestPreyDist = Integer.MAX_VALUE;
+		int numPrey = prey.size();
+		for (int i = 0; i < numPrey; ++i) {
+			Prey p = prey.get(i);
+			int dist = field.getDistance(p.getPosition());
+			if (dist != PathFinder.NO_PATH && dist < closestPreyDist) {
+				closestPreyDist = dist;
+				closestPrey = p;
 			}
 		}
 		
-		return closestPreyPath;
+		return closestPrey;
 	}
 	
 	private Direction getDirection(PointXY start, PointXY end) {
@@ -529,21 +850,88 @@ public class AILogicPartition extends AILogicBase {
 		
 		return dir;
 	}
-}
-
-class AgentComparator implements Comparator<Agent> {
-
-	@Override
-	public int compare(Agent agent1, Agent agent2) {
+	
+	/**
+	 * A set of maze node points, stored as a flag per node plus a list of the
+	 * nodes in the set in the order they were added. Adding, checking and 
+	 * clearing don't allocate (only iterating does), unlike a HashSet which 
+	 * allocates an entry for every point added.
+	 */
+	private static final class NodePointSet extends AbstractSet<PointXY> {
+		
+		private final NodeIndex index;
+		private final boolean[] members;
+		private final int[] nodes;
+		private int size;
+		
+		public NodePointSet(NodeIndex index) {
+			this.index = index;
+			this.members = new boolean[index.size()];
+			this.nodes = new int[index.size()];
+			this.size = 0;
+		}
 		
-		if (agent1.getID() < agent2.getID()) {
-			return -1;
-		} else if (agent1.getID() > agent2.getID()) {
-			return 1;
-		} else {
-			return 0;
+		@Override
+		public boolean add(PointXY point) {
+			int node = index.getIndex(point);
+			if (node == NodeIndex.NO_NODE) {
+				throw new IllegalArgumentException(
+						"Point isn't a node of the maze: " + point);
+			}
+			if (members[node]) {
+				return false;
+			}
+			members[node] = true;
+			nodes[size++] = node;
+			return true;
 		}
 		
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof PointXY)) {
+				return false;
+			}
+			int node = index.getIndex((PointXY) o);
+			return node != NodeIndex.NO_NODE && members[node];
+		}
+		
+		@Override
+		public void clear() {
+			for (int i = 0; i < size; ++i) {
+				members[nodes[i]] = false;
+			}
+			size = 0;
+		}
+		
+		@Override
+		public int size() {
+			return size;
+		}
+		
+		@Override
+		public Iterator<PointXY> iterator() {
+			return new Iterator<PointXY>() {
+				
+				private int next = 0;
+				
+				@Override
+				public boolean hasNext() {
+					return next < size;
+				}
+				
+				@Override
+				public PointXY next() {
+					if (next >= size) {
+						throw new NoSuchElementException();
+					}
+					return index.getPoint(nodes[next++]);
+				}
+				
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
 	}
-	
 }
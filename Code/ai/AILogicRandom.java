@@ -20,25 +20,26 @@ import progress.ProgressTask;
  */
 public class AILogicRandom implements AILogic {
 	
+	// All possible directions (Direction.values() makes a new array each call)
+	private static final Direction[] ALL_DIRECTIONS = Direction.values();
+	
+	private final Random r;
+	
 	/**
 	 * Constructor for AILogicRandom.
 	 */
 	public AILogicRandom() {
-		
+		r = new Random();
 	}
 	
 	@Override
 	public void calcNextMove(List<Agent> agents, GameState state) {
 
-		Random r = new Random();
-		
-		// Get all possible directions.
-		Direction[] allDir = Direction.values();
-		
-		for (Agent agent : agents) {
+		int numAgents = agents.size();
+		for (int i = 0; i < numAgents; ++i) {
 			// Get a random direction and set the Agent's next move.
-			int dirNum = r.nextInt(allDir.length);
-			agent.setNextMoveDirection(allDir[dirNum]);
+			int dirNum = r.nextInt(ALL_DIRECTIONS.length);
+			agents.get(i).setNextMoveDirection(ALL_DIRECTIONS[dirNum]);
 		}
 	}
 
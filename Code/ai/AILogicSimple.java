@@ -2,18 +2,18 @@ package ai;
 
 import geometry.PointXY;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import logic.Agent;
 import logic.Direction;
 import logic.GameState;
 import logic.Maze;
+import logic.PillStore;
 import logic.Predator;
 import logic.Prey;
 
-import pathfinding.Path;
+import pathfinding.NodeIndex;
+import pathfinding.PathFinder;
 
 /**
  * AILogicSimple class.
@@ -37,7 +37,9 @@ import pathfinding.Path;
 public class AILogicSimple extends AILogicBase {
 
 	private int runFromPredDist = 5;
-	private Map<Direction, Direction[]> runDirections;
+	
+	// The directions to try when running from each direction, by ordinal
+	private Direction[][] runDirections;
 	
 	public AILogicSimple(Maze maze) {
 		super(maze);
@@ -45,37 +47,40 @@ public class AILogicSimple extends AILogicBase {
 	}
 	
 	private void initialiseRunDirections() {
-		runDirections = new HashMap<Direction, Direction[]>();
+		runDirections = new Direction[Direction.values().length][];
 		
 		Direction[] runFromRight = new Direction[3];
 		runFromRight[0] = Direction.Left;
 		runFromRight[1] = Direction.Up;
 		runFromRight[2] = Direction.Down;
-		runDirections.put(Direction.Right, runFromRight);
+		runDirections[Direction.Right.ordinal()] = runFromRight;
 		
 		Direction[] runFromLeft = new Direction[3];
 		runFromLeft[0] = Direction.Right;
 		runFromLeft[1] = Direction.Down;
 		runFromLeft[2] = Direction.Up;
-		runDirections.put(Direction.Left, runFromLeft);
+		runDirections[Direction.Left.ordinal()] = runFromLeft;
 		
 		Direction[] runFromUp = new Direction[3];
 		runFromUp[0] = Direction.Down;
 		runFromUp[1] = Direction.Right;
 		runFromUp[2] = Direction.Left;
-		runDirections.put(Direction.Up, runFromUp);
+		runDirections[Direction.Up.ordinal()] = runFromUp;
 		
 		Direction[] runFromDown = new Direction[3];
 		runFromDown[0] = Direction.Up;
 		runFromDown[1] = Direction.Left;
 		runFromDown[2] = Direction.Right;
-		runDirections.put(Direction.Down, runFromDown);
+		runDirections[Direction.Down.ordinal()] = runFromDown;
 	}
 	
 	@Override
 	public void calcNextMove(List<Agent> agents, GameState state) {
 		
-		for (Agent agent : agents) {
+		// Index the list rather than iterate it, so no Iterator is created.
+		int numAgents = agents.size();
+		for (int i = 0; i < numAgents; ++i) {
+			Agent agent = agents.get(i);
 			if (agent instanceof Predator) {
 				calcNextMovePredator(agent, state);
 			} else if (agent instanceof Prey) {
@@ -88,12 +93,17 @@ public class AILogicSimple extends AILogicBase {
 	private void calcNextMovePredator(Agent agent, GameState state) {
 		
 		// Find the closest prey.
-		Path closestPreyPath = findClosestPreyPath(agent, state);
+		Prey closestPrey = findClosestPrey(agent, state);
+		if (closestPrey == null) {
+			return;
+		}
 		
-		// Use the closestPreyPath to get the direction in which to travel.
-		if (closestPreyPath.getLength() > 1) {
-			Direction dir = getDirection(closestPreyPath.getPoint(0), 
-										 closestPreyPath.getPoint(1));
+		// Use the first step towards the closest prey as the direction in 
+		// which to travel.
+		PointXY predatorPos = agent.getPosition();
+		PointXY preyPos = closestPrey.getPosition();
+		Direction dir = getPathFinder().getFirstDirection(predatorPos, preyPos);
+		if (dir != Direction.None) {
 			agent.setNextMoveDirection(dir);
 		}
 	}
@@ -101,91 +111,110 @@ public class AILogicSimple extends AILogicBase {
 	private void calcNextMovePrey(Agent agent, GameState state) {
 		
 		// Find the closest Predator.
-		Path closestPredatorPath = findClosestPredatorPath(agent, state);
-		
-		// Find the closest Pill.
-		Path closestPillPath = findClosestPillPath(agent, state);
+		Predator closestPredator = findClosestPredator(agent, state);
 		
 		// Is the predator too close? If so, run away! If not, head for a pill.
-		int closestPredatorDist = closestPredatorPath.getLength();
-		if (closestPredatorDist > 0 &&  
-			closestPredatorDist <= runFromPredDist) {
-			
-			setNextMoveAvoidPredator(agent, closestPredatorPath, 
-					state.getMaze());
-			
-		} else {
-			// Use the closestPillPath to get the direction in which to travel.
-			if (closestPillPath.getLength() > 1) {
-				Direction dir = getDirection(closestPillPath.getPoint(0), 
-											 closestPillPath.getPoint(1));
-				agent.setNextMoveDirection(dir);
+		// (The run from distance counts the points on the path, including the
+		// prey's own position, so it is one more than the number of steps.)
+		if (closestPredator != null) {
+			PointXY predatorPos = closestPredator.getPosition();
+			int closestPredatorDist = getDistanceFields().getField(agent)
+					.getDistance(predatorPos);
+			if (closestPredatorDist != PathFinder.NO_PATH &&  
+				closestPredatorDist < runFromPredDist) {
+				
+				setNextMoveAvoidPredator(agent, predatorPos, state.getMaze());
+				return;
 			}
 		}
 		
+		// Find the first step towards the closest Pill, and use it to get the 
+		// direction in which to travel.
+		PointXY nextPos = findStepToClosestPill(agent, state);
+		if (nextPos != null) {
+			Direction dir = getDirection(agent.getPosition(), nextPos);
+			agent.setNextMoveDirection(dir);
+		}
+		
 	}
 	
-	private Path findClosestPreyPath(Agent agent, GameState state) {
-		PointXY predatorPos = agent.getPosition();
+	private Prey findClosestPrey(Agent agent, GameState state) {
+		DistanceField field = getDistanceFields().getField(agent);
+		if (field == null) {
+			return null;
+		}
 		List<Prey> prey = state.getPrey();
 		
 		// Find the closest Prey.
-		Path closestPreyPath = null;
-		int closestPreyPathLength = Integer.MAX_VALUE;
-		for (Prey p : prey) {
-			PointXY preyPos = p.getPosition();
-			Path path = getPathFinder().getPath(predatorPos, preyPos);
-			if (path.getLength() < closestPreyPathLength) {
-				closestPreyPathLength = path.getLength();
-				closestPreyPath = path;
+		Prey closestPrey = null;
+		int closestPreyDist = Integer.MAX_VALUE;
+		int numPrey = prey.size();
+		for (int i = 0; i < numPrey; ++i) {
+			Prey p = prey.get(i);
+			int dist = field.getDistance(p.getPosition());
+			if (dist != PathFinder.NO_PATH && dist < closestPreyDist) {
+				closestPreyDist = dist;
+				closestPrey = p;
 			}
 		}
 		
-		return closestPreyPath;
+		return closestPrey;
 	}
 	
-	private Path findClosestPredatorPath(Agent agent, GameState state) {
+	private Predator findClosestPredator(Agent agent, GameState state) {
 		
-		PointXY preyPos = agent.getPosition();
+		DistanceField field = getDistanceFields().getField(agent);
+		if (field == null) {
+			return null;
+		}
 		List<Predator> predators = state.getPredators();
 		
 		// Find the closest Predator.
-		Path closestPredPath = null;
-		int closestPredPathLength = Integer.MAX_VALUE;
-		for (Predator p : predators) {
-			PointXY predatorPos = p.getPosition();
-			Path path = getPathFinder().getPath(preyPos, predatorPos);
-			if (path.getLength() < closestPredPathLength) {
-				closestPredPathLength = path.getLength();
-				closestPredPath = path;
+		Predator closestPred = null;
+		int closestPredDist = Integer.MAX_VALUE;
+		int numPredators = predators.size();
+		for (int i = 0; i < numPredators; ++i) {
+			Predator p = predators.get(i);
+			int dist = field.getDistance(p.getPosition());
+			if (dist != PathFinder.NO_PATH && dist < closestPredDist) {
+				closestPredDist = dist;
+				closestPred = p;
 			}
 		}
 		
-		return closestPredPath;
+		return closestPred;
 	}
 
-	private Path findClosestPillPath(Agent agent, GameState state) {
-		PointXY preyPos = agent.getPosition();
-		return getPathFinder().getPath(preyPos, state.getPills());
+	private PointXY findStepToClosestPill(Agent agent, GameState state) {
+		PillStore pills = state.getPillStore();
+		NodeIndex nodeIndex = pills.getNodeIndex();
+		int node = nodeIndex.getIndex(agent.getPosition());
+		if (node == NodeIndex.NO_NODE) {
+			return null;
+		}
+		int next = pills.getFirstStepToNearestPill(node);
+		if (next == NodeIndex.NO_NODE) {
+			return null;
+		}
+		return nodeIndex.getPoint(next);
 	}
 	
-	private void setNextMoveAvoidPredator(Agent agent, Path closestPredatorPath,
+	private void setNextMoveAvoidPredator(Agent agent, PointXY predatorPos,
 			Maze maze) {
 		
-		// If the Predator is in our square or the path is empty, we are 
-		// essentially caught so just continue what we were doing for the last
-		// few moments.
-		if (closestPredatorPath.getLength() <= 1) {
+		// If the Predator is in our square, we are essentially caught so just 
+		// continue what we were doing for the last few moments.
+		PointXY pos = agent.getPosition();
+		if (pos.equals(predatorPos)) {
 			return;
 		}
 		
-		// Use the first couple of points on the path to work out from which 
+		// Use the first step towards the Predator to work out from which 
 		// direction the Predator is coming.
-		PointXY pos1 = closestPredatorPath.getPoint(0);
-		PointXY pos2 = closestPredatorPath.getPoint(1);
-		Direction runFromDir = getDirection(pos1, pos2);
+		Direction runFromDir = 
+				getPathFinder().getFirstDirection(pos, predatorPos);
 		
-		Direction dir = getPreferredMoveDirection(pos1, runFromDir, maze);
+		Direction dir = getPreferredMoveDirection(pos, runFromDir, maze);
 		agent.setNextMoveDirection(dir);
 	}
 	
@@ -196,17 +225,15 @@ public class AILogicSimple extends AILogicBase {
 			return Direction.None;
 		}
 		
-		Direction[] runDirs = runDirections.get(runFromDir);
-		PointXY first = getPointFromDirection(pos, runDirs[0]);
-		PointXY second = getPointFromDirection(pos, runDirs[1]);
-		PointXY third = getPointFromDirection(pos, runDirs[2]);
+		// Probe the maze by direction, so no neighbouring points are created.
+		Direction[] runDirs = runDirections[runFromDir.ordinal()];
 
 		Direction dir;
-		if (maze.areNeighbours(pos, first)) {
+		if (maze.isPath(pos, runDirs[0])) {
 			dir = runDirs[0];
-		} else if (maze.areNeighbours(pos, second)) {
+		} else if (maze.isPath(pos, runDirs[1])) {
 			dir = runDirs[1];
-		} else if (maze.areNeighbours(pos, third)) {
+		} else if (maze.isPath(pos, runDirs[2])) {
 			dir = runDirs[2];
 		} else {
 			// We'll try this, to avoid getting stuck, even if it means getting
@@ -216,37 +243,6 @@ public class AILogicSimple extends AILogicBase {
 		return dir;
 	}
 	
-	private PointXY getPointFromDirection(PointXY point, Direction dir) {
-		
-		PointXY newPoint;
-		
-		switch (dir) {
-			case Down: {
-				newPoint = new PointXY(point.getX(), point.getY() - 1);
-				break;
-			}
-			case Left: {
-				newPoint = new PointXY(point.getX() - 1, point.getY());
-				break;
-			}
-			case Right: {
-				newPoint = new PointXY(point.getX() + 1, point.getY());
-				break;
-			}
-			case Up: {
-				newPoint = new PointXY(point.getX(), point.getY() + 1);
-				break;
-			}
-			case None:
-			default: {
-				newPoint = point;
-				break;
-			}
-		}
-		
-		return newPoint;
-	}
-	
 	private Direction getDirection(PointXY start, PointXY end) {
 		
 		Direction dir = Direction.None;
@@ -0,0 +1,195 @@
+package ai;
+
+import geometry.PointXY;
+
+import java.util.List;
+
+import logic.Agent;
+import logic.GameState;
+import logic.Predator;
+import logic.Prey;
+import progress.ProgressTask;
+
+/**
+ * AIScheduler class.
+ *
+ * Wraps an AILogic so that the agents' moves are only worked out again when
+ * something the decision depends on has changed. Otherwise the agents keep the
+ * moves they were last given. The moves are re-planned when:
+ *
+ * - any agent (player or not) moves to a different cell. This covers a
+ *   non-player reaching its next cell (and so any junction), and the agents
+ *   it's chasing or running from moving.
+ * - a pill is eaten, or a power up is collected.
+ * - an agent's activated power ups change.
+ * - an agent is added or removed, or the game state is replaced.
+ *
+ * A move can only change direction at a cell centre (or reverse), and the AI
+ * logics decide from the agents' cells and the pills. So this only matches
+ * running the logic every frame if the logic gives each agent its move in the
+ * call where something changed. A logic mustn't leave an agent without a
+ * move and rely on being called again next frame: that call won't come until
+ * something else changes. (When a prey in AILogicPartition reaches its
+ * target, it picks the next one in the same call for this reason.) Random
+ * choices are made once per change rather than every frame, so a logic which
+ * uses them (e.g. AILogicRandom, or AILogicPartition's random targets) won't
+ * make the same moves as it would every frame, although the moves are just
+ * as likely.
+ *
+ * The whole list of agents is re-planned together, as some logics work from
+ * all of them at once (e.g. AILogicPartition partitions the maze between the
+ * prey it is given).
+ *
+ * @author agent
+ * @version 2026-10-17
+ */
+public class AIScheduler implements AILogic {
+
+	private final AILogic logic;
+	private boolean enabled;
+
+	// What the moves were last worked out from
+	private GameState lastState;
+	private int lastAgentsVersion;
+	private int lastNumAgents;
+	private int lastNumPills;
+	private int lastNumPowerUps;
+
+	// The cell and number of activated power ups of every agent in the game
+	// state (predators then prey) when the moves were last worked out
+	private PointXY[] lastPositions;
+	private int[] lastActivated;
+
+	private long numPlans;
+	private long numSkips;
+
+	/**
+	 * Constructor for AIScheduler.
+	 *
+	 * @param logic - the AILogic to run when the moves need working out.
+	 */
+	public AIScheduler(AILogic logic) {
+		this.logic = logic;
+		this.enabled = true;
+		this.lastState = null;
+		this.lastPositions = new PointXY[0];
+		this.lastActivated = new int[0];
+		this.numPlans = 0;
+		this.numSkips = 0;
+	}
+
+	/**
+	 * Get the AILogic being scheduled.
+	 *
+	 * @return the AILogic.
+	 */
+	public AILogic getLogic() {
+		return logic;
+	}
+
+	/**
+	 * Set whether scheduling is enabled. If it isn't, the AILogic is run
+	 * every time.
+	 *
+	 * @param enabled - whether to only re-plan when something has changed.
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Force the moves to be worked out the next time, e.g. if a move has been
+	 * set from outside the AI.
+	 */
+	public void invalidate() {
+		lastState = null;
+	}
+
+	@Override
+	public void calcNextMove(List<Agent> agents, GameState state) {
+
+		boolean changed = recordChanges(agents, state);
+		if (changed || !enabled) {
+			logic.calcNextMove(agents, state);
+			++numPlans;
+		} else {
+			++numSkips;
+		}
+	}
+
+	/**
+	 * Get the number of times the AILogic has been run.
+	 *
+	 * @return the number of times the moves were worked out.
+	 */
+	public long getNumPlans() {
+		return numPlans;
+	}
+
+	/**
+	 * Get the number of times the AILogic didn't need to be run, as nothing
+	 * had changed.
+	 *
+	 * @return the number of times the previous moves were kept.
+	 */
+	public long getNumSkips() {
+		return numSkips;
+	}
+
+	@Override
+	public List<ProgressTask> getProgressTasks() {
+		return logic.getProgressTasks();
+	}
+
+	/**
+	 * Compare the game state with what the moves were last worked out from,
+	 * and record the current state.
+	 *
+	 * @return true if anything has changed, false otherwise.
+	 */
+	private boolean recordChanges(List<Agent> agents, GameState state) {
+
+		boolean changed = false;
+
+		int numPills = state.getPills().size();
+		int numPowerUps = state.getPredatorPowerUps().size() +
+				state.getPreyPowerUps().size();
+		if (state != lastState ||
+			state.getAgentsVersion() != lastAgentsVersion ||
+			agents.size() != lastNumAgents ||
+			numPills != lastNumPills ||
+			numPowerUps != lastNumPowerUps) {
+			changed = true;
+		}
+		lastState = state;
+		lastAgentsVersion = state.getAgentsVersion();
+		lastNumAgents = agents.size();
+		lastNumPills = numPills;
+		lastNumPowerUps = numPowerUps;
+
+		List<Predator> predators = state.getPredators();
+		List<Prey> prey = state.getPrey();
+		int numPredators = predators.size();
+		int total = numPredators + prey.size();
+		if (lastPositions.length != total) {
+			lastPositions = new PointXY[total];
+			lastActivated = new int[total];
+			changed = true;
+		}
+
+		for (int i = 0; i < total; ++i) {
+			Agent agent = (i < numPredators) ? predators.get(i) :
+					prey.get(i - numPredators);
+			PointXY pos = agent.getPosition();
+			int activated = agent.getActivatedPowerUps().size();
+			if (!pos.equals(lastPositions[i]) || activated != lastActivated[i]) {
+				changed = true;
+			}
+			lastPositions[i] = pos;
+			lastActivated[i] = activated;
+		}
+
+		return changed;
+	}
+
+}
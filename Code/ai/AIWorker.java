@@ -0,0 +1,445 @@
+package ai;
+
+import geometry.PointXY;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import logic.Agent;
+import logic.Direction;
+import logic.GameState;
+import logic.Maze;
+import logic.Predator;
+import logic.Prey;
+import logic.powerup.PowerUp;
+
+/**
+ * AIWorker class.
+ *
+ * Runs an AILogic on its own thread, so that working out the non-player moves
+ * doesn't hold up rendering or the physics simulation.
+ *
+ * After every physics step, the physics thread publishes a GameSnapshot of the
+ * game. The worker picks up the latest snapshot (any it didn't get to in time
+ * are skipped), copies it into a GameState of its own, and runs the AILogic
+ * (through an AIScheduler, so nothing is worked out again unless something
+ * has changed). The moves are then published as a single immutable set of
+ * decisions, which the physics thread applies to the real agents before each
+ * step. Both hand overs are a single atomic reference, so neither thread ever
+ * waits for the other.
+ *
+ * As the AI works from its own copy of the game state, anything the AILogic
+ * stores in the game state for debugging (e.g. the partition drawn by
+ * AILogicPartition) isn't seen by the renderer in this mode.
+ *
+ * A decision is stale if, by the time it is applied, the agent is no longer
+ * in the cell the decision was made for (i.e. the AI has fallen behind the
+ * game). The number of stale decisions applied is counted.
+ *
+ * @author agent
+ * @version 2026-10-17
+ */
+public class AIWorker {
+
+	private final Maze maze;
+	private final AIScheduler scheduler;
+
+	private final AtomicReference<GameSnapshot> pending;
+	private final AtomicReference<Decisions> decisions;
+	private final AtomicLong numStaleDecisions;
+
+	private volatile boolean running;
+	private Thread thread;
+
+	// Physics thread only: the last snapshot published
+	private GameSnapshot published;
+	private long numSteps;
+
+	// Worker thread only: the AI's copy of the game state
+	private GameState mirror;
+	private GameSnapshot mirrored;
+	private int nonPlayersVersion;
+	private final List<Agent> nonPlayers;
+
+	/**
+	 * Constructor for AIWorker. The worker does nothing until it is started.
+	 *
+	 * @param logic - the AILogic to run. It must not be used by anything else
+	 * while the worker is running.
+	 * @param maze - the maze the game is played in.
+	 */
+	public AIWorker(AILogic logic, Maze maze) {
+		this.maze = maze;
+		this.scheduler = new AIScheduler(logic);
+		this.pending = new AtomicReference<GameSnapshot>();
+		this.decisions = new AtomicReference<Decisions>();
+		this.numStaleDecisions = new AtomicLong();
+		this.running = false;
+		this.thread = null;
+		this.published = null;
+		this.numSteps = 0;
+		this.mirror = null;
+		this.mirrored = null;
+		this.nonPlayers = new ArrayList<Agent>();
+	}
+
+	/**
+	 * Start the worker thread.
+	 */
+	public void start() {
+
+		if (thread != null) {
+			throw new IllegalStateException("AIWorker already started.");
+		}
+
+		running = true;
+		thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				work();
+			}
+		}, "AIWorker");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stop the worker thread, and wait for it to finish the moves it is
+	 * working out. Once this returns, the AILogic is no longer in use and can
+	 * be handed to another worker.
+	 */
+	public void stop() {
+		running = false;
+		if (thread == null || thread == Thread.currentThread()) {
+			return;
+		}
+
+		LockSupport.unpark(thread);
+		boolean interrupted = false;
+		while (thread.isAlive()) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Get the scheduler the AILogic is run through (only read it from the
+	 * worker thread, or once the worker has stopped).
+	 *
+	 * @return the scheduler.
+	 */
+	public AIScheduler getScheduler() {
+		return scheduler;
+	}
+
+	/**
+	 * Publish the state of the game after a physics step. Called by the
+	 * physics thread; never blocks. If nothing the AI works from has changed
+	 * since the last step, no new snapshot is taken.
+	 *
+	 * @param state - the game state.
+	 */
+	public void publish(GameState state) {
+
+		++numSteps;
+		if (published != null && published.matches(state)) {
+			return;
+		}
+
+		published = GameSnapshot.capture(state, numSteps, published);
+		pending.set(published);
+		if (thread != null) {
+			LockSupport.unpark(thread);
+		}
+	}
+
+	/**
+	 * Set the next move of the given agent to the latest decision made for
+	 * it. Called by the physics thread before each step; never blocks.
+	 *
+	 * @param agent - the (non-player) agent to move.
+	 * @return true if a decision was applied, false if there isn't one for the
+	 * agent yet.
+	 */
+	public boolean applyMove(Agent agent) {
+
+		Decisions latest = decisions.get();
+		if (latest == null || agent.isPlayer()) {
+			return false;
+		}
+
+		int i = latest.indexOf(agent.getID());
+		if (i < 0) {
+			return false;
+		}
+
+		agent.setNextMoveDirection(latest.directions[i]);
+		if (!agent.getPosition().equals(latest.positions[i])) {
+			numStaleDecisions.incrementAndGet();
+		}
+		return true;
+	}
+
+	/**
+	 * Get the number of decisions applied after their agent had already moved
+	 * on from the cell they were made for.
+	 *
+	 * @return the number of stale decisions.
+	 */
+	public long getNumStaleDecisions() {
+		return numStaleDecisions.get();
+	}
+
+	/**
+	 * Get how many physics steps behind the game the latest decisions are.
+	 * Called by the physics thread.
+	 *
+	 * @return the number of steps since the snapshot the latest decisions
+	 * were worked out from, or -1 if there aren't any decisions yet.
+	 */
+	public long getDecisionLag() {
+		Decisions latest = decisions.get();
+		if (latest == null) {
+			return -1;
+		}
+		return numSteps - latest.step;
+	}
+
+	/**
+	 * The worker thread: work out the moves for each new snapshot, and wait
+	 * when there isn't one.
+	 */
+	private void work() {
+
+		while (running) {
+			GameSnapshot snapshot = pending.getAndSet(null);
+			if (snapshot == null) {
+				LockSupport.park(this);
+				continue;
+			}
+
+			try {
+				plan(snapshot);
+			} catch (RuntimeException e) {
+				System.err.println("AIWorker: could not work out the moves "
+						+ "for step " + snapshot.getStep() + ": " + e);
+			}
+		}
+	}
+
+	/**
+	 * Work out the moves from the given snapshot, and publish them if they
+	 * were worked out again.
+	 */
+	private void plan(GameSnapshot snapshot) {
+
+		updateMirror(snapshot);
+
+		if (mirror.getAgentsVersion() != nonPlayersVersion ||
+			nonPlayers.isEmpty()) {
+			nonPlayers.clear();
+			for (Agent agent : mirror.getAgents()) {
+				if (!agent.isPlayer()) {
+					nonPlayers.add(agent);
+				}
+			}
+			nonPlayersVersion = mirror.getAgentsVersion();
+		}
+
+		long numPlans = scheduler.getNumPlans();
+		scheduler.calcNextMove(nonPlayers, mirror);
+		if (scheduler.getNumPlans() == numPlans && decisions.get() != null) {
+			// Nothing changed, so the previous decisions still stand
+			return;
+		}
+
+		int numAgents = nonPlayers.size();
+		int[] ids = new int[numAgents];
+		Direction[] directions = new Direction[numAgents];
+		PointXY[] positions = new PointXY[numAgents];
+		for (int i = 0; i < numAgents; ++i) {
+			Agent agent = nonPlayers.get(i);
+			ids[i] = agent.getID();
+			directions[i] = agent.getNextMove().getDirection();
+			positions[i] = agent.getPosition();
+		}
+		decisions.set(new Decisions(snapshot.getStep(), ids, directions,
+				positions));
+	}
+
+	/**
+	 * Bring the worker's copy of the game state up to date with the snapshot.
+	 * The copy is kept for the whole game (rather than rebuilt from each
+	 * snapshot), so that the AILogic's per-game state (e.g. its pill
+	 * listeners) carries on working. Pills are removed through the game state
+	 * so that those listeners are told.
+	 */
+	private void updateMirror(GameSnapshot snapshot) {
+
+		int numAgents = snapshot.getNumAgents();
+
+		if (mirror == null) {
+			List<Predator> predators = new ArrayList<Predator>();
+			List<Prey> prey = new ArrayList<Prey>();
+			for (int i = 0; i < numAgents; ++i) {
+				if (snapshot.isPredator(i)) {
+					predators.add(new Predator(snapshot.getID(i),
+							snapshot.isPlayer(i), snapshot.getPosition(i), 0, 0));
+				} else {
+					prey.add(new Prey(snapshot.getID(i), snapshot.isPlayer(i),
+							snapshot.getPosition(i), 0, 0));
+				}
+			}
+			mirror = new GameState(maze, predators, prey,
+					new HashSet<PointXY>(snapshot.getPills()),
+					copyPowerUps(snapshot.getPredatorPowerUps()),
+					copyPowerUps(snapshot.getPreyPowerUps()), 0);
+			mirrored = snapshot;
+			return;
+		}
+
+		// Remove any agents which have gone, then add or move the rest.
+		if (mirrored.getNumAgents() != numAgents ||
+			!sameAgents(mirrored, snapshot)) {
+			removeMissingAgents(snapshot);
+		}
+		for (int i = 0; i < numAgents; ++i) {
+			int id = snapshot.getID(i);
+			Agent agent = mirror.getAgent(id);
+			if (agent != null) {
+				agent.setPosition(snapshot.getPosition(i));
+			} else if (snapshot.isPredator(i)) {
+				mirror.addPredator(new Predator(id, snapshot.isPlayer(i),
+						snapshot.getPosition(i), 0, 0));
+			} else {
+				mirror.addPrey(new Prey(id, snapshot.isPlayer(i),
+						snapshot.getPosition(i), 0, 0));
+			}
+		}
+
+		if (snapshot.getPills() != mirrored.getPills()) {
+			for (PointXY pos : findRemoved(mirror.getPills(),
+					snapshot.getPills())) {
+				mirror.removePill(pos);
+			}
+		}
+		if (snapshot.getPredatorPowerUps() != mirrored.getPredatorPowerUps()) {
+			for (PointXY pos : findRemoved(
+					mirror.getPredatorPowerUps().keySet(),
+					snapshot.getPredatorPowerUps())) {
+				mirror.removePredatorPowerUp(pos);
+			}
+		}
+		if (snapshot.getPreyPowerUps() != mirrored.getPreyPowerUps()) {
+			for (PointXY pos : findRemoved(mirror.getPreyPowerUps().keySet(),
+					snapshot.getPreyPowerUps())) {
+				mirror.removePreyPowerUp(pos);
+			}
+		}
+
+		mirrored = snapshot;
+	}
+
+	private boolean sameAgents(GameSnapshot a, GameSnapshot b) {
+		for (int i = 0; i < a.getNumAgents(); ++i) {
+			if (a.getID(i) != b.getID(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void removeMissingAgents(GameSnapshot snapshot) {
+
+		Set<Integer> ids = new HashSet<Integer>();
+		for (int i = 0; i < snapshot.getNumAgents(); ++i) {
+			ids.add(snapshot.getID(i));
+		}
+
+		for (Agent agent : mirror.getAgents()) {
+			int id = agent.getID();
+			if (ids.contains(id)) {
+				continue;
+			}
+			if (agent instanceof Predator) {
+				mirror.removePredator(id);
+			} else {
+				mirror.removePrey(id);
+			}
+		}
+	}
+
+	/**
+	 * Find the positions in the worker's copy which are no longer in the
+	 * snapshot.
+	 */
+	private List<PointXY> findRemoved(Set<PointXY> mine,
+			Set<PointXY> snapshot) {
+
+		List<PointXY> removed = new ArrayList<PointXY>();
+		for (PointXY pos : mine) {
+			if (!snapshot.contains(pos)) {
+				removed.add(pos);
+			}
+		}
+		return removed;
+	}
+
+	/**
+	 * Copy the power up positions. The AI only needs to know where the power
+	 * ups are, so the PowerUps themselves (which belong to the physics
+	 * thread) aren't copied.
+	 */
+	private Map<PointXY, PowerUp> copyPowerUps(Set<PointXY> positions) {
+
+		Map<PointXY, PowerUp> powerUps = new HashMap<PointXY, PowerUp>();
+		for (PointXY pos : positions) {
+			powerUps.put(pos, null);
+		}
+		return powerUps;
+	}
+
+	/**
+	 * The moves worked out from one snapshot.
+	 */
+	private static final class Decisions {
+
+		private final long step;
+		private final int[] ids;
+		private final Direction[] directions;
+
+		// The cell each agent was in when its move was worked out
+		private final PointXY[] positions;
+
+		private Decisions(long step, int[] ids, Direction[] directions,
+				PointXY[] positions) {
+			this.step = step;
+			this.ids = ids;
+			this.directions = directions;
+			this.positions = positions;
+		}
+
+		private int indexOf(int id) {
+			for (int i = 0; i < ids.length; ++i) {
+				if (ids[i] == id) {
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
+
+}
@@ -0,0 +1,260 @@
+package ai;
+
+import geometry.PointXY;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import logic.Direction;
+import logic.Maze;
+import logic.MazeCache;
+import pathfinding.NodeIndex;
+import pathfinding.PathFinder;
+
+/**
+ * CellDirectionIndex class.
+ *
+ * For each node of a maze, splits every other reachable node by the direction
+ * of the first step along the shortest path to it. This depends only on the
+ * maze (and the PathFinder's choice between equally short paths), so it can
+ * be worked out once per node rather than looking up a path to every node of
+ * the maze on every frame.
+ *
+ * The partition of a node is built the first time it's asked for, from the
+ * PathFinder's distances and first directions, and kept from then on. A
+ * partition only keeps the lists of nodes in each direction (2 bytes per
+ * node); the direction of, and distance to, a single node are read from the
+ * PathFinder, which already stores them. Like CompactPathStore, it is
+ * thread-safe: each partition is published in one step once it is complete.
+ *
+ * Directions are indexed by Direction.ordinal(). Direction.None never has any
+ * nodes, as the node itself and unreachable nodes aren't in any direction.
+ *
+ * @author agent
+ * @version 2026-10-17
+ */
+public final class CellDirectionIndex {
+
+	// The number of directions (including Direction.None)
+	public static final int NUM_DIRECTIONS = Direction.values().length;
+
+	// The direction ordinal stored for nodes which aren't in any direction
+	public static final int NO_DIRECTION = -1;
+
+	// The most nodes a maze can have (so that every node index fits in a char)
+	public static final int MAX_NODES = Character.MAX_VALUE + 1;
+
+	// Indexes for the PathFinders of the most recently used mazes
+	private static final Map<PathFinder, CellDirectionIndex> indexes =
+			new LinkedHashMap<PathFinder, CellDirectionIndex>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(
+				Map.Entry<PathFinder, CellDirectionIndex> eldest) {
+			return size() > MazeCache.MAX_MAZES;
+		}
+	};
+
+	private final PathFinder pathFinder;
+	private final NodeIndex nodeIndex;
+	private final AtomicReferenceArray<Partition> partitions;
+
+	/**
+	 * Constructor for CellDirectionIndex.
+	 *
+	 * @param pathFinder - the PathFinder giving the distances and first
+	 * directions (all its paths should be stored, or every partition built
+	 * will search for them).
+	 * @param maze - the maze searched by the PathFinder.
+	 */
+	public CellDirectionIndex(PathFinder pathFinder, Maze maze) {
+		this.pathFinder = pathFinder;
+		this.nodeIndex = new NodeIndex(maze);
+		if (nodeIndex.size() > MAX_NODES) {
+			throw new IllegalArgumentException("Maze has too many nodes: " +
+					nodeIndex.size() + " (at most " + MAX_NODES + ").");
+		}
+		this.partitions = new AtomicReferenceArray<Partition>(nodeIndex.size());
+	}
+
+	/**
+	 * Get the index for the given PathFinder, shared with anything else using
+	 * the same PathFinder (e.g. the AIs of every game on a seeded maze).
+	 *
+	 * @param pathFinder - the PathFinder giving the distances and first
+	 * directions.
+	 * @param maze - the maze searched by the PathFinder.
+	 * @return the index.
+	 */
+	public static CellDirectionIndex get(PathFinder pathFinder, Maze maze) {
+
+		synchronized (indexes) {
+			CellDirectionIndex index = indexes.get(pathFinder);
+			if (index == null) {
+				index = new CellDirectionIndex(pathFinder, maze);
+				indexes.put(pathFinder, index);
+			}
+			return index;
+		}
+	}
+
+	/**
+	 * Get the PathFinder the index was built from.
+	 *
+	 * @return the PathFinder.
+	 */
+	public PathFinder getPathFinder() {
+		return pathFinder;
+	}
+
+	/**
+	 * Get the node index of the maze.
+	 *
+	 * @return the node index.
+	 */
+	public NodeIndex getNodeIndex() {
+		return nodeIndex;
+	}
+
+	/**
+	 * Get the partition of the maze as seen from the given node.
+	 *
+	 * @param node - the index of the node.
+	 * @return the partition for the node.
+	 */
+	public Partition getPartition(int node) {
+
+		Partition partition = partitions.get(node);
+		if (partition != null) {
+			return partition;
+		}
+
+		partition = buildPartition(node);
+		if (partitions.compareAndSet(node, null, partition)) {
+			return partition;
+		}
+		return partitions.get(node);
+	}
+
+	private Partition buildPartition(int node) {
+
+		int size = nodeIndex.size();
+		PointXY pos = nodeIndex.getPoint(node);
+
+		// Work out each node's direction, then group the nodes by direction,
+		// keeping them in index order. The directions are only kept while the
+		// partition is built.
+		byte[] directions = new byte[size];
+		int[] counts = new int[NUM_DIRECTIONS];
+		for (int target = 0; target < size; ++target) {
+			int dir = direction(pos, target);
+			directions[target] = (byte) dir;
+			if (dir != NO_DIRECTION) {
+				++counts[dir];
+			}
+		}
+
+		int[] starts = new int[NUM_DIRECTIONS + 1];
+		for (int dir = 0; dir < NUM_DIRECTIONS; ++dir) {
+			starts[dir + 1] = starts[dir] + counts[dir];
+		}
+		char[] nodes = new char[starts[NUM_DIRECTIONS]];
+		int[] next = new int[NUM_DIRECTIONS];
+		System.arraycopy(starts, 0, next, 0, NUM_DIRECTIONS);
+		for (int target = 0; target < size; ++target) {
+			int dir = directions[target];
+			if (dir != NO_DIRECTION) {
+				nodes[next[dir]++] = (char) target;
+			}
+		}
+
+		return new Partition(this, pos, starts, nodes);
+	}
+
+	/**
+	 * Get the direction ordinal of the first step from the given position to
+	 * the given node, or NO_DIRECTION if it's the same node or can't be
+	 * reached.
+	 */
+	private int direction(PointXY pos, int target) {
+		PointXY targetPos = nodeIndex.getPoint(target);
+		if (pathFinder.getDistance(pos, targetPos) < 1) {
+			return NO_DIRECTION;
+		}
+		Direction dir = pathFinder.getFirstDirection(pos, targetPos);
+		return (dir == Direction.None) ? NO_DIRECTION : dir.ordinal();
+	}
+
+	/**
+	 * The nodes of the maze, split by the direction of the first step towards
+	 * them from one node.
+	 */
+	public static final class Partition {
+
+		private final CellDirectionIndex index;
+		private final PointXY pos;
+
+		// The nodes in each direction are nodes[starts[dir]] to
+		// nodes[starts[dir + 1] - 1]
+		private final int[] starts;
+		private final char[] nodes;
+
+		private Partition(CellDirectionIndex index, PointXY pos, int[] starts,
+				char[] nodes) {
+			this.index = index;
+			this.pos = pos;
+			this.starts = starts;
+			this.nodes = nodes;
+		}
+
+		/**
+		 * Get the number of nodes in the given direction.
+		 *
+		 * @param dir - the direction ordinal.
+		 * @return the number of nodes whose shortest path starts in that
+		 * direction.
+		 */
+		public int getNodeCount(int dir) {
+			return starts[dir + 1] - starts[dir];
+		}
+
+		/**
+		 * Get a node in the given direction.
+		 *
+		 * @param dir - the direction ordinal.
+		 * @param i - which node (0 to getNodeCount(dir) - 1).
+		 * @return the index of the node.
+		 */
+		public int getNode(int dir, int i) {
+			return nodes[starts[dir] + i];
+		}
+
+		/**
+		 * Get the direction of the first step towards the given node, from
+		 * the PathFinder.
+		 *
+		 * @param target - the index of the node.
+		 * @return the direction ordinal, or NO_DIRECTION if the node is the
+		 * partition's own node or can't be reached.
+		 */
+		public int getDirection(int target) {
+			return index.direction(pos, target);
+		}
+
+		/**
+		 * Get the distance to the given node, from the PathFinder.
+		 *
+		 * @param target - the index of the node.
+		 * @return the number of steps to the node (undefined if getDirection()
+		 * is NO_DIRECTION).
+		 */
+		public int getDistance(int target) {
+			return index.pathFinder.getDistance(pos,
+					index.nodeIndex.getPoint(target));
+		}
+	}
+
+}
@@ -0,0 +1,183 @@
+package ai;
+
+import geometry.PointXY;
+
+import java.util.Arrays;
+
+import pathfinding.NodeIndex;
+import pathfinding.PathFinder;
+
+/**
+ * DistanceField class.
+ *
+ * The distance from one node of a maze to every other node, found with a
+ * single Breadth-First Search. Along with the distances, the search tree is
+ * kept (the node each node was reached from, and the order the nodes were
+ * reached in), so a shortest path from the source to any node can be followed
+ * back without searching again.
+ *
+ * Neighbours are searched in NodeIndex slot order, as BFSPathFinder does. The
+ * arrays are allocated once, and refilled each time the field is rebuilt for a
+ * new source.
+ *
+ * @author agent
+ * @version 2026-10-17
+ */
+public final class DistanceField {
+
+	private final NodeIndex index;
+
+	// The source node (NO_NODE until the field is first built)
+	private int source;
+
+	// The distance to each node (PathFinder.NO_PATH if it can't be reached),
+	// and the node it was reached from (NO_NODE for the source)
+	private final int[] distances;
+	private final int[] parents;
+
+	// The reachable nodes, in the order the search reached them
+	private final int[] order;
+	private int numReached;
+
+	/**
+	 * Constructor for DistanceField. The field has no source until it is
+	 * built.
+	 *
+	 * @param index - the node index of the maze.
+	 */
+	public DistanceField(NodeIndex index) {
+		int size = index.size();
+		this.index = index;
+		this.source = NodeIndex.NO_NODE;
+		this.distances = new int[size];
+		this.parents = new int[size];
+		this.order = new int[size];
+		this.numReached = 0;
+	}
+
+	/**
+	 * Fill in the field for the given source node.
+	 *
+	 * @param source - the index of the source node.
+	 */
+	void build(int source) {
+
+		Arrays.fill(distances, PathFinder.NO_PATH);
+		this.source = source;
+
+		int head = 0;
+		int tail = 0;
+		distances[source] = 0;
+		parents[source] = NodeIndex.NO_NODE;
+		order[tail++] = source;
+
+		while (head < tail) {
+			int current = order[head++];
+			int dist = distances[current] + 1;
+
+			for (int slot = 0; slot < NodeIndex.NUM_SLOTS; ++slot) {
+				int neighbour = index.getNeighbour(current, slot);
+				if (neighbour == NodeIndex.NO_NODE ||
+					distances[neighbour] != PathFinder.NO_PATH) {
+					continue;
+				}
+				distances[neighbour] = dist;
+				parents[neighbour] = current;
+				order[tail++] = neighbour;
+			}
+		}
+
+		numReached = tail;
+	}
+
+	/**
+	 * Get the source node of the field.
+	 *
+	 * @return the index of the source node, or NO_NODE if the field hasn't
+	 * been built.
+	 */
+	public int getSource() {
+		return source;
+	}
+
+	/**
+	 * Get the distance from the source to the given node.
+	 *
+	 * @param node - the index of the node.
+	 * @return the number of steps, or PathFinder.NO_PATH if the node can't be
+	 * reached.
+	 */
+	public int getDistance(int node) {
+		return distances[node];
+	}
+
+	/**
+	 * Get the distance from the source to the given point.
+	 *
+	 * @param point - the point.
+	 * @return the number of steps, or PathFinder.NO_PATH if the point isn't a
+	 * node or can't be reached.
+	 */
+	public int getDistance(PointXY point) {
+		int node = index.getIndex(point);
+		if (node == NodeIndex.NO_NODE) {
+			return PathFinder.NO_PATH;
+		}
+		return distances[node];
+	}
+
+	/**
+	 * Get the node before the given node on the shortest path from the
+	 * source.
+	 *
+	 * @param node - the index of the node.
+	 * @return the index of the previous node, or NO_NODE for the source (and
+	 * for nodes that can't be reached).
+	 */
+	public int getParent(int node) {
+		return parents[node];
+	}
+
+	/**
+	 * Get the number of nodes that can be reached from the source (including
+	 * the source itself).
+	 *
+	 * @return the number of reachable nodes.
+	 */
+	public int getNumReached() {
+		return numReached;
+	}
+
+	/**
+	 * Get a reachable node, in the order the search reached them. Every node
+	 * comes after the node it was reached from, and the source is first.
+	 *
+	 * @param i - which node (0 to getNumReached() - 1).
+	 * @return the index of the node.
+	 */
+	public int getReached(int i) {
+		return order[i];
+	}
+
+	/**
+	 * Get the first step along the shortest path from the source to the given
+	 * node (following the search tree back from the node).
+	 *
+	 * @param target - the index of the node.
+	 * @return the index of the node to move to, or NO_NODE if the target is
+	 * the source or can't be reached.
+	 */
+	public int getFirstStep(int target) {
+
+		if (target == source || distances[target] == PathFinder.NO_PATH) {
+			return NodeIndex.NO_NODE;
+		}
+
+		int node = target;
+		while (parents[node] != source) {
+			node = parents[node];
+		}
+		return node;
+	}
+
+}
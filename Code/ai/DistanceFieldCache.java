@@ -0,0 +1,108 @@
+package ai;
+
+import logic.Agent;
+import logic.Maze;
+import pathfinding.NodeIndex;
+
+/**
+ * DistanceFieldCache class.
+ *
+ * Keeps a DistanceField for each agent, from the node the agent is on. A
+ * field is only rebuilt when its agent moves to a different node, so however
+ * many times an AI asks for the distances from an agent during a tick (or
+ * over the ticks the agent takes to cross a cell), the search is done once.
+ * Checks like "how close is the nearest predator" or "is this path too close
+ * to a predator" then become array reads rather than path look ups.
+ *
+ * The fields are indexed by agent ID, and each field's arrays are reused when
+ * it is rebuilt, so once every agent has a field the cache doesn't allocate.
+ * The cache isn't thread-safe: each AI keeps its own.
+ *
+ * @author agent
+ * @version 2026-10-17
+ */
+public final class DistanceFieldCache {
+
+	private final NodeIndex index;
+
+	// The field for each agent, by agent ID (null until first needed)
+	private DistanceField[] fields;
+
+	private long numBuilds;
+
+	/**
+	 * Constructor for DistanceFieldCache.
+	 *
+	 * @param maze - the maze the agents are in.
+	 */
+	public DistanceFieldCache(Maze maze) {
+		this(new NodeIndex(maze));
+	}
+
+	/**
+	 * Constructor for DistanceFieldCache, sharing an existing node index.
+	 *
+	 * @param index - the node index of the maze the agents are in.
+	 */
+	public DistanceFieldCache(NodeIndex index) {
+		this.index = index;
+		this.fields = new DistanceField[0];
+		this.numBuilds = 0;
+	}
+
+	/**
+	 * Get the node index of the maze.
+	 *
+	 * @return the node index.
+	 */
+	public NodeIndex getNodeIndex() {
+		return index;
+	}
+
+	/**
+	 * Get the distance field from the node the given agent is on, building it
+	 * if the agent has moved to a different node since it was last asked
+	 * for.
+	 *
+	 * @param agent - the agent.
+	 * @return the distance field, or null if the agent isn't on a node of the
+	 * maze.
+	 */
+	public DistanceField getField(Agent agent) {
+
+		int node = index.getIndex(agent.getPosition());
+		if (node == NodeIndex.NO_NODE) {
+			return null;
+		}
+
+		int id = agent.getID();
+		if (id >= fields.length) {
+			DistanceField[] grown = new DistanceField[Math.max(id + 1,
+					fields.length * 2)];
+			System.arraycopy(fields, 0, grown, 0, fields.length);
+			fields = grown;
+		}
+
+		DistanceField field = fields[id];
+		if (field == null) {
+			field = new DistanceField(index);
+			fields[id] = field;
+		}
+		if (field.getSource() != node) {
+			field.build(node);
+			++numBuilds;
+		}
+		return field;
+	}
+
+	/**
+	 * Get the number of times a field has been built, e.g. to check how well
+	 * the cache is doing.
+	 *
+	 * @return the number of fields built.
+	 */
+	public long getNumBuilds() {
+		return numBuilds;
+	}
+
+}
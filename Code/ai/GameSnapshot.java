@@ -0,0 +1,229 @@
+package ai;
+
+import geometry.PointXY;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import logic.Agent;
+import logic.GameState;
+import logic.Predator;
+import logic.Prey;
+
+/**
+ * GameSnapshot class.
+ *
+ * An immutable copy of the parts of a GameState the AI works from: where each
+ * agent is, the pills, and where the power ups are. A snapshot is taken by
+ * the physics thread after every step and handed to an AIWorker, which can
+ * then read it on its own thread while the game carries on changing.
+ *
+ * Pills and power ups are only ever removed, so a set is only copied when its
+ * size has changed since the previous snapshot. Otherwise the previous
+ * snapshot's (unmodifiable) set is shared.
+ *
+ * @author agent
+ * @version 2026-10-17
+ */
+public final class GameSnapshot {
+
+	private final long step;
+
+	// The agents, predators then prey
+	private final int numPredators;
+	private final int[] ids;
+	private final boolean[] isPlayer;
+	private final PointXY[] positions;
+
+	private final Set<PointXY> pills;
+	private final Set<PointXY> predatorPowerUps;
+	private final Set<PointXY> preyPowerUps;
+
+	private GameSnapshot(long step, int numPredators, int[] ids,
+			boolean[] isPlayer, PointXY[] positions, Set<PointXY> pills,
+			Set<PointXY> predatorPowerUps, Set<PointXY> preyPowerUps) {
+		this.step = step;
+		this.numPredators = numPredators;
+		this.ids = ids;
+		this.isPlayer = isPlayer;
+		this.positions = positions;
+		this.pills = pills;
+		this.predatorPowerUps = predatorPowerUps;
+		this.preyPowerUps = preyPowerUps;
+	}
+
+	/**
+	 * Take a snapshot of the given game state.
+	 *
+	 * @param state - the game state.
+	 * @param step - the number of the physics step the snapshot is taken
+	 * after.
+	 * @param previous - the previous snapshot of the same game (whose sets
+	 * are shared if they haven't changed), or null.
+	 * @return the snapshot.
+	 */
+	public static GameSnapshot capture(GameState state, long step,
+			GameSnapshot previous) {
+
+		List<Predator> predators = state.getPredators();
+		List<Prey> prey = state.getPrey();
+		int numPredators = predators.size();
+		int total = numPredators + prey.size();
+
+		int[] ids = new int[total];
+		boolean[] isPlayer = new boolean[total];
+		PointXY[] positions = new PointXY[total];
+		for (int i = 0; i < total; ++i) {
+			Agent agent = (i < numPredators) ? predators.get(i) :
+					prey.get(i - numPredators);
+			ids[i] = agent.getID();
+			isPlayer[i] = agent.isPlayer();
+			positions[i] = agent.getPosition();
+		}
+
+		Set<PointXY> pills = (previous == null) ? null : previous.pills;
+		Set<PointXY> predatorPowerUps = (previous == null) ? null :
+				previous.predatorPowerUps;
+		Set<PointXY> preyPowerUps = (previous == null) ? null :
+				previous.preyPowerUps;
+
+		return new GameSnapshot(step, numPredators, ids, isPlayer, positions,
+				copyIfChanged(state.getPills(), pills),
+				copyIfChanged(state.getPredatorPowerUps().keySet(),
+						predatorPowerUps),
+				copyIfChanged(state.getPreyPowerUps().keySet(), preyPowerUps));
+	}
+
+	/**
+	 * Check whether the given game state is the same as this snapshot, i.e.
+	 * the same agents are in the same places, and no pills or power ups have
+	 * been removed since. Doesn't allocate, so it can be used to avoid taking
+	 * a new snapshot every step.
+	 *
+	 * @param state - the game state.
+	 * @return true if a snapshot of the state would match this one.
+	 */
+	public boolean matches(GameState state) {
+
+		List<Predator> predators = state.getPredators();
+		List<Prey> prey = state.getPrey();
+		if (predators.size() != numPredators ||
+			predators.size() + prey.size() != ids.length ||
+			state.getPills().size() != pills.size() ||
+			state.getPredatorPowerUps().size() != predatorPowerUps.size() ||
+			state.getPreyPowerUps().size() != preyPowerUps.size()) {
+			return false;
+		}
+
+		for (int i = 0; i < ids.length; ++i) {
+			Agent agent = (i < numPredators) ? predators.get(i) :
+					prey.get(i - numPredators);
+			if (agent.getID() != ids[i] ||
+				!agent.getPosition().equals(positions[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Copy the given set, unless it is the same size as the previous copy.
+	 */
+	private static Set<PointXY> copyIfChanged(Set<PointXY> current,
+			Set<PointXY> previous) {
+
+		if (previous != null && previous.size() == current.size()) {
+			return previous;
+		}
+		return Collections.unmodifiableSet(new HashSet<PointXY>(current));
+	}
+
+	/**
+	 * Get the number of the physics step the snapshot was taken after.
+	 *
+	 * @return the step number.
+	 */
+	public long getStep() {
+		return step;
+	}
+
+	/**
+	 * Get the number of agents (predators and prey).
+	 *
+	 * @return the number of agents.
+	 */
+	public int getNumAgents() {
+		return ids.length;
+	}
+
+	/**
+	 * Get whether the given agent is a predator. The predators come before
+	 * the prey.
+	 *
+	 * @param i - which agent (0 to getNumAgents() - 1).
+	 * @return true if the agent is a predator, false if it is a prey.
+	 */
+	public boolean isPredator(int i) {
+		return i < numPredators;
+	}
+
+	/**
+	 * Get the ID of the given agent.
+	 *
+	 * @param i - which agent (0 to getNumAgents() - 1).
+	 * @return the agent's ID.
+	 */
+	public int getID(int i) {
+		return ids[i];
+	}
+
+	/**
+	 * Get whether the given agent is controlled by a player.
+	 *
+	 * @param i - which agent (0 to getNumAgents() - 1).
+	 * @return true if the agent is a player, false otherwise.
+	 */
+	public boolean isPlayer(int i) {
+		return isPlayer[i];
+	}
+
+	/**
+	 * Get the position of the given agent.
+	 *
+	 * @param i - which agent (0 to getNumAgents() - 1).
+	 * @return the agent's position.
+	 */
+	public PointXY getPosition(int i) {
+		return positions[i];
+	}
+
+	/**
+	 * Get the positions of the pills.
+	 *
+	 * @return an unmodifiable set of the pill positions.
+	 */
+	public Set<PointXY> getPills() {
+		return pills;
+	}
+
+	/**
+	 * Get the positions of the predator power ups.
+	 *
+	 * @return an unmodifiable set of the power up positions.
+	 */
+	public Set<PointXY> getPredatorPowerUps() {
+		return predatorPowerUps;
+	}
+
+	/**
+	 * Get the positions of the prey power ups.
+	 *
+	 * @return an unmodifiable set of the power up positions.
+	 */
+	public Set<PointXY> getPreyPowerUps() {
+		return preyPowerUps;
+	}
+
+}
@@ -3,25 +3,29 @@ package ai;
 import geometry.PointXY;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
 import logic.Agent;
 import logic.GameState;
 import logic.Direction;
 import logic.Maze;
-import logic.MazeNode;
+import logic.PillListener;
+import logic.PillStore;
 import logic.Predator;
 import logic.Prey;
 
-import pathfinding.Path;
+import pathfinding.NodeIndex;
 import pathfinding.PathFinder;
+import pathfinding.PathFinderCache;
+import pathfinding.PathFinderType;
 import progress.ProgressTask;
 
 public class OrionAI implements AILogic {
 
+	// Direction.values() makes a new array on every call, so keep one copy.
+	private static final Direction[] DIRECTIONS = Direction.values();
+
 	private double pillFactor;
 	private double preyFactor;
 	private double predatorFactor;
@@ -30,16 +34,24 @@ public class OrionAI implements AILogic {
 	private double preyDistFactor;
 	private double predatorDistFactor;
 	
-	private Map<Direction, Double> dirWeights;
-	
-	private Map<Direction, Double> pillsInDirection;
-	private Map<Direction, Integer> nodesInDirection;
+	// The weights in each direction, by Direction.ordinal() (reused for 
+	// every move, so calculating a move doesn't allocate)
+	private final double[] dirWeights;
 	
-	private Map<Direction, Double> preyInDirection;
+	private final double[] preyInDirection;
 	
-	private Map<Direction, Double> predatorsInDirection;
+	private final double[] predatorsInDirection;
 
     private PathFinder pathFinder;
+    private Maze pathFinderMaze;
+    
+    // The nodes in each direction from each cell, and the pill weights in
+    // each direction from each cell (kept up to date as pills are eaten)
+    private CellDirectionIndex directionIndex;
+    private PillWeights pillWeights;
+    
+    // The distances from each agent's node (for the maze of directionIndex)
+    private DistanceFieldCache distanceFields;
 
 	public OrionAI(double pillFactor, double preyFactor, double predatorFactor,
 				   double pillDistFactor, double preyDistFactor, double predatorDistFactor) {
@@ -51,20 +63,29 @@ public class OrionAI implements AILogic {
 		this.preyDistFactor = preyDistFactor;
 		this.predatorDistFactor = predatorDistFactor;
 		
-		this.dirWeights = new HashMap<Direction, Double>();
+		this.dirWeights = new double[DIRECTIONS.length];
 		
-		this.pillsInDirection = new HashMap<Direction, Double>();
-		this.nodesInDirection = new HashMap<Direction, Integer>();
-		this.preyInDirection = new HashMap<Direction, Double>();
-		this.predatorsInDirection = new HashMap<Direction, Double>();
+		this.preyInDirection = new double[DIRECTIONS.length];
+		this.predatorsInDirection = new double[DIRECTIONS.length];
 
         this.pathFinder = null;
+        this.pathFinderMaze = null;
+        this.directionIndex = null;
+        this.pillWeights = null;
+        this.distanceFields = null;
 
 		reset();
 	}
 
+    /**
+     * Set the PathFinder to use. If no PathFinder is set, a BFS PathFinder is
+     * used for the maze of each game (and replaced when the maze changes).
+     * 
+     * @param pathFinder - the PathFinder to use.
+     */
     public void setPathFinder(PathFinder pathFinder) {
         this.pathFinder = pathFinder;
+        this.pathFinderMaze = null;
     }
 
     public PathFinder getPathFinder() {
@@ -125,6 +146,7 @@ public class OrionAI implements AILogic {
 	 */
 	public void setPillDistFactor(double pillDistFactor) {
 		this.pillDistFactor = pillDistFactor;
+		clearPillWeights();
 	}
 
 	/**
@@ -158,7 +180,11 @@ public class OrionAI implements AILogic {
 	@Override
 	public void calcNextMove(List<Agent> agents, GameState state) {
 		
-		for (Agent agent : agents) {
+		updatePathFinder(state.getMaze());
+		
+		int numAgents = agents.size();
+		for (int i = 0; i < numAgents; ++i) {
+			Agent agent = agents.get(i);
 			
 			if (agent instanceof Predator) {
 				calcNextMovePredator(agent, state);
@@ -168,63 +194,79 @@ public class OrionAI implements AILogic {
 		}
 	}
 	
-	private void reset() {
+	private void updatePathFinder(Maze maze) {
 		
-		Direction[] dirs = Direction.values();
+		// Only replace a PathFinder we created ourselves.
+		boolean created = (pathFinderMaze != null);
+		if (pathFinder == null || (created && pathFinderMaze != maze)) {
+			pathFinder = PathFinderCache.get(PathFinderType.BFS, maze);
+			pathFinder.loadAllPaths();
+			pathFinderMaze = maze;
+		}
 		
-		for (int i = 0; i < dirs.length; ++i) {
-			dirWeights.put(dirs[i], 0d);
-			pillsInDirection.put(dirs[i], 0d);
-			nodesInDirection.put(dirs[i], 0);
-			preyInDirection.put(dirs[i], 0d);
-			predatorsInDirection.put(dirs[i], 0d);
+		if (directionIndex == null || directionIndex.getPathFinder() != pathFinder) {
+			directionIndex = CellDirectionIndex.get(pathFinder, maze);
+			distanceFields = new DistanceFieldCache(directionIndex.getNodeIndex());
+			clearPillWeights();
 		}
 	}
 	
-	private void processPills(Agent agent, GameState state) {
+	/**
+	 * Get the pill weights for the given game state, creating them if the 
+	 * state is new.
+	 */
+	private PillWeights getPillWeights(GameState state) {
 		
-		PointXY pos = agent.getPosition();
+		if (pillWeights == null || pillWeights.state != state) {
+			clearPillWeights();
+			pillWeights = new PillWeights(state, directionIndex, pillDistFactor);
+			state.addPillListener(pillWeights);
+		}
+		return pillWeights;
+	}
+	
+	private void clearPillWeights() {
+		if (pillWeights != null) {
+			pillWeights.state.removePillListener(pillWeights);
+			pillWeights = null;
+		}
+	}
+	
+	private void reset() {
 		
-		Maze maze = state.getMaze();
-		Map<PointXY, MazeNode> nodes = maze.getNodes();
-		Set<PointXY> mazeCoords = nodes.keySet();
+		Arrays.fill(dirWeights, 0d);
+		Arrays.fill(preyInDirection, 0d);
+		Arrays.fill(predatorsInDirection, 0d);
+	}
+	
+	private void processPills(Agent agent, GameState state) {
 		
-		for (PointXY mazePos : mazeCoords) {
-			Path path = getPathFinder().getPath(pos, mazePos);
-			if (path.getLength() < 2) {
-				continue;
-			}
-			Direction dir = getDirection(path.getPoint(0), path.getPoint(1));
-			boolean hasPill = state.hasPill(mazePos);
-			if (hasPill) {
-				double current = pillsInDirection.get(dir);
-				current += (1.0 / (pillDistFactor * path.getLength()));
-				pillsInDirection.put(dir, current);
-			}
-			int currentNumNodes = nodesInDirection.get(dir);
-			++currentNumNodes;
-			nodesInDirection.put(dir, currentNumNodes);
+		// The nodes and pill weights in each direction are already known for
+		// each cell, so there's nothing to search for here.
+		CellDirectionIndex.Partition partition = null;
+		double[] pills = null;
+		int node = directionIndex.getNodeIndex().getIndex(agent.getPosition());
+		if (node != NodeIndex.NO_NODE) {
+			partition = directionIndex.getPartition(node);
+			pills = getPillWeights(state).getWeights(node);
 		}
 		
-		Direction[] dirs = Direction.values();
-		for (int i = 0; i < dirs.length; ++i) {
+		for (int i = 0; i < DIRECTIONS.length; ++i) {
 			
-			int numNodes = nodesInDirection.get(dirs[i]);
-			double numPills = pillsInDirection.get(dirs[i]);
+			int numNodes = (partition != null) ? partition.getNodeCount(i) : 0;
+			double numPills = (pills != null) ? pills[i] : 0;
 			
 			if (numNodes > 0) {
 				double baseWeight = numPills * 1.0 / numNodes;
-				double weight = dirWeights.get(dirs[i]);
-				weight += baseWeight * pillFactor;
-				dirWeights.put(dirs[i], weight);
+				dirWeights[i] += baseWeight * pillFactor;
 			} else {
-				if (dirs[i] != Direction.None) {
+				if (DIRECTIONS[i] != Direction.None) {
 					// We assume there's a wall in this direction. Give it a
 					// negative weight so that 'No move' is preferable to moving
 					// into a wall!
-					dirWeights.put(dirs[i], -Double.MAX_VALUE);
+					dirWeights[i] = -Double.MAX_VALUE;
 				} else {
-					dirWeights.put(dirs[i], -Double.MAX_VALUE);
+					dirWeights[i] = -Double.MAX_VALUE;
 				}
 			}
 		}
@@ -233,84 +275,91 @@ public class OrionAI implements AILogic {
 	
 	private void processPrey(Agent agent, GameState state) {
 		
-		PointXY pos = agent.getPosition();
-		
-		List<Prey> allPrey = state.getPrey();
-		//int numPrey = allPrey.size();
-		
-		for (Prey prey : allPrey) {
-			if (agent.getID() == prey.getID()) {
-				continue;
-			}
-			PointXY preyPos = prey.getPosition();
-			Path path = getPathFinder().getPath(pos, preyPos);
-			if (path.getLength() < 2) {
-				continue;
-			}
-			Direction dir = getDirection(path.getPoint(0), path.getPoint(1));
+		// The distance to each prey comes from this agent's distance field, 
+		// and the direction of the first step from the cell's partition.
+		DistanceField field = distanceFields.getField(agent);
+		if (field != null) {
+			NodeIndex nodeIndex = directionIndex.getNodeIndex();
+			CellDirectionIndex.Partition partition = 
+					directionIndex.getPartition(field.getSource());
+			
+			List<Prey> allPrey = state.getPrey();
 			
-			double current = preyInDirection.get(dir);
-			current += 1.0 / (preyDistFactor * path.getLength());
-			preyInDirection.put(dir, current);
+			int numPrey = allPrey.size();
+			for (int i = 0; i < numPrey; ++i) {
+				Prey prey = allPrey.get(i);
+				if (agent.getID() == prey.getID()) {
+					continue;
+				}
+				int target = nodeIndex.getIndex(prey.getPosition());
+				if (target == NodeIndex.NO_NODE) {
+					continue;
+				}
+				int dist = field.getDistance(target);
+				if (dist < 1) {
+					continue;
+				}
+				int dir = partition.getDirection(target);
+				
+				preyInDirection[dir] += 1.0 / (preyDistFactor * pathLength(dist));
+			}
 		}
 		 
-		Direction[] dirs = Direction.values();
-		for (int i = 0; i < dirs.length; ++i) {
-			double baseWeight = preyInDirection.get(dirs[i]);
-			double weight = dirWeights.get(dirs[i]);
-			weight += baseWeight * preyFactor;
-			dirWeights.put(dirs[i], weight);
+		for (int i = 0; i < DIRECTIONS.length; ++i) {
+			dirWeights[i] += preyInDirection[i] * preyFactor;
 		}
 		
 	}
 	
 	private void processPredators(Agent agent, GameState state) {
 		
-		PointXY pos = agent.getPosition();
-		
-		List<Predator> allPredators = state.getPredators();
-		//int numPredators = allPredators.size();
-		
-		for (Predator predator : allPredators) {
-			if (agent.getID() == predator.getID()) {
-				continue;
-			}
-			PointXY predatorPos = predator.getPosition();
-			Path path = getPathFinder().getPath(pos, predatorPos);
-			if (path.getLength() < 2) {
-				continue;
-			}
-			Direction dir = getDirection(path.getPoint(0), path.getPoint(1));
+		// The distance to each predator comes from this agent's distance field, 
+		// and the direction of the first step from the cell's partition.
+		DistanceField field = distanceFields.getField(agent);
+		if (field != null) {
+			NodeIndex nodeIndex = directionIndex.getNodeIndex();
+			CellDirectionIndex.Partition partition = 
+					directionIndex.getPartition(field.getSource());
+			
+			List<Predator> allPredators = state.getPredators();
 			
-			double current = predatorsInDirection.get(dir);
-			current += 1.0 / (predatorDistFactor * path.getLength());
-			predatorsInDirection.put(dir, current);
+			int numPredators = allPredators.size();
+			for (int i = 0; i < numPredators; ++i) {
+				Predator predator = allPredators.get(i);
+				if (agent.getID() == predator.getID()) {
+					continue;
+				}
+				int target = nodeIndex.getIndex(predator.getPosition());
+				if (target == NodeIndex.NO_NODE) {
+					continue;
+				}
+				int dist = field.getDistance(target);
+				if (dist < 1) {
+					continue;
+				}
+				int dir = partition.getDirection(target);
+				
+				predatorsInDirection[dir] += 1.0 / (predatorDistFactor * pathLength(dist));
+			}
 		}
 		 
-		Direction[] dirs = Direction.values();
-		for (int i = 0; i < dirs.length; ++i) {
-			double baseWeight = predatorsInDirection.get(dirs[i]);
-			double weight = dirWeights.get(dirs[i]);
-			weight += baseWeight * predatorFactor;
-			dirWeights.put(dirs[i], weight);
+		for (int i = 0; i < DIRECTIONS.length; ++i) {
+			dirWeights[i] += predatorsInDirection[i] * predatorFactor;
 		}
 		
 	}
 	
-	private Direction getDirection(PointXY start, PointXY end) {
-		
-		Direction dir = Direction.None;
-		if (start.getX() == end.getX() - 1) {
-			dir = Direction.Right;
-		} else if (start.getX() == end.getX() + 1) {
-			dir = Direction.Left;
-		} else if (start.getY() == end.getY() - 1) {
-			dir = Direction.Up;
-		} else if (start.getY() == end.getY() + 1) {
-			dir = Direction.Down;
-		}
-		
-		return dir;
+	/**
+	 * Convert a distance (number of steps) into the length of the 
+	 * corresponding path (number of points, including the start point). The
+	 * weights are calculated using the path length, so that the trained 
+	 * factors keep their meaning.
+	 * 
+	 * @param dist - the number of steps.
+	 * @return the length of the path.
+	 */
+	private static int pathLength(int dist) {
+		return dist + 1;
 	}
 	
 	private void calcNextMovePrey(Agent agent, GameState state) {
@@ -322,13 +371,12 @@ public class OrionAI implements AILogic {
 		
 		double maxWeight = -Double.MAX_VALUE;
 		Direction chosenDirection = Direction.None;
-		Direction[] dirs = Direction.values();
 		
-		for (int i = 0; i < dirs.length; ++i) {
-			double weight = dirWeights.get(dirs[i]);
+		for (int i = 0; i < DIRECTIONS.length; ++i) {
+			double weight = dirWeights[i];
 			if (weight > maxWeight) {
 				maxWeight = weight;
-				chosenDirection = dirs[i];
+				chosenDirection = DIRECTIONS[i];
 			}
 		}
 		
@@ -338,33 +386,42 @@ public class OrionAI implements AILogic {
 	private void calcNextMovePredator(Agent agent, GameState state) {
 		
 		// Find the closest prey.
-		Path closestPreyPath = findClosestPreyPath(agent, state);
+		Prey closestPrey = findClosestPrey(agent, state);
+		if (closestPrey == null) {
+			return;
+		}
 		
-		// Use the closestPreyPath to get the direction in which to travel.
-		if (closestPreyPath.getLength() > 1) {
-			Direction dir = getDirection(closestPreyPath.getPoint(0), 
-										 closestPreyPath.getPoint(1));
+		// Use the first step towards the closest prey as the direction in 
+		// which to travel.
+		PointXY predatorPos = agent.getPosition();
+		PointXY preyPos = closestPrey.getPosition();
+		Direction dir = getPathFinder().getFirstDirection(predatorPos, preyPos);
+		if (dir != Direction.None) {
 			agent.setNextMoveDirection(dir);
 		}
 	}
 	
-	private Path findClosestPreyPath(Agent agent, GameState state) {
-		PointXY predatorPos = agent.getPosition();
+	private Prey findClosestPrey(Agent agent, GameState state) {
+		DistanceField field = distanceFields.getField(agent);
+		if (field == null) {
+			return null;
+		}
 		List<Prey> prey = state.getPrey();
 		
 		// Find the closest Prey.
-		Path closestPreyPath = null;
-		int closestPreyPathLength = Integer.MAX_VALUE;
-		for (Prey p : prey) {
-			PointXY preyPos = p.getPosition();
-			Path path = getPathFinder().getPath(predatorPos, preyPos);
-			if (path.getLength() < closestPreyPathLength) {
-				closestPreyPathLength = path.getLength();
-				closestPreyPath = path;
+		Prey closestPrey = null;
+		int closestPreyDist = Integer.MAX_VALUE;
+		int numPrey = prey.size();
+		for (int i = 0; i < numPrey; ++i) {
+			Prey p = prey.get(i);
+			int dist = field.getDistance(p.getPosition());
+			if (dist != PathFinder.NO_PATH && dist < closestPreyDist) {
+				closestPreyDist = dist;
+				closestPrey = p;
 			}
 		}
 		
-		return closestPreyPath;
+		return closestPrey;
 	}
 	
 	public String toString() {
@@ -383,4 +440,92 @@ public class OrionAI implements AILogic {
 		// The random AI Logic doesn't have any progress tasks to carry out.
 		return new ArrayList<ProgressTask>();
 	}
+	
+	/**
+	 * The weight of the pills in each direction from each cell, i.e. the sum 
+	 * of 1 / (pillDistFactor * path length) over the pills whose shortest path 
+	 * starts in that direction. The weights for a cell are worked out the 
+	 * first time they're needed and then updated as each pill is removed, 
+	 * rather than searched for again every frame.
+	 */
+	private static final class PillWeights implements PillListener {
+		
+		private final GameState state;
+		private final CellDirectionIndex index;
+		private final double pillDistFactor;
+		
+		// The weights and number of pills in each direction, by node (null 
+		// until needed)
+		private final double[][] weights;
+		private final int[][] numPills;
+		
+		// The nodes whose weights have been worked out
+		private final int[] builtNodes;
+		private int numBuilt;
+		
+		public PillWeights(GameState state, CellDirectionIndex index, 
+				double pillDistFactor) {
+			int size = index.getNodeIndex().size();
+			this.state = state;
+			this.index = index;
+			this.pillDistFactor = pillDistFactor;
+			this.weights = new double[size][];
+			this.numPills = new int[size][];
+			this.builtNodes = new int[size];
+			this.numBuilt = 0;
+		}
+		
+		public double[] getWeights(int node) {
+			
+			if (weights[node] == null) {
+				PillStore pills = state.getPillStore();
+				CellDirectionIndex.Partition partition = index.getPartition(node);
+				double[] nodeWeights = new double[CellDirectionIndex.NUM_DIRECTIONS];
+				int[] nodePills = new int[CellDirectionIndex.NUM_DIRECTIONS];
+				for (int dir = 0; dir < nodeWeights.length; ++dir) {
+					int count = partition.getNodeCount(dir);
+					for (int i = 0; i < count; ++i) {
+						int target = partition.getNode(dir, i);
+						if (pills.hasPill(target)) {
+							int dist = partition.getDistance(target);
+							nodeWeights[dir] += 1.0 / (pillDistFactor * pathLength(dist));
+							++nodePills[dir];
+						}
+					}
+				}
+				weights[node] = nodeWeights;
+				numPills[node] = nodePills;
+				builtNodes[numBuilt++] = node;
+			}
+			
+			return weights[node];
+		}
+		
+		@Override
+		public void pillRemoved(PointXY pos) {
+			
+			int pill = index.getNodeIndex().getIndex(pos);
+			if (pill == NodeIndex.NO_NODE) {
+				return;
+			}
+			
+			for (int i = 0; i < numBuilt; ++i) {
+				int node = builtNodes[i];
+				CellDirectionIndex.Partition partition = index.getPartition(node);
+				int dir = partition.getDirection(pill);
+				if (dir == CellDirectionIndex.NO_DIRECTION) {
+					continue;
+				}
+				
+				// Reset to exactly zero when the last pill goes, so rounding 
+				// errors don't build up.
+				if (--numPills[node][dir] == 0) {
+					weights[node][dir] = 0;
+				} else {
+					int dist = partition.getDistance(pill);
+					weights[node][dir] -= 1.0 / (pillDistFactor * pathLength(dist));
+				}
+			}
+		}
+	}
 }
@@ -1,9 +1,10 @@
 package data;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Preferences;
@@ -39,6 +40,13 @@ public class GameDataManager implements DataManager {
 	private Preferences soundPrefs;
 	private Preferences sandboxPrefs;
 	
+	// The Random used for the varied (sandbox and main menu) games
+	private final Random random;
+	
+	// The seed of level 1's maze, if the level data doesn't give it one (each
+	// later level's seed is one higher)
+	private final long LEVEL_SEED_BASE = 0x4F52494F4EL;
+	
 	// Preferences keys
 	private final String SOUNDS_PREFS = "sounds";
 	private final String SANDBOX_PREFS = "sandbox";
@@ -60,6 +68,18 @@ public class GameDataManager implements DataManager {
 	
 	
 	public GameDataManager() {
+		this(new Random());
+	}
+	
+	/**
+	 * Creates a GameDataManager whose sandbox and main menu games are made
+	 * varied with the given Random.
+	 * 
+	 * @param random (Random)
+	 */
+	public GameDataManager(Random random) {
+		
+		this.random = random;
 		
 		json = new Json();
 		json.setUsePrototypes(false);
@@ -280,8 +300,9 @@ public class GameDataManager implements DataManager {
 		// Get the game time limit for this level
 		int timeLimit = level.getTimeLimit();
 		
-		// Get the level's maze config
-		MazeConfig mazeConfig = level.getMazeConfig();
+		// Get the level's maze config. Levels are seeded, so a level gives the
+		// same maze every time it's played (and its maze and paths are cached).
+		MazeConfig mazeConfig = getLevelMazeConfig(level, levelNumber);
 		
 		// Create the agent config. 
 		// Use default values for numPred, numPredPlayer, numPreyPlayer and 
@@ -306,7 +327,7 @@ public class GameDataManager implements DataManager {
 		powerUpConfig.setNumPredPow(level.getNumPowerUps());
 		List<PowerUpType> powerUpTypes = level.getPowerUpTypes();
 		Map<PowerUpType, Integer> powerUpDefs = 
-				new HashMap<PowerUpType, Integer>();
+				new EnumMap<PowerUpType, Integer>(PowerUpType.class);
 		for (PowerUpType type : powerUpTypes) {
 			int strength = playerProgress.getPowerUpStrength(type);
 			powerUpDefs.put(type, strength);
@@ -320,6 +341,32 @@ public class GameDataManager implements DataManager {
 		// We're done
 		return gameConfig;
 	}
+	
+	/**
+	 * Gets a copy of the level's maze config, with the level's seed: the seed
+	 * from the level data if it has one, otherwise one derived from the level
+	 * number.
+	 * 
+	 * @param level (Level)
+	 * @param levelNumber (int)
+	 * @return mazeConfig (MazeConfig)
+	 */
+	private MazeConfig getLevelMazeConfig(Level level, int levelNumber) {
+		MazeConfig levelConfig = level.getMazeConfig();
+		if (levelConfig == null) {
+			levelConfig = new MazeConfig();
+		}
+		
+		MazeConfig mazeConfig = new MazeConfig(levelConfig.getMaxLength(), 
+				levelConfig.getLoopLimit(), levelConfig.getDeadEndMinProp(), 
+				levelConfig.getRanPathMaxProp());
+		if (levelConfig.hasSeed()) {
+			mazeConfig.setSeed(levelConfig.getSeed());
+		} else {
+			mazeConfig.setSeed(LEVEL_SEED_BASE + levelNumber);
+		}
+		return mazeConfig;
+	}
 
 	@Override
 	public GameConfiguration getGameConfigSandbox() {
@@ -350,7 +397,7 @@ public class GameDataManager implements DataManager {
 		// randomised. We don't allow these parameters to be set by the GUI, so
 		// use random values to get some varied mazes.
 		MazeConfig mazeConfig = new MazeConfig();
-		mazeConfig.randomiseValues();
+		mazeConfig.randomiseValues(random);
 		
 		
 		// Create the agent config. 
@@ -395,7 +442,7 @@ public class GameDataManager implements DataManager {
 //				prefs.getInteger(PREF_SANDBOX_POWER_UP_STRENGTHS, defaultPowerUpStrengths);
 		
 		Map<PowerUpType, Integer> powerUpDefs = 
-				new HashMap<PowerUpType, Integer>();
+				new EnumMap<PowerUpType, Integer>(PowerUpType.class);
 		for (PowerUpType type : PowerUpType.values()) {
 			powerUpDefs.put(type, powerUpStrengths);
 		}
@@ -434,7 +481,7 @@ public class GameDataManager implements DataManager {
 		// Create a default maze config, then ask for the parameters to be 
 		// randomised, so we get some varied mazes.
 		MazeConfig mazeConfig = new MazeConfig();
-		mazeConfig.randomiseValues();
+		mazeConfig.randomiseValues(random);
 		
 		// Create the agent config. We'll change some of the default values 
 		// to random values to get some varied games.
@@ -444,21 +491,21 @@ public class GameDataManager implements DataManager {
 		int numSquares = (mazeWidth + 1) * (mazeHeight + 1);
 		int minNumPrey = (int) Math.ceil(numSquares / 8.0);
 		int maxNumPrey = (int) Math.ceil(numSquares / 4.0);
-		int numPrey = NumberUtils.randomInt(minNumPrey, maxNumPrey);
+		int numPrey = NumberUtils.randomInt(random, minNumPrey, maxNumPrey);
 		agentConfig.setNumPrey(numPrey);
 		
 		// Pick a random predator speed within some bounds
 		int minPredatorSpeedIndex = 3;
 		int maxPredatorSpeedIndex = 5;
 		int predatorSpeedIndex = 
-				NumberUtils.randomInt(minPredatorSpeedIndex, maxPredatorSpeedIndex);
+				NumberUtils.randomInt(random, minPredatorSpeedIndex, maxPredatorSpeedIndex);
 		agentConfig.setPredBaseSpeedIndex(predatorSpeedIndex);
 		
 		// Pick a random prey speed within some bounds
 		int minPreySpeedIndex = 2;
 		int maxPreySpeedIndex = 4;
 		int preySpeedIndex = 
-				NumberUtils.randomInt(minPreySpeedIndex, maxPreySpeedIndex);
+				NumberUtils.randomInt(random, minPreySpeedIndex, maxPreySpeedIndex);
 		agentConfig.setPreyBaseSpeedIndex(preySpeedIndex);
 		
 		// We don't want any power ups in the main menu game
@@ -0,0 +1,237 @@
+package game;
+
+import java.util.List;
+import java.util.Random;
+
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import ai.AILogic;
+import logic.Agent;
+import logic.GameConfiguration;
+import logic.GameLogic;
+import logic.GameOverReason;
+import logic.GameState;
+import logic.MazeConfig;
+import logic.Move;
+import logic.Predator;
+import logic.Prey;
+import physics.PhysicsConfiguration;
+import physics.PhysicsProcessor;
+import physics.PhysicsProcessorBox2D;
+import progress.ProgressTask;
+
+/**
+ * GameSimulator class.
+ *
+ * Plays whole games without a window, renderer, sound or any loaded assets.
+ * Each game builds a new GameLogic and PhysicsProcessor from the
+ * configurations and then repeats the same steps as PredatorPreyGame.update()
+ * until the game is over. The game is advanced by exactly one physics
+ * timestep per update, with no waiting in between, so a game runs as fast as
+ * the CPU allows rather than in real time.
+ *
+ * Players (if the configuration has any) are given the same move every
+ * update, which by default is to stand still. All other agents are moved by
+ * the AILogic passed to runGame().
+ *
+ * If the simulator is given a Random, each game whose maze configuration has
+ * no seed is played on a maze seeded from it, and the agents and power ups
+ * of every game are placed using it. So a simulator with a seeded Random
+ * plays the same sequence of games every run. Otherwise games are set up as
+ * for GameLogic(GameConfiguration).
+ *
+ * A GameSimulator is not thread safe, but separate instances can be used on
+ * separate threads.
+ *
+ * @author agent
+ * @version 2026-10-17
+ */
+public class GameSimulator {
+
+	static {
+		// Box2D needs the native libraries, which would otherwise be loaded by
+		// the LWJGL application.
+		GdxNativesLoader.load();
+	}
+
+	private final GameConfiguration gameConfig;
+	private final PhysicsConfiguration physicsConfig;
+
+	private final Random random;
+
+	private Move playerMove;
+
+	private GameLogic gameLogic;
+	private PhysicsProcessor physProc;
+
+	/**
+	 * Constructor for GameSimulator.
+	 *
+	 * @param gameConfig - the configuration each game is built from.
+	 * @param physicsConfig - the configuration each physics simulation is
+	 * built from.
+	 */
+	public GameSimulator(GameConfiguration gameConfig,
+			PhysicsConfiguration physicsConfig) {
+		this(gameConfig, physicsConfig, null);
+	}
+
+	/**
+	 * Constructor for GameSimulator.
+	 *
+	 * @param gameConfig - the configuration each game is built from.
+	 * @param physicsConfig - the configuration each physics simulation is
+	 * built from.
+	 * @param random - the Random used to seed the maze (if the configuration
+	 * doesn't) and place the agents and power ups of each game, or null to
+	 * set them up as for GameLogic(GameConfiguration).
+	 */
+	public GameSimulator(GameConfiguration gameConfig,
+			PhysicsConfiguration physicsConfig, Random random) {
+
+		if (gameConfig == null || physicsConfig == null) {
+			throw new IllegalArgumentException(
+				"GameSimulator needs a game and a physics configuration."
+			);
+		}
+
+		this.gameConfig = gameConfig;
+		this.physicsConfig = physicsConfig;
+		this.random = random;
+		this.playerMove = new Move();
+		this.gameLogic = null;
+		this.physProc = null;
+	}
+
+	/**
+	 * Set the move given to every player on every update.
+	 *
+	 * @param move - the move to give to the players.
+	 */
+	public void setPlayerMove(Move move) {
+		this.playerMove = move;
+	}
+
+	/**
+	 * Get the logic of the game currently (or most recently) being played.
+	 *
+	 * @return the game logic, or null if no game has been played.
+	 */
+	public GameLogic getGameLogic() {
+		return gameLogic;
+	}
+
+	/**
+	 * Play one game to the end, with the non-players moved by the given AI.
+	 *
+	 * Any progress tasks of the AI (e.g. generating paths) are run on the
+	 * calling thread before the game starts.
+	 *
+	 * @param ai - the AILogic which moves the non-player agents.
+	 * @return the result of the game.
+	 */
+	public GameResult runGame(AILogic ai) {
+
+		resetGame(ai);
+
+		GameState state = gameLogic.getGameState();
+		int numSquares = state.getMaze().numberOfNodes();
+		float timestep = physicsConfig.getTimestep();
+
+		int numSimSteps = 0;
+		try {
+			GameOverReason reason = GameOverReason.NotFinished;
+			while (reason == GameOverReason.NotFinished) {
+				numSimSteps += update(timestep);
+				reason = state.getGameOverReason();
+			}
+		} finally {
+			// The Box2D world holds native memory, which isn't freed by the
+			// garbage collector.
+			physProc.getWorld().getBox2DWorld().dispose();
+		}
+
+		GameResult result = new GameResult(state.getGameOverReason(),
+				numSimSteps, state.getPills().size(), numSquares);
+		return result;
+	}
+
+	/**
+	 * Rebuild the game logic and physics processor from the configurations and
+	 * prepare the AI.
+	 *
+	 * @param ai - the AILogic which moves the non-player agents.
+	 */
+	private void resetGame(AILogic ai) {
+
+		if (random != null) {
+			gameLogic = new GameLogic(seedMaze(gameConfig), random, ai);
+		} else {
+			gameLogic = new GameLogic(gameConfig, ai);
+		}
+
+		List<ProgressTask> tasks = gameLogic.getProgressTasks();
+		for (ProgressTask task : tasks) {
+			task.run();
+		}
+
+		physProc = new PhysicsProcessorBox2D(gameLogic.getGameState(),
+				physicsConfig);
+	}
+
+	/**
+	 * Get a copy of the configuration whose maze is seeded from the
+	 * simulator's Random, unless the configuration is already seeded.
+	 */
+	private GameConfiguration seedMaze(GameConfiguration config) {
+
+		MazeConfig mConfig = config.getMConfig();
+		if (mConfig == null) {
+			mConfig = new MazeConfig();
+		} else if (mConfig.hasSeed()) {
+			return config;
+		}
+
+		MazeConfig seeded = new MazeConfig(mConfig.getMaxLength(),
+				mConfig.getLoopLimit(), mConfig.getDeadEndMinProp(),
+				mConfig.getRanPathMaxProp());
+		seeded.setSeed(random.nextLong());
+		return new GameConfiguration(config.getDimensions(),
+				config.getHasPills(), config.getTimeLimit(), seeded,
+				config.getAConfig(), config.getPConfig());
+	}
+
+	/**
+	 * Carry out one update of the game, as PredatorPreyGame.update() does.
+	 *
+	 * @param delta - the amount of time to advance the game by.
+	 * @return the number of physics steps simulated.
+	 */
+	private int update(float delta) {
+
+		GameState state = gameLogic.getGameState();
+
+		processMoves();
+		int numSimSteps = physProc.stepSimulation(delta, state);
+		state.decreaseTimeRemaining(delta);
+
+		return numSimSteps;
+	}
+
+	private void processMoves() {
+
+		// Do the player moves.
+		List<Agent> players = gameLogic.getAllPlayers();
+		for (Agent a : players) {
+			int id = a.getID();
+			if (a instanceof Predator) {
+				gameLogic.setPredNextMove(id, playerMove);
+			} else if (a instanceof Prey) {
+				gameLogic.setPreyNextMove(id, playerMove);
+			}
+		}
+
+		gameLogic.setNonPlayerMoves();
+	}
+
+}
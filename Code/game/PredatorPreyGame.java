@@ -14,6 +14,7 @@ import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.utils.ObjectMap;
 
 import ai.AILogic;
+import ai.AIWorker;
 import data.DataManager;
 import data.GameDataManager;
 import data.PlayerProgress;
@@ -61,6 +62,10 @@ public class PredatorPreyGame extends Game {
 	private GameType gameType;
 	private int currentLevel;
 	
+	// Whether the AI is run on its own thread, and the worker doing so
+	private boolean backgroundAI;
+	private AIWorker aiWorker;
+	
 	// Physics debug information
 	private final PhysicsDebugType debugType = PhysicsDebugType.DebugNone;
 	
@@ -75,6 +80,9 @@ public class PredatorPreyGame extends Game {
 		gameType = GameType.NotPlaying;
 		currentLevel = -1;
 		
+		backgroundAI = false;
+		aiWorker = null;
+		
 		rendererConfig = dataManager.getRendererConfig();
 		
 		// Create dummy game and physics configuration class. These will be 
@@ -105,6 +113,30 @@ public class PredatorPreyGame extends Game {
 		
 	public void setAI(AILogic ai) {
 		gameLogic.setAILogic(ai);
+		if (aiWorker != null) {
+			startAIWorker();
+		}
+	}
+	
+	/**
+	 * Set whether the non-player moves are worked out on a separate thread 
+	 * (see AIWorker), rather than during each frame. Takes effect from the 
+	 * next game reset.
+	 * 
+	 * @param backgroundAI - true to run the AI on its own thread.
+	 */
+	public void setBackgroundAI(boolean backgroundAI) {
+		this.backgroundAI = backgroundAI;
+	}
+	
+	/**
+	 * Get the worker running the AI in the background.
+	 * 
+	 * @return the AI worker, or null if the AI isn't running in the 
+	 * background.
+	 */
+	public AIWorker getAIWorker() {
+		return aiWorker;
 	}
 	
 	public Renderer getRenderer() {
@@ -161,6 +193,32 @@ public class PredatorPreyGame extends Game {
 		physProc.setDebugCategory(debugType);
 		physProc.addReceiver(soundManager);
 		
+		// Start working out the AI moves in the background if required.
+		stopAIWorker();
+		if (backgroundAI) {
+			startAIWorker();
+		}
+	}
+	
+	/**
+	 * Start a new AI worker for the current game (stopping any existing one,
+	 * and waiting for it to finish, since the new one uses the same AILogic),
+	 * and hand it over to the physics processor.
+	 */
+	private void startAIWorker() {
+		stopAIWorker();
+		GameState state = gameLogic.getGameState();
+		aiWorker = new AIWorker(gameLogic.getAILogic(), state.getMaze());
+		physProc.setAIWorker(aiWorker);
+		aiWorker.start();
+	}
+	
+	private void stopAIWorker() {
+		if (aiWorker != null) {
+			aiWorker.stop();
+			aiWorker = null;
+		}
+		physProc.setAIWorker(null);
 	}
 	
 	/**
@@ -261,7 +319,11 @@ public class PredatorPreyGame extends Game {
 			}
 		}
 
-		gameLogic.setNonPlayerMoves();
+		// The AI worker (if there is one) gives the physics processor the 
+		// non-player moves itself.
+		if (aiWorker == null) {
+			gameLogic.setNonPlayerMoves();
+		}
 	}
 	
 	public void setGameTypeLevel(int levelNumber) {
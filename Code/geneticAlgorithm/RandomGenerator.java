@@ -6,4 +6,19 @@ public interface RandomGenerator {
 	
 	public int randomInt(Bounds bounds);
 	
+	/**
+	 * Get the state of the generator, so that it can be restored later (e.g. 
+	 * when resuming from a checkpoint).
+	 * 
+	 * @return the state of the generator.
+	 */
+	public long getState();
+	
+	/**
+	 * Restore the generator to a state returned by getState().
+	 * 
+	 * @param state - the state to restore.
+	 */
+	public void setState(long state);
+	
 }
@@ -1,13 +1,15 @@
 package geneticAlgorithm;
 
-import java.util.Random;
-
 public class Randomisor implements RandomGenerator {
 
-	private Random random;
+	private StateRandom random;
 	
 	public Randomisor() {
-		this.random = new Random(System.currentTimeMillis());
+		this.random = new StateRandom();
+	}
+	
+	public Randomisor(long seed) {
+		this.random = new StateRandom(seed);
 	}
 	
 	@Override
@@ -34,4 +36,14 @@ public class Randomisor implements RandomGenerator {
 		
 	}
 
+	@Override
+	public long getState() {
+		return random.getState();
+	}
+
+	@Override
+	public void setState(long state) {
+		random.setState(state);
+	}
+
 }
@@ -0,0 +1,67 @@
+package geneticAlgorithm;
+
+import java.util.Random;
+
+/**
+ * A Random whose state can be read and restored (e.g. to checkpoint a run).
+ * 
+ * It uses the same linear congruential generator as java.util.Random, so a 
+ * StateRandom gives the same numbers as a Random with the same seed. The
+ * state is the generator's 48-bit seed. (nextGaussian() keeps a second value
+ * between calls which isn't part of the state, so it shouldn't be used where
+ * the state is restored.)
+ * 
+ * Unlike java.util.Random, a StateRandom isn't thread safe.
+ * 
+ * @author agent
+ * @version 2026-10-17
+ */
+public class StateRandom extends Random {
+
+	private static final long serialVersionUID = 1L;
+	
+	private static final long MULTIPLIER = 0x5DEECE66DL;
+	private static final long ADDEND = 0xBL;
+	private static final long MASK = (1L << 48) - 1;
+	
+	private long state;
+	
+	public StateRandom() {
+		this(new Random().nextLong());
+	}
+	
+	public StateRandom(long seed) {
+		super(seed);
+	}
+	
+	@Override
+	public synchronized void setSeed(long seed) {
+		// Also called by the Random constructor.
+		state = (seed ^ MULTIPLIER) & MASK;
+	}
+	
+	@Override
+	protected int next(int bits) {
+		state = (state * MULTIPLIER + ADDEND) & MASK;
+		return (int) (state >>> (48 - bits));
+	}
+	
+	/**
+	 * Get the state of the generator.
+	 * 
+	 * @return the state of the generator.
+	 */
+	public long getState() {
+		return state;
+	}
+	
+	/**
+	 * Restore the generator to a state returned by getState().
+	 * 
+	 * @param state - the state to restore.
+	 */
+	public void setState(long state) {
+		this.state = state & MASK;
+	}
+	
+}
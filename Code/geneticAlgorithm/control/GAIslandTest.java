@@ -0,0 +1,110 @@
+package geneticAlgorithm.control;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import ai.OrionAI;
+import geneticAlgorithm.Bounds;
+import geneticAlgorithm.OrionAIBounds;
+import geneticAlgorithm.RandomGenerator;
+import geneticAlgorithm.Randomisor;
+import geneticAlgorithm.core.EvoParams;
+import geneticAlgorithm.core.GenerationalParams;
+import geneticAlgorithm.core.GeneticAlgorithm;
+import geneticAlgorithm.core.Individual;
+import geneticAlgorithm.core.IslandModel;
+import geneticAlgorithm.core.OrionAIGeneticAlgorithm;
+import geneticAlgorithm.core.Population;
+import geneticAlgorithm.core.PopulationTreap;
+import geneticAlgorithm.crossover.Breeder;
+import geneticAlgorithm.crossover.OrionAIBreederBLXAlpha;
+import geneticAlgorithm.function.Function;
+import geneticAlgorithm.function.OrionAIFunction;
+import geneticAlgorithm.mutation.Mutator;
+import geneticAlgorithm.mutation.OrionAIMutatorNonUniform;
+import geneticAlgorithm.output.OrionAIEncoder;
+import geneticAlgorithm.selection.Selector;
+import geneticAlgorithm.selection.SelectorTournament;
+
+/**
+ * Runs the GeneticAlgorithm for OrionAI as an island model: one
+ * GeneticAlgorithm per processor, each on its own thread, with the best
+ * Individuals of each island migrating to the next every few generations.
+ *
+ * Arguments: [number of islands].
+ *
+ * @author agent
+ * @version 2026-10-17
+ */
+public class GAIslandTest {
+
+	private static final int MIGRATION_INTERVAL = 4;
+	private static final int NUM_MIGRANTS = 2;
+
+	public static void main(String[] args) {
+
+		long t0 = System.currentTimeMillis();
+
+		int numIslands = Runtime.getRuntime().availableProcessors();
+		if (args.length > 0) {
+			numIslands = Integer.parseInt(args[0]);
+		}
+
+		Bounds pillBounds = new Bounds(-10, 10);
+		Bounds preyBounds = new Bounds(-10, 10);
+		Bounds predatorBounds = new Bounds(-10, 10);
+		Bounds pillDistBounds = new Bounds(-5, 5);
+		Bounds preyDistBounds = new Bounds(-5, 5);
+		Bounds predatorDistBounds = new Bounds(-5, 5);
+		OrionAIBounds aiBounds = new OrionAIBounds(pillBounds, preyBounds,
+				predatorBounds, pillDistBounds, preyDistBounds,
+				predatorDistBounds);
+
+		GenerationalParams genParams =
+				new GenerationalParams(20, 16, 8, 1.0, 0.7);
+		int maxIter = genParams.getMaxIteration();
+		int numGames = 4;
+
+		List<GeneticAlgorithm<OrionAI>> islands =
+				new ArrayList<GeneticAlgorithm<OrionAI>>();
+
+		for (int i = 0; i < numIslands; ++i) {
+
+			// Nothing here is shared between islands, as each island runs on
+			// its own thread.
+			RandomGenerator rand1 = new Randomisor();
+			RandomGenerator rand2 = new Randomisor();
+			RandomGenerator rand4 = new Randomisor();
+
+			Selector<OrionAI> s = new SelectorTournament<OrionAI>(2, rand4);
+			Mutator<OrionAI> m =
+					new OrionAIMutatorNonUniform(aiBounds, rand1, 0.5, maxIter);
+			Breeder<OrionAI> b = new OrionAIBreederBLXAlpha(aiBounds, rand2, 0.5);
+			EvoParams<OrionAI> evoParams = new EvoParams<OrionAI>(s, m, b);
+
+			Population<Individual<OrionAI>> pop =
+					new PopulationTreap<Individual<OrionAI>>();
+			GAMainTest.fillPopulationRandom(pop, genParams, aiBounds);
+
+			Function<OrionAI> func =
+					OrionAIFunction.factory(numGames).create(new Random());
+
+			islands.add(new OrionAIGeneticAlgorithm(pop, evoParams, genParams,
+					func));
+		}
+
+		IslandModel<OrionAI> model = new IslandModel<OrionAI>(islands,
+				new OrionAIEncoder(), MIGRATION_INTERVAL, NUM_MIGRANTS);
+		Individual<OrionAI> best = model.run();
+
+		System.out.println("Best fitness: " + best.getFitness());
+		System.out.println("Best AI: " + best.getRepresentation().toString());
+
+		long t1 = System.currentTimeMillis();
+
+		System.out.println("Run time = " + (t1-t0) + "ms");
+
+	}
+
+}
@@ -1,38 +1,70 @@
 package geneticAlgorithm.control;
 
+import java.io.File;
+
 import ai.OrionAI;
 import geneticAlgorithm.Bounds;
 import geneticAlgorithm.OrionAIBounds;
 import geneticAlgorithm.RandomGenerator;
 import geneticAlgorithm.Randomisor;
 import geneticAlgorithm.core.EvoParams;
+import geneticAlgorithm.core.GACheckpointer;
 import geneticAlgorithm.core.GenerationalParams;
 import geneticAlgorithm.core.GeneticAlgorithm;
 import geneticAlgorithm.core.Individual;
 import geneticAlgorithm.core.OrionAIGeneticAlgorithm;
+import geneticAlgorithm.core.ParallelEvaluator;
 import geneticAlgorithm.core.Population;
-import geneticAlgorithm.core.PopulationTreeSet;
+import geneticAlgorithm.core.PopulationTreap;
+import geneticAlgorithm.core.RacingEvaluator;
 import geneticAlgorithm.crossover.Breeder;
 import geneticAlgorithm.crossover.OrionAIBreederBLXAlpha;
 import geneticAlgorithm.function.Function;
 import geneticAlgorithm.function.OrionAIFunction;
 import geneticAlgorithm.mutation.Mutator;
 import geneticAlgorithm.mutation.OrionAIMutatorNonUniform;
+import geneticAlgorithm.output.AsyncGenerationLog;
+import geneticAlgorithm.output.GenerationWriterType;
+import geneticAlgorithm.output.OrionAIEncoder;
 import geneticAlgorithm.selection.Selector;
 import geneticAlgorithm.selection.SelectorTournament;
 
 /**
+ * Runs the GeneticAlgorithm for OrionAI.
  * 
+ * Arguments: [log file] [-resume] [-race]. Each generation is logged to the
+ * log file (binary if its name ends in .bin, CSV otherwise). The state of the
+ * run is saved to a checkpoint file every few generations; with -resume, the
+ * run continues from the last checkpoint (if there is one) instead of 
+ * starting again. With -race, new Individuals are raced against the 
+ * Population, so fewer games are played for those which won't survive (the
+ * games of each round are still played on the ParallelEvaluator's workers).
  * 
  * @author Simon Dicken
  * @version 2015-02-22
  */
 public class GAMainTest {
 
+	private static final String CHECKPOINT_PATH = "ga-checkpoint.bin";
+	private static final int CHECKPOINT_INTERVAL = 2;
+	
 	public static void main(String[] args) {
 		
 		long t0 = System.currentTimeMillis();
 		
+		String logPath = "generations.csv";
+		boolean resume = false;
+		boolean race = false;
+		for (String arg : args) {
+			if (arg.equals("-resume")) {
+				resume = true;
+			} else if (arg.equals("-race")) {
+				race = true;
+			} else {
+				logPath = arg;
+			}
+		}
+		
 		Bounds pillBounds = new Bounds(-10, 10);
 		Bounds preyBounds = new Bounds(-10, 10);
 		Bounds predatorBounds = new Bounds(-10, 10);
@@ -48,15 +80,16 @@ public class GAMainTest {
 		int maxIter = genParams.getMaxIteration();
 		RandomGenerator rand1 = new Randomisor();
 		RandomGenerator rand2 = new Randomisor();
+		RandomGenerator rand4 = new Randomisor();
 		
-		Selector<OrionAI> s = new SelectorTournament<OrionAI>(2);
+		Selector<OrionAI> s = new SelectorTournament<OrionAI>(2, rand4);
 		Mutator<OrionAI> m = 
 				new OrionAIMutatorNonUniform(aiBounds, rand1, 0.5, maxIter);
 		Breeder<OrionAI> b = new OrionAIBreederBLXAlpha(aiBounds, rand2, 0.5);
 		EvoParams<OrionAI> evoParams = new EvoParams<OrionAI>(s, m, b);
 		
 		Population<Individual<OrionAI>> pop = 
-				new PopulationTreeSet<Individual<OrionAI>>();
+				new PopulationTreap<Individual<OrionAI>>();
 		
 		boolean useBaseAI = true;
 		OrionAI baseAI = new OrionAI(-6.648677643928376, -9.762598527682236, 
@@ -69,16 +102,49 @@ public class GAMainTest {
 			fillPopulationRandom(pop, genParams, aiBounds);
 		}
 
-		Function<OrionAI> func = new OrionAIFunction(4);
+		int numGames = 4;
+		Function<OrionAI> func = new OrionAIFunction(numGames);
 
 		GeneticAlgorithm<OrionAI> ga = 
 				new OrionAIGeneticAlgorithm(pop, evoParams, genParams, func);
 		
-
-		for (int i = 0; i < maxIter; ++i) {
+		int numWorkers = Runtime.getRuntime().availableProcessors();
+		ParallelEvaluator<OrionAI> evaluator = new ParallelEvaluator<OrionAI>(
+				OrionAIFunction.factory(numGames), numWorkers, t0);
+		ga.setParallelEvaluator(evaluator);
+		
+		if (race) {
+			OrionAIFunction raceFunc = new OrionAIFunction(numGames);
+			raceFunc.setPrintResults(false);
+			ga.setRacingEvaluator(new RacingEvaluator<OrionAI>(raceFunc, 2, 
+					2 * numGames, 2.0));
+		}
+		
+		GACheckpointer<OrionAI> checkpointer = new GACheckpointer<OrionAI>(
+				new File(CHECKPOINT_PATH), new OrionAIEncoder(), 
+				CHECKPOINT_INTERVAL, rand1, rand2, rand4);
+		ga.setCheckpointer(checkpointer);
+		
+		boolean resumed = resume && checkpointer.restore(ga);
+		if (resumed) {
+			System.out.println("Resuming from generation " + ga.getCurrentGen());
+		}
+		
+		GenerationWriterType logType = logPath.endsWith(".bin") ? 
+				GenerationWriterType.Binary : GenerationWriterType.CSV;
+		AsyncGenerationLog<OrionAI> log = new AsyncGenerationLog<OrionAI>(
+				new File(logPath), logType, new OrionAIEncoder(), resumed);
+		ga.setGenerationSink(log);
+		
+		while (ga.getCurrentGen() < maxIter) {
 			ga.nextIteration();
 		}
 		
+		evaluator.shutdown();
+		checkpointer.close();
+		log.close();
+		log.printStats();
+		
 		long t1 = System.currentTimeMillis();
 		
 		System.out.println("Run time = " + (t1-t0) + "ms");
@@ -86,7 +152,7 @@ public class GAMainTest {
 	}
 	
 	
-	private static void fillPopulationRandom(Population<Individual<OrionAI>> pop, 
+	static void fillPopulationRandom(Population<Individual<OrionAI>> pop, 
 			GenerationalParams genParams, OrionAIBounds aiBounds) {
 		
 		RandomGenerator rand3 = new Randomisor();
@@ -115,7 +181,7 @@ public class GAMainTest {
 		}
 	}
 	
-	private static void fillPopulationFromBase(Population<Individual<OrionAI>> pop, 
+	static void fillPopulationFromBase(Population<Individual<OrionAI>> pop, 
 			GenerationalParams genParams, OrionAIBounds aiBounds, OrionAI base) {
 		
 		RandomGenerator rand3 = new Randomisor();
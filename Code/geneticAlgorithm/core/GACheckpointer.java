@@ -0,0 +1,386 @@
+package geneticAlgorithm.core;
+
+import geneticAlgorithm.RandomGenerator;
+import geneticAlgorithm.output.GenomeEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+
+/**
+ * Saves the state of a GeneticAlgorithm to a file every few generations, and
+ * restores it, so that a long run can be resumed after the process stops.
+ *
+ * The state saved is the number of generations completed, the evaluation
+ * counters, the state of every random generator (the GeneticAlgorithm's own,
+ * the ParallelEvaluator's seed generator if there is one, and any others
+ * given to the constructor, e.g. those of the Selector, Mutator and Breeder)
+ * and every Individual: its genome (as encoded by a GenomeEncoder) and its
+ * fitness. The non-uniform mutation schedule depends only on the current
+ * generation, so it is restored along with it.
+ *
+ * The file layout (big-endian) is:
+ *
+ *   header      - magic number, version, current generation, number of
+ *                 evaluations, number of evaluations saved
+ *   generators  - number of generators, then the state of each
+ *   evaluator   - whether there is a ParallelEvaluator, then its seed state
+ *                 (if there is one)
+ *   population  - number of genome values, number of Individuals, then for
+ *                 each Individual (best first) whether its fitness is valid,
+ *                 its fitness, its number of fitness samples and its genome
+ *   checksum    - CRC32 of everything before it
+ *
+ * The state is captured on the thread running the GeneticAlgorithm (which is
+ * quick, as nothing is written), and written to the disk on a background
+ * thread. Each file is written to a temporary file, forced to the disk and
+ * then renamed over the old one, so the checkpoint file is always complete.
+ * If the background thread falls behind, only the latest state is written.
+ *
+ * @author agent
+ * @version 2026-10-17
+ */
+public class GACheckpointer<T> {
+
+	// Identifies a checkpoint file ("ORCK") and the version of its layout
+	private static final int MAGIC = 0x4F52434B;
+	private static final int VERSION = 1;
+
+	private final File file;
+	private final GenomeEncoder<T> encoder;
+	private final int interval;
+	private final List<RandomGenerator> generators;
+	private final int numColumns;
+
+	private final ExecutorService executor;
+	private final AtomicReference<byte[]> pending;
+
+	private volatile int numWritten;
+
+	/**
+	 * Constructor for GACheckpointer.
+	 *
+	 * @param file - the checkpoint file.
+	 * @param encoder - converts genomes to values and back.
+	 * @param interval - the number of generations between checkpoints. A
+	 * checkpoint is also saved after the last generation.
+	 * @param generators - the random generators to save and restore, apart
+	 * from those of the GeneticAlgorithm and its ParallelEvaluator.
+	 */
+	public GACheckpointer(File file, GenomeEncoder<T> encoder, int interval,
+			RandomGenerator... generators) {
+
+		if (interval < 1) {
+			throw new IllegalArgumentException(
+				"The checkpoint interval must be at least 1."
+			);
+		}
+
+		this.file = file;
+		this.encoder = encoder;
+		this.interval = interval;
+		this.generators = new ArrayList<RandomGenerator>(Arrays.asList(generators));
+		this.numColumns = encoder.getColumnNames().length;
+
+		this.pending = new AtomicReference<byte[]>(null);
+		this.numWritten = 0;
+		this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "ga-checkpoint");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Get the number of checkpoint files written so far.
+	 *
+	 * @return the number of checkpoints written.
+	 */
+	public int getNumWritten() {
+		return numWritten;
+	}
+
+	/**
+	 * Called by the GeneticAlgorithm at the end of every generation. Saves a
+	 * checkpoint every interval generations and after the last generation.
+	 *
+	 * @param ga - the GeneticAlgorithm.
+	 */
+	void generationFinished(GeneticAlgorithm<T> ga) {
+		int gen = ga.getCurrentGen();
+		int maxIter = ga.getGenParams().getMaxIteration();
+		if (gen % interval == 0 || gen >= maxIter) {
+			checkpoint(ga);
+		}
+	}
+
+	/**
+	 * Capture the state of the GeneticAlgorithm and write it to the checkpoint
+	 * file in the background.
+	 *
+	 * @param ga - the GeneticAlgorithm to save.
+	 */
+	public void checkpoint(GeneticAlgorithm<T> ga) {
+
+		byte[] state = capture(ga);
+
+		// If the previous state hasn't been written yet, replace it and let
+		// the task already queued write this one.
+		if (pending.getAndSet(state) == null) {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					byte[] latest = pending.getAndSet(null);
+					if (latest != null) {
+						write(latest);
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * Restore the GeneticAlgorithm to the state in the checkpoint file. The
+	 * GeneticAlgorithm should have been set up as it was when the checkpoint
+	 * was saved (including its ParallelEvaluator, if it had one).
+	 *
+	 * @param ga - the GeneticAlgorithm to restore.
+	 * @return true if the state was restored, false if there's no valid
+	 * checkpoint file (in which case the GeneticAlgorithm is unchanged).
+	 */
+	public boolean restore(GeneticAlgorithm<T> ga) {
+
+		if (!file.isFile()) {
+			return false;
+		}
+
+		byte[] bytes;
+		try {
+			bytes = Files.readAllBytes(file.toPath());
+		} catch (IOException e) {
+			System.err.println("Failed to read checkpoint: " + e.toString());
+			return false;
+		}
+
+		if (bytes.length < 8) {
+			System.err.println("Checkpoint file is too short: " + file);
+			return false;
+		}
+
+		CRC32 crc = new CRC32();
+		crc.update(bytes, 0, bytes.length - 8);
+		long storedCrc = ByteBuffer.wrap(bytes, bytes.length - 8, 8).getLong();
+		if (crc.getValue() != storedCrc) {
+			System.err.println("Checkpoint file is corrupt: " + file);
+			return false;
+		}
+
+		try {
+			return read(ga, bytes);
+		} catch (IOException e) {
+			System.err.println("Failed to read checkpoint: " + e.toString());
+			return false;
+		}
+	}
+
+	/**
+	 * Wait for any checkpoint still being written, then stop the background
+	 * thread.
+	 */
+	public void close() {
+		executor.shutdown();
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private byte[] capture(GeneticAlgorithm<T> ga) {
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(ga.getCurrentGen());
+			out.writeLong(ga.getNumEvaluations());
+			out.writeLong(ga.getNumEvaluationsSaved());
+
+			out.writeInt(generators.size() + 1);
+			out.writeLong(ga.getRandomGenerator().getState());
+			for (RandomGenerator generator : generators) {
+				out.writeLong(generator.getState());
+			}
+
+			ParallelEvaluator<T> evaluator = ga.getParallelEvaluator();
+			out.writeBoolean(evaluator != null);
+			if (evaluator != null) {
+				out.writeLong(evaluator.getSeedState());
+			}
+
+			Population<Individual<T>> pop = ga.getPop();
+			int size = pop.size();
+			out.writeInt(numColumns);
+			out.writeInt(size);
+			double[] values = new double[numColumns];
+			for (int i = 0; i < size; ++i) {
+				Individual<T> ind = pop.getNthMax(i);
+				boolean valid = ind.isFitnessValid();
+				out.writeBoolean(valid);
+				out.writeDouble(valid ? ind.getFitness() : 0);
+				out.writeInt(ind.getNumSamples());
+				encoder.encode(ind.getRepresentation(), values);
+				for (double value : values) {
+					out.writeDouble(value);
+				}
+			}
+
+			out.flush();
+			CRC32 crc = new CRC32();
+			crc.update(bytes.toByteArray());
+			out.writeLong(crc.getValue());
+			out.flush();
+		} catch (IOException e) {
+			// Can't happen when writing to memory
+			throw new IllegalStateException(e);
+		}
+
+		return bytes.toByteArray();
+	}
+
+	private boolean read(GeneticAlgorithm<T> ga, byte[] bytes)
+			throws IOException {
+
+		DataInputStream in = new DataInputStream(
+				new ByteArrayInputStream(bytes));
+
+		if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+			System.err.println("Not a checkpoint file: " + file);
+			return false;
+		}
+
+		int currentGen = in.readInt();
+		long numEvaluations = in.readLong();
+		long numEvaluationsSaved = in.readLong();
+
+		int numGenerators = in.readInt();
+		if (numGenerators != generators.size() + 1) {
+			System.err.println("Checkpoint has the wrong number of generators.");
+			return false;
+		}
+		long[] states = new long[numGenerators];
+		for (int i = 0; i < numGenerators; ++i) {
+			states[i] = in.readLong();
+		}
+
+		ParallelEvaluator<T> evaluator = ga.getParallelEvaluator();
+		boolean hasEvaluator = in.readBoolean();
+		if (hasEvaluator != (evaluator != null)) {
+			System.err.println("Checkpoint doesn't match the evaluator.");
+			return false;
+		}
+		long evaluatorState = hasEvaluator ? in.readLong() : 0;
+
+		if (in.readInt() != numColumns) {
+			System.err.println("Checkpoint doesn't match the genome encoder.");
+			return false;
+		}
+
+		int size = in.readInt();
+		Population<Individual<T>> pop = new PopulationTreap<Individual<T>>();
+		double[] values = new double[numColumns];
+		for (int i = 0; i < size; ++i) {
+			boolean valid = in.readBoolean();
+			double fitness = in.readDouble();
+			int numSamples = in.readInt();
+			for (int c = 0; c < numColumns; ++c) {
+				values[c] = in.readDouble();
+			}
+			Individual<T> ind = new Individual<T>(encoder.decode(values));
+			ind.restoreFitness(fitness, numSamples, valid);
+			pop.insert(ind);
+		}
+
+		// Everything has been read, so now change the GeneticAlgorithm.
+		ga.restoreState(currentGen, pop, numEvaluations, numEvaluationsSaved);
+		ga.getRandomGenerator().setState(states[0]);
+		for (int i = 0; i < generators.size(); ++i) {
+			generators.get(i).setState(states[i + 1]);
+		}
+		if (hasEvaluator) {
+			evaluator.setSeedState(evaluatorState);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Write the state to a temporary file, force it to the disk and rename it
+	 * over the checkpoint file.
+	 */
+	private void write(byte[] state) {
+
+		File dir = file.getAbsoluteFile().getParentFile();
+		File temp = null;
+		FileOutputStream out = null;
+		try {
+			temp = File.createTempFile(file.getName(), ".tmp", dir);
+			out = new FileOutputStream(temp);
+			out.write(state);
+			out.flush();
+			out.getFD().sync();
+			out.close();
+			out = null;
+
+			try {
+				Files.move(temp.toPath(), file.toPath(),
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), file.toPath(),
+						StandardCopyOption.REPLACE_EXISTING);
+			}
+			temp = null;
+			++numWritten;
+
+		} catch (IOException e) {
+			System.err.println("Failed to write checkpoint: " + e.toString());
+		} finally {
+			if (out != null) {
+				try {
+					out.close();
+				} catch (IOException e) {
+					System.err.println("Failed to close checkpoint: " + e.toString());
+				}
+			}
+			if (temp != null) {
+				temp.delete();
+			}
+		}
+	}
+
+}
@@ -1,11 +1,20 @@
 package geneticAlgorithm.core;
 
+import geneticAlgorithm.Bounds;
+import geneticAlgorithm.RandomGenerator;
+import geneticAlgorithm.Randomisor;
 import geneticAlgorithm.crossover.Breeder;
 import geneticAlgorithm.function.Function;
+import geneticAlgorithm.function.SampledFunction;
 import geneticAlgorithm.mutation.Mutator;
+import geneticAlgorithm.output.GenerationSink;
 import geneticAlgorithm.selection.Selector;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 
@@ -14,12 +23,24 @@ import java.util.List;
  */
 public abstract class GeneticAlgorithm<T> {
 
+	private static final Bounds UNIT_BOUNDS = new Bounds(0, 1);
+
 	protected int currentGen;
 	
 	private Population<Individual<T>> pop;
 	private EvoParams<T> evoParams;
 	private GenerationalParams genParams;
 	private Function<T> function;
+	private ParallelEvaluator<T> evaluator;
+	private RacingEvaluator<T> racer;
+	private GenerationSink<T> sink;
+	private GACheckpointer<T> checkpointer;
+	private RandomGenerator random;
+	
+	private boolean noisyFitness;
+	private Set<Individual<T>> evaluatedThisGen;
+	private long numEvaluations;
+	private long numEvaluationsSaved;
 	
 	public GeneticAlgorithm(
 			Population<Individual<T>> pop, 
@@ -31,6 +52,16 @@ public abstract class GeneticAlgorithm<T> {
 		this.evoParams = evoParams;
 		this.genParams = genParams;
 		this.function = function;
+		this.evaluator = null;
+		this.racer = null;
+		this.sink = null;
+		this.checkpointer = null;
+		this.random = new Randomisor();
+		this.noisyFitness = false;
+		this.evaluatedThisGen = Collections.newSetFromMap(
+				new IdentityHashMap<Individual<T>, Boolean>());
+		this.numEvaluations = 0;
+		this.numEvaluationsSaved = 0;
 		this.currentGen = 0;
 	}
 	
@@ -39,20 +70,27 @@ public abstract class GeneticAlgorithm<T> {
 		int maxIter = getGenParams().getMaxIteration();
 		
 		if (getCurrentGen() < maxIter) {
+			evaluatedThisGen.clear();
 			Population<Individual<T>> parents = select();
 			Population<Individual<T>> offspring = crossover(parents);
 			mutate(offspring);
 			calculateFitness(offspring);
 			revisePopulation(offspring);
 			additionalActions();
+			if (sink != null) {
+				sink.write(currentGen, pop);
+			}
 			++currentGen;
+			if (checkpointer != null) {
+				checkpointer.generationFinished(this);
+			}
 		}
 		
 	}
 	
 	protected Population<Individual<T>> select() {
 		
-		Population<Individual<T>> parents = new PopulationTreeSet<Individual<T>>();
+		Population<Individual<T>> parents = new PopulationTreap<Individual<T>>();
 		
 		for (int i=0; i<getGenParams().getNumParents(); ++i) {
 			Selector<T> s = getEvoParams().getSelector();
@@ -66,18 +104,18 @@ public abstract class GeneticAlgorithm<T> {
 	
 	protected Population<Individual<T>> crossover(Population<Individual<T>> parents) {
 		
-		Population<Individual<T>> offspring = new PopulationTreeSet<Individual<T>>();
+		Population<Individual<T>> offspring = new PopulationTreap<Individual<T>>();
 		
 		int parentsSize = parents.size();
 		int maxParent = parentsSize - parentsSize%2;
 		
 		for(int i=1; i<=maxParent; i+=2) {
 			
-			double randCrossover = Math.random();
+			double randCrossover = random.randomDouble(UNIT_BOUNDS);
 			if (randCrossover < getGenParams().getProbCrossover()) {
 				
-				int rand1 = (int) (Math.random() * parentsSize);
-				int rand2 = (int) (Math.random() * (parentsSize - 1));
+				int rand1 = (int) (random.randomDouble(UNIT_BOUNDS) * parentsSize);
+				int rand2 = (int) (random.randomDouble(UNIT_BOUNDS) * (parentsSize - 1));
 				
 				Individual<T> parent1 = parents.removeNthMax(rand1);
 				Individual<T> parent2 = parents.removeNthMax(rand2);
@@ -104,7 +142,7 @@ public abstract class GeneticAlgorithm<T> {
 		
 		for (int i=0; i<offspring.size(); ++i) {
 			
-			double randMutation = Math.random();
+			double randMutation = random.randomDouble(UNIT_BOUNDS);
 			if (randMutation < getGenParams().getProbMutation()) {
 				
 				Mutator<T> mutator = getEvoParams().getMutator();
@@ -116,11 +154,79 @@ public abstract class GeneticAlgorithm<T> {
 		}
 	}
 	
+	/**
+	 * Evaluate the Individuals of the Population whose fitness isn't up to
+	 * date. Individuals that haven't changed since they were last evaluated 
+	 * keep their fitness, unless the fitness is noisy, in which case they are 
+	 * evaluated again and the new value averaged with the earlier ones (but 
+	 * only once per generation, so new offspring aren't sampled again when 
+	 * they join the Population). Samples are counted in the Function's own 
+	 * units: an evaluation by a SampledFunction counts as getNumSamples().
+	 * 
+	 * If there is a RacingEvaluator, it evaluates the Individuals whose 
+	 * fitness isn't up to date, racing them against the current Population 
+	 * (taking its samples on the ParallelEvaluator's workers, if there is 
+	 * one).
+	 * 
+	 * @param population - the Individuals to evaluate.
+	 */
 	protected void calculateFitness(Population<Individual<T>> population) {
 		
+		// Take the Individuals out first: the order of the Population depends
+		// on the fitness values, which are about to change.
+		List<Individual<T>> toEvaluate = new ArrayList<Individual<T>>();
+		List<Individual<T>> toRace = new ArrayList<Individual<T>>();
+		List<Individual<T>> resampled = new ArrayList<Individual<T>>();
+		List<Double> previousMeans = new ArrayList<Double>();
+		List<Integer> previousSamples = new ArrayList<Integer>();
+		
 		int popSize = population.size();
 		for (int i=0; i<popSize; ++i) {
-			getFunction().evaluate(population.getNthMax(i));
+			Individual<T> ind = population.getNthMax(i);
+			if (!ind.isFitnessValid()) {
+				if (racer != null) {
+					toRace.add(ind);
+				} else {
+					toEvaluate.add(ind);
+				}
+			} else if (noisyFitness && !evaluatedThisGen.contains(ind)) {
+				toEvaluate.add(ind);
+				resampled.add(ind);
+				previousMeans.add(ind.getFitness());
+				previousSamples.add(ind.getNumSamples());
+			} else {
+				++numEvaluationsSaved;
+			}
+		}
+		
+		if (evaluator != null) {
+			evaluator.evaluate(toEvaluate);
+		} else {
+			for (Individual<T> ind : toEvaluate) {
+				getFunction().evaluate(ind);
+			}
+		}
+		numEvaluations += toEvaluate.size();
+		
+		// An evaluation by a SampledFunction averages several samples.
+		if (function instanceof SampledFunction) {
+			int numSamples = ((SampledFunction<T>) function).getNumSamples();
+			for (Individual<T> ind : toEvaluate) {
+				ind.setFitness(ind.getFitness(), numSamples);
+			}
+		}
+		
+		if (!toRace.isEmpty()) {
+			racer.evaluate(toRace, pop, genParams.getPopSize(), evaluator);
+			numEvaluations += toRace.size();
+		}
+		
+		evaluatedThisGen.addAll(toEvaluate);
+		evaluatedThisGen.addAll(toRace);
+		
+		for (int i=0; i<resampled.size(); ++i) {
+			resampled.get(i).averageFitness(previousMeans.get(i), 
+					previousSamples.get(i));
 		}
 		
 	}
@@ -132,11 +238,11 @@ public abstract class GeneticAlgorithm<T> {
 			pop.insert(offspring.getNthMax(i));
 		}
 		
-		// Recalculate all the fitness values.
+		// Calculate any fitness values which aren't up to date.
 		calculateFitness(pop);
 		
 		// Re-sort the population.
-		Population<Individual<T>> newPop = new PopulationTreeSet<Individual<T>>();
+		Population<Individual<T>> newPop = new PopulationTreap<Individual<T>>();
 		int popSize = pop.size();
 		for (int i=0; i<popSize; ++i) {
 			Individual<T> ind = pop.getMin();
@@ -178,4 +284,169 @@ public abstract class GeneticAlgorithm<T> {
 	public Function<T> getFunction() {
 		return function;
 	}
+	
+	/**
+	 * Set the evaluator used to calculate fitness values concurrently. If the
+	 * evaluator is null (the default), each Individual is evaluated in turn by
+	 * the Function on the calling thread.
+	 * 
+	 * @param evaluator - the evaluator to use, or null.
+	 */
+	public void setParallelEvaluator(ParallelEvaluator<T> evaluator) {
+		this.evaluator = evaluator;
+	}
+	
+	public ParallelEvaluator<T> getParallelEvaluator() {
+		return evaluator;
+	}
+	
+	/**
+	 * Set the evaluator used to race new Individuals against the Population,
+	 * so that fewer samples are spent on those which won't survive, or null 
+	 * (the default) to evaluate every new Individual in full. If there is also
+	 * a ParallelEvaluator, the racing samples are taken on its workers, so its
+	 * Functions must be SampledFunctions.
+	 * 
+	 * @param racer - the racing evaluator to use, or null.
+	 */
+	public void setRacingEvaluator(RacingEvaluator<T> racer) {
+		this.racer = racer;
+	}
+	
+	public RacingEvaluator<T> getRacingEvaluator() {
+		return racer;
+	}
+	
+	/**
+	 * Set the sink which receives the Population at the end of every 
+	 * generation, or null (the default) for none.
+	 * 
+	 * @param sink - the sink to use, or null.
+	 */
+	public void setGenerationSink(GenerationSink<T> sink) {
+		this.sink = sink;
+	}
+	
+	public GenerationSink<T> getGenerationSink() {
+		return sink;
+	}
+	
+	/**
+	 * Set the checkpointer, which is told at the end of every generation, or
+	 * null (the default) for none.
+	 * 
+	 * @param checkpointer - the checkpointer to use, or null.
+	 */
+	public void setCheckpointer(GACheckpointer<T> checkpointer) {
+		this.checkpointer = checkpointer;
+	}
+	
+	public GACheckpointer<T> getCheckpointer() {
+		return checkpointer;
+	}
+	
+	/**
+	 * Set the generator used for the random choices in crossover and mutation
+	 * (which Individuals to breed and mutate).
+	 * 
+	 * @param random - the generator to use.
+	 */
+	public void setRandomGenerator(RandomGenerator random) {
+		this.random = random;
+	}
+	
+	public RandomGenerator getRandomGenerator() {
+		return random;
+	}
+	
+	/**
+	 * Restore the state of the GeneticAlgorithm (e.g. from a checkpoint).
+	 * 
+	 * @param currentGen - the number of generations completed.
+	 * @param pop - the Population.
+	 * @param numEvaluations - the number of evaluations carried out.
+	 * @param numEvaluationsSaved - the number of evaluations skipped.
+	 */
+	void restoreState(int currentGen, Population<Individual<T>> pop, 
+			long numEvaluations, long numEvaluationsSaved) {
+		this.currentGen = currentGen;
+		this.pop = pop;
+		this.numEvaluations = numEvaluations;
+		this.numEvaluationsSaved = numEvaluationsSaved;
+		
+		// The non-uniform schedules depend only on the current generation.
+		evoParams.getSelector().setCurrentGen(currentGen);
+		evoParams.getMutator().setCurrentGen(currentGen);
+		evoParams.getBreeder().setCurrentGen(currentGen);
+	}
+	
+	/**
+	 * Add Individuals from another GeneticAlgorithm (e.g. another island) to
+	 * the Population, then remove the least fit Individuals to bring it back
+	 * to its usual size. Individuals whose fitness isn't up to date are
+	 * evaluated first.
+	 *
+	 * @param migrants - the Individuals to add.
+	 */
+	void immigrate(List<Individual<T>> migrants) {
+
+		List<Individual<T>> toEvaluate = new ArrayList<Individual<T>>();
+		for (Individual<T> ind : migrants) {
+			if (!ind.isFitnessValid()) {
+				toEvaluate.add(ind);
+			}
+		}
+		if (evaluator != null) {
+			evaluator.evaluate(toEvaluate);
+		} else {
+			for (Individual<T> ind : toEvaluate) {
+				getFunction().evaluate(ind);
+			}
+		}
+		numEvaluations += toEvaluate.size();
+
+		for (Individual<T> ind : migrants) {
+			pop.insert(ind);
+		}
+
+		int newSize = pop.size();
+		for (int i=newSize; i>genParams.getPopSize(); --i) {
+			pop.removeMin();
+		}
+	}
+
+	/**
+	 * Set whether the fitness function is noisy. If it is, Individuals are 
+	 * evaluated again every generation they survive, and their fitness is the
+	 * running mean of all their evaluations. Otherwise (the default), an
+	 * Individual is only evaluated when it is new or has been mutated.
+	 * 
+	 * @param noisyFitness - true if the fitness function is noisy.
+	 */
+	public void setNoisyFitness(boolean noisyFitness) {
+		this.noisyFitness = noisyFitness;
+	}
+	
+	public boolean isNoisyFitness() {
+		return noisyFitness;
+	}
+	
+	/**
+	 * Get the number of evaluations carried out so far.
+	 * 
+	 * @return the number of evaluations.
+	 */
+	public long getNumEvaluations() {
+		return numEvaluations;
+	}
+	
+	/**
+	 * Get the number of evaluations skipped so far because the Individual's 
+	 * fitness was already up to date.
+	 * 
+	 * @return the number of evaluations saved.
+	 */
+	public long getNumEvaluationsSaved() {
+		return numEvaluationsSaved;
+	}
 }
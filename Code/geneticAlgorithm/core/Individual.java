@@ -16,11 +16,13 @@ public class Individual<T> implements Comparable<Individual<T>> {
 	private T representation;
 	private double fitness;
 	private boolean fitnessValid;
+	private int numSamples;
 	
 	public Individual(T representation) {
 		this.representation = representation;
-		this.fitness = Math.random() * Double.MAX_VALUE;
+		this.fitness = 0;
 		this.fitnessValid = false;
+		this.numSamples = 0;
 	}
 
 	public double getFitness() {
@@ -48,16 +50,81 @@ public class Individual<T> implements Comparable<Individual<T>> {
 	}
 
 	public void setFitness(double fitness) {
+		setFitness(fitness, 1);
+	}
+	
+	/**
+	 * Set the fitness value to the mean of the given number of samples (e.g.
+	 * the games played by a SampledFunction).
+	 * 
+	 * @param fitness - the mean of the samples.
+	 * @param numSamples - the number of samples averaged into it.
+	 */
+	void setFitness(double fitness, int numSamples) {
 		
 		this.fitness = fitness;
 		
 		fitnessValid = true;
+		this.numSamples = numSamples;
+	}
+	
+	/**
+	 * Whether the fitness value is up to date, i.e. it has been set since the
+	 * Individual was created or last mutated.
+	 * 
+	 * @return true if the fitness value is up to date, false otherwise.
+	 */
+	public boolean isFitnessValid() {
+		return fitnessValid;
+	}
+	
+	/**
+	 * The number of evaluations averaged into the fitness value.
+	 * 
+	 * @return the number of fitness samples.
+	 */
+	public int getNumSamples() {
+		return numSamples;
+	}
+	
+	/**
+	 * Fold an earlier mean of fitness samples into the fitness value, which 
+	 * should have just been set (by setFitness()) to the mean of new samples.
+	 * The fitness value becomes the mean of all the samples.
+	 * 
+	 * @param previousMean - the mean of the earlier samples.
+	 * @param previousSamples - the number of earlier samples.
+	 */
+	void averageFitness(double previousMean, int previousSamples) {
+		
+		assert fitnessValid && numSamples > 0 : "No new fitness sample set.";
+		
+		if (previousSamples > 0) {
+			int total = previousSamples + numSamples;
+			fitness = previousMean + 
+					(fitness - previousMean) * numSamples / total;
+			numSamples = total;
+		}
+	}
+	
+	/**
+	 * Restore the fitness value and its state (e.g. from a checkpoint).
+	 * 
+	 * @param fitness - the fitness value.
+	 * @param numSamples - the number of evaluations averaged into it.
+	 * @param fitnessValid - whether the fitness value is up to date.
+	 */
+	void restoreFitness(double fitness, int numSamples, boolean fitnessValid) {
+		this.fitness = fitness;
+		this.numSamples = numSamples;
+		this.fitnessValid = fitnessValid;
 	}
 	
 	public void mutate(Mutator<T> mutator) {
 		mutator.mutate(getRepresentation());
 		
 		fitnessValid = false;
+		numSamples = 0;
 	}
 
 	public List<Individual<T>> crossover(Breeder<T> breeder, Individual<T> partner) {
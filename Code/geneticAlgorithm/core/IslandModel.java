@@ -0,0 +1,186 @@
+package geneticAlgorithm.core;
+
+import geneticAlgorithm.output.GenomeEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs several GeneticAlgorithms (islands) at once, each on its own thread
+ * with its own Population, Selector, Mutator and Breeder, and every few
+ * generations copies the best Individuals of each island to the next.
+ *
+ * The islands are joined in a ring by lock-free queues: every migrationInterval
+ * generations, each island sends copies of its numMigrants best Individuals
+ * to the next island's queue, and takes in whatever has arrived in its own
+ * queue (keeping the population at its usual size by dropping the least fit).
+ * Nothing waits for migrants, so each island runs at its own pace and no
+ * thread is left idle while another island finishes a generation.
+ *
+ * Migrants are copied (through a GenomeEncoder), so no representation is
+ * shared between islands, and they keep their fitness, so they aren't
+ * evaluated again on arrival. The islands must not share anything else that
+ * isn't thread safe (e.g. their Functions or random generators).
+ *
+ * @author agent
+ * @version 2026-10-17
+ */
+public class IslandModel<T> {
+
+	private final List<GeneticAlgorithm<T>> islands;
+	private final List<Queue<Individual<T>>> inboxes;
+	private final GenomeEncoder<T> encoder;
+	private final int migrationInterval;
+	private final int numMigrants;
+
+	/**
+	 * Constructor for IslandModel.
+	 *
+	 * @param islands - the GeneticAlgorithms to run, one per thread.
+	 * @param encoder - used to copy migrants.
+	 * @param migrationInterval - the number of generations between
+	 * migrations.
+	 * @param numMigrants - the number of Individuals each island sends per
+	 * migration.
+	 */
+	public IslandModel(List<GeneticAlgorithm<T>> islands,
+			GenomeEncoder<T> encoder, int migrationInterval, int numMigrants) {
+
+		if (islands.isEmpty()) {
+			throw new IllegalArgumentException("There must be at least one island.");
+		}
+		if (migrationInterval < 1 || numMigrants < 0) {
+			throw new IllegalArgumentException(
+				"Migration interval must be at least 1 and number of " +
+				"migrants must not be negative."
+			);
+		}
+
+		this.islands = new ArrayList<GeneticAlgorithm<T>>(islands);
+		this.encoder = encoder;
+		this.migrationInterval = migrationInterval;
+		this.numMigrants = numMigrants;
+
+		this.inboxes = new ArrayList<Queue<Individual<T>>>();
+		for (int i = 0; i < islands.size(); ++i) {
+			inboxes.add(new ConcurrentLinkedQueue<Individual<T>>());
+		}
+	}
+
+	public List<GeneticAlgorithm<T>> getIslands() {
+		return islands;
+	}
+
+	/**
+	 * Run every island until it has completed its maximum number of
+	 * generations, and wait for them all to finish.
+	 *
+	 * @return the fittest Individual across all the islands.
+	 */
+	public Individual<T> run() {
+
+		final AtomicReference<Throwable> failure =
+				new AtomicReference<Throwable>(null);
+
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < islands.size(); ++i) {
+			final int island = i;
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						runIsland(island);
+					} catch (RuntimeException e) {
+						failure.compareAndSet(null, e);
+					}
+				}
+			}, "island-" + i);
+			threads.add(thread);
+			thread.start();
+		}
+
+		try {
+			for (Thread thread : threads) {
+				thread.join();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Island model interrupted.");
+		}
+
+		if (failure.get() != null) {
+			throw new IllegalStateException("An island failed.", failure.get());
+		}
+
+		return getBest();
+	}
+
+	/**
+	 * Get the fittest Individual across all the islands.
+	 *
+	 * @return the fittest Individual.
+	 */
+	public Individual<T> getBest() {
+		Individual<T> best = null;
+		for (GeneticAlgorithm<T> ga : islands) {
+			Individual<T> ind = ga.getPop().getMax();
+			if (best == null || ind.getFitness() > best.getFitness()) {
+				best = ind;
+			}
+		}
+		return best;
+	}
+
+	private void runIsland(int island) {
+
+		GeneticAlgorithm<T> ga = islands.get(island);
+		Queue<Individual<T>> inbox = inboxes.get(island);
+		Queue<Individual<T>> next = inboxes.get((island + 1) % islands.size());
+		int maxIter = ga.getGenParams().getMaxIteration();
+
+		while (ga.getCurrentGen() < maxIter) {
+			ga.nextIteration();
+			if (ga.getCurrentGen() % migrationInterval == 0) {
+				emigrate(ga, next);
+				immigrate(ga, inbox);
+			}
+		}
+	}
+
+	private void emigrate(GeneticAlgorithm<T> ga, Queue<Individual<T>> next) {
+
+		Population<Individual<T>> pop = ga.getPop();
+		int count = Math.min(numMigrants, pop.size());
+		for (int i = 0; i < count; ++i) {
+			next.offer(copy(pop.getNthMax(i)));
+		}
+	}
+
+	private void immigrate(GeneticAlgorithm<T> ga, Queue<Individual<T>> inbox) {
+
+		List<Individual<T>> migrants = new ArrayList<Individual<T>>();
+		Individual<T> migrant = inbox.poll();
+		while (migrant != null) {
+			migrants.add(migrant);
+			migrant = inbox.poll();
+		}
+
+		if (!migrants.isEmpty()) {
+			ga.immigrate(migrants);
+		}
+	}
+
+	private Individual<T> copy(Individual<T> ind) {
+
+		double[] values = new double[encoder.getColumnNames().length];
+		encoder.encode(ind.getRepresentation(), values);
+
+		Individual<T> copy = new Individual<T>(encoder.decode(values));
+		copy.restoreFitness(ind.getFitness(), ind.getNumSamples(), true);
+		return copy;
+	}
+
+}
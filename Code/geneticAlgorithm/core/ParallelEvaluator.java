@@ -0,0 +1,283 @@
+package geneticAlgorithm.core;
+
+import geneticAlgorithm.StateRandom;
+import geneticAlgorithm.function.Function;
+import geneticAlgorithm.function.FunctionFactory;
+import geneticAlgorithm.function.SampledFunction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Evaluates the fitness of Individuals concurrently on a fixed pool of worker
+ * threads.
+ *
+ * Each worker owns its own Function (created by a FunctionFactory) and its own
+ * Random, so nothing used during an evaluation is shared between threads.
+ * Before each evaluation, the worker's Random is re-seeded with a seed drawn
+ * (in order) from the evaluator's own Random. So the seed each Individual is
+ * evaluated with depends only on its position in the batch, not on which
+ * worker evaluates it or when. So a seeded evaluator gives the same fitness
+ * values every run, as long as the Functions take all their randomness from
+ * the worker's Random (as OrionAIFunction does: its GameSimulator seeds each
+ * game's maze, agents and power ups from it).
+ *
+ * The fitness values are set through Individual.setFitness() by the workers,
+ * and evaluate() only returns once every Individual has been evaluated.
+ * 
+ * If the workers' Functions are SampledFunctions, single samples can also be
+ * taken through sample() (e.g. for each round of a RacingEvaluator), seeded
+ * in the same way.
+ *
+ * @author agent
+ * @version 2026-10-17
+ */
+public class ParallelEvaluator<T> {
+
+	private final ExecutorService executor;
+	private final BlockingQueue<Worker<T>> workers;
+	private final StateRandom seeds;
+
+	/**
+	 * Constructor for ParallelEvaluator.
+	 *
+	 * @param factory - creates the Function of each worker.
+	 * @param numWorkers - the number of worker threads.
+	 * @param seed - the seed of the Random the evaluation seeds are drawn
+	 * from.
+	 */
+	public ParallelEvaluator(FunctionFactory<T> factory, int numWorkers,
+			long seed) {
+
+		if (numWorkers < 1) {
+			throw new IllegalArgumentException(
+				"A ParallelEvaluator needs at least one worker."
+			);
+		}
+
+		this.seeds = new StateRandom(seed);
+		this.workers = new ArrayBlockingQueue<Worker<T>>(numWorkers);
+		for (int i = 0; i < numWorkers; ++i) {
+			Random random = new Random();
+			workers.add(new Worker<T>(factory.create(random), random));
+		}
+
+		// Daemon threads, so an evaluator which isn't shut down doesn't stop
+		// the program from exiting.
+		this.executor = Executors.newFixedThreadPool(numWorkers,
+				new ThreadFactory() {
+
+			private int count = 0;
+
+			@Override
+			public synchronized Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "fitness-worker-" + count);
+				thread.setDaemon(true);
+				++count;
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Evaluate every Individual in the Population.
+	 *
+	 * @param population - the Individuals to evaluate.
+	 */
+	public void evaluate(Population<Individual<T>> population) {
+
+		// Take the Individuals out first: the order of the Population depends
+		// on the fitness values, which are about to change.
+		List<Individual<T>> inds = new ArrayList<Individual<T>>();
+		int popSize = population.size();
+		for (int i = 0; i < popSize; ++i) {
+			inds.add(population.getNthMax(i));
+		}
+
+		evaluate(inds);
+	}
+
+	/**
+	 * Evaluate every Individual in the list.
+	 *
+	 * @param inds - the Individuals to evaluate.
+	 */
+	public void evaluate(List<Individual<T>> inds) {
+
+		List<Future<Void>> results = new ArrayList<Future<Void>>();
+		for (Individual<T> ind : inds) {
+			long seed = seeds.nextLong();
+			results.add(executor.submit(new EvaluateTask(ind, seed)));
+		}
+
+		await(results);
+	}
+
+	/**
+	 * Take one sample of the fitness of each Individual in the list. The
+	 * Individuals' fitness values aren't changed. The samples are taken
+	 * concurrently, and an Individual's genome (e.g. an OrionAI) needn't be
+	 * thread-safe, so no Individual may appear in the list more than once.
+	 *
+	 * @param inds - the Individuals to sample.
+	 * @return the samples, in the same order as the Individuals.
+	 */
+	public double[] sample(List<Individual<T>> inds) {
+
+		Set<Individual<T>> seen = Collections.newSetFromMap(
+				new IdentityHashMap<Individual<T>, Boolean>());
+		for (Individual<T> ind : inds) {
+			if (!seen.add(ind)) {
+				throw new IllegalArgumentException(
+					"An Individual can only be sampled once per batch."
+				);
+			}
+		}
+
+		List<Future<Double>> results = new ArrayList<Future<Double>>();
+		for (Individual<T> ind : inds) {
+			long seed = seeds.nextLong();
+			results.add(executor.submit(new SampleTask(ind, seed)));
+		}
+
+		List<Double> values = await(results);
+		double[] samples = new double[values.size()];
+		for (int i = 0; i < samples.length; ++i) {
+			samples[i] = values.get(i);
+		}
+		return samples;
+	}
+
+	/**
+	 * Get the state of the Random the evaluation seeds are drawn from.
+	 *
+	 * @return the state of the seed generator.
+	 */
+	public long getSeedState() {
+		return seeds.getState();
+	}
+
+	/**
+	 * Restore the Random the evaluation seeds are drawn from to a state
+	 * returned by getSeedState().
+	 *
+	 * @param state - the state to restore.
+	 */
+	public void setSeedState(long state) {
+		seeds.setState(state);
+	}
+
+	/**
+	 * Stop the worker threads. The evaluator can't be used afterwards.
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Wait for every task to finish, and get their results in order.
+	 */
+	private <V> List<V> await(List<Future<V>> results) {
+
+		List<V> values = new ArrayList<V>();
+		try {
+			for (Future<V> result : results) {
+				values.add(result.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			cancel(results);
+			throw new IllegalStateException("Fitness evaluation interrupted.");
+		} catch (ExecutionException e) {
+			cancel(results);
+			throw new IllegalStateException("Fitness evaluation failed.",
+					e.getCause());
+		}
+		return values;
+	}
+
+	private void cancel(List<? extends Future<?>> results) {
+		for (Future<?> result : results) {
+			result.cancel(true);
+		}
+	}
+
+	private class EvaluateTask implements Callable<Void> {
+
+		private final Individual<T> ind;
+		private final long seed;
+
+		public EvaluateTask(Individual<T> ind, long seed) {
+			this.ind = ind;
+			this.seed = seed;
+		}
+
+		@Override
+		public Void call() throws InterruptedException {
+
+			// There are as many workers as threads, so one is always free.
+			Worker<T> worker = workers.take();
+			try {
+				worker.random.setSeed(seed);
+				worker.function.evaluate(ind);
+			} finally {
+				workers.add(worker);
+			}
+			return null;
+		}
+	}
+
+	private class SampleTask implements Callable<Double> {
+
+		private final Individual<T> ind;
+		private final long seed;
+
+		public SampleTask(Individual<T> ind, long seed) {
+			this.ind = ind;
+			this.seed = seed;
+		}
+
+		@Override
+		public Double call() throws InterruptedException {
+
+			Worker<T> worker = workers.take();
+			try {
+				if (!(worker.function instanceof SampledFunction)) {
+					throw new IllegalStateException(
+						"The evaluator's Functions can't be sampled."
+					);
+				}
+				worker.random.setSeed(seed);
+				SampledFunction<T> function =
+						(SampledFunction<T>) worker.function;
+				return function.sample(ind);
+			} finally {
+				workers.add(worker);
+			}
+		}
+	}
+
+	private static class Worker<T> {
+
+		private final Function<T> function;
+		private final Random random;
+
+		public Worker(Function<T> function, Random random) {
+			this.function = function;
+			this.random = random;
+		}
+	}
+
+}
@@ -0,0 +1,285 @@
+package geneticAlgorithm.core;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A Population backed by an order-statistic treap (a randomly balanced binary
+ * search tree whose nodes know the size of their subtree).
+ *
+ * Individuals are ordered by fitness, with Individuals of equal fitness
+ * ordered by when they were inserted (earlier ones rank lower). So, unlike
+ * PopulationTreeSet, Individuals with tied fitness are all kept. Insertion and
+ * every get/remove by rank take O(log n) expected time.
+ *
+ * The fitness of each Individual is read once, when it is inserted. If the
+ * fitness changes afterwards, the Individual keeps its place until it is
+ * removed and re-inserted.
+ *
+ * @author agent
+ * @version 2026-10-17
+ */
+public class PopulationTreap<T extends Individual<?>> implements Population<T> {
+
+	private Node<T> root;
+
+	// Used to order Individuals of equal fitness
+	private long insertCount;
+
+	// State of the (xorshift) generator of node priorities. The priorities
+	// only affect the shape of the tree, never the order of the Individuals.
+	private int priorityState;
+
+	public PopulationTreap() {
+		this.root = null;
+		this.insertCount = 0;
+		this.priorityState = 0x2545F491;
+	}
+
+	@Override
+	public boolean insert(T ind) {
+
+		Node<T> node = new Node<T>(ind, ind.getFitness(), insertCount,
+				nextPriority());
+		++insertCount;
+
+		Node<T>[] parts = splitByKey(root, node.fitness, node.sequence);
+		root = merge(merge(parts[0], node), parts[1]);
+		return true;
+	}
+
+	@Override
+	public T removeMax() {
+		return removeNthMin(size() - 1);
+	}
+
+	@Override
+	public T removeMin() {
+		return removeNthMin(0);
+	}
+
+	@Override
+	public void removeMaxN(int n) {
+		checkCount(n);
+		Node<T>[] parts = splitByRank(root, size() - n);
+		root = parts[0];
+	}
+
+	@Override
+	public void removeMinN(int n) {
+		checkCount(n);
+		Node<T>[] parts = splitByRank(root, n);
+		root = parts[1];
+	}
+
+	@Override
+	public T removeNthMax(int n) {
+		checkRank(n);
+		return removeNthMin(size() - 1 - n);
+	}
+
+	@Override
+	public T removeNthMin(int n) {
+		checkRank(n);
+		Node<T>[] lower = splitByRank(root, n);
+		Node<T>[] upper = splitByRank(lower[1], 1);
+		root = merge(lower[0], upper[1]);
+		return upper[0].ind;
+	}
+
+	@Override
+	public T getMax() {
+		return getNthMin(size() - 1);
+	}
+
+	@Override
+	public T getMin() {
+		return getNthMin(0);
+	}
+
+	@Override
+	public T getNthMax(int n) {
+		checkRank(n);
+		return getNthMin(size() - 1 - n);
+	}
+
+	@Override
+	public T getNthMin(int n) {
+		checkRank(n);
+
+		Node<T> node = root;
+		int rank = n;
+		while (true) {
+			int leftSize = size(node.left);
+			if (rank < leftSize) {
+				node = node.left;
+			} else if (rank == leftSize) {
+				return node.ind;
+			} else {
+				rank -= leftSize + 1;
+				node = node.right;
+			}
+		}
+	}
+
+	@Override
+	public int size() {
+		return size(root);
+	}
+
+	private void checkRank(int n) {
+		if (root == null) {
+			throw new NoSuchElementException("The population is empty.");
+		}
+		if (n < 0) {
+			throw new IllegalArgumentException("n must not be negative.");
+		}
+		if (n >= size()) {
+			throw new IllegalArgumentException(
+					"n is larger than size of population.");
+		}
+	}
+
+	private void checkCount(int n) {
+		if (root == null) {
+			throw new NoSuchElementException("The population is empty.");
+		}
+		if (n < 0) {
+			throw new IllegalArgumentException("n must not be negative.");
+		}
+		if (n > size()) {
+			throw new IllegalArgumentException(
+					"n is larger than size of population.");
+		}
+	}
+
+	private int nextPriority() {
+		int x = priorityState;
+		x ^= x << 13;
+		x ^= x >>> 17;
+		x ^= x << 5;
+		priorityState = x;
+		return x;
+	}
+
+	private static int size(Node<?> node) {
+		return (node == null) ? 0 : node.size;
+	}
+
+	/**
+	 * Whether a node comes before the given key.
+	 */
+	private static boolean before(Node<?> node, double fitness, long sequence) {
+		if (node.fitness != fitness) {
+			return node.fitness < fitness;
+		}
+		return node.sequence < sequence;
+	}
+
+	/**
+	 * Split a tree into the nodes before the given key and the rest.
+	 */
+	private static <T extends Individual<?>> Node<T>[] splitByKey(Node<T> node,
+			double fitness, long sequence) {
+
+		if (node == null) {
+			return pair(null, null);
+		}
+
+		if (before(node, fitness, sequence)) {
+			Node<T>[] parts = splitByKey(node.right, fitness, sequence);
+			node.right = parts[0];
+			node.update();
+			return pair(node, parts[1]);
+		} else {
+			Node<T>[] parts = splitByKey(node.left, fitness, sequence);
+			node.left = parts[1];
+			node.update();
+			return pair(parts[0], node);
+		}
+	}
+
+	/**
+	 * Split a tree into its first n nodes and the rest.
+	 */
+	private static <T extends Individual<?>> Node<T>[] splitByRank(Node<T> node,
+			int n) {
+
+		if (node == null) {
+			return pair(null, null);
+		}
+
+		int leftSize = size(node.left);
+		if (n <= leftSize) {
+			Node<T>[] parts = splitByRank(node.left, n);
+			node.left = parts[1];
+			node.update();
+			return pair(parts[0], node);
+		} else {
+			Node<T>[] parts = splitByRank(node.right, n - leftSize - 1);
+			node.right = parts[0];
+			node.update();
+			return pair(node, parts[1]);
+		}
+	}
+
+	/**
+	 * Join two trees, where every node of the first comes before every node of
+	 * the second.
+	 */
+	private static <T extends Individual<?>> Node<T> merge(Node<T> first,
+			Node<T> second) {
+
+		if (first == null) {
+			return second;
+		}
+		if (second == null) {
+			return first;
+		}
+
+		if (first.priority > second.priority) {
+			first.right = merge(first.right, second);
+			first.update();
+			return first;
+		} else {
+			second.left = merge(first, second.left);
+			second.update();
+			return second;
+		}
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static <T extends Individual<?>> Node<T>[] pair(Node<T> first,
+			Node<T> second) {
+		Node<T>[] parts = new Node[2];
+		parts[0] = first;
+		parts[1] = second;
+		return parts;
+	}
+
+	private static class Node<T> {
+
+		private final T ind;
+		private final double fitness;
+		private final long sequence;
+		private final int priority;
+
+		private Node<T> left;
+		private Node<T> right;
+		private int size;
+
+		public Node(T ind, double fitness, long sequence, int priority) {
+			this.ind = ind;
+			this.fitness = fitness;
+			this.sequence = sequence;
+			this.priority = priority;
+			this.left = null;
+			this.right = null;
+			this.size = 1;
+		}
+
+		private void update() {
+			size = 1 + size(left) + size(right);
+		}
+	}
+
+}
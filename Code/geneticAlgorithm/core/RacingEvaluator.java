@@ -0,0 +1,285 @@
+package geneticAlgorithm.core;
+
+import geneticAlgorithm.function.SampledFunction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Evaluates new Individuals by racing them: samples (e.g. games) are taken a
+ * round at a time, and an Individual stops being sampled as soon as it is
+ * clearly going to be removed from the Population at the end of the
+ * generation.
+ *
+ * An Individual will be removed if it isn't among the popSize fittest of the
+ * Population and the Individuals being evaluated. After every round, the
+ * fitness of the popSize'th fittest (using the mean of the samples so far for
+ * the Individuals being evaluated) is the cut-off, and any Individual whose
+ * upper confidence bound (mean + z * standard error) is below the cut-off is
+ * culled. The rest are sampled until they have the usual number of samples
+ * (SampledFunction.getNumSamples()).
+ *
+ * The samples not taken from culled Individuals are then spent on the close
+ * contenders, i.e. those whose confidence interval still contains the
+ * cut-off, up to maxSamples each. The samples not spent are counted as saved.
+ * The fitness of each Individual is set to the mean of its samples, counted
+ * as that many samples.
+ *
+ * The samples of each round are taken together as one batch, with at most
+ * one sample per Individual. Given a ParallelEvaluator, the batch is spread
+ * over its worker pool (whose Functions must be SampledFunctions); otherwise
+ * the samples are taken one after another with this evaluator's own
+ * function.
+ *
+ * @author agent
+ * @version 2026-10-17
+ */
+public class RacingEvaluator<T> {
+
+	private final SampledFunction<T> function;
+	private final int minSamples;
+	private final int maxSamples;
+	private final double z;
+
+	private long numSamplesTaken;
+	private long numSamplesSaved;
+	private long numCulled;
+
+	/**
+	 * Constructor for RacingEvaluator.
+	 *
+	 * @param function - the function to sample.
+	 * @param minSamples - the number of samples taken from every Individual
+	 * before any can be culled (at least 2).
+	 * @param maxSamples - the most samples taken from any Individual (at least
+	 * the function's usual number of samples).
+	 * @param z - the width of the confidence interval, in standard errors.
+	 */
+	public RacingEvaluator(SampledFunction<T> function, int minSamples,
+			int maxSamples, double z) {
+
+		int numSamples = function.getNumSamples();
+		if (minSamples < 2 || minSamples > numSamples ||
+				maxSamples < numSamples) {
+			throw new IllegalArgumentException(
+				"Need 2 <= minSamples <= " + numSamples + " <= maxSamples."
+			);
+		}
+		if (z <= 0) {
+			throw new IllegalArgumentException("z must be positive.");
+		}
+
+		this.function = function;
+		this.minSamples = minSamples;
+		this.maxSamples = maxSamples;
+		this.z = z;
+		this.numSamplesTaken = 0;
+		this.numSamplesSaved = 0;
+		this.numCulled = 0;
+	}
+
+	/**
+	 * Evaluate the Individuals.
+	 *
+	 * @param inds - the Individuals to evaluate.
+	 * @param pop - the Population the Individuals will compete with (any of
+	 * its Individuals whose fitness isn't up to date are ignored).
+	 * @param popSize - the number of Individuals which will survive.
+	 */
+	public void evaluate(List<Individual<T>> inds,
+			Population<Individual<T>> pop, int popSize) {
+		evaluate(inds, pop, popSize, null);
+	}
+
+	/**
+	 * Evaluate the Individuals, taking the samples of each round on the
+	 * given ParallelEvaluator's worker pool.
+	 *
+	 * @param inds - the Individuals to evaluate.
+	 * @param pop - the Population the Individuals will compete with (any of
+	 * its Individuals whose fitness isn't up to date are ignored).
+	 * @param popSize - the number of Individuals which will survive.
+	 * @param evaluator - the evaluator to take the samples on, or null to
+	 * take them on this thread.
+	 */
+	public void evaluate(List<Individual<T>> inds,
+			Population<Individual<T>> pop, int popSize,
+			ParallelEvaluator<T> evaluator) {
+
+		List<Racer> racers = new ArrayList<Racer>();
+		for (Individual<T> ind : inds) {
+			racers.add(new Racer(ind));
+		}
+
+		List<Double> known = new ArrayList<Double>();
+		int size = pop.size();
+		for (int i = 0; i < size; ++i) {
+			Individual<T> ind = pop.getNthMax(i);
+			if (ind.isFitnessValid()) {
+				known.add(ind.getFitness());
+			}
+		}
+
+		int numSamples = function.getNumSamples();
+		long budget = (long) racers.size() * numSamples;
+		long taken = 0;
+
+		// Take the minimum samples a round at a time, so that no Racer is in a
+		// round twice (its samples would be taken at the same time).
+		List<Racer> round = new ArrayList<Racer>(racers);
+		for (int i = 0; i < minSamples; ++i) {
+			sample(round, evaluator);
+			taken += round.size();
+		}
+
+		// Bring every Individual which isn't culled up to the usual number of
+		// samples, then spend what's left on the close contenders.
+		boolean sampled = true;
+		while (sampled) {
+			double cutOff = cutOff(known, racers, popSize);
+			round.clear();
+			for (Racer racer : racers) {
+				if (racer.culled) {
+					continue;
+				}
+				if (racer.upperBound() < cutOff) {
+					racer.culled = true;
+					++numCulled;
+					continue;
+				}
+
+				boolean contender = racer.lowerBound() <= cutOff;
+				if (racer.n < numSamples ||
+						(contender && racer.n < maxSamples && taken < budget)) {
+					round.add(racer);
+					++taken;
+				}
+			}
+			sampled = !round.isEmpty();
+			sample(round, evaluator);
+		}
+
+		for (Racer racer : racers) {
+			racer.ind.setFitness(racer.mean(), racer.n);
+		}
+
+		numSamplesTaken += taken;
+		numSamplesSaved += budget - taken;
+	}
+
+	/**
+	 * Get the number of samples taken so far.
+	 *
+	 * @return the number of samples taken.
+	 */
+	public long getNumSamplesTaken() {
+		return numSamplesTaken;
+	}
+
+	/**
+	 * Get the number of samples saved so far, compared to taking the usual
+	 * number of samples from every Individual.
+	 *
+	 * @return the number of samples saved.
+	 */
+	public long getNumSamplesSaved() {
+		return numSamplesSaved;
+	}
+
+	/**
+	 * Get the number of Individuals culled so far.
+	 *
+	 * @return the number of Individuals culled.
+	 */
+	public long getNumCulled() {
+		return numCulled;
+	}
+
+	/**
+	 * Take one sample for each Racer in the round.
+	 */
+	private void sample(List<Racer> round, ParallelEvaluator<T> evaluator) {
+
+		if (round.isEmpty()) {
+			return;
+		}
+
+		double[] values;
+		if (evaluator != null) {
+			List<Individual<T>> inds = new ArrayList<Individual<T>>();
+			for (Racer racer : round) {
+				inds.add(racer.ind);
+			}
+			values = evaluator.sample(inds);
+		} else {
+			values = new double[round.size()];
+			for (int i = 0; i < values.length; ++i) {
+				values[i] = function.sample(round.get(i).ind);
+			}
+		}
+
+		for (int i = 0; i < values.length; ++i) {
+			Racer racer = round.get(i);
+			double value = values[i];
+			++racer.n;
+			racer.sum += value;
+			racer.sumSquares += value * value;
+		}
+	}
+
+	/**
+	 * The fitness of the popSize'th fittest, or -infinity if every Individual
+	 * will survive.
+	 */
+	private double cutOff(List<Double> known, List<Racer> racers,
+			int popSize) {
+
+		if (known.size() + racers.size() <= popSize) {
+			return Double.NEGATIVE_INFINITY;
+		}
+
+		List<Double> values = new ArrayList<Double>(known);
+		for (Racer racer : racers) {
+			values.add(racer.mean());
+		}
+		Collections.sort(values, Collections.reverseOrder());
+		return values.get(popSize - 1);
+	}
+
+	private class Racer {
+
+		private final Individual<T> ind;
+		private int n;
+		private double sum;
+		private double sumSquares;
+		private boolean culled;
+
+		public Racer(Individual<T> ind) {
+			this.ind = ind;
+			this.n = 0;
+			this.sum = 0;
+			this.sumSquares = 0;
+			this.culled = false;
+		}
+
+		private double mean() {
+			return sum / n;
+		}
+
+		private double standardError() {
+			double mean = mean();
+			double variance = (sumSquares - n * mean * mean) / (n - 1);
+			return Math.sqrt(Math.max(variance, 0) / n);
+		}
+
+		private double upperBound() {
+			return mean() + z * standardError();
+		}
+
+		private double lowerBound() {
+			return mean() - z * standardError();
+		}
+	}
+
+}
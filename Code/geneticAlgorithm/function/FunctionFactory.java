@@ -0,0 +1,25 @@
+package geneticAlgorithm.function;
+
+import java.util.Random;
+
+/**
+ * Creates Functions, so that each thread evaluating Individuals can have its
+ * own Function (along with anything the Function holds, such as a game 
+ * simulation).
+ * 
+ * @author agent
+ * @version 2026-10-17
+ */
+public interface FunctionFactory<T> {
+	
+	/**
+	 * Create a new Function. Any randomness in the Function's evaluations 
+	 * should come from the given Random, which belongs to the caller's thread 
+	 * and is re-seeded before each evaluation.
+	 * 
+	 * @param random - the Random the Function should use.
+	 * @return the new Function.
+	 */
+	Function<T> create(Random random);
+	
+}
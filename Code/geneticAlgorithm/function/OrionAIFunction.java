@@ -2,115 +2,196 @@ package geneticAlgorithm.function;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
-import logic.GameOverReason;
 import ai.OrionAI;
-
-import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
-import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
-
 import game.GameResult;
-import game.PredatorPreyGame;
-import game.ResultLogger;
+import game.GameSimulator;
 import geneticAlgorithm.core.Individual;
+import logic.AgentConfig;
+import logic.GameConfiguration;
 import logic.GameOverReason;
+import physics.PhysicsConfiguration;
 
-public class OrionAIFunction implements Function<OrionAI> {
+/**
+ * OrionAIFunction class.
+ *
+ * Evaluates an OrionAI by playing a number of games with it and averaging a
+ * score of each result. The games are played headless by a GameSimulator, so
+ * no window is needed and each game takes as long as the CPU needs rather
+ * than its time limit. Games can also be played one at a time through
+ * sample(), e.g. by a RacingEvaluator.
+ */
+public class OrionAIFunction implements SampledFunction<OrionAI> {
 
 	private int numGames;
-	
-	@SuppressWarnings("unused")
-	private LwjglApplication lwjgl;
-	private PredatorPreyGame ppg;
-	
+
+	private GameSimulator simulator;
+
+	private boolean printResults;
+
+	/**
+	 * Constructor for OrionAIFunction, using the default game and physics
+	 * configurations, with every agent controlled by the AI.
+	 *
+	 * @param numGames - the number of games played per evaluation.
+	 */
 	public OrionAIFunction(int numGames) {
+		this(numGames, createGameConfig(), new PhysicsConfiguration());
+	}
+
+	/**
+	 * Constructor for OrionAIFunction.
+	 *
+	 * @param numGames - the number of games played per evaluation.
+	 * @param gameConfig - the configuration each game is built from.
+	 * @param physicsConfig - the configuration each physics simulation is
+	 * built from.
+	 */
+	public OrionAIFunction(int numGames, GameConfiguration gameConfig,
+			PhysicsConfiguration physicsConfig) {
+		this(numGames, gameConfig, physicsConfig, null);
+	}
+
+	/**
+	 * Constructor for OrionAIFunction.
+	 *
+	 * @param numGames - the number of games played per evaluation.
+	 * @param gameConfig - the configuration each game is built from.
+	 * @param physicsConfig - the configuration each physics simulation is
+	 * built from.
+	 * @param random - the Random used to seed the maze (if the configuration
+	 * doesn't) and place the agents and power ups of each game, or null to
+	 * set them up as for GameLogic(GameConfiguration).
+	 */
+	public OrionAIFunction(int numGames, GameConfiguration gameConfig,
+			PhysicsConfiguration physicsConfig, Random random) {
 		this.numGames = numGames;
-		
-		ppg = new PredatorPreyGame();
-		LwjglApplicationConfiguration config = new LwjglApplicationConfiguration();
-		config.forceExit = false;
-		
-		lwjgl = new LwjglApplication(ppg, config);
-		
-//		String mainMenu = "MAIN_MENU";
-//		while ((ppg.getScreen() != null) && (ppg.getScreenByName(mainMenu) != ppg.getScreen())) {
-//			wait(1000);
-//		}
-		wait(5000);
+		this.simulator = new GameSimulator(gameConfig, physicsConfig, random);
+		this.printResults = true;
+	}
+
+	/**
+	 * Set whether the result of each game and evaluation is printed. Results
+	 * are printed by default.
+	 *
+	 * @param printResults - true to print the results, false otherwise.
+	 */
+	public void setPrintResults(boolean printResults) {
+		this.printResults = printResults;
+	}
+
+	/**
+	 * Create a factory for OrionAIFunctions which don't print their results,
+	 * for use by the workers of a ParallelEvaluator.
+	 *
+	 * @param numGames - the number of games played per evaluation.
+	 * @param gameConfig - the configuration each game is built from.
+	 * @param physicsConfig - the configuration each physics simulation is
+	 * built from.
+	 * @return the factory.
+	 */
+	public static FunctionFactory<OrionAI> factory(final int numGames,
+			final GameConfiguration gameConfig,
+			final PhysicsConfiguration physicsConfig) {
+
+		return new FunctionFactory<OrionAI>() {
+			@Override
+			public Function<OrionAI> create(Random random) {
+				OrionAIFunction function = new OrionAIFunction(numGames,
+						gameConfig, physicsConfig, random);
+				function.setPrintResults(false);
+				return function;
+			}
+		};
+	}
+
+	/**
+	 * Create a factory for OrionAIFunctions using the default game and
+	 * physics configurations (see OrionAIFunction(int)).
+	 *
+	 * @param numGames - the number of games played per evaluation.
+	 * @return the factory.
+	 */
+	public static FunctionFactory<OrionAI> factory(int numGames) {
+		return factory(numGames, createGameConfig(),
+				new PhysicsConfiguration());
 	}
-	
+
 	@Override
 	public void evaluate(Individual<OrionAI> ind) {
-		
-		ppg.resetLogger();
-		
-		List<ResultLogger> allResults = new ArrayList<ResultLogger>();
-		
+
+		List<GameResult> gameResults = new ArrayList<GameResult>();
+
 		for (int i = 0; i < numGames; ++i) {
-			
-			// We have to set the AI every new game as the game logic is reset, 
-			// so it'll be the default values if we don't set the AI here.
-			ppg.setAI(ind.getRepresentation());
-			
-			//ppg.startGame();
-
-			String gameScreen = "GAME";
-//			while (ppg.getScreenByName(gameScreen) != ppg.getScreen()) {
-//				wait(1000);
-//			}
-			
-			System.out.println("Starting new game... ");
-			
-			String mainMenu = "MAIN_MENU";
-//			while (ppg.getScreenByName(mainMenu) != ppg.getScreen()) {
-//				wait(1000);
-//			}
+			GameResult result = simulator.runGame(ind.getRepresentation());
+			gameResults.add(result);
+		}
+
+		double averageResult = processResults(gameResults);
+		if (printResults) {
+			System.out.println("Average result: " + averageResult);
 		}
-		
-		ResultLogger logger = ppg.getLogger();
-		allResults.add(logger);
-		
-		double averageResult = processResults(allResults);
-		System.out.println("Average result: " + averageResult);
 		ind.setFitness(averageResult);
 	}
 
-	private double processResults(List<ResultLogger> allResults) {
-		
+	@Override
+	public double sample(Individual<OrionAI> ind) {
+		GameResult result = simulator.runGame(ind.getRepresentation());
+		return scoreGame(result);
+	}
+
+	@Override
+	public int getNumSamples() {
+		return numGames;
+	}
+
+	private double processResults(List<GameResult> gameResults) {
+
 		int count = 0;
 		int averageResult = 0;
-		for (ResultLogger logger : allResults) {
-			List<GameResult> gameResults = logger.getResults();
-			for (GameResult gr : gameResults) {
-				double resultPills = Math.pow(
-						(gr.getNumSquares() - gr.getNumPillsRemaining()), 2); 
-				double numSimSteps = gr.getNumSimSteps();
-				double resultWinBonus = 0;
-				if (gr.getGameResult() == GameOverReason.PreyWon_Pills && numSimSteps < 5000) {
-					resultWinBonus = 5000 - numSimSteps;
-				}
-				double result = resultPills + resultWinBonus;
-				averageResult += result;
-				++count;
+		for (GameResult gr : gameResults) {
+			double result = scoreGame(gr);
+			averageResult += result;
+			++count;
+			if (printResults) {
 				System.out.println("Result " + count + ": " + result);
 			}
 		}
-		System.out.println("Number of results = " + count);
+		if (printResults) {
+			System.out.println("Number of results = " + count);
+		}
 		if (count > 0) {
 			return averageResult * 1.0 / count;
 		} else {
 			return 0;
 		}
-		
+
 	}
-	
-	
-	private void wait(int milliseconds) {
-		try {
-			Thread.sleep(milliseconds);
-		} catch (InterruptedException e) {
-			e.printStackTrace();
+
+	private double scoreGame(GameResult gr) {
+		double resultPills = Math.pow(
+				(gr.getNumSquares() - gr.getNumPillsRemaining()), 2);
+		double numSimSteps = gr.getNumSimSteps();
+		double resultWinBonus = 0;
+		if (gr.getGameResult() == GameOverReason.PreyWon_Pills && numSimSteps < 5000) {
+			resultWinBonus = 5000 - numSimSteps;
 		}
+		return resultPills + resultWinBonus;
+	}
+
+	/**
+	 * Create the default game configuration, with no players so that every
+	 * agent is moved by the AI being evaluated.
+	 *
+	 * @return the default game configuration.
+	 */
+	private static GameConfiguration createGameConfig() {
+		GameConfiguration gameConfig = new GameConfiguration();
+		AgentConfig aConfig = gameConfig.getAConfig();
+		aConfig.setNumPredPlayer(0);
+		aConfig.setNumPreyPlayer(0);
+		return gameConfig;
 	}
 
 }
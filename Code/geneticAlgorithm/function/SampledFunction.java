@@ -0,0 +1,31 @@
+package geneticAlgorithm.function;
+
+import geneticAlgorithm.core.Individual;
+
+/**
+ * A Function whose evaluation is the mean of a number of noisy samples (e.g.
+ * the scores of several games), which can also be taken one at a time. This 
+ * lets an evaluator decide how many samples each Individual is worth.
+ * 
+ * @author agent
+ * @version 2026-10-17
+ */
+public interface SampledFunction<T> extends Function<T> {
+	
+	/**
+	 * Take a single sample of the Individual's fitness. The Individual's 
+	 * fitness value isn't changed.
+	 * 
+	 * @param ind - the Individual to sample.
+	 * @return the sample.
+	 */
+	double sample(Individual<T> ind);
+	
+	/**
+	 * Get the number of samples evaluate() averages.
+	 * 
+	 * @return the number of samples per evaluation.
+	 */
+	int getNumSamples();
+	
+}
@@ -0,0 +1,355 @@
+package geneticAlgorithm.output;
+
+import geneticAlgorithm.core.Individual;
+import geneticAlgorithm.core.Population;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A GenerationSink which writes each generation to a file on a background
+ * thread.
+ *
+ * write() takes a snapshot of the Population (the fitness and encoded values
+ * of each Individual) and hands it to the writer thread through a bounded
+ * queue. It never waits: if the queue is full, because the disk can't keep up,
+ * the generation is dropped and counted instead.
+ *
+ * The writer thread flushes the file after each generation, and forces it to
+ * the disk (fsync) every syncInterval generations and when the log is closed.
+ * The number of generations written and dropped, and the number and duration
+ * of the flushes and syncs, are available while the log is running and
+ * printed by printStats().
+ *
+ * @author agent
+ * @version 2026-10-17
+ */
+public class AsyncGenerationLog<T> implements GenerationSink<T> {
+
+	private static final int DEFAULT_CAPACITY = 64;
+	private static final int DEFAULT_SYNC_INTERVAL = 16;
+
+	private final File file;
+	private final GenomeEncoder<T> encoder;
+	private final GenerationWriter writer;
+	private final int syncInterval;
+	private final int numColumns;
+	private final boolean append;
+
+	private final BlockingQueue<GenerationRecord> queue;
+	private final Thread thread;
+	private volatile boolean closed;
+
+	// Statistics, only changed by the writer thread (apart from numDropped,
+	// which is only changed by the thread calling write())
+	private volatile long numWritten;
+	private volatile long numDropped;
+	private volatile long bytesWritten;
+	private volatile long numFlushes;
+	private volatile long flushNanos;
+	private volatile long numSyncs;
+	private volatile long syncNanos;
+	private volatile long maxSyncNanos;
+	private volatile boolean failed;
+
+	/**
+	 * Constructor for AsyncGenerationLog, with the default queue capacity and
+	 * sync interval.
+	 *
+	 * @param file - the file to write to (replaced if it already exists).
+	 * @param type - the format to write.
+	 * @param encoder - converts each Individual's representation to columns.
+	 */
+	public AsyncGenerationLog(File file, GenerationWriterType type,
+			GenomeEncoder<T> encoder) {
+		this(file, type, encoder, false);
+	}
+
+	/**
+	 * Constructor for AsyncGenerationLog, with the default queue capacity and
+	 * sync interval.
+	 *
+	 * @param file - the file to write to.
+	 * @param type - the format to write.
+	 * @param encoder - converts each Individual's representation to columns.
+	 * @param append - true to add to the end of the file if it already exists
+	 * (e.g. when resuming a run), false to replace it.
+	 */
+	public AsyncGenerationLog(File file, GenerationWriterType type,
+			GenomeEncoder<T> encoder, boolean append) {
+		this(file, type, encoder, append, DEFAULT_CAPACITY,
+				DEFAULT_SYNC_INTERVAL);
+	}
+
+	/**
+	 * Constructor for AsyncGenerationLog.
+	 *
+	 * @param file - the file to write to.
+	 * @param type - the format to write.
+	 * @param encoder - converts each Individual's representation to columns.
+	 * @param append - true to add to the end of the file if it already exists
+	 * (e.g. when resuming a run), false to replace it.
+	 * @param capacity - the number of generations which can wait to be
+	 * written before any more are dropped.
+	 * @param syncInterval - the number of generations written between forcing
+	 * the file to the disk.
+	 */
+	public AsyncGenerationLog(File file, GenerationWriterType type,
+			GenomeEncoder<T> encoder, boolean append, int capacity,
+			int syncInterval) {
+
+		if (capacity < 1 || syncInterval < 1) {
+			throw new IllegalArgumentException(
+				"Capacity and sync interval must be at least 1."
+			);
+		}
+
+		this.file = file;
+		this.encoder = encoder;
+		this.writer = GenerationWriterCreator.create(type);
+		this.syncInterval = syncInterval;
+		this.numColumns = encoder.getColumnNames().length;
+		this.append = append;
+
+		this.queue = new ArrayBlockingQueue<GenerationRecord>(capacity);
+		this.closed = false;
+
+		this.thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				writeRecords();
+			}
+		}, "generation-log");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	@Override
+	public void write(int generation, Population<Individual<T>> pop) {
+
+		if (closed) {
+			System.err.println("Generation written after log closed.");
+			return;
+		}
+		if (failed) {
+			return;
+		}
+
+		int size = pop.size();
+		double[] fitness = new double[size];
+		double[][] columns = new double[numColumns][size];
+		double[] values = new double[numColumns];
+		for (int i = 0; i < size; ++i) {
+			Individual<T> ind = pop.getNthMax(i);
+			fitness[i] = ind.getFitness();
+			encoder.encode(ind.getRepresentation(), values);
+			for (int c = 0; c < numColumns; ++c) {
+				columns[c][i] = values[c];
+			}
+		}
+
+		GenerationRecord record = new GenerationRecord(generation, fitness,
+				columns);
+		if (!queue.offer(record)) {
+			++numDropped;
+		}
+	}
+
+	/**
+	 * Write any generations still queued, sync the file and stop the writer
+	 * thread. This waits for the writer thread to finish.
+	 */
+	@Override
+	public void close() {
+
+		if (closed) {
+			return;
+		}
+		closed = true;
+
+		try {
+			// The writer thread may have stopped early if writing failed.
+			while (thread.isAlive() && 
+					!queue.offer(GenerationRecord.END, 100, TimeUnit.MILLISECONDS)) {
+				// Wait for space in the queue
+			}
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	public long getNumWritten() {
+		return numWritten;
+	}
+
+	public long getNumDropped() {
+		return numDropped;
+	}
+
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+
+	public long getNumFlushes() {
+		return numFlushes;
+	}
+
+	public long getFlushNanos() {
+		return flushNanos;
+	}
+
+	public long getNumSyncs() {
+		return numSyncs;
+	}
+
+	public long getSyncNanos() {
+		return syncNanos;
+	}
+
+	public long getMaxSyncNanos() {
+		return maxSyncNanos;
+	}
+
+	/**
+	 * Whether writing has failed (after which nothing more is written).
+	 *
+	 * @return true if writing has failed, false otherwise.
+	 */
+	public boolean hasFailed() {
+		return failed;
+	}
+
+	/**
+	 * Print the statistics of the log.
+	 */
+	public void printStats() {
+		System.out.println("Generation log: " + file);
+		System.out.println("Generations written: " + numWritten +
+				" (dropped " + numDropped + ")");
+		System.out.println("Bytes written: " + bytesWritten);
+		System.out.println("Flushes: " + numFlushes + " (" +
+				(flushNanos / 1000) + "us total)");
+		System.out.println("Syncs: " + numSyncs + " (" +
+				(syncNanos / 1000) + "us total, " +
+				(maxSyncNanos / 1000) + "us max)");
+	}
+
+	/**
+	 * The body of the writer thread.
+	 */
+	private void writeRecords() {
+
+		FileOutputStream fileStream = null;
+		try {
+			boolean newFile = !append || file.length() == 0;
+			fileStream = new FileOutputStream(file, append);
+			CountingOutputStream out = new CountingOutputStream(
+					new BufferedOutputStream(fileStream));
+
+			if (newFile) {
+				writer.writeHeader(out, encoder.getColumnNames());
+			}
+
+			int sinceSync = 0;
+			while (true) {
+				GenerationRecord record = queue.take();
+				if (record == GenerationRecord.END) {
+					break;
+				}
+
+				writer.writeRecord(out, record);
+				flush(out);
+				++numWritten;
+
+				++sinceSync;
+				if (sinceSync >= syncInterval) {
+					sync(fileStream);
+					sinceSync = 0;
+				}
+			}
+
+			flush(out);
+			sync(fileStream);
+
+		} catch (IOException e) {
+			failed = true;
+			System.err.println("Failed to write generation log: " + e.toString());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			if (fileStream != null) {
+				try {
+					fileStream.close();
+				} catch (IOException e) {
+					System.err.println("Failed to close generation log: " + e.toString());
+				}
+			}
+			queue.clear();
+		}
+	}
+
+	private void flush(CountingOutputStream out) throws IOException {
+		long start = System.nanoTime();
+		out.flush();
+		flushNanos += System.nanoTime() - start;
+		++numFlushes;
+		bytesWritten = out.count;
+	}
+
+	private void sync(FileOutputStream fileStream) throws IOException {
+		long start = System.nanoTime();
+		fileStream.getFD().sync();
+		long nanos = System.nanoTime() - start;
+		syncNanos += nanos;
+		maxSyncNanos = Math.max(maxSyncNanos, nanos);
+		++numSyncs;
+	}
+
+	/**
+	 * Counts the bytes written through it.
+	 */
+	private static class CountingOutputStream extends OutputStream {
+
+		private final OutputStream out;
+		private long count;
+
+		public CountingOutputStream(OutputStream out) {
+			this.out = out;
+			this.count = 0;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			++count;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			out.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			out.close();
+		}
+	}
+
+}
@@ -0,0 +1,63 @@
+package geneticAlgorithm.output;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes generations in a compact big-endian binary format.
+ * 
+ * The file starts with a header:
+ * 
+ *   magic ("ORGA"), version, number of columns, and the name of each column
+ *   (as written by DataOutputStream.writeUTF()).
+ * 
+ * Each generation is then written as a block, column by column:
+ * 
+ *   generation number, number of Individuals, the fitness of each Individual
+ *   (best first), then each column's value for each Individual.
+ * 
+ * The numbers of columns and Individuals are ints and all values are doubles.
+ * 
+ * @author agent
+ * @version 2026-10-17
+ */
+class BinaryGenerationWriter implements GenerationWriter {
+
+	private static final int MAGIC = 0x4F524741;
+	private static final int VERSION = 1;
+	
+	@Override
+	public void writeHeader(OutputStream out, String[] columnNames) 
+			throws IOException {
+		
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+		data.writeInt(columnNames.length);
+		for (String name : columnNames) {
+			data.writeUTF(name);
+		}
+	}
+
+	@Override
+	public void writeRecord(OutputStream out, GenerationRecord record) 
+			throws IOException {
+		
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(record.getGeneration());
+		data.writeInt(record.size());
+		writeColumn(data, record.getFitness());
+		for (double[] column : record.getColumns()) {
+			writeColumn(data, column);
+		}
+	}
+	
+	private static void writeColumn(DataOutputStream data, double[] column) 
+			throws IOException {
+		for (double value : column) {
+			data.writeDouble(value);
+		}
+	}
+
+}
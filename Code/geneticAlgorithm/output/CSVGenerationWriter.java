@@ -0,0 +1,55 @@
+package geneticAlgorithm.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes generations as CSV: a header line naming the columns, then one line
+ * per Individual holding the generation, the Individual's rank (0 is the 
+ * best), its fitness and its encoded values.
+ * 
+ * @author agent
+ * @version 2026-10-17
+ */
+class CSVGenerationWriter implements GenerationWriter {
+
+	private final StringBuilder line = new StringBuilder();
+	
+	@Override
+	public void writeHeader(OutputStream out, String[] columnNames) 
+			throws IOException {
+		
+		line.setLength(0);
+		line.append("generation,rank,fitness");
+		for (String name : columnNames) {
+			line.append(',').append(name);
+		}
+		line.append('\n');
+		write(out);
+	}
+
+	@Override
+	public void writeRecord(OutputStream out, GenerationRecord record) 
+			throws IOException {
+		
+		double[] fitness = record.getFitness();
+		double[][] columns = record.getColumns();
+		
+		for (int i = 0; i < record.size(); ++i) {
+			line.setLength(0);
+			line.append(record.getGeneration()).append(',').append(i);
+			line.append(',').append(fitness[i]);
+			for (double[] column : columns) {
+				line.append(',').append(column[i]);
+			}
+			line.append('\n');
+			write(out);
+		}
+	}
+	
+	private void write(OutputStream out) throws IOException {
+		out.write(line.toString().getBytes(StandardCharsets.US_ASCII));
+	}
+
+}
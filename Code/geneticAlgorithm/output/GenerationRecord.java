@@ -0,0 +1,42 @@
+package geneticAlgorithm.output;
+
+/**
+ * A snapshot of one generation, held column by column: the fitness of each
+ * Individual (best first) and each encoded value of each Individual.
+ * 
+ * @author agent
+ * @version 2026-10-17
+ */
+final class GenerationRecord {
+
+	// Marks the end of the records
+	static final GenerationRecord END = new GenerationRecord(-1, 
+			new double[0], new double[0][0]);
+	
+	private final int generation;
+	private final double[] fitness;
+	private final double[][] columns;
+	
+	GenerationRecord(int generation, double[] fitness, double[][] columns) {
+		this.generation = generation;
+		this.fitness = fitness;
+		this.columns = columns;
+	}
+	
+	int getGeneration() {
+		return generation;
+	}
+	
+	int size() {
+		return fitness.length;
+	}
+	
+	double[] getFitness() {
+		return fitness;
+	}
+	
+	double[][] getColumns() {
+		return columns;
+	}
+	
+}
@@ -0,0 +1,32 @@
+package geneticAlgorithm.output;
+
+import geneticAlgorithm.core.Individual;
+import geneticAlgorithm.core.Population;
+
+/**
+ * A GenerationSink receives the Population at the end of each generation of a
+ * GeneticAlgorithm (e.g. to log it).
+ * 
+ * write() is called on the thread running the GeneticAlgorithm, so it should 
+ * return quickly. The Population may change as soon as write() returns.
+ * 
+ * @author agent
+ * @version 2026-10-17
+ */
+public interface GenerationSink<T> {
+	
+	/**
+	 * Receive the Population at the end of a generation.
+	 * 
+	 * @param generation - the number of the generation.
+	 * @param pop - the Population at the end of the generation.
+	 */
+	void write(int generation, Population<Individual<T>> pop);
+	
+	/**
+	 * Finish with the sink, releasing anything it holds. Nothing should be 
+	 * written after the sink is closed.
+	 */
+	void close();
+	
+}
@@ -0,0 +1,34 @@
+package geneticAlgorithm.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes GenerationRecords to a stream in a particular format.
+ * 
+ * @author agent
+ * @version 2026-10-17
+ */
+interface GenerationWriter {
+	
+	/**
+	 * Write whatever comes at the start of the file.
+	 * 
+	 * @param out - the stream to write to.
+	 * @param columnNames - the names of the encoded values.
+	 * @throws IOException - if the stream can't be written to.
+	 */
+	void writeHeader(OutputStream out, String[] columnNames) 
+			throws IOException;
+	
+	/**
+	 * Write one generation.
+	 * 
+	 * @param out - the stream to write to.
+	 * @param record - the generation to write.
+	 * @throws IOException - if the stream can't be written to.
+	 */
+	void writeRecord(OutputStream out, GenerationRecord record) 
+			throws IOException;
+	
+}
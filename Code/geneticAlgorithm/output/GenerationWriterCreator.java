@@ -0,0 +1,32 @@
+package geneticAlgorithm.output;
+
+class GenerationWriterCreator {
+	
+	/**
+	 * Create a GenerationWriter of the given type.
+	 * 
+	 * @param type - the type of GenerationWriter to create.
+	 * @return the created GenerationWriter.
+	 */
+	static GenerationWriter create(GenerationWriterType type) {
+		
+		GenerationWriter writer = null;
+		
+		switch (type) {
+			case CSV:
+				writer = new CSVGenerationWriter();
+				break;
+			case Binary:
+				writer = new BinaryGenerationWriter();
+				break;
+			default:
+				System.err.println("Unknown generation writer type");
+				break;
+		
+		}
+		
+		return writer;
+		
+	}
+
+}
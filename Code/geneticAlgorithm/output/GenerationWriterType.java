@@ -0,0 +1,8 @@
+package geneticAlgorithm.output;
+
+public enum GenerationWriterType {
+
+	CSV,
+	Binary
+	
+}
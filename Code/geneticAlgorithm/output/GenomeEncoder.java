@@ -0,0 +1,36 @@
+package geneticAlgorithm.output;
+
+/**
+ * Converts the representation of an Individual into a fixed number of named
+ * values (so it can be written as columns), and back again.
+ * 
+ * @author agent
+ * @version 2026-10-17
+ */
+public interface GenomeEncoder<T> {
+	
+	/**
+	 * Get the names of the values, in the order encode() gives them.
+	 * 
+	 * @return the names of the values.
+	 */
+	String[] getColumnNames();
+	
+	/**
+	 * Convert a representation into its values.
+	 * 
+	 * @param rep - the representation to convert.
+	 * @param values - filled with the values, in the order of 
+	 * getColumnNames().
+	 */
+	void encode(T rep, double[] values);
+	
+	/**
+	 * Convert values given by encode() back into a representation.
+	 * 
+	 * @param values - the values, in the order of getColumnNames().
+	 * @return the representation.
+	 */
+	T decode(double[] values);
+	
+}
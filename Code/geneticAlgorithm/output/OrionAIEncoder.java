@@ -0,0 +1,39 @@
+package geneticAlgorithm.output;
+
+import ai.OrionAI;
+
+/**
+ * Encodes the six factors of an OrionAI.
+ * 
+ * @author agent
+ * @version 2026-10-17
+ */
+public class OrionAIEncoder implements GenomeEncoder<OrionAI> {
+
+	private static final String[] COLUMNS = new String[] {
+		"pillFactor", "pillDistFactor", "preyFactor", "preyDistFactor", 
+		"predatorFactor", "predatorDistFactor"
+	};
+	
+	@Override
+	public String[] getColumnNames() {
+		return COLUMNS.clone();
+	}
+
+	@Override
+	public void encode(OrionAI ai, double[] values) {
+		values[0] = ai.getPillFactor();
+		values[1] = ai.getPillDistFactor();
+		values[2] = ai.getPreyFactor();
+		values[3] = ai.getPreyDistFactor();
+		values[4] = ai.getPredatorFactor();
+		values[5] = ai.getPredatorDistFactor();
+	}
+
+	@Override
+	public OrionAI decode(double[] values) {
+		return new OrionAI(values[0], values[2], values[4], values[1], 
+				values[3], values[5]);
+	}
+
+}
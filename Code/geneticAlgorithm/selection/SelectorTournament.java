@@ -1,5 +1,8 @@
 package geneticAlgorithm.selection;
 
+import geneticAlgorithm.Bounds;
+import geneticAlgorithm.RandomGenerator;
+import geneticAlgorithm.Randomisor;
 import geneticAlgorithm.core.Individual;
 import geneticAlgorithm.core.Population;
 
@@ -12,8 +15,19 @@ public class SelectorTournament<T> extends Selector<T> {
 
 	int tournSize;
 	
+	private RandomGenerator rand;
+	
 	public SelectorTournament(int tournSize) {
+		this(tournSize, new Randomisor());
+	}
+	
+	public SelectorTournament(int tournSize, RandomGenerator rand) {
 		this.tournSize = tournSize;
+		this.rand = rand;
+	}
+	
+	public RandomGenerator getRand() {
+		return rand;
 	}
 	
 	public int getTournSize() {
@@ -24,11 +38,12 @@ public class SelectorTournament<T> extends Selector<T> {
 	@Override
 	public Individual<T> select(Population<Individual<T>> pop) {
 		
-		int rand1 = (int) (Math.random() * pop.size());
+		Bounds popBounds = new Bounds(0, pop.size() - 1);
+		int rand1 = rand.randomInt(popBounds);
 		int rand2 = rand1;
 		
 		while (rand2 == rand1) {
-			rand2 = (int) (Math.random() * pop.size());
+			rand2 = rand.randomInt(popBounds);
 		}
 		
 		Individual<T> ind1 = pop.getNthMax(rand1);
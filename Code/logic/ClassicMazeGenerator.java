@@ -0,0 +1,635 @@
+package logic;
+
+import geometry.PointXY;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import utils.NumberUtils;
+
+/**
+ * The original maze generation algorithm, moved out of Maze.
+ * 
+ * An initial random path is built and then extended with further random
+ * paths (fillRandom) until ranPathMaxProp of the nodes are filled or loopLimit
+ * paths have been built. Any remaining empty nodes are then joined to the 
+ * existing paths (fillIterate), deadends are joined up until fewer than 
+ * deadEndMinProp of the nodes are deadends (appendDeadends), and finally any 
+ * minimal squares which were formed are removed (removeSquares).
+ * 
+ * The deadends are kept in a list, so this generator slows down considerably
+ * for large mazes. LinearMazeGenerator should be preferred.
+ * 
+ * @author Martin Wong
+ * @author agent
+ * @version 2026-10-17
+ */
+class ClassicMazeGenerator implements MazeGenerator {
+	
+	private Maze maze; // The maze being generated
+	private MazeConfig config; // Configurations for generating the maze
+	private Random rng; // The source of randomness
+	
+	private List<PointXY> deadends; // Records the deadends in the maze
+	private List<PointXY> filled; // Records the nodes which are part of paths
+	private Set<PointXY> filledSet; // The filled nodes, for fast look up
+	private List<PointXY> squares;
+	
+	@Override
+	public void generate(Maze maze, MazeConfig config, Random random) {
+		begin(maze, config, random);
+		addInitialPath();
+		fillRandom();
+		fillIterate();
+		appendDeadends();
+		removeSquares();
+		end();
+	}
+	
+	/**
+	 * Sets up the generator to build paths in the given empty maze. The 
+	 * phases can then be called in order (as generate() does), which lets 
+	 * each phase be timed separately.
+	 * 
+	 * @param maze (Maze)
+	 * @param config (MazeConfig)
+	 * @param random (Random)
+	 */
+	void begin(Maze maze, MazeConfig config, Random random) {
+		this.maze = maze;
+		this.config = config;
+		this.rng = random;
+		this.deadends = new ArrayList<PointXY>();
+		this.filled = new ArrayList<PointXY>();
+		this.filledSet = new HashSet<PointXY>();
+		this.squares = new ArrayList<PointXY>();
+	}
+	
+	/**
+	 * Releases the maze once generation is finished.
+	 */
+	void end() {
+		this.maze = null;
+	}
+	
+	/**
+	 * Records the given point as part of the path.
+	 * 
+	 * @param pos (PointXY)
+	 */
+	private void fill(PointXY pos) {
+		filled.add(pos);
+		filledSet.add(pos);
+	}
+	
+	/**
+	 * Gets a random node in the maze.
+	 * 
+	 * @return randomPoint (PointXY)
+	 */
+	private PointXY randomPoint() {
+		List<PointXY> keys = new ArrayList<PointXY>(maze.getNodes().keySet());
+		return keys.get(NumberUtils.randomInt(rng, 0, keys.size() - 1));
+	}
+	
+	/**
+	 * Add path to the two given points, updating the deadends.
+	 * 
+	 * @param p1: Point 1 (PointXY)
+	 * @param p2: Point 2 (PointXY)
+	 * @return pathAdded (boolean)
+	 */
+	private boolean addPath(PointXY p1, PointXY p2) {
+		boolean success = maze.addPath(p1, p2);
+		
+		if (maze.numberOfPaths(p1) > 1) {
+			deadends.remove(p1);
+		}
+		
+		if (maze.numberOfPaths(p2) > 1) {
+			deadends.remove(p2);
+		}
+		
+		return success;
+	}
+	
+	/**
+	 * Remove path from the two given points, updating the deadends.
+	 * 
+	 * @param p1: Point 1 (PointXY)
+	 * @param p2: Point 2 (PointXY)
+	 * @return pathRemoved (boolean)
+	 */
+	private boolean removePath(PointXY p1, PointXY p2) {
+		boolean success = maze.removePath(p1, p2);
+		
+		if (!deadends.contains(p1) && maze.numberOfPaths(p1) <= 1) {
+			deadends.add(p1);
+		}
+		
+		if (!deadends.contains(p2) && maze.numberOfPaths(p2) <= 1) {
+			deadends.add(p2);
+		}
+		
+		return success;
+	}
+	
+	/**
+	 * Adds the initial pat to the maze from a random starting point.
+	 */
+	void addInitialPath() {
+		PointXY startingPoint = randomPoint();
+		fill(startingPoint);
+		buildPathRandom(); // Build a path from the starting point
+		deadends.add(startingPoint); // At the starting point to deadends
+	}
+	
+	/**
+	 * Creates paths from any random point that is currently a part of the path.
+	 */
+	void fillRandom() {
+		double nSize = maze.numberOfNodes();
+		int counter = 0;
+		
+		// Only build random paths if: proportion is under ranPathMaxProp and counter is under loopLimit
+		while ((filled.size() / nSize) <= config.getRanPathMaxProp() && counter < config.getLoopLimit()) {
+			buildPathRandom();
+			counter++;
+		}
+	}
+	
+	/**
+	 * Creates paths from empty MazeNodes by iterating through the maze.
+	 * Iterate in every direction starting from the initial starting point.
+	 */
+	void fillIterate() {
+		PointXY startingPoint = getRandomPathPosition();
+		PointXY emptyPos = null;
+		
+		// Checks lower left of starting point
+		for (int j = (int) startingPoint.getY(); j >= maze.getDimensions().getMinY(); j--) {
+			for (int i = (int) startingPoint.getX(); i >= maze.getDimensions().getMinX(); i--) {
+				emptyPos = new PointXY(i, j);
+				
+				if (maze.withinDimensions(emptyPos) && !filledSet.contains(emptyPos)) {
+					buildPathFromPoint(emptyPos, false);
+				}
+			}
+		}
+		
+		// Checks lower right of starting point
+		for (int j = (int) startingPoint.getY(); j >= maze.getDimensions().getMinY(); j--) {
+			for (int i = (int) startingPoint.getX(); i <= maze.getDimensions().getMaxX(); i++) {
+				emptyPos = new PointXY(i, j);
+				
+				if (maze.withinDimensions(emptyPos) && !filledSet.contains(emptyPos)) {
+					buildPathFromPoint(emptyPos, false);
+				}
+			}
+		}
+		
+		// Checks upper left of starting point
+		for (int j = (int) startingPoint.getY(); j <= maze.getDimensions().getMaxY(); j++) {
+			for (int i = (int) startingPoint.getX(); i >= maze.getDimensions().getMinX(); i--) {
+				emptyPos = new PointXY(i, j);
+				
+				if (maze.withinDimensions(emptyPos) && !filledSet.contains(emptyPos)) {
+					buildPathFromPoint(emptyPos, false);
+				}
+			}
+		}
+		
+		// Checks upper right of starting point
+		for (int j = (int) startingPoint.getY(); j <= maze.getDimensions().getMaxY(); j++) {
+			for (int i = (int) startingPoint.getX(); i <= maze.getDimensions().getMaxX(); i++) {
+				emptyPos = new PointXY(i, j);
+				
+				if (maze.withinDimensions(emptyPos) && !filledSet.contains(emptyPos)) {
+					buildPathFromPoint(emptyPos, false);
+				}
+			}
+		}
+		
+		
+	}
+	
+	/**
+	 * Join deadends to existing paths based on the deadEndMinProp value.
+	 */
+	void appendDeadends() {
+		double nSize = maze.numberOfNodes();
+		int randomPos = 0;
+		PointXY dEnd = null;
+		
+		// Only join deadends if over the deadEndMinProp
+		while ((deadends.size() / nSize) >= config.getDeadEndMinProp() && deadends.size() > 0) {
+			randomPos = NumberUtils.randomInt(rng, 0, deadends.size() - 1);
+			dEnd = deadends.get(randomPos); // Get a random deadend
+			buildPathFromPoint(dEnd, true);
+		}
+	}
+	
+	/**
+	 * Removes paths formed by a square of adjacent nodes (minimal square),
+	 * e.g. (0, 0), (0, 1), (1, 1), (1, 0). It does this by inspecting the area
+	 * around deadends.
+	 */
+	void removeSquares() {
+		PointXY[] quadrants = null;
+		PointXY ll_ll = null;
+		PointXY ul_ll = null;
+		PointXY ur_ll = null;
+		PointXY lr_ll = null;
+		int random = 0;
+		
+		while (squares.size() > 0) {
+			random = NumberUtils.randomInt(rng, 0, squares.size() - 1);
+			
+			ur_ll = squares.get(random);
+			squares.remove(random);
+			
+			lr_ll = new PointXY (ur_ll.getX(), ur_ll.getY() - 1);
+			ll_ll = new PointXY (ur_ll.getX() - 1, ur_ll.getY() - 1);
+			ul_ll = new PointXY (ur_ll.getX() - 1, ur_ll.getY());
+			
+			quadrants = new PointXY[]{ll_ll, lr_ll, ul_ll, ur_ll};
+			
+			for (PointXY ll : quadrants) {
+				if (isSquare(ll)) {
+					removeAndMaintain(ll);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Builds a random path from any point of the current path.
+	 */
+	private void buildPathRandom() {
+		buildPathHelper(null);
+	}
+	
+	/**
+	 * Build paths from a specified point.
+	 * This method is used for appending deadends and creating paths from empty nodes.
+	 * 
+	 * @param gPos (PointXY)
+	 */
+	private boolean buildPathFromPoint(PointXY gPos, boolean allowSquares) {
+		int randomPos = 0;
+		int newX = 0;
+		int newY = 0;
+		boolean success = false;
+		boolean dEnd = filledSet.contains(gPos); // Determines whether is a deadend or empty node
+		PointXY filledPos = null;
+		PointXY givenPos = gPos;
+		PointXY possiblePos = null;
+		PointXY ll = null;
+		PointXY ul = null;
+		PointXY ur = null;
+		PointXY lr = null;
+		List<int[]> nesw = new ArrayList<int[]>();
+		
+		nesw.add(new int[]{0, 1});
+		nesw.add(new int[]{1, 0});
+		nesw.add(new int[]{0, -1});
+		nesw.add(new int[]{-1, 0});
+		
+		// Try all 4 directions
+		while (nesw.size() > 0) {
+			randomPos = NumberUtils.randomInt(rng, 0, nesw.size() - 1); // Get a random direction: north, east, south, west
+			newX = givenPos.getX() + nesw.get(randomPos)[0];
+			newY = givenPos.getY() + nesw.get(randomPos)[1];
+			
+			filledPos = new PointXY(newX, newY);
+			nesw.remove(randomPos); // Remove the direction used
+			
+			// If new point is within maze and is filled and there is currently no path between this and the given node
+			if (maze.withinDimensions(filledPos) && filledSet.contains(filledPos) && !maze.isPath(givenPos, filledPos)) {
+				addPath(givenPos, filledPos); // Create path
+				
+				ll = new PointXY(givenPos.getX() - 1, givenPos.getY() - 1);
+				ul = new PointXY(givenPos.getX() - 1, givenPos.getY());
+				ur = new PointXY(givenPos.getX(), givenPos.getY());
+				lr = new PointXY(givenPos.getX(), givenPos.getY() - 1);
+				
+				if (dEnd && (isSquare(ll) || isSquare(ul) || isSquare(ur) || isSquare(lr))) {
+					removePath(givenPos, filledPos);
+					possiblePos = new PointXY (filledPos.getX(), filledPos.getY());
+				} else {
+					// Break after successfully adding path
+					if (!filledSet.contains(givenPos)) {
+						fill(givenPos);
+					}
+					success = true;
+					break;
+				}
+			}
+		}
+		
+		if (!success && possiblePos != null && allowSquares) {
+			addPath(givenPos, possiblePos);
+			if (!filledSet.contains(givenPos)) {
+				fill(givenPos);
+			}
+			squares.add(givenPos);
+			success = true;
+		}
+		
+		// If successfully built a path from empty node then continue to build paths from the empty node
+		if (success && !dEnd) {
+			deadends.add(givenPos);
+			buildPathHelper(givenPos);
+		}
+		
+		return success;
+	}
+	
+	/**
+	 * A helper method for building paths.
+	 * The parameter is optional.
+	 * 
+	 * @param cPos (PointXY)
+	 */
+	private void buildPathHelper(PointXY cPos) {
+		int pathLength = 0;
+		int randomPos = 0;
+		int newX = 0;
+		int newY = 0;
+		boolean extend = true;
+		List<int[]> nesw = null;
+		PointXY neighbourPos = null;
+		
+		// If current position not provided, then get a random position that is currently in the exising path
+		PointXY currentPos = (cPos != null) ? cPos : getRandomPathPosition();
+		PointXY originalPos = currentPos;
+		
+		// Carry on building paths is not stuck and if haven't reached the maxLength yet
+		while (extend && pathLength < config.getMaxLength()) {
+			nesw = new ArrayList<int[]>();
+			nesw.add(new int[]{0, 1});
+			nesw.add(new int[]{1, 0});
+			nesw.add(new int[]{0, -1});
+			nesw.add(new int[]{-1, 0});
+			
+			// Try every direction
+			while (nesw.size() > 0) {
+				randomPos = NumberUtils.randomInt(rng, 0, nesw.size() - 1); // Get a random direction: north, east, south, west
+				newX = currentPos.getX() + nesw.get(randomPos)[0];
+				newY = currentPos.getY() + nesw.get(randomPos)[1];
+				
+				neighbourPos = new PointXY(newX, newY);
+				nesw.remove(randomPos); // Remove the direction
+				
+				// If new point is within maze and not part of existing path
+				if (maze.withinDimensions(neighbourPos) && !filledSet.contains(neighbourPos)) {
+					addPath(currentPos, neighbourPos); // Build path between the points
+					
+					fill(neighbourPos);
+					currentPos = neighbourPos; // New point is now the current position
+					pathLength++;
+					
+					extend = true; // Continue building path from the current position
+					break;
+				}
+				
+				extend = false; // Stuck, so stop building path from current position
+			}
+		}
+		
+		if (!currentPos.equals(originalPos)) deadends.add(currentPos); // If a least 1 path is built
+	}
+	
+	/**
+	 * Checks the maze to see whether it contain paths which
+	 * is a square of adjacent MazeNodes (minimal square), e.g. (0, 0), (0, 1), (1, 1), (1, 0).
+	 * 
+	 * @param ll: lower left corner of a minimal square (PointXY)
+	 * @return
+	 */
+	private boolean isSquare(PointXY ll){
+		boolean isSquare = false;
+		PointXY ul = new PointXY(ll.getX(), ll.getY() + 1);
+		PointXY ur = new PointXY(ll.getX() + 1, ll.getY() + 1);
+		PointXY lr = new PointXY(ll.getX() + 1, ll.getY());
+		
+		// Check all 4 corners are within the dimension
+		boolean allWithin = maze.withinDimensions(ll) && maze.withinDimensions(ul)
+				&& maze.withinDimensions(ur) && maze.withinDimensions(lr);
+		
+		if (allWithin) {
+			// Checks to see whether paths exists forms a minimal square
+			isSquare = maze.isPath(ll, ul) && maze.isPath(ul, ur) && maze.isPath(ur, lr) && maze.isPath(lr, ll);
+		}
+		
+		return isSquare;
+	}
+	
+	/**
+	 * Removes a a minimal square from the existing path,
+	 * e.g. (0, 0), (0, 1), (1, 1), (1, 0). It does this while
+	 * maintaining the same number of deadends before and after.
+	 * 
+	 * @param ll: lower left corner of a minimal square (PointXY)
+	 */
+	private void removeAndMaintain(PointXY ll) {
+		Map<PointXY, List<PointXY>> original = null;
+		Map<PointXY, List<PointXY>> unsaturated = unsaturatedAndPaths(ll);
+		Map<PointXY, List<PointXY>> saturated = null;
+		List<PointXY> keys = new ArrayList<PointXY>();
+		List<PointXY> paths = null;
+		PointXY key = null;
+		PointXY pathPoint = null;
+		int random = 0;
+		boolean removed = false;
+		
+		if (unsaturated.size() > 0) {
+			original = unsaturatedAndPaths(ll);
+			
+			for (PointXY k : unsaturated.keySet()) {
+				keys.add(k);
+			}
+			
+			while (keys.size() > 0) {
+				random = NumberUtils.randomInt(rng, 0, keys.size() - 1);
+				key = keys.get(random);
+				keys.remove(random);
+				
+				paths = unsaturated.get(key);
+				
+				while (paths.size() > 0) {
+					random = NumberUtils.randomInt(rng, 0, paths.size() - 1);
+					pathPoint = paths.get(random);
+					paths.remove(random);
+					
+					if (maze.numberOfPaths(pathPoint) > 2) {
+						removePath(key, pathPoint);
+						
+						if (buildPathFromPoint(key, false)) {
+							removed = true;
+							break;
+						} else {
+							addPath(key, pathPoint);
+						}
+					}
+				}
+				
+				if (removed) {
+					break;
+				}
+				
+			}
+			
+			if (!removed && original.size() == 1) {
+				key = new ArrayList<PointXY>(original.keySet()).get(0);
+				
+				paths = original.get(key);
+				random = NumberUtils.randomInt(rng, 0, paths.size() - 1);
+				pathPoint = paths.get(random);
+				paths.remove(random);
+				
+				removePath(key, pathPoint);
+			}
+			
+		} else {
+			saturated = saturatedAndPaths(ll);
+			
+			for (PointXY k : saturated.keySet()) {
+				keys.add(k);
+			}
+			
+			while (keys.size() > 0) {
+				random = NumberUtils.randomInt(rng, 0, keys.size() - 1);
+				key = keys.get(random);
+				keys.remove(random);
+				
+				paths = saturated.get(key);
+				
+				while (paths.size() > 0) {
+					random = NumberUtils.randomInt(rng, 0, paths.size() - 1);
+					pathPoint = paths.get(random);
+					paths.remove(random);
+					
+					if (maze.numberOfPaths(pathPoint) > 2 && maze.numberOfPaths(key) > 2) {
+						removePath(key, pathPoint);
+						removed = true;
+					}
+				}
+				
+				if (removed) {
+					break;
+				}
+				
+			}
+		}
+		
+	}
+	
+	/**
+	 * Get a random point in the current path.
+	 * 
+	 * @return randomPathPosition (PointXY)
+	 */
+	private PointXY getRandomPathPosition() {
+		int randomPos = NumberUtils.randomInt(rng, 0, filled.size() - 1);
+		return filled.get(randomPos);
+	}
+	
+	/**
+	 * Gives a key-value pair, where the key is the unsaturated node and the value is the
+	 * collection of adjacent paths which forms the minimal square.
+	 * 
+	 * @param lower left corner of a minimal square (PointXY)
+	 * @return unsaturated (Map<PointXY, List<PointXY>)
+	 */
+	private Map<PointXY, List<PointXY>> unsaturatedAndPaths(PointXY ll){
+		Map<PointXY, List<PointXY>> unsaturated = new HashMap<PointXY, List<PointXY>>();
+		List<PointXY> paths = null;
+		
+		PointXY ul = new PointXY(ll.getX(), ll.getY() + 1);
+		PointXY ur = new PointXY(ll.getX() + 1, ll.getY() + 1);
+		PointXY lr = new PointXY(ll.getX() + 1, ll.getY());
+		
+		if (!maze.isSaturated(ll)) {
+			paths = new ArrayList<PointXY>();
+			paths.add(ul);
+			paths.add(lr);
+			unsaturated.put(ll, paths);
+		}
+		
+		if (!maze.isSaturated(ul)) {
+			paths = new ArrayList<PointXY>();
+			paths.add(ll);
+			paths.add(ur);
+			unsaturated.put(ul, paths);
+		}
+		
+		if (!maze.isSaturated(ur)) {
+			paths = new ArrayList<PointXY>();
+			paths.add(ul);
+			paths.add(lr);
+			unsaturated.put(ur, paths);
+		}
+		
+		if (!maze.isSaturated(lr)) {
+			paths = new ArrayList<PointXY>();
+			paths.add(ur);
+			paths.add(ll);
+			unsaturated.put(lr, paths);
+		}
+		
+		return unsaturated;
+	}
+	
+	/**
+	 * Gives a key-value pair, where the key is the saturated node and the value is the
+	 * collection of adjacent paths which forms the minimal square.
+	 * 
+	 * @param lower left corner of a minimal square (PointXY)
+	 * @return saturated (Map<PointXY, List<PointXY>)
+	 */
+	private Map<PointXY, List<PointXY>> saturatedAndPaths(PointXY ll){
+		Map<PointXY, List<PointXY>> saturated = new HashMap<PointXY, List<PointXY>>();
+		List<PointXY> paths = null;
+		
+		PointXY ul = new PointXY(ll.getX(), ll.getY() + 1);
+		PointXY ur = new PointXY(ll.getX() + 1, ll.getY() + 1);
+		PointXY lr = new PointXY(ll.getX() + 1, ll.getY());
+		
+		if (maze.isSaturated(ll)) {
+			paths = new ArrayList<PointXY>();
+			paths.add(ul);
+			paths.add(lr);
+			saturated.put(ll, paths);
+		}
+		
+		if (maze.isSaturated(ul)) {
+			paths = new ArrayList<PointXY>();
+			paths.add(ll);
+			paths.add(ur);
+			saturated.put(ul, paths);
+		}
+		
+		if (maze.isSaturated(ur)) {
+			paths = new ArrayList<PointXY>();
+			paths.add(ul);
+			paths.add(lr);
+			saturated.put(ur, paths);
+		}
+		
+		if (maze.isSaturated(lr)) {
+			paths = new ArrayList<PointXY>();
+			paths.add(ur);
+			paths.add(ll);
+			saturated.put(lr, paths);
+		}
+		
+		return saturated;
+	}
+	
+}
@@ -3,10 +3,12 @@ package logic;
 import geometry.PointXY;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 
 import logic.powerup.PowerUp;
@@ -15,6 +17,7 @@ import logic.powerup.PowerUpType;
 import progress.ProgressTask;
 import ai.AILogic;
 import ai.AILogicPartition;
+import ai.AIScheduler;
 import utils.NumberUtils;
 
 /**
@@ -29,16 +32,94 @@ public class GameLogic {
 	private GameState gs;
 	private GameConfiguration gc;
 	private AILogic aiLogic;
+	private AIScheduler aiScheduler;
+	private Random random;
+	
+	// The players and non-players, and the game state (and version of its 
+	// agents) they were found from
+	private List<Agent> players;
+	private List<Agent> playersView;
+	private List<Agent> nonPlayers;
+	private GameState nonPlayersState;
+	private int nonPlayersVersion;
 	
 	/**
 	 * Creates an instance of GameLogic.
 	 * 
+	 * If the maze configuration has a seed, the maze, agent positions, power 
+	 * ups and the AI's random choices are the same every time the 
+	 * configuration is used.
+	 * 
 	 * @param gc (GameConfig)
 	 */
 	public GameLogic(GameConfiguration gc) {
+		this(gc, createRandom(gc));
+	}
+	
+	/**
+	 * Creates an instance of GameLogic which uses the given Random for placing
+	 * agents and power ups, and for seeding the AI's Random.
+	 * 
+	 * @param gc (GameConfig)
+	 * @param random (Random)
+	 */
+	public GameLogic(GameConfiguration gc, Random random) {
+		this(gc, random, null);
+	}
+	
+	/**
+	 * Creates an instance of GameLogic whose non-players are moved by the 
+	 * given AILogic (as for setAILogic(), but without building the default 
+	 * AILogicPartition first).
+	 * 
+	 * @param gc (GameConfig)
+	 * @param ai (AILogic), or null for the default AILogicPartition
+	 */
+	public GameLogic(GameConfiguration gc, AILogic ai) {
+		this(gc, createRandom(gc), ai);
+	}
+	
+	/**
+	 * Creates an instance of GameLogic which uses the given Random for placing
+	 * agents and power ups, and whose non-players are moved by the given 
+	 * AILogic.
+	 * 
+	 * @param gc (GameConfig)
+	 * @param random (Random)
+	 * @param ai (AILogic), or null for an AILogicPartition whose Random is 
+	 * seeded from the given Random
+	 */
+	public GameLogic(GameConfiguration gc, Random random, AILogic ai) {
 		this.gc = gc;
+		this.random = random;
 		createGs();
-		this.aiLogic = new AILogicPartition(gs.getMaze());
+		if (ai == null) {
+			// The AI gets its own Random (drawn from the game's), as it may 
+			// run on its own thread
+			ai = new AILogicPartition(gs.getMaze(), 
+					new Random(random.nextLong()));
+		}
+		setAILogic(ai);
+		this.players = new ArrayList<Agent>();
+		this.playersView = Collections.unmodifiableList(players);
+		this.nonPlayers = new ArrayList<Agent>();
+		this.nonPlayersState = null;
+		this.nonPlayersVersion = 0;
+	}
+	
+	/**
+	 * Creates the Random for the given configuration: seeded from the maze 
+	 * configuration if it has a seed, unseeded otherwise.
+	 * 
+	 * @param gc (GameConfig)
+	 * @return random (Random)
+	 */
+	private static Random createRandom(GameConfiguration gc) {
+		MazeConfig mConfig = gc.getMConfig();
+		if (mConfig != null && mConfig.hasSeed()) {
+			return new Random(mConfig.getSeed());
+		}
+		return new Random();
 	}
 	
 	/**
@@ -84,8 +165,8 @@ public class GameLogic {
 				new HashMap<PointXY, PowerUp>();
 		Map<PointXY, PowerUp> preyPowerUps = new HashMap<PointXY, PowerUp>();
 		
-		// Build maze
-		Maze maze = (gc.getMConfig() == null) ? new Maze(gc.getDimensions()) : new Maze(gc.getDimensions(), gc.getMConfig());
+		// Build maze (seeded mazes come from the cache where possible)
+		Maze maze = (gc.getMConfig() == null) ? new Maze(gc.getDimensions()) : MazeCache.getMaze(gc.getDimensions(), gc.getMConfig());
 		
 		// Populate allPoints
 		for (int i = gc.getDimensions().getMinX(); i <= gc.getDimensions().getMaxX(); i++) {
@@ -100,13 +181,13 @@ public class GameLogic {
 		}
 		
 		// Populate predator power ups (assigned to random positions)
-		PowerUpCreator powerUpCreator = new PowerUpCreator(maze);
+		PowerUpCreator powerUpCreator = new PowerUpCreator(maze, random);
 		PowerUp predatorPowerUp = null;
 		for (int i = 0; i < pConfig.getNumPredPow(); i++) {
 			Map<PowerUpType, Integer> powerUpDefs = 
 					pConfig.getPredatorPowerUps();
 			if (powerUpDefs.size() > 0) {
-				randomNum = NumberUtils.randomInt(0, allPoints.size() - 1);
+				randomNum = NumberUtils.randomInt(random, 0, allPoints.size() - 1);
 				point = allPoints.get(randomNum);
 				allPoints.remove(randomNum);
 				
@@ -141,12 +222,12 @@ public class GameLogic {
 		nLimit = counter + aConfig.getNumPred();
 		limitCounter = 0;
 		for (int i = counter; i < nLimit; i++) {
-			randomNum = NumberUtils.randomInt(0, allPoints.size() - 1);
+			randomNum = NumberUtils.randomInt(random, 0, allPoints.size() - 1);
 			point = allPoints.get(randomNum);
 			
 			// Points not removed from allpoints as prey do not interact with pills
 			while (usedPoints.contains(point) && limitCounter < loopLimit) {
-				randomNum = NumberUtils.randomInt(0, allPoints.size() - 1);
+				randomNum = NumberUtils.randomInt(random, 0, allPoints.size() - 1);
 				point = allPoints.get(randomNum);
 				limitCounter++;
 			}
@@ -165,11 +246,11 @@ public class GameLogic {
 		nLimit = counter + aConfig.getNumPrey();
 		limitCounter = 0;
 		for (int i = counter; i < nLimit; i++) {
-			randomNum = NumberUtils.randomInt(0, allPoints.size() - 1);
+			randomNum = NumberUtils.randomInt(random, 0, allPoints.size() - 1);
 			point = allPoints.get(randomNum);
 			
 			while (usedPoints.contains(point) && limitCounter < loopLimit) {
-				randomNum = NumberUtils.randomInt(0, allPoints.size() - 1);
+				randomNum = NumberUtils.randomInt(random, 0, allPoints.size() - 1);
 				point = allPoints.get(randomNum);
 				counter++;
 			}
@@ -201,44 +282,63 @@ public class GameLogic {
 	}
 	
 	/**
-	 * Get all predators and prey who are players.
+	 * Get all predators and prey who are players. The list is read-only, and
+	 * is only rebuilt when a predator or prey has been added or removed.
 	 * 
-	 * @return players (boolean)
+	 * @return players (List<Agent>)
 	 */
 	public List<Agent> getAllPlayers() {
-		List<Agent> agents = gs.getAgents();
-		List<Agent> players = new ArrayList<Agent>();
-		for (Agent a : agents) {
-			if (a.isPlayer()) {
-				players.add(a);
-			}
-		}
-		return players;
+		updatePlayers();
+		return playersView;
 	}
 	
 	/**
-	 * Get all predators and prey who are non-players.
+	 * Get all predators and prey who are non-players. The list is only 
+	 * rebuilt when a predator or prey has been added or removed, so it 
+	 * doesn't allocate every frame.
 	 * 
 	 * @return nonPlayers (boolean)
 	 */
 	private List<Agent> getAllNonPlayers() {
+		updatePlayers();
+		return nonPlayers;
+	}
+	
+	/**
+	 * Split the agents into players and non-players, if a predator or prey 
+	 * has been added or removed since they were last split.
+	 */
+	private void updatePlayers() {
+		if (nonPlayersState == gs && 
+			nonPlayersVersion == gs.getAgentsVersion()) {
+			return;
+		}
+		
+		players.clear();
+		nonPlayers.clear();
 		List<Agent> agents = gs.getAgents();
-		List<Agent> nonPlayers = new ArrayList<Agent>();
-		for (Agent a : agents) {
-			if (!a.isPlayer()) {
+		for (int i = 0; i < agents.size(); i++) {
+			Agent a = agents.get(i);
+			if (a.isPlayer()) {
+				players.add(a);
+			} else {
 				nonPlayers.add(a);
 			}
 		}
-		return nonPlayers;
+		nonPlayersState = gs;
+		nonPlayersVersion = gs.getAgentsVersion();
 	}
 	
 	/**
 	 * Sets the AI moves for non-players
 	 * (predator and prey).
+	 * 
+	 * This is called every frame, but the AI only works the moves out again 
+	 * when something they depend on has changed (see AIScheduler).
 	 */
 	public void setNonPlayerMoves() {
 		List<Agent> nonPlayers = getAllNonPlayers();
-		aiLogic.calcNextMove(nonPlayers, gs);
+		aiScheduler.calcNextMove(nonPlayers, gs);
 	}
 	
 	/**
@@ -266,11 +366,9 @@ public class GameLogic {
 	 * @param move (Move)
 	 */
 	public void setPredNextMove(int id, Move move) {
-		List<Predator> predators = gs.getPredators();
-		for (Predator p : predators) {
-			if (p.getID() == id) {
-				p.setNextMove(move);
-			}
+		Predator p = gs.getPredator(id);
+		if (p != null) {
+			p.setNextMove(move);
 		}
 	}
 	
@@ -281,17 +379,30 @@ public class GameLogic {
 	 * @param move (Move)
 	 */
 	public void setPreyNextMove(int id, Move move) {
-		this.gs.getPrey().get(id).setNextMove(move);
+		Prey p = gs.getPrey(id);
+		if (p != null) {
+			p.setNextMove(move);
+		}
 	}
 	
 	public void setAILogic(AILogic ai) {
 		this.aiLogic = ai;
+		this.aiScheduler = new AIScheduler(ai);
 	}
 	
 	public AILogic getAILogic() {
 		return aiLogic;
 	}
 	
+	/**
+	 * Gets the scheduler which decides when the AI moves are worked out.
+	 * 
+	 * @return aiScheduler (AIScheduler)
+	 */
+	public AIScheduler getAIScheduler() {
+		return aiScheduler;
+	}
+	
 	public List<ProgressTask> getProgressTasks() {
 		List<ProgressTask> tasks = new ArrayList<ProgressTask>();
 		tasks.addAll(aiLogic.getProgressTasks());
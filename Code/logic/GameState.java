@@ -3,13 +3,14 @@ package logic;
 import geometry.PointXY;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import logic.powerup.PowerUp;
+import pathfinding.NodeIndex;
 
 /**
  * Represents the state of the game.
@@ -20,7 +21,7 @@ import logic.powerup.PowerUp;
 public class GameState {
 	
 	private Maze maze;
-	private Set<PointXY> pills;
+	private PillStore pills;
 	private List<Predator> predators;
 	private List<Prey> prey;
 	private Map<PointXY, PowerUp> predatorPowerUps;
@@ -30,9 +31,22 @@ public class GameState {
 	private boolean running;
 	private GameOverReason gameOverReason;
 	
-	private Map<Agent, Set<PointXY>> partition;
+	private MazePartition partition;
 	private Map<Agent, Set<PointXY>> saferPositions;
 	
+	private List<PillListener> pillListeners;
+	
+	// Incremented whenever a predator or prey is added or removed
+	private int agentsVersion;
+	
+	// Read-only copies of the agent lists, and the agents by ID (null where 
+	// there is no agent with that ID). Rebuilt whenever a predator or prey is
+	// added or removed.
+	private List<Predator> predatorsView;
+	private List<Prey> preyView;
+	private List<Agent> agentsView;
+	private Agent[] agentsByID;
+	
 	private final static int PILL_SCORE_VALUE = 100;
 	private final static int SECONDS_SCORE_VALUE = 10;
 	
@@ -51,15 +65,19 @@ public class GameState {
 			Set<PointXY> pills, Map<PointXY, PowerUp> predatorPowerUps,
 			Map<PointXY, PowerUp> preyPowerUps, int timeLimit) {
 		this.maze = maze;
-		this.predators = pred;
-		this.prey = prey;
-		this.pills = pills;
+		this.predators = new ArrayList<Predator>(pred);
+		this.prey = new ArrayList<Prey>(prey);
+		this.pills = new PillStore(new NodeIndex(maze), pills);
 		this.predatorPowerUps = predatorPowerUps;
 		this.preyPowerUps = preyPowerUps;
 		
 		this.timeRemaining = timeLimit;
 		this.running = true;
 		this.gameOverReason = GameOverReason.NotFinished;
+		
+		this.pillListeners = new ArrayList<PillListener>();
+		this.agentsVersion = 0;
+		rebuildAgents();
 	}
 	
 	/**
@@ -71,34 +89,47 @@ public class GameState {
 	}
 	
 	/**
-	 * Gets the pills.
+	 * Gets the pills. The set is a read-only view, which always holds the 
+	 * pills currently left (pills are removed through removePill()).
 	 * 
 	 * @return pills (Set<PointXY>)
 	 */
 	public Set<PointXY> getPills() {
+		return pills.asSet();
+	}
+	
+	/**
+	 * Gets the pill store, e.g. to check for pills by maze node index or to 
+	 * find the closest pill to a node.
+	 * 
+	 * @return pills (PillStore)
+	 */
+	public PillStore getPillStore() {
 		return this.pills;
 	}
 	
 	public boolean hasPill(PointXY pos) {
-		return pills.contains(pos);
+		return pills.hasPill(pos);
 	}
 	
 	/**
-	 * Get the predators.
+	 * Get the predators. The list is read-only, and isn't changed by 
+	 * predators being added or removed later (a new list is made instead).
 	 * 
-	 * @return predators (Map<Integer, Predator>)
+	 * @return predators (List<Predator>)
 	 */
 	public List<Predator> getPredators() {
-		return this.predators;
+		return this.predatorsView;
 	}
 	
 	/**
-	 * Gets the prey.
+	 * Gets the prey. The list is read-only, and isn't changed by prey being 
+	 * added or removed later (a new list is made instead).
 	 * 
-	 * @return prey (Map<Integer, Prey>)
+	 * @return prey (List<Prey>)
 	 */
 	public List<Prey> getPrey() {
-		return this.prey;
+		return this.preyView;
 	}
 	
 	/**
@@ -120,15 +151,24 @@ public class GameState {
 	}
 	
 	/**
-	 * Gets the agents.
+	 * Gets the agents, predators then prey. Like getPredators() and getPrey(),
+	 * the list is read-only and only remade when an agent is added or removed.
 	 * 
 	 * @return agents (List<Agent>)
 	 */
 	public List<Agent> getAgents() {
-		List<Agent> agents = new ArrayList<Agent>();
-		agents.addAll(predators);
-		agents.addAll(prey);
-		return agents;
+		return this.agentsView;
+	}
+	
+	/**
+	 * Gets the number of times a predator or prey has been added or removed.
+	 * If this hasn't changed, neither have the lists of predators and prey, 
+	 * so anything built from them can be reused.
+	 * 
+	 * @return agentsVersion (int)
+	 */
+	public int getAgentsVersion() {
+		return agentsVersion;
 	}
 	
 	/**
@@ -149,12 +189,32 @@ public class GameState {
 	 * @param pos (PointXY)
 	 */
 	public void removePill(PointXY pos) {
-		if (pills.contains(pos)) {
-			pills.remove(pos);
+		if (pills.remove(pos)) {
+			for (PillListener listener : pillListeners) {
+				listener.pillRemoved(pos);
+			}
 		}
 		updateGameOverReason();
 	}
 	
+	/**
+	 * Add a listener to be told whenever a pill is removed.
+	 * 
+	 * @param listener - the listener to add.
+	 */
+	public void addPillListener(PillListener listener) {
+		pillListeners.add(listener);
+	}
+	
+	/**
+	 * Remove a previously added pill listener.
+	 * 
+	 * @param listener - the listener to remove.
+	 */
+	public void removePillListener(PillListener listener) {
+		pillListeners.remove(listener);
+	}
+	
 	/**
 	 * Removes predator power ups by position.
 	 * 
@@ -185,6 +245,8 @@ public class GameState {
 	 */
  	public void addPredator(Predator predator) {
  		predators.add(predator);
+ 		++agentsVersion;
+ 		rebuildAgents();
  	}
 	
  	/**
@@ -193,12 +255,11 @@ public class GameState {
  	 * @param id (int)
  	 */
 	public void removePredator(int id) {
-		Iterator<Predator> iter = predators.iterator();
-		while(iter.hasNext()) {
-			Predator p = iter.next();
-			if (p.getID() == id) {
-				iter.remove();
-			}
+		Predator p = getPredator(id);
+		if (p != null) {
+			predators.remove(p);
+			++agentsVersion;
+			rebuildAgents();
 		}
 	}
 	
@@ -209,12 +270,9 @@ public class GameState {
 	 * @param pos (PointXY)
 	 */
 	public void updatePredatorPosition(int id, PointXY pos) {
-		Iterator<Predator> iter = predators.iterator();
-		while(iter.hasNext()) {
-			Predator p = iter.next();
-			if (p.getID() == id) {
-				p.setPosition(pos);
-			}
+		Predator p = getPredator(id);
+		if (p != null) {
+			p.setPosition(pos);
 		}
 	}
 	
@@ -226,6 +284,8 @@ public class GameState {
 	 */
  	public void addPrey(Prey p) {
  		this.prey.add(p);
+ 		++agentsVersion;
+ 		rebuildAgents();
  	}
  	
  	/**
@@ -234,12 +294,11 @@ public class GameState {
  	 * @param id (int)
  	 */
 	public void removePrey(int id) {
-		Iterator<Prey> iter = prey.iterator();
-		while(iter.hasNext()) {
-			Prey p = iter.next();
-			if (p.getID() == id) {
-				iter.remove();
-			}
+		Prey p = getPrey(id);
+		if (p != null) {
+			prey.remove(p);
+			++agentsVersion;
+			rebuildAgents();
 		}
 		updateGameOverReason();
 	}
@@ -251,12 +310,9 @@ public class GameState {
 	 * @param pos (PointXY)
 	 */
 	public void updatePreyPosition(int id, PointXY pos) {
-		Iterator<Prey> iter = prey.iterator();
-		while(iter.hasNext()) {
-			Prey p = iter.next();
-			if (p.getID() == id) {
-				p.setPosition(pos);
-			}
+		Prey p = getPrey(id);
+		if (p != null) {
+			p.setPosition(pos);
 		}
 	}
 	
@@ -269,10 +325,9 @@ public class GameState {
 	 * exists.
 	 */
 	public Predator getPredator(int id) {
-		for (Predator p : predators) {
-			if (p.getID() == id) {
-				return p;
-			}
+		Agent agent = getAgent(id);
+		if (agent instanceof Predator) {
+			return (Predator) agent;
 		}
 		return null;
 	}
@@ -285,10 +340,9 @@ public class GameState {
 	 * @return the Prey with the given ID, or null if no such Prey exists.
 	 */
 	public Prey getPrey(int id) {
-		for (Prey p : prey) {
-			if (p.getID() == id) {
-				return p;
-			}
+		Agent agent = getAgent(id);
+		if (agent instanceof Prey) {
+			return (Prey) agent;
 		}
 		return null;
 	}
@@ -340,14 +394,41 @@ public class GameState {
 	 */
 	public Agent getAgent(int agentID) {
 		
-		List<Agent> agents = getAgents();
+		if (agentID < 0 || agentID >= agentsByID.length) {
+			return null;
+		}
+		return agentsByID[agentID];
+	}
+	
+	/**
+	 * Remake the read-only agent lists and the agents by ID, after a predator
+	 * or prey has been added or removed.
+	 */
+	private void rebuildAgents() {
+		
+		List<Agent> agents = new ArrayList<Agent>(predators.size() + 
+				prey.size());
+		agents.addAll(predators);
+		agents.addAll(prey);
+		
+		int maxID = -1;
 		for (Agent agent : agents) {
-			if (agent.getID() == agentID) {
-				return agent;
+			maxID = Math.max(maxID, agent.getID());
+		}
+		Agent[] byID = new Agent[maxID + 1];
+		for (Agent agent : agents) {
+			int id = agent.getID();
+			if (id >= 0 && byID[id] == null) {
+				byID[id] = agent;
 			}
 		}
 		
-		return null;
+		this.predatorsView = Collections.unmodifiableList(
+				new ArrayList<Predator>(predators));
+		this.preyView = Collections.unmodifiableList(
+				new ArrayList<Prey>(prey));
+		this.agentsView = Collections.unmodifiableList(agents);
+		this.agentsByID = byID;
 	}
 	
 	/**
@@ -358,7 +439,7 @@ public class GameState {
 	 * 
 	 * @param partition - the partition to set.
 	 */
-	public void setPartition(Map<Agent, Set<PointXY>> partition) {
+	public void setPartition(MazePartition partition) {
 		this.partition = partition;
 	}
 	
@@ -370,7 +451,7 @@ public class GameState {
 	 * 
 	 * @return Get the current partitioned maze.
 	 */
-	public Map<Agent, Set<PointXY>> getPartition() {
+	public MazePartition getPartition() {
 		return partition;
 	}
 
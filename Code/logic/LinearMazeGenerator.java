@@ -0,0 +1,440 @@
+package logic;
+
+import java.util.Random;
+
+/**
+ * Maze generator which runs in time linear in the number of nodes.
+ *
+ * The generator follows the same steps as the original algorithm (see
+ * ClassicMazeGenerator), but works on maze cell indices and keeps all of its
+ * bookkeeping in flat arrays, so that every membership test, insertion,
+ * removal and random pick is O(1):
+ *
+ * 1. An initial random path of up to maxLength steps is built from a random
+ *    node.
+ * 2. Further random paths are built from random filled nodes while no more
+ *    than ranPathMaxProp of the nodes are filled, up to loopLimit paths.
+ * 3. Every remaining empty node is joined to a filled neighbour and a random
+ *    path is built from it. Empty nodes are found from a frontier of the
+ *    empty neighbours of filled nodes, rather than by sweeping the maze.
+ * 4. Deadends are joined to a neighbouring node while at least deadEndMinProp
+ *    of the nodes are deadends.
+ *
+ * Steps 1-3 only ever join a node with no paths, so they build a tree and
+ * cannot form a minimal square. In step 4, a join which would form a square
+ * is avoided where possible; otherwise the join is made and another side of
+ * the square is removed, provided neither end of that side becomes a deadend.
+ * If neither is possible the deadend is left in place. This means no square
+ * is ever formed, so there is no need to search for and remove them
+ * afterwards.
+ *
+ * @author agent
+ * @version 2026-10-17
+ */
+class LinearMazeGenerator implements MazeGenerator {
+
+	// The path bits, in the order they are shuffled from
+	private static final int[] BITS = new int[] {
+		Maze.NORTH, Maze.EAST, Maze.SOUTH, Maze.WEST
+	};
+
+	// The value stored in deadendPos for cells which aren't in the set
+	private static final int NOT_DEADEND = -1;
+
+	private Maze maze; // The maze being generated
+	private MazeConfig config; // Configurations for generating the maze
+	private Random random; // The source of randomness
+
+	private boolean[] filled; // Whether each cell is part of a path
+	private int[] filledCells; // The filled cells, in the order filled
+	private int numFilled;
+
+	private int[] deadends; // The joinable deadend cells, in no order
+	private int[] deadendPos; // The position of each cell in deadends
+	private int numDeadends;
+
+	private boolean[] stuck; // Deadends which can't be joined
+	private int numStuck;
+
+	private int[] frontier; // Empty cells next to filled cells (may repeat)
+	private int frontierSize;
+
+	private final int[] order = new int[BITS.length]; // Shuffled path bits
+
+	@Override
+	public void generate(Maze maze, MazeConfig config, Random random) {
+		begin(maze, config, random);
+		if (maze.numberOfNodes() > 0) {
+			addInitialPath();
+			fillRandom();
+			fillFrontier();
+			appendDeadends();
+		}
+		end();
+	}
+
+	/**
+	 * Sets up the generator to build paths in the given empty maze. The
+	 * phases can then be called in order (as generate() does), which lets
+	 * each phase be timed separately.
+	 *
+	 * @param maze - the empty maze to build paths in.
+	 * @param config - the configuration to follow.
+	 * @param random - the source of randomness to use.
+	 */
+	void begin(Maze maze, MazeConfig config, Random random) {
+		this.maze = maze;
+		this.config = config;
+		this.random = random;
+
+		int numCells = maze.getCellCount();
+		int numNodes = maze.numberOfNodes();
+
+		this.filled = new boolean[numCells];
+		this.filledCells = new int[numNodes];
+		this.numFilled = 0;
+		this.deadends = new int[numNodes];
+		this.deadendPos = new int[numCells];
+		this.numDeadends = 0;
+		this.stuck = new boolean[numCells];
+		this.numStuck = 0;
+		this.frontier = new int[numNodes * BITS.length + 1];
+		this.frontierSize = 0;
+		for (int i = 0; i < numCells; i++) {
+			deadendPos[i] = NOT_DEADEND;
+		}
+	}
+
+	/**
+	 * Releases the maze and working storage once generation is finished.
+	 */
+	void end() {
+		this.maze = null;
+		this.filled = null;
+		this.filledCells = null;
+		this.deadends = null;
+		this.deadendPos = null;
+		this.stuck = null;
+		this.frontier = null;
+	}
+
+	/**
+	 * Adds the initial path to the maze from a random starting point.
+	 */
+	void addInitialPath() {
+		int start = maze.getNodeCell(random.nextInt(maze.numberOfNodes()));
+		fill(start);
+		buildPath(start);
+	}
+
+	/**
+	 * Builds random paths from random filled nodes while the proportion of
+	 * filled nodes is no more than ranPathMaxProp, up to loopLimit paths.
+	 */
+	void fillRandom() {
+		double nSize = maze.numberOfNodes();
+		int counter = 0;
+
+		while ((numFilled / nSize) <= config.getRanPathMaxProp() &&
+				counter < config.getLoopLimit()) {
+			buildPath(filledCells[random.nextInt(numFilled)]);
+			counter++;
+		}
+	}
+
+	/**
+	 * Joins every remaining empty node to a filled neighbour and builds a
+	 * random path from it.
+	 */
+	void fillFrontier() {
+		while (frontierSize > 0) {
+			int cell = frontier[--frontierSize];
+			if (filled[cell]) {
+				continue;
+			}
+
+			// The cell was added to the frontier by a filled neighbour, so
+			// there is always one to join to.
+			shuffleBits();
+			for (int bit : order) {
+				int neighbour = maze.getNeighbourCell(cell, bit);
+				if (maze.isNodeCell(neighbour) && filled[neighbour]) {
+					fill(cell);
+					connect(cell, bit);
+					buildPath(cell);
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Joins random deadends to neighbouring nodes while the proportion of
+	 * deadends is at least deadEndMinProp.
+	 */
+	void appendDeadends() {
+		double nSize = maze.numberOfNodes();
+
+		while (numDeadends > 0 &&
+				((numDeadends + numStuck) / nSize) >= config.getDeadEndMinProp()) {
+			int cell = deadends[random.nextInt(numDeadends)];
+			if (!joinDeadend(cell)) {
+				removeDeadend(cell);
+				stuck[cell] = true;
+				numStuck++;
+			}
+		}
+	}
+
+	/**
+	 * Builds a random path of up to maxLength steps from the given filled
+	 * cell, stepping only onto empty nodes.
+	 *
+	 * @param start - the cell to build the path from.
+	 */
+	private void buildPath(int start) {
+		int current = start;
+		int pathLength = 0;
+
+		while (pathLength < config.getMaxLength()) {
+			int next = Maze.NO_CELL;
+			shuffleBits();
+			for (int bit : order) {
+				int neighbour = maze.getNeighbourCell(current, bit);
+				if (maze.isNodeCell(neighbour) && !filled[neighbour]) {
+					fill(neighbour);
+					connect(current, bit);
+					next = neighbour;
+					break;
+				}
+			}
+
+			// Stuck, so stop building the path
+			if (next == Maze.NO_CELL) {
+				break;
+			}
+			current = next;
+			pathLength++;
+		}
+	}
+
+	/**
+	 * Tries to join the given deadend to a neighbouring node without forming a
+	 * minimal square.
+	 *
+	 * @param cell - the deadend cell.
+	 * @return true if the deadend was joined, false otherwise.
+	 */
+	private boolean joinDeadend(int cell) {
+		int mask = maze.getPathMask(cell);
+		int squareBit = 0;
+
+		shuffleBits();
+		for (int bit : order) {
+			if ((mask & bit) != 0 ||
+					!maze.isNodeCell(maze.getNeighbourCell(cell, bit))) {
+				continue;
+			}
+
+			if (squaresClosed(cell, bit) == 0) {
+				connect(cell, bit);
+				return true;
+			} else if (squareBit == 0) {
+				squareBit = bit;
+			}
+		}
+
+		return squareBit != 0 && joinAndBreakSquare(cell, squareBit);
+	}
+
+	/**
+	 * Joins the given cell in the direction of the given bit, where the join
+	 * closes a single minimal square, and then removes another side of the
+	 * square. A side can only be removed if both of its ends would still have
+	 * at least two paths.
+	 *
+	 * @param cell - the cell to join from.
+	 * @param bit - the direction to join in.
+	 * @return true if the join was made, false otherwise.
+	 */
+	private boolean joinAndBreakSquare(int cell, int bit) {
+		if (squaresClosed(cell, bit) != 1) {
+			return false;
+		}
+
+		int other = maze.getNeighbourCell(cell, bit);
+		int side = perpendicularBit(bit, true);
+		if (!closesSquare(cell, bit, side)) {
+			side = perpendicularBit(bit, false);
+		}
+		int cellSide = maze.getNeighbourCell(cell, side);
+
+		// The other three sides of the square, as (cell, bit) pairs
+		int[] fromCells = new int[] {cell, other, cellSide};
+		int[] fromBits = new int[] {side, side, bit};
+
+		int start = random.nextInt(fromCells.length);
+		for (int i = 0; i < fromCells.length; i++) {
+			int from = fromCells[(start + i) % fromCells.length];
+			int fromBit = fromBits[(start + i) % fromCells.length];
+			int to = maze.getNeighbourCell(from, fromBit);
+
+			// The join adds a path to cell and other, so count it in
+			if (pathsAfterJoin(from, cell, other) > 2 &&
+					pathsAfterJoin(to, cell, other) > 2) {
+				connect(cell, bit);
+				disconnect(from, fromBit);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the number of paths a cell would have after a join between the
+	 * two given cells.
+	 */
+	private int pathsAfterJoin(int cell, int joined1, int joined2) {
+		int paths = maze.numberOfPaths(cell);
+		if (cell == joined1 || cell == joined2) {
+			paths++;
+		}
+		return paths;
+	}
+
+	/**
+	 * Gets the number of minimal squares which would be closed by joining the
+	 * given cell in the direction of the given bit.
+	 *
+	 * @param cell - the cell to join from.
+	 * @param bit - the direction to join in.
+	 * @return the number of squares closed (0, 1 or 2).
+	 */
+	private int squaresClosed(int cell, int bit) {
+		int closed = 0;
+		if (closesSquare(cell, bit, perpendicularBit(bit, true))) {
+			closed++;
+		}
+		if (closesSquare(cell, bit, perpendicularBit(bit, false))) {
+			closed++;
+		}
+		return closed;
+	}
+
+	/**
+	 * Checks whether joining the given cell in the direction of bit would
+	 * close the square on the side given by side.
+	 */
+	private boolean closesSquare(int cell, int bit, int side) {
+		int other = maze.getNeighbourCell(cell, bit);
+		if ((maze.getPathMask(cell) & side) == 0 ||
+				(maze.getPathMask(other) & side) == 0) {
+			return false;
+		}
+		int cellSide = maze.getNeighbourCell(cell, side);
+		return (maze.getPathMask(cellSide) & bit) != 0;
+	}
+
+	/**
+	 * Gets one of the two bits perpendicular to the given bit.
+	 */
+	private static int perpendicularBit(int bit, boolean first) {
+		if (bit == Maze.NORTH || bit == Maze.SOUTH) {
+			return first ? Maze.EAST : Maze.WEST;
+		}
+		return first ? Maze.NORTH : Maze.SOUTH;
+	}
+
+	/**
+	 * Marks the given cell as part of a path, adding its empty neighbours to
+	 * the frontier.
+	 *
+	 * @param cell - the cell to fill.
+	 */
+	private void fill(int cell) {
+		filled[cell] = true;
+		filledCells[numFilled++] = cell;
+
+		for (int bit : BITS) {
+			int neighbour = maze.getNeighbourCell(cell, bit);
+			if (maze.isNodeCell(neighbour) && !filled[neighbour]) {
+				frontier[frontierSize++] = neighbour;
+			}
+		}
+	}
+
+	/**
+	 * Adds a path from the given cell in the direction of the given bit, and
+	 * updates the deadends at both ends.
+	 */
+	private void connect(int cell, int bit) {
+		maze.addPath(cell, bit);
+		updateDeadend(cell);
+		updateDeadend(maze.getNeighbourCell(cell, bit));
+	}
+
+	/**
+	 * Removes the path from the given cell in the direction of the given bit,
+	 * and updates the deadends at both ends.
+	 */
+	private void disconnect(int cell, int bit) {
+		maze.removePath(cell, bit);
+		updateDeadend(cell);
+		updateDeadend(maze.getNeighbourCell(cell, bit));
+	}
+
+	/**
+	 * Adds the given cell to, or removes it from, the set of deadends
+	 * depending on its current number of paths.
+	 *
+	 * @param cell - the cell to update.
+	 */
+	private void updateDeadend(int cell) {
+		boolean deadend = maze.numberOfPaths(cell) == 1;
+
+		if (stuck[cell]) {
+			if (!deadend) {
+				stuck[cell] = false;
+				numStuck--;
+			}
+		} else if (deadend) {
+			addDeadend(cell);
+		} else {
+			removeDeadend(cell);
+		}
+	}
+
+	private void addDeadend(int cell) {
+		if (deadendPos[cell] == NOT_DEADEND) {
+			deadendPos[cell] = numDeadends;
+			deadends[numDeadends++] = cell;
+		}
+	}
+
+	private void removeDeadend(int cell) {
+		int pos = deadendPos[cell];
+		if (pos != NOT_DEADEND) {
+			// Move the last deadend into the gap
+			int last = deadends[--numDeadends];
+			deadends[pos] = last;
+			deadendPos[last] = pos;
+			deadendPos[cell] = NOT_DEADEND;
+		}
+	}
+
+	/**
+	 * Shuffles the path bits into order.
+	 */
+	private void shuffleBits() {
+		for (int i = 0; i < BITS.length; i++) {
+			order[i] = BITS[i];
+		}
+		for (int i = BITS.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int tmp = order[i];
+			order[i] = order[j];
+			order[j] = tmp;
+		}
+	}
+
+}
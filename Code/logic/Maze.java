@@ -3,29 +3,56 @@ package logic;
 import geometry.PointXY;
 import geometry.PolygonShape;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Random;
 
 import utils.NumberUtils;
 
 /**
  * Generates a maze which is composed of numerous MazeNodes.
  * 
+ * The maze is stored as a grid covering the bounding box of its dimensions, 
+ * with one byte per grid cell. The low 4 bits of each byte hold the paths 
+ * out of the cell (the same NESW encoding as used by toString()), and a 
+ * further bit marks whether the cell is a node of the maze (i.e. is within the
+ * dimensions). The cell at (x, y) has index (x - minX) + (y - minY) * width.
+ * 
+ * getNodes() and getNode() remain available as views onto the grid.
+ * 
+ * The paths themselves are built by a MazeGenerator once the empty grid has 
+ * been created.
+ * 
  * @author Martin Wong
  * @version 2015-10-18
  */
 public class Maze {
 	
-	private Map<PointXY, MazeNode> nodes; // The maze
+	// The bits used in the cell masks for paths in each direction
+	public static final int NORTH = 0x8;
+	public static final int EAST = 0x4;
+	public static final int SOUTH = 0x2;
+	public static final int WEST = 0x1;
+	public static final int PATHS = NORTH | EAST | SOUTH | WEST;
+	
+	// The bit used in the cell masks for cells which are nodes of the maze
+	private static final int IN_MAZE = 0x10;
+	
+	// The value returned for positions outside the grid
+	public static final int NO_CELL = -1;
+	
+	private byte[] cells; // The maze, one mask per grid cell
+	private int minX; // The x-coordinate of the first grid column
+	private int minY; // The y-coordinate of the first grid row
+	private int width; // The number of grid columns
+	private int height; // The number of grid rows
+	private int[] nodeCells; // The cell index of each node, in grid order
+	private volatile Map<PointXY, MazeNode> nodes; // View of the maze nodes
+	
 	private PolygonShape dimensions; // Dimensions of the maze
 	private MazeConfig mConfig; // Configurations for setting up the maze
-	
-	private List<PointXY> deadends; // Records the deadends in the maze
-	private List<PointXY> filled; // Records the nodes which are part of paths
-	private List<PointXY> squares;
+	private Long seed; // The seed the maze was generated from (or null)
 	
 	/**
 	 * Creates an instance of a Maze with default configurations.
@@ -35,7 +62,22 @@ public class Maze {
 	public Maze(PolygonShape dimensions) {
 		this.dimensions = dimensions;
 		configureDefault();
-		buildMaze();
+		buildMaze(MazeGeneratorCreator.create(MazeGeneratorType.Linear));
+	}
+	
+	/**
+	 * Creates an instance of a Maze with default configurations, generated 
+	 * from the given seed. The same seed and dimensions always give the same
+	 * maze.
+	 * 
+	 * @param dimensions (Rectangle)
+	 * @param seed (long)
+	 */
+	public Maze(PolygonShape dimensions, long seed) {
+		this.dimensions = dimensions;
+		configureDefault();
+		this.mConfig.setSeed(seed);
+		buildMaze(MazeGeneratorCreator.create(MazeGeneratorType.Linear));
 	}
 	
 	/**
@@ -45,9 +87,36 @@ public class Maze {
 	 * @param mConfig (MazeConfig)
 	 */
 	public Maze(PolygonShape dimensions, MazeConfig mConfig) {
+		this(dimensions, mConfig, 
+				MazeGeneratorCreator.create(MazeGeneratorType.Linear));
+	}
+	
+	/**
+	 * Creates an instance of a maze based on custom configurations, using the
+	 * given generator to build the paths. If the configuration has a seed, the
+	 * same configuration and dimensions always give the same maze.
+	 * 
+	 * @param dimensions (Rectangle)
+	 * @param mConfig (MazeConfig)
+	 * @param generator (MazeGenerator)
+	 */
+	public Maze(PolygonShape dimensions, MazeConfig mConfig, 
+			MazeGenerator generator) {
 		this.dimensions = dimensions;
 		this.mConfig = mConfig;
-		buildMaze();
+		buildMaze(generator);
+	}
+	
+	/**
+	 * Creates an empty maze (every node, but no paths), so that a generator's
+	 * phases can be run on it one at a time.
+	 * 
+	 * @param dimensions (Rectangle)
+	 * @param mConfig (MazeConfig)
+	 * @return the empty maze (Maze)
+	 */
+	static Maze createEmpty(PolygonShape dimensions, MazeConfig mConfig) {
+		return new Maze(dimensions, mConfig, null);
 	}
 	
 	/**
@@ -66,24 +135,26 @@ public class Maze {
 	}
 	
 	/**
-	 * Builds the maze: nodes (Map<PointXY, MazeNode>)
+	 * Builds the maze: creates the empty grid and then has the generator 
+	 * build the paths.
+	 * 
+	 * @param generator (MazeGenerator)
 	 */
-	private void buildMaze() {
-		this.nodes = new HashMap<PointXY, MazeNode>();
-		this.deadends = new ArrayList<PointXY>();
-		this.filled = new ArrayList<PointXY>();
-		this.squares = new ArrayList<PointXY>();
+	private void buildMaze(MazeGenerator generator) {
+		this.nodes = null;
+		
+		this.seed = mConfig.getSeed();
+		Random random = (seed != null) ? new Random(seed) : new Random();
 		
 		createEmptyMaze();
-		addInitialPath();
-		fillRandom();
-		fillIterate();
-		appendDeadends();
-		removeSquares();
+		if (generator == null) {
+			return;
+		}
+		generator.generate(this, mConfig, random);
 		
 		// Checks that all nodes are used.
 		try {
-			if (this.nodes.size() != this.filled.size()) throw new Exception("Illegal Maze: nodes not all filled.");
+			if (numberOfNodes() > 1 && !allNodesFilled()) throw new Exception("Illegal Maze: nodes not all filled.");
 		} catch (Exception e) {
 			System.err.println(e.toString());
 		}
@@ -91,151 +162,48 @@ public class Maze {
 	}
 	
 	/**
-	 * Creates an empty maze (fills in nodes with MazeNodes).
-	 * Each MazeNode would have a position but no neighbours.
+	 * Checks whether every node in the maze has at least one path.
+	 * 
+	 * @return allFilled (boolean)
 	 */
-	private void createEmptyMaze() {
-		PointXY position = null;
-		MazeNode node = null;
-		
-		for(int j = dimensions.getMinY(); j <= dimensions.getMaxY(); j++) {
-			for (int i = dimensions.getMinX(); i <= dimensions.getMaxX(); i++) {
-				position = new PointXY(i, j);
-				
-				if (withinDimensions(position)) {
-					node = new MazeNode(new HashSet<PointXY>());
-					nodes.put(position, node);
-				}
+	private boolean allNodesFilled() {
+		for (int index : nodeCells) {
+			if ((cells[index] & PATHS) == 0) {
+				return false;
 			}
 		}
+		return true;
 	}
 	
 	/**
-	 * Adds the initial pat to the maze from a random starting point.
+	 * Creates an empty maze (marks the grid cells which are maze nodes).
+	 * Each node would have a position but no neighbours.
 	 */
-	private void addInitialPath() {
-		PointXY startingPoint = getRandomPoint();
-		filled.add(startingPoint);
-		buildPathRandom(); // Build a path from the starting point
-		deadends.add(startingPoint); // At the starting point to deadends
-	}
-	
-	/**
-	 * Creates paths from any random point that is currently a part of the path.
-	 */
-	private void fillRandom() {
-		double nSize = nodes.size();
-		int counter = 0;
-		
-		// Only build random paths if: proportion is under ranPathMaxProp and counter is under loopLimit
-		while ((filled.size() / nSize) <= mConfig.getRanPathMaxProp() && counter < mConfig.getLoopLimit()) {
-			buildPathRandom();
-			counter++;
-		}
-	}
-	
-	/**
-	 * Creates paths from empty MazeNodes by iterating through the maze.
-	 * Iterate in every direction starting from the initial starting point.
-	 */
-	private void fillIterate() {
-		PointXY startingPoint = getRandomPathPosition();
-		PointXY emptyPos = null;
-		
-		// Checks lower left of starting point
-		for (int j = (int) startingPoint.getY(); j >= dimensions.getMinY(); j--) {
-			for (int i = (int) startingPoint.getX(); i >= dimensions.getMinX(); i--) {
-				emptyPos = new PointXY(i, j);
-				
-				if (withinDimensions(emptyPos) && !filled.contains(emptyPos)) {
-					buildPathFromPoint(emptyPos, false);
-				}
-			}
-		}
+	private void createEmptyMaze() {
+		PointXY position = null;
 		
-		// Checks lower right of starting point
-		for (int j = (int) startingPoint.getY(); j >= dimensions.getMinY(); j--) {
-			for (int i = (int) startingPoint.getX(); i <= dimensions.getMaxX(); i++) {
-				emptyPos = new PointXY(i, j);
-				
-				if (withinDimensions(emptyPos) && !filled.contains(emptyPos)) {
-					buildPathFromPoint(emptyPos, false);
-				}
-			}
-		}
+		this.minX = dimensions.getMinX();
+		this.minY = dimensions.getMinY();
+		this.width = dimensions.getMaxX() - minX + 1;
+		this.height = dimensions.getMaxY() - minY + 1;
+		this.cells = new byte[width * height];
 		
-		// Checks upper left of starting point
-		for (int j = (int) startingPoint.getY(); j <= dimensions.getMaxY(); j++) {
-			for (int i = (int) startingPoint.getX(); i >= dimensions.getMinX(); i--) {
-				emptyPos = new PointXY(i, j);
-				
-				if (withinDimensions(emptyPos) && !filled.contains(emptyPos)) {
-					buildPathFromPoint(emptyPos, false);
-				}
-			}
-		}
-		
-		// Checks upper right of starting point
-		for (int j = (int) startingPoint.getY(); j <= dimensions.getMaxY(); j++) {
-			for (int i = (int) startingPoint.getX(); i <= dimensions.getMaxX(); i++) {
-				emptyPos = new PointXY(i, j);
+		int numNodes = 0;
+		int[] inMaze = new int[cells.length];
+		for(int j = minY; j < minY + height; j++) {
+			for (int i = minX; i < minX + width; i++) {
+				position = new PointXY(i, j);
 				
-				if (withinDimensions(emptyPos) && !filled.contains(emptyPos)) {
-					buildPathFromPoint(emptyPos, false);
+				if (dimensions.containsInclusive(position)) {
+					int index = getCellIndex(i, j);
+					cells[index] = IN_MAZE;
+					inMaze[numNodes++] = index;
 				}
 			}
 		}
 		
-		
-	}
-	
-	/**
-	 * Join deadends to existing paths based on the deadEndMinProp value.
-	 */
-	private void appendDeadends() {
-		double nSize = nodes.size();
-		int randomPos = 0;
-		PointXY dEnd = null;
-		
-		// Only join deadends if over the deadEndMinProp
-		while ((deadends.size() / nSize) >= mConfig.getDeadEndMinProp() && deadends.size() > 0) {
-			randomPos = NumberUtils.randomInt(0, deadends.size() - 1);
-			dEnd = deadends.get(randomPos); // Get a random deadend
-			buildPathFromPoint(dEnd, true);
-		}
-	}
-	
-	/**
-	 * Removes paths formed by a square of adjacent nodes (minimal square),
-	 * e.g. (0, 0), (0, 1), (1, 1), (1, 0). It does this by inspecting the area
-	 * around deadends.
-	 */
-	private void removeSquares() {
-		PointXY[] quadrants = null;
-		PointXY ll_ll = null;
-		PointXY ul_ll = null;
-		PointXY ur_ll = null;
-		PointXY lr_ll = null;
-		int random = 0;
-		
-		while (squares.size() > 0) {
-			random = NumberUtils.randomInt(0, squares.size() - 1);
-			
-			ur_ll = squares.get(random);
-			squares.remove(random);
-			
-			lr_ll = new PointXY (ur_ll.getX(), ur_ll.getY() - 1);
-			ll_ll = new PointXY (ur_ll.getX() - 1, ur_ll.getY() - 1);
-			ul_ll = new PointXY (ur_ll.getX() - 1, ur_ll.getY());
-			
-			quadrants = new PointXY[]{ll_ll, lr_ll, ul_ll, ur_ll};
-			
-			for (PointXY ll : quadrants) {
-				if (isSquare(ll)) {
-					removeAndMaintain(ll);
-				}
-			}
-		}
+		this.nodeCells = new int[numNodes];
+		System.arraycopy(inMaze, 0, nodeCells, 0, numNodes);
 	}
 	
 	/**
@@ -244,284 +212,23 @@ public class Maze {
 	 * @return randomPoint (PointXY)
 	 */
 	public PointXY getRandomPoint() {
-		List<PointXY> keys = new ArrayList<PointXY>(nodes.keySet());
-		int random = NumberUtils.randomInt(0, keys.size() - 1);
-		PointXY randomPoint = keys.get(random);
+		int random = NumberUtils.randomInt(0, nodeCells.length - 1);
+		PointXY randomPoint = getCellPoint(nodeCells[random]);
 		
 		return randomPoint;
 	}
 	
 	/**
-	 * Builds a random path from any point of the current path.
-	 */
-	private void buildPathRandom() {
-		buildPathHelper(null);
-	}
-	
-	/**
-	 * Build paths from a specified point.
-	 * This method is used for appending deadends and creating paths from empty nodes.
-	 * 
-	 * @param gPos (PointXY)
-	 */
-	private boolean buildPathFromPoint(PointXY gPos, boolean allowSquares) {
-		int randomPos = 0;
-		int newX = 0;
-		int newY = 0;
-		boolean success = false;
-		boolean dEnd = filled.contains(gPos); // Determines whether is a deadend or empty node
-		PointXY filledPos = null;
-		PointXY givenPos = gPos;
-		PointXY possiblePos = null;
-		PointXY ll = null;
-		PointXY ul = null;
-		PointXY ur = null;
-		PointXY lr = null;
-		List<int[]> nesw = new ArrayList<int[]>();
-		
-		nesw.add(new int[]{0, 1});
-		nesw.add(new int[]{1, 0});
-		nesw.add(new int[]{0, -1});
-		nesw.add(new int[]{-1, 0});
-		
-		// Try all 4 directions
-		while (nesw.size() > 0) {
-			randomPos = NumberUtils.randomInt(0, nesw.size() - 1); // Get a random direction: north, east, south, west
-			newX = givenPos.getX() + nesw.get(randomPos)[0];
-			newY = givenPos.getY() + nesw.get(randomPos)[1];
-			
-			filledPos = new PointXY(newX, newY);
-			nesw.remove(randomPos); // Remove the direction used
-			
-			// If new point is within maze and is filled and there is currently no path between this and the given node
-			if (withinDimensions(filledPos) && filled.contains(filledPos) && !isPath(givenPos, filledPos)) {
-				addPath(givenPos, filledPos); // Create path
-				
-				ll = new PointXY(givenPos.getX() - 1, givenPos.getY() - 1);
-				ul = new PointXY(givenPos.getX() - 1, givenPos.getY());
-				ur = new PointXY(givenPos.getX(), givenPos.getY());
-				lr = new PointXY(givenPos.getX(), givenPos.getY() - 1);
-				
-				if (dEnd && (isSquare(ll) || isSquare(ul) || isSquare(ur) || isSquare(lr))) {
-					removePath(givenPos, filledPos);
-					possiblePos = new PointXY (filledPos.getX(), filledPos.getY());
-				} else {
-					// Break after successfully adding path
-					if (!filled.contains(givenPos)) {
-						filled.add(givenPos);
-					}
-					success = true;
-					break;
-				}
-			}
-		}
-		
-		if (!success && possiblePos != null && allowSquares) {
-			addPath(givenPos, possiblePos);
-			if (!filled.contains(givenPos)) {
-				filled.add(givenPos);
-			}
-			squares.add(givenPos);
-			success = true;
-		}
-		
-		// If successfully built a path from empty node then continue to build paths from the empty node
-		if (success && !dEnd) {
-			deadends.add(givenPos);
-			buildPathHelper(givenPos);
-		}
-		
-		return success;
-	}
-	
-	/**
-	 * A helper method for building paths.
-	 * The parameter is optional.
+	 * Gets a random node in maze, using the given Random.
 	 * 
-	 * @param cPos (PointXY)
-	 */
-	private void buildPathHelper(PointXY cPos) {
-		int pathLength = 0;
-		int randomPos = 0;
-		int newX = 0;
-		int newY = 0;
-		boolean extend = true;
-		List<int[]> nesw = null;
-		PointXY neighbourPos = null;
-		
-		// If current position not provided, then get a random position that is currently in the exising path
-		PointXY currentPos = (cPos != null) ? cPos : getRandomPathPosition();
-		PointXY originalPos = currentPos;
-		
-		// Carry on building paths is not stuck and if haven't reached the maxLength yet
-		while (extend && pathLength < mConfig.getMaxLength()) {
-			nesw = new ArrayList<int[]>();
-			nesw.add(new int[]{0, 1});
-			nesw.add(new int[]{1, 0});
-			nesw.add(new int[]{0, -1});
-			nesw.add(new int[]{-1, 0});
-			
-			// Try every direction
-			while (nesw.size() > 0) {
-				randomPos = NumberUtils.randomInt(0, nesw.size() - 1); // Get a random direction: north, east, south, west
-				newX = currentPos.getX() + nesw.get(randomPos)[0];
-				newY = currentPos.getY() + nesw.get(randomPos)[1];
-				
-				neighbourPos = new PointXY(newX, newY);
-				nesw.remove(randomPos); // Remove the direction
-				
-				// If new point is within maze and not part of existing path
-				if (withinDimensions(neighbourPos) && !filled.contains(neighbourPos)) {
-					addPath(currentPos, neighbourPos); // Build path between the points
-					
-					filled.add(neighbourPos);
-					currentPos = neighbourPos; // New point is now the current position
-					pathLength++;
-					
-					extend = true; // Continue building path from the current position
-					break;
-				}
-				
-				extend = false; // Stuck, so stop building path from current position
-			}
-		}
-		
-		if (!currentPos.equals(originalPos)) deadends.add(currentPos); // If a least 1 path is built
-	}
-	
-	/**
-	 * Checks the maze to see whether it contain paths which
-	 * is a square of adjacent MazeNodes (minimal square), e.g. (0, 0), (0, 1), (1, 1), (1, 0).
-	 * 
-	 * @param ll: lower left corner of a minimal square (PointXY)
-	 * @return
-	 */
-	private boolean isSquare(PointXY ll){
-		boolean isSquare = false;
-		PointXY ul = new PointXY(ll.getX(), ll.getY() + 1);
-		PointXY ur = new PointXY(ll.getX() + 1, ll.getY() + 1);
-		PointXY lr = new PointXY(ll.getX() + 1, ll.getY());
-		
-		// Check all 4 corners are within the dimension
-		boolean allWithin = withinDimensions(ll) && withinDimensions(ul)
-				&& withinDimensions(ur) && withinDimensions(lr);
-		
-		if (allWithin) {
-			// Checks to see whether paths exists forms a minimal square
-			isSquare = isPath(ll, ul) && isPath(ul, ur) && isPath(ur, lr) && isPath(lr, ll);
-		}
-		
-		return isSquare;
-	}
-	
-	/**
-	 * Removes a a minimal square from the existing path,
-	 * e.g. (0, 0), (0, 1), (1, 1), (1, 0). It does this while
-	 * maintaining the same number of deadends before and after.
-	 * 
-	 * @param ll: lower left corner of a minimal square (PointXY)
+	 * @param r (Random)
+	 * @return randomPoint (PointXY)
 	 */
-	private void removeAndMaintain(PointXY ll) {
-		Map<PointXY, List<PointXY>> original = null;
-		Map<PointXY, List<PointXY>> unsaturated = unsaturatedAndPaths(ll);
-		Map<PointXY, List<PointXY>> saturated = null;
-		List<PointXY> keys = new ArrayList<PointXY>();
-		List<PointXY> paths = null;
-		PointXY key = null;
-		PointXY pathPoint = null;
-		int random = 0;
-		boolean removed = false;
+	public PointXY getRandomPoint(Random r) {
+		int random = NumberUtils.randomInt(r, 0, nodeCells.length - 1);
+		PointXY randomPoint = getCellPoint(nodeCells[random]);
 		
-		if (unsaturated.size() > 0) {
-			original = unsaturatedAndPaths(ll);
-			
-			for (PointXY k : unsaturated.keySet()) {
-				keys.add(k);
-			}
-			
-			while (keys.size() > 0) {
-				random = NumberUtils.randomInt(0, keys.size() - 1);
-				key = keys.get(random);
-				keys.remove(random);
-				
-				paths = unsaturated.get(key);
-				
-				while (paths.size() > 0) {
-					random = NumberUtils.randomInt(0, paths.size() - 1);
-					pathPoint = paths.get(random);
-					paths.remove(random);
-					
-					if (numberOfPaths(pathPoint) > 2) {
-						removePath(key, pathPoint);
-						
-						if (buildPathFromPoint(key, false)) {
-							removed = true;
-							break;
-						} else {
-							addPath(key, pathPoint);
-						}
-					}
-				}
-				
-				if (removed) {
-					break;
-				}
-				
-			}
-			
-			if (!removed && original.size() == 1) {
-				key = new ArrayList<PointXY>(original.keySet()).get(0);
-				
-				paths = original.get(key);
-				random = NumberUtils.randomInt(0, paths.size() - 1);
-				pathPoint = paths.get(random);
-				paths.remove(random);
-				
-				removePath(key, pathPoint);
-			}
-			
-		} else {
-			saturated = saturatedAndPaths(ll);
-			
-			for (PointXY k : saturated.keySet()) {
-				keys.add(k);
-			}
-			
-			while (keys.size() > 0) {
-				random = NumberUtils.randomInt(0, keys.size() - 1);
-				key = keys.get(random);
-				keys.remove(random);
-				
-				paths = saturated.get(key);
-				
-				while (paths.size() > 0) {
-					random = NumberUtils.randomInt(0, paths.size() - 1);
-					pathPoint = paths.get(random);
-					paths.remove(random);
-					
-					if (numberOfPaths(pathPoint) > 2 && numberOfPaths(key) > 2) {
-						removePath(key, pathPoint);
-						removed = true;
-					}
-				}
-				
-				if (removed) {
-					break;
-				}
-				
-			}
-		}
-		
-	}
-	
-	/**
-	 * Get a random point in the current path.
-	 * 
-	 * @return randomPathPosition (PointXY)
-	 */
-	private PointXY getRandomPathPosition() {
-		int randomPos = NumberUtils.randomInt(0, filled.size() - 1);
-		return filled.get(randomPos);
+		return randomPoint;
 	}
 	
 	/**
@@ -532,7 +239,7 @@ public class Maze {
 	 * @return withinDimensions (boolean)
 	 */
 	public boolean withinDimensions(PointXY pos) {
-		return dimensions.containsInclusive(pos);
+		return isNodeCell(getCellIndex(pos));
 	}
 	
 	/**
@@ -543,20 +250,15 @@ public class Maze {
 	 * @return pathAdded (boolean)
 	 */
 	public boolean addPath(PointXY p1, PointXY p2) {
-		MazeNode n1 = nodes.get(p1);
-		MazeNode n2 = nodes.get(p2);
-		
-		boolean success = n1.addNeighbour(p2) && n2.addNeighbour(p1);
+		int c1 = getCellIndex(p1);
+		int c2 = getCellIndex(p2);
+		int bit = directionBit(p1, p2);
 		
-		if (deadends.contains(p1) && n1.numberOfNeighbours() > 1) {
-			deadends.remove(p1);
-		}
-		
-		if (deadends.contains(p2) && n2.numberOfNeighbours() > 1) {
-			deadends.remove(p2);
+		if (!isNodeCell(c1) || !isNodeCell(c2) || bit == 0) {
+			return false;
 		}
 		
-		return success;
+		return addPath(c1, bit);
 	}
 	
 	/**
@@ -567,20 +269,47 @@ public class Maze {
 	 * @return pathRemoved (boolean)
 	 */
 	public boolean removePath(PointXY p1, PointXY p2) {
-		MazeNode n1 = nodes.get(p1);
-		MazeNode n2 = nodes.get(p2);
+		int c1 = getCellIndex(p1);
+		int c2 = getCellIndex(p2);
+		int bit = directionBit(p1, p2);
 		
-		boolean success = n1.removeNeighbour(p2) && n2.removeNeighbour(p1);
-		
-		if (!deadends.contains(p1) && n1.numberOfNeighbours() <= 1) {
-			deadends.add(p1);
+		if (!isNodeCell(c1) || !isNodeCell(c2) || bit == 0) {
+			return false;
 		}
 		
-		if (!deadends.contains(p2) && n2.numberOfNeighbours() <= 1) {
-			deadends.add(p2);
+		return removePath(c1, bit);
+	}
+	
+	/**
+	 * Add a path from the node with the given cell index in the direction of
+	 * the given bit, if the path doesn't already exist.
+	 * 
+	 * @param index - the cell index (must be a node of the maze).
+	 * @param bit - one of NORTH, EAST, SOUTH or WEST.
+	 * @return true if the path was added, false otherwise.
+	 */
+	boolean addPath(int index, int bit) {
+		int other = getNeighbourCell(index, bit);
+		if (!isNodeCell(other)) {
+			return false;
 		}
-		
-		return success;
+		return setPathBit(index, bit) && setPathBit(other, oppositeBit(bit));
+	}
+	
+	/**
+	 * Remove the path from the node with the given cell index in the 
+	 * direction of the given bit, if the path exists.
+	 * 
+	 * @param index - the cell index (must be a node of the maze).
+	 * @param bit - one of NORTH, EAST, SOUTH or WEST.
+	 * @return true if the path was removed, false otherwise.
+	 */
+	boolean removePath(int index, int bit) {
+		int other = getNeighbourCell(index, bit);
+		if (!isNodeCell(other)) {
+			return false;
+		}
+		return clearPathBit(index, bit) && clearPathBit(other, oppositeBit(bit));
 	}
 	
 	/**
@@ -591,12 +320,25 @@ public class Maze {
 	 * @return isPath (boolean)
 	 */
 	public boolean isPath(PointXY p1, PointXY p2) {
-		MazeNode n1 = nodes.get(p1);
-		MazeNode n2 = nodes.get(p2);
+		int c1 = getCellIndex(p1);
+		int bit = directionBit(p1, p2);
 		
-		boolean success = n1.isNeighbour(p2) && n2.isNeighbour(p1);
+		return bit != 0 && isNodeCell(c1) && (cells[c1] & bit) != 0;
+	}
+	
+	/**
+	 * Checks whether there is a path out of the given point in the given 
+	 * direction (without needing the neighbouring point).
+	 * 
+	 * @param p: Point (PointXY)
+	 * @param dir: Direction (Direction)
+	 * @return isPath (boolean)
+	 */
+	public boolean isPath(PointXY p, Direction dir) {
+		int c = getCellIndex(p);
+		int bit = directionBit(dir);
 		
-		return success;
+		return bit != 0 && isNodeCell(c) && (cells[c] & bit) != 0;
 	}
 	
 	/**
@@ -611,15 +353,8 @@ public class Maze {
 	 * @return true if the two provided points are both neighbours of each 
 	 * other, false otherwise.
 	 */
-	public boolean areNeighbours(PointXY pos1, PointXY pos2) { // Same as isPath method?
-		MazeNode n1 = nodes.get(pos1);
-		MazeNode n2 = nodes.get(pos2);
-		
-		if (n1 == null || n2 == null) {
-			return false;
-		}
-		
-		return n1.isNeighbour(pos2) && n2.isNeighbour(pos1);
+	public boolean areNeighbours(PointXY pos1, PointXY pos2) {
+		return isPath(pos1, pos2);
 	}
 	
 	/**
@@ -631,23 +366,21 @@ public class Maze {
 	 */
 	public int possibleNeighbours(PointXY p) {
 		int count = 0;
-		int newX = 0;
-		int newY = 0;
+		int x = p.getX();
+		int y = p.getY();
 		
 		if (withinDimensions(p)) {
-			List<int[]> nesw = new ArrayList<int[]>();
-			nesw.add(new int[]{0, 1});
-			nesw.add(new int[]{1, 0});
-			nesw.add(new int[]{0, -1});
-			nesw.add(new int[]{-1, 0});
-			
-			for (int[] nextTo : nesw) {
-				newX = p.getX() + nextTo[0];
-				newY = p.getY() + nextTo[1];
-				
-				if (withinDimensions(new PointXY(newX, newY))) {
-					count++;
-				}
+			if (isNodeCell(getCellIndex(x, y + 1))) {
+				count++;
+			}
+			if (isNodeCell(getCellIndex(x + 1, y))) {
+				count++;
+			}
+			if (isNodeCell(getCellIndex(x, y - 1))) {
+				count++;
+			}
+			if (isNodeCell(getCellIndex(x - 1, y))) {
+				count++;
 			}
 		}
 		return count;
@@ -660,27 +393,21 @@ public class Maze {
 	 * @return numberOfPaths (int)
 	 */
 	public int numberOfPaths(PointXY p) {
-		int count = 0;
-		int newX = 0;
-		int newY = 0;
-		
-		if (withinDimensions(p)) {
-			List<int[]> nesw = new ArrayList<int[]>();
-			nesw.add(new int[]{0, 1});
-			nesw.add(new int[]{1, 0});
-			nesw.add(new int[]{0, -1});
-			nesw.add(new int[]{-1, 0});
-			
-			for (int[] nextTo : nesw) {
-				newX = p.getX() + nextTo[0];
-				newY = p.getY() + nextTo[1];
-				
-				if (isPath(p, new PointXY(newX, newY))) {
-					count++;
-				}
-			}
+		return numberOfPaths(getCellIndex(p));
+	}
+	
+	/**
+	 * Finds the total number of paths from the node with the given cell 
+	 * index.
+	 * 
+	 * @param index - the cell index.
+	 * @return the number of paths from the cell, or 0 if it is not a node.
+	 */
+	int numberOfPaths(int index) {
+		if (!isNodeCell(index)) {
+			return 0;
 		}
-		return count;
+		return Integer.bitCount(cells[index] & PATHS);
 	}
 	
 	/**
@@ -696,95 +423,12 @@ public class Maze {
 	}
 	
 	/**
-	 * Gives a key-value pair, where the key is the unsaturated node and the value is the
-	 * collection of adjacent paths which forms the minimal square.
+	 * Gets the seed the maze was generated from.
 	 * 
-	 * @param lower left corner of a minimal square (PointXY)
-	 * @return unsaturated (Map<PointXY, List<PointXY>)
+	 * @return seed (Long), or null if the maze was not seeded
 	 */
-	private Map<PointXY, List<PointXY>> unsaturatedAndPaths(PointXY ll){
-		Map<PointXY, List<PointXY>> unsaturated = new HashMap<PointXY, List<PointXY>>();
-		List<PointXY> paths = null;
-		
-		PointXY ul = new PointXY(ll.getX(), ll.getY() + 1);
-		PointXY ur = new PointXY(ll.getX() + 1, ll.getY() + 1);
-		PointXY lr = new PointXY(ll.getX() + 1, ll.getY());
-		
-		if (!isSaturated(ll)) {
-			paths = new ArrayList<PointXY>();
-			paths.add(ul);
-			paths.add(lr);
-			unsaturated.put(ll, paths);
-		}
-		
-		if (!isSaturated(ul)) {
-			paths = new ArrayList<PointXY>();
-			paths.add(ll);
-			paths.add(ur);
-			unsaturated.put(ul, paths);
-		}
-		
-		if (!isSaturated(ur)) {
-			paths = new ArrayList<PointXY>();
-			paths.add(ul);
-			paths.add(lr);
-			unsaturated.put(ur, paths);
-		}
-		
-		if (!isSaturated(lr)) {
-			paths = new ArrayList<PointXY>();
-			paths.add(ur);
-			paths.add(ll);
-			unsaturated.put(lr, paths);
-		}
-		
-		return unsaturated;
-	}
-	
-	/**
-	 * Gives a key-value pair, where the key is the saturated node and the value is the
-	 * collection of adjacent paths which forms the minimal square.
-	 * 
-	 * @param lower left corner of a minimal square (PointXY)
-	 * @return saturated (Map<PointXY, List<PointXY>)
-	 */
-	private Map<PointXY, List<PointXY>> saturatedAndPaths(PointXY ll){
-		Map<PointXY, List<PointXY>> saturated = new HashMap<PointXY, List<PointXY>>();
-		List<PointXY> paths = null;
-		
-		PointXY ul = new PointXY(ll.getX(), ll.getY() + 1);
-		PointXY ur = new PointXY(ll.getX() + 1, ll.getY() + 1);
-		PointXY lr = new PointXY(ll.getX() + 1, ll.getY());
-		
-		if (isSaturated(ll)) {
-			paths = new ArrayList<PointXY>();
-			paths.add(ul);
-			paths.add(lr);
-			saturated.put(ll, paths);
-		}
-		
-		if (isSaturated(ul)) {
-			paths = new ArrayList<PointXY>();
-			paths.add(ll);
-			paths.add(ur);
-			saturated.put(ul, paths);
-		}
-		
-		if (isSaturated(ur)) {
-			paths = new ArrayList<PointXY>();
-			paths.add(ul);
-			paths.add(lr);
-			saturated.put(ur, paths);
-		}
-		
-		if (isSaturated(lr)) {
-			paths = new ArrayList<PointXY>();
-			paths.add(ur);
-			paths.add(ll);
-			saturated.put(lr, paths);
-		}
-		
-		return saturated;
+	public Long getSeed() {
+		return this.seed;
 	}
 	
 	/**
@@ -799,20 +443,37 @@ public class Maze {
 	/**
 	 * Gets the nodes in the maze.
 	 * 
-	 * @return nodse (Map<PointXY, MazeNode>)
+	 * This is a read-only view of the maze grid, created the first time it's
+	 * asked for. Where possible, prefer the cell index methods, which don't 
+	 * need the view.
+	 * 
+	 * @return nodes (Map<PointXY, MazeNode>)
 	 */
 	public Map<PointXY, MazeNode> getNodes() {
-		return this.nodes;
+		Map<PointXY, MazeNode> view = this.nodes;
+		if (view == null) {
+			Map<PointXY, MazeNode> all = new LinkedHashMap<PointXY, MazeNode>();
+			for (int index : nodeCells) {
+				PointXY pos = getCellPoint(index);
+				all.put(pos, new MazeNode(this, pos));
+			}
+			view = Collections.unmodifiableMap(all);
+			this.nodes = view;
+		}
+		return view;
 	}
 	
 	/**
 	 * Gets a MazeNode within the maze based on the position.
 	 * 
 	 * @param pos (PointXY)
-	 * @return node (MazeNode)
+	 * @return node (MazeNode), or null if there is no node at the position
 	 */
 	public MazeNode getNode(PointXY pos) {
-		return this.nodes.get(pos);
+		if (!withinDimensions(pos)) {
+			return null;
+		}
+		return new MazeNode(this, pos);
 	}
 	
 	/**
@@ -824,7 +485,271 @@ public class Maze {
 	 * otherwise.
 	 */
 	public boolean containsNodeAtPosition(PointXY pos) {
-		return nodes.containsKey(pos);
+		return withinDimensions(pos);
+	}
+	
+	/**
+	 * Gets the number of nodes in the maze.
+	 * 
+	 * @return the number of nodes in the maze.
+	 */
+	public int numberOfNodes() {
+		return nodeCells.length;
+	}
+	
+	/**
+	 * Gets the cell index of the node with the given number. Nodes are 
+	 * numbered from 0 to numberOfNodes() - 1 in grid order.
+	 * 
+	 * @param node - the node number.
+	 * @return the cell index of the node.
+	 */
+	public int getNodeCell(int node) {
+		return nodeCells[node];
+	}
+	
+	/**
+	 * Gets the x-coordinate of the first column of the maze grid.
+	 * 
+	 * @return the minimum x-coordinate of the grid.
+	 */
+	public int getMinX() {
+		return minX;
+	}
+	
+	/**
+	 * Gets the y-coordinate of the first row of the maze grid.
+	 * 
+	 * @return the minimum y-coordinate of the grid.
+	 */
+	public int getMinY() {
+		return minY;
+	}
+	
+	/**
+	 * Gets the number of columns in the maze grid.
+	 * 
+	 * @return the width of the grid.
+	 */
+	public int getGridWidth() {
+		return width;
+	}
+	
+	/**
+	 * Gets the number of rows in the maze grid.
+	 * 
+	 * @return the height of the grid.
+	 */
+	public int getGridHeight() {
+		return height;
+	}
+	
+	/**
+	 * Gets the number of cells in the maze grid (including any which are not
+	 * nodes of the maze).
+	 * 
+	 * @return the number of cells in the grid.
+	 */
+	public int getCellCount() {
+		return cells.length;
+	}
+	
+	/**
+	 * Gets the cell index of the given position.
+	 * 
+	 * @param pos - the position.
+	 * @return the cell index, or NO_CELL if the position is outside the grid.
+	 */
+	public int getCellIndex(PointXY pos) {
+		return getCellIndex(pos.getX(), pos.getY());
+	}
+	
+	/**
+	 * Gets the cell index of the given coordinates.
+	 * 
+	 * @param x - the x-coordinate.
+	 * @param y - the y-coordinate.
+	 * @return the cell index, or NO_CELL if the coordinates are outside the 
+	 * grid.
+	 */
+	public int getCellIndex(int x, int y) {
+		int column = x - minX;
+		int row = y - minY;
+		if (column < 0 || column >= width || row < 0 || row >= height) {
+			return NO_CELL;
+		}
+		return column + row * width;
+	}
+	
+	/**
+	 * Gets the position of the cell with the given index.
+	 * 
+	 * @param index - the cell index.
+	 * @return the position of the cell.
+	 */
+	public PointXY getCellPoint(int index) {
+		return new PointXY(minX + index % width, minY + index / width);
+	}
+	
+	/**
+	 * Checks whether the cell with the given index is a node of the maze.
+	 * 
+	 * @param index - the cell index (may be NO_CELL).
+	 * @return true if the cell is a node of the maze, false otherwise.
+	 */
+	public boolean isNodeCell(int index) {
+		return index >= 0 && index < cells.length && (cells[index] & IN_MAZE) != 0;
+	}
+	
+	/**
+	 * Gets the paths out of the cell with the given index, as a mask of the 
+	 * NORTH, EAST, SOUTH and WEST bits.
+	 * 
+	 * @param index - the cell index.
+	 * @return the mask of paths out of the cell.
+	 */
+	public int getPathMask(int index) {
+		return cells[index] & PATHS;
+	}
+	
+	/**
+	 * Gets the cell index of the neighbouring cell in the given direction.
+	 * 
+	 * @param index - the cell index.
+	 * @param bit - one of NORTH, EAST, SOUTH or WEST.
+	 * @return the cell index of the neighbouring cell, or NO_CELL if it is 
+	 * outside the grid.
+	 */
+	public int getNeighbourCell(int index, int bit) {
+		int x = minX + index % width;
+		int y = minY + index / width;
+		switch (bit) {
+			case NORTH:
+				return getCellIndex(x, y + 1);
+			case EAST:
+				return getCellIndex(x + 1, y);
+			case SOUTH:
+				return getCellIndex(x, y - 1);
+			case WEST:
+				return getCellIndex(x - 1, y);
+			default:
+				return NO_CELL;
+		}
+	}
+	
+	/**
+	 * Gets the mask of paths out of the node at the given position. Used by 
+	 * the MazeNode view.
+	 * 
+	 * @param pos - the position.
+	 * @return the mask of paths, or 0 if there is no node at the position.
+	 */
+	int getPathMask(PointXY pos) {
+		int index = getCellIndex(pos);
+		if (!isNodeCell(index)) {
+			return 0;
+		}
+		return getPathMask(index);
+	}
+	
+	/**
+	 * Sets or clears the path bit from one position towards an adjacent 
+	 * position, without changing the other position. Used by the MazeNode 
+	 * view.
+	 * 
+	 * @param from - the position whose mask to change.
+	 * @param to - the adjacent position.
+	 * @param path - true to set the path bit, false to clear it.
+	 * @return true if the mask was changed, false otherwise.
+	 */
+	boolean setHalfPath(PointXY from, PointXY to, boolean path) {
+		int index = getCellIndex(from);
+		int bit = directionBit(from, to);
+		if (!isNodeCell(index) || bit == 0) {
+			return false;
+		}
+		return path ? setPathBit(index, bit) : clearPathBit(index, bit);
+	}
+	
+	/**
+	 * Gets the path bit for a step from one position to another.
+	 * 
+	 * @param from - the position moved from.
+	 * @param to - the position moved to.
+	 * @return one of NORTH, EAST, SOUTH or WEST, or 0 if the positions are not
+	 * adjacent.
+	 */
+	static int directionBit(PointXY from, PointXY to) {
+		int dx = to.getX() - from.getX();
+		int dy = to.getY() - from.getY();
+		if (dx == 0 && dy == 1) {
+			return NORTH;
+		} else if (dx == 1 && dy == 0) {
+			return EAST;
+		} else if (dx == 0 && dy == -1) {
+			return SOUTH;
+		} else if (dx == -1 && dy == 0) {
+			return WEST;
+		}
+		return 0;
+	}
+	
+	/**
+	 * Gets the path bit for a step in the given direction.
+	 * 
+	 * @param dir - the direction of the step.
+	 * @return one of NORTH, EAST, SOUTH or WEST, or 0 for Direction.None.
+	 */
+	public static int directionBit(Direction dir) {
+		switch (dir) {
+			case Up:
+				return NORTH;
+			case Right:
+				return EAST;
+			case Down:
+				return SOUTH;
+			case Left:
+				return WEST;
+			default:
+				return 0;
+		}
+	}
+	
+	/**
+	 * Gets the path bit in the opposite direction to the given bit.
+	 * 
+	 * @param bit - one of NORTH, EAST, SOUTH or WEST.
+	 * @return the opposite bit.
+	 */
+	public static int oppositeBit(int bit) {
+		switch (bit) {
+			case NORTH:
+				return SOUTH;
+			case EAST:
+				return WEST;
+			case SOUTH:
+				return NORTH;
+			case WEST:
+				return EAST;
+			default:
+				return 0;
+		}
+	}
+	
+	private boolean setPathBit(int index, int bit) {
+		if ((cells[index] & bit) != 0) {
+			return false;
+		}
+		cells[index] |= bit;
+		return true;
+	}
+	
+	private boolean clearPathBit(int index, int bit) {
+		if ((cells[index] & bit) == 0) {
+			return false;
+		}
+		cells[index] &= ~bit;
+		return true;
 	}
 	
 	/**
@@ -837,27 +762,18 @@ public class Maze {
 	 */
 	@Override
 	public String toString() {
-		PointXY pos = null;
-		int val = 0;
-		int[][] offset = new int[][] {{0, 1}, {1, 0}, {0, -1}, {-1, 0}};
+		int[] bits = new int[] {NORTH, EAST, SOUTH, WEST};
 		StringBuffer sb = new StringBuffer();
 		sb.append("Key: NESW");
 		sb.append("\n\n");
 		
-		for (int j = dimensions.getMaxY(); j >= dimensions.getMinY(); j--) {
-			for (int i = dimensions.getMinX(); i <= dimensions.getMaxX(); i++) {
-				pos = new PointXY(i, j);
-				
-				if (withinDimensions(pos)) {
-					for (int[] k : offset) {
-						val = (isPath(pos, new PointXY(i + k[0], j + k[1]))) ? 1 : 0;
-						sb.append(val);
-					}
-					sb.append(" ");
-				} else {
-					sb.append("0000");
-					sb.append(" ");
+		for (int j = minY + height - 1; j >= minY; j--) {
+			for (int i = minX; i < minX + width; i++) {
+				int mask = getPathMask(getCellIndex(i, j));
+				for (int bit : bits) {
+					sb.append((mask & bit) != 0 ? 1 : 0);
 				}
+				sb.append(" ");
 			}
 			sb.append("\n");
 		}
@@ -0,0 +1,129 @@
+package logic;
+
+import geometry.PointXY;
+import geometry.PolygonShape;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An in-memory cache of seeded mazes.
+ * 
+ * A seeded maze is entirely determined by its dimensions and configuration 
+ * (which includes the seed), so a maze built once can be handed out again 
+ * whenever the same level is played, rather than being generated again. The 
+ * cache holds the most recently used mazes, up to MAX_MAZES.
+ * 
+ * Mazes handed out by the cache are shared, so they must not be changed.
+ * 
+ * @author agent
+ * @version 2026-10-17
+ */
+public class MazeCache {
+	
+	// The maximum number of mazes held in the cache
+	public static final int MAX_MAZES = 8;
+	
+	private static final Map<MazeKey, Maze> mazes = 
+			new LinkedHashMap<MazeKey, Maze>(16, 0.75f, true) {
+		
+		private static final long serialVersionUID = 1L;
+		
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<MazeKey, Maze> eldest) {
+			return size() > MAX_MAZES;
+		}
+	};
+	
+	/**
+	 * Get the maze with the given dimensions and configuration. If the 
+	 * configuration has a seed, the maze is taken from the cache if possible
+	 * (or built and added to the cache if not). Unseeded mazes are always 
+	 * built and are never cached.
+	 * 
+	 * @param dimensions - the dimensions of the maze.
+	 * @param mConfig - the configuration of the maze.
+	 * @return the maze.
+	 */
+	public static Maze getMaze(PolygonShape dimensions, MazeConfig mConfig) {
+		
+		if (!mConfig.hasSeed()) {
+			return new Maze(dimensions, mConfig);
+		}
+		
+		MazeKey key = new MazeKey(dimensions, mConfig);
+		synchronized (mazes) {
+			Maze maze = mazes.get(key);
+			if (maze == null) {
+				maze = new Maze(dimensions, mConfig);
+				mazes.put(key, maze);
+			}
+			return maze;
+		}
+	}
+	
+	/**
+	 * Remove all mazes from the cache.
+	 */
+	public static void clear() {
+		synchronized (mazes) {
+			mazes.clear();
+		}
+	}
+	
+	/**
+	 * The key for a maze in the cache: the maze dimensions, along with a copy 
+	 * of the configuration values (as MazeConfig can be changed after the maze
+	 * is built).
+	 */
+	private static final class MazeKey {
+		
+		private final List<PointXY> coordinates;
+		private final int maxLength;
+		private final int loopLimit;
+		private final double deadEndMinProp;
+		private final double ranPathMaxProp;
+		private final long seed;
+		
+		MazeKey(PolygonShape dimensions, MazeConfig mConfig) {
+			this.coordinates = new ArrayList<PointXY>(dimensions.getCoordinates());
+			this.maxLength = mConfig.getMaxLength();
+			this.loopLimit = mConfig.getLoopLimit();
+			this.deadEndMinProp = mConfig.getDeadEndMinProp();
+			this.ranPathMaxProp = mConfig.getRanPathMaxProp();
+			this.seed = mConfig.getSeed();
+		}
+		
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = coordinates.hashCode();
+			result = prime * result + maxLength;
+			result = prime * result + loopLimit;
+			result = prime * result + Double.valueOf(deadEndMinProp).hashCode();
+			result = prime * result + Double.valueOf(ranPathMaxProp).hashCode();
+			result = prime * result + (int) (seed ^ (seed >>> 32));
+			return result;
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof MazeKey)) {
+				return false;
+			}
+			MazeKey other = (MazeKey) obj;
+			return coordinates.equals(other.coordinates) &&
+					maxLength == other.maxLength &&
+					loopLimit == other.loopLimit &&
+					Double.compare(deadEndMinProp, other.deadEndMinProp) == 0 &&
+					Double.compare(ranPathMaxProp, other.ranPathMaxProp) == 0 &&
+					seed == other.seed;
+		}
+	}
+	
+}
@@ -1,5 +1,7 @@
 package logic;
 
+import java.util.Random;
+
 import utils.NumberUtils;
 
 /**
@@ -15,6 +17,7 @@ public class MazeConfig {
 	private double deadEndMinProp; // Minimum proportion of deadend nodes to total nodes
 	private double ranPathMaxProp; // Maximum proportion of nodes filled by
 									// random path creations to total nodes
+	private Long seed; // Seed for the maze and game setup (null if unseeded)
 	
 	/**
 	 * Default constructor for MazeConfig.
@@ -117,10 +120,49 @@ public class MazeConfig {
 		this.ranPathMaxProp = ranPathMaxProp;
 	}
 	
+	/**
+	 * Gets the seed used to generate the maze and set up the game, or null if
+	 * the maze should be different every time.
+	 * 
+	 * @return seed (Long)
+	 */
+	public Long getSeed() {
+		return this.seed;
+	}
+	
+	/**
+	 * Sets the seed used to generate the maze and set up the game. Set to 
+	 * null for a different maze every time.
+	 * 
+	 * @param seed (Long)
+	 */
+	public void setSeed(Long seed) {
+		this.seed = seed;
+	}
+	
+	/**
+	 * Checks whether a seed has been set.
+	 * 
+	 * @return hasSeed (boolean)
+	 */
+	public boolean hasSeed() {
+		return this.seed != null;
+	}
+	
 	public void randomiseValues() {
-		maxLength = NumberUtils.randomInt(1, 30);
-		deadEndMinProp = NumberUtils.randomDouble(0.0, 1.0);
-		ranPathMaxProp = NumberUtils.randomDouble(0.0, 1.0);
+		randomiseValues(new Random());
+	}
+	
+	/**
+	 * Sets the maximum path length and proportions to random values, drawn
+	 * from the given Random.
+	 * 
+	 * @param random (Random)
+	 */
+	public void randomiseValues(Random random) {
+		maxLength = NumberUtils.randomInt(random, 1, 30);
+		deadEndMinProp = NumberUtils.randomDouble(random, 0.0, 1.0);
+		ranPathMaxProp = NumberUtils.randomDouble(random, 0.0, 1.0);
 	}
 	
 }
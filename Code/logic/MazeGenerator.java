@@ -0,0 +1,27 @@
+package logic;
+
+import java.util.Random;
+
+/**
+ * Builds the paths of a maze.
+ * 
+ * A generator is given an empty maze (every node present, but no paths) and
+ * adds paths until every node is connected, following the given MazeConfig.
+ * Generators must not leave any minimal squares (a square of four adjacent 
+ * nodes joined by paths) in the maze.
+ * 
+ * @author agent
+ * @version 2026-10-17
+ */
+public interface MazeGenerator {
+	
+	/**
+	 * Build the paths of the given empty maze.
+	 * 
+	 * @param maze - the empty maze to build paths in.
+	 * @param config - the configuration to follow.
+	 * @param random - the source of randomness to use.
+	 */
+	public void generate(Maze maze, MazeConfig config, Random random);
+	
+}
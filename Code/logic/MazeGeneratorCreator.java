@@ -0,0 +1,32 @@
+package logic;
+
+public class MazeGeneratorCreator {
+	
+	/**
+	 * Create a MazeGenerator of the given type.
+	 * 
+	 * @param type - the type of MazeGenerator to create.
+	 * @return the created MazeGenerator.
+	 */
+	public static MazeGenerator create(MazeGeneratorType type) {
+		
+		MazeGenerator generator = null;
+		
+		switch (type) {
+			case Classic:
+				generator = new ClassicMazeGenerator();
+				break;
+			case Linear:
+				generator = new LinearMazeGenerator();
+				break;
+			default:
+				System.err.println("Unknown maze generator type");
+				break;
+		
+		}
+		
+		return generator;
+		
+	}
+
+}
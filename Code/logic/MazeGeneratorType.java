@@ -0,0 +1,8 @@
+package logic;
+
+public enum MazeGeneratorType {
+
+	Classic,
+	Linear
+	
+}
@@ -2,84 +2,103 @@ package logic;
 
 import geometry.PointXY;
 
+import java.util.HashSet;
 import java.util.Set;
 
 /**
  * Represents a node which is used to build a maze.
- * 
+ *
+ * A MazeNode is a view onto a single cell of its Maze: the neighbours are read
+ * from (and written to) the maze's path mask for the cell, so the node always
+ * reflects the current state of the maze.
+ *
  * @author Martin Wong
  * @version 2015-06-01
  */
 public class MazeNode {
-	
-	private Set<PointXY> neighbours;
-	
+
+	private final Maze maze;
+	private final PointXY position;
+
 	/**
 	 * Creates an instance of MazeNode.
-	 * 
-	 * @param neighbours (Set<PointXY>)
+	 *
+	 * @param maze (Maze) - the maze the node belongs to
+	 * @param position (PointXY) - the position of the node in the maze
 	 */
-	public MazeNode(Set<PointXY> neighbours) {
-		this.neighbours = neighbours;
+	MazeNode(Maze maze, PointXY position) {
+		this.maze = maze;
+		this.position = position;
 	}
-	
+
 	/**
 	 * Gets the neighbours of this maze node.
-	 * 
+	 *
+	 * The returned set is a copy; changing it does not change the maze.
+	 *
 	 * @return neighbours (Set<PointXY>)
 	 */
 	public Set<PointXY> getNeighbours() {
-		return this.neighbours;
+		int mask = maze.getPathMask(position);
+		int x = position.getX();
+		int y = position.getY();
+
+		Set<PointXY> neighbours = new HashSet<PointXY>();
+		if ((mask & Maze.NORTH) != 0) {
+			neighbours.add(new PointXY(x, y + 1));
+		}
+		if ((mask & Maze.EAST) != 0) {
+			neighbours.add(new PointXY(x + 1, y));
+		}
+		if ((mask & Maze.SOUTH) != 0) {
+			neighbours.add(new PointXY(x, y - 1));
+		}
+		if ((mask & Maze.WEST) != 0) {
+			neighbours.add(new PointXY(x - 1, y));
+		}
+		return neighbours;
 	}
-	
+
 	/**
 	 * Add a new neighbour to this maze node and returns a boolean.
 	 * True is successful and False is unsuccessful.
-	 * 
+	 *
 	 * @param position (PointXY)
 	 * @return success (boolean)
 	 */
 	public boolean addNeighbour(PointXY position) {
-		boolean success = false;
-		if (!this.neighbours.contains(position)) {
-			success = this.neighbours.add(position);
-		}
-		return success;
+		return maze.setHalfPath(this.position, position, true);
 	}
-	
+
 	/**
 	 * Removes an existing neighbour from this maze node and returns a boolean.
 	 * True is successful and False is unsuccessful.
-	 * 
+	 *
 	 * @param position (PointXY)
 	 * @return success (boolean)
 	 */
 	public boolean removeNeighbour(PointXY position) {
-		boolean success = false;
-		if (this.neighbours.contains(position)) {
-			success = this.neighbours.remove(position);
-		}
-		return success;
+		return maze.setHalfPath(this.position, position, false);
 	}
-	
+
 	/**
 	 * Checks whether a certain point on a graph is a neighbour of this maze node.
-	 * 
+	 *
 	 * @param position (PointXY)
 	 * @return success (boolean)
 	 */
 	public boolean isNeighbour(PointXY position) {
-		return this.neighbours.contains(position);
+		return maze.isPath(this.position, position);
 	}
-	
+
 	/**
 	 * Gets the number of neighbours this maze node has.
-	 * 
+	 *
 	 * @return numberOfNeighbours (int)
 	 */
 	public int numberOfNeighbours() {
-		return neighbours.size();
+		return Integer.bitCount(maze.getPathMask(position));
 	}
-	
+
 
 }
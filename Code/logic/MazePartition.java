@@ -0,0 +1,86 @@
+package logic;
+
+import geometry.PointXY;
+
+import java.util.Arrays;
+
+/**
+ * MazePartition class.
+ * 
+ * Assigns each node in a maze to an owning agent (e.g. the prey nearest to 
+ * that node). Nodes are identified by a dense int index, and the owner of 
+ * each node is held as an agent ID in a flat int array.
+ * 
+ * @author agent
+ * @version 2026-10-17
+ */
+public class MazePartition {
+
+	// The owner of a node which hasn't been assigned to any agent
+	public static final int NO_OWNER = -1;
+	
+	// The position of each node, by index
+	private final PointXY[] points;
+	
+	// The ID of the agent owning each node, by index
+	private final int[] owners;
+	
+	/**
+	 * Constructor for MazePartition. Initially no node has an owner.
+	 * 
+	 * @param points - the position of each node in the maze, by node index.
+	 */
+	public MazePartition(PointXY[] points) {
+		this.points = points;
+		this.owners = new int[points.length];
+		clear();
+	}
+	
+	/**
+	 * Get the number of nodes in the partition.
+	 * 
+	 * @return the number of nodes in the partition.
+	 */
+	public int size() {
+		return points.length;
+	}
+	
+	/**
+	 * Get the position of the node with the given index.
+	 * 
+	 * @param index - the index of the node.
+	 * @return the position of the node.
+	 */
+	public PointXY getPoint(int index) {
+		return points[index];
+	}
+	
+	/**
+	 * Get the ID of the agent owning the node with the given index.
+	 * 
+	 * @param index - the index of the node.
+	 * @return the ID of the owning agent, or NO_OWNER if the node has no 
+	 * owner.
+	 */
+	public int getOwner(int index) {
+		return owners[index];
+	}
+	
+	/**
+	 * Set the ID of the agent owning the node with the given index.
+	 * 
+	 * @param index - the index of the node.
+	 * @param agentID - the ID of the owning agent, or NO_OWNER.
+	 */
+	public void setOwner(int index, int agentID) {
+		owners[index] = agentID;
+	}
+	
+	/**
+	 * Remove the owner from every node.
+	 */
+	public void clear() {
+		Arrays.fill(owners, NO_OWNER);
+	}
+	
+}
@@ -0,0 +1,23 @@
+package logic;
+
+import geometry.PointXY;
+
+/**
+ * PillListener interface.
+ * 
+ * Implemented by classes which need to be told when a pill is removed from the
+ * GameState (e.g. to keep a cache of paths to the remaining pills up to date).
+ * 
+ * @author agent
+ * @version 2026-10-17
+ */
+public interface PillListener {
+
+	/**
+	 * Called after a pill has been removed from the game.
+	 * 
+	 * @param pos - the position of the removed pill.
+	 */
+	void pillRemoved(PointXY pos);
+	
+}
@@ -0,0 +1,317 @@
+package logic;
+
+import geometry.PointXY;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import pathfinding.NodeIndex;
+
+/**
+ * PillStore class.
+ *
+ * Holds the pills remaining in a maze as one bit per maze node (by NodeIndex
+ * index), along with a count of the pills left. Checking for or removing a
+ * pill is a bit lookup, with no PointXY hashing.
+ *
+ * The store also answers "which pill is closest (by maze distance) to this
+ * node?". The answer for each node is found with a Breadth-First Search the
+ * first time it's asked for, and then kept. Pills are only ever removed, so
+ * the closest pill from a node stays the closest for as long as it is left:
+ * when a pill is removed, only the nodes whose closest pill it was are
+ * searched again (the next time they're asked for). Each pill keeps a linked
+ * list of those nodes, so removing it doesn't look at the rest of the maze.
+ * Neighbours are searched in NodeIndex slot order and the search stops at the
+ * first pill reached, as BFSPathFinder.getPath() does for a set of goals, so
+ * both pick the same pill.
+ *
+ * The store isn't thread-safe.
+ *
+ * @author agent
+ * @version 2026-10-17
+ */
+public final class PillStore {
+
+	// The nearest pill stored for nodes which haven't been searched from yet
+	private static final int UNKNOWN = -2;
+
+	private final NodeIndex index;
+	private final BitSet pills;
+	private int numPills;
+
+	// Read-only Set view of the pills
+	private final Set<PointXY> view;
+
+	// The closest pill to each node (NO_NODE if no pill can be reached, or
+	// UNKNOWN), and the first node along the shortest path to it (NO_NODE if
+	// the pill is on the node itself)
+	private final int[] nearest;
+	private final int[] firstSteps;
+
+	// For each pill, a linked list of the nodes it is the stored closest pill
+	// to: the first such node (NO_NODE if none), and then the next node after
+	// each node in its pill's list
+	private final int[] firstDependents;
+	private final int[] nextDependents;
+
+	// The Breadth-First Search arrays, reused for every search. A node has
+	// been visited in the current search if its stamp is the search's stamp.
+	private final int[] queue;
+	private final int[] parents;
+	private final int[] stamps;
+	private int stamp;
+
+	/**
+	 * Constructor for PillStore.
+	 *
+	 * @param index - the node index of the maze.
+	 * @param pills - the positions of the pills (each must be a node of the
+	 * maze).
+	 */
+	public PillStore(NodeIndex index, Set<PointXY> pills) {
+
+		int size = index.size();
+		this.index = index;
+		this.pills = new BitSet(size);
+		for (PointXY pos : pills) {
+			int node = index.getIndex(pos);
+			if (node == NodeIndex.NO_NODE) {
+				throw new IllegalArgumentException("Pill " + pos +
+						" is not on a node of the maze.");
+			}
+			this.pills.set(node);
+		}
+		this.numPills = this.pills.cardinality();
+		this.view = new PillSet();
+
+		this.nearest = new int[size];
+		this.firstSteps = new int[size];
+		Arrays.fill(nearest, UNKNOWN);
+		this.firstDependents = new int[size];
+		this.nextDependents = new int[size];
+		Arrays.fill(firstDependents, NodeIndex.NO_NODE);
+
+		this.queue = new int[size];
+		this.parents = new int[size];
+		this.stamps = new int[size];
+		this.stamp = 0;
+	}
+
+	/**
+	 * Get the node index of the maze.
+	 *
+	 * @return the node index.
+	 */
+	public NodeIndex getNodeIndex() {
+		return index;
+	}
+
+	/**
+	 * Get the number of pills left.
+	 *
+	 * @return the number of pills.
+	 */
+	public int size() {
+		return numPills;
+	}
+
+	/**
+	 * Check whether there is a pill at the given position.
+	 *
+	 * @param pos - the position.
+	 * @return true if there is a pill there, false otherwise.
+	 */
+	public boolean hasPill(PointXY pos) {
+		int node = index.getIndex(pos);
+		return node != NodeIndex.NO_NODE && pills.get(node);
+	}
+
+	/**
+	 * Check whether there is a pill on the given node.
+	 *
+	 * @param node - the index of the node.
+	 * @return true if there is a pill there, false otherwise.
+	 */
+	public boolean hasPill(int node) {
+		return pills.get(node);
+	}
+
+	/**
+	 * Remove the pill at the given position, if there is one. Only the
+	 * GameState removes pills, so that its pill listeners are told.
+	 *
+	 * @param pos - the position of the pill.
+	 * @return true if a pill was removed, false if there wasn't one there.
+	 */
+	boolean remove(PointXY pos) {
+
+		int node = index.getIndex(pos);
+		if (node == NodeIndex.NO_NODE || !pills.get(node)) {
+			return false;
+		}
+
+		pills.clear(node);
+		--numPills;
+
+		// Anywhere this was the closest pill needs searching from again.
+		int dependent = firstDependents[node];
+		while (dependent != NodeIndex.NO_NODE) {
+			nearest[dependent] = UNKNOWN;
+			dependent = nextDependents[dependent];
+		}
+		firstDependents[node] = NodeIndex.NO_NODE;
+		return true;
+	}
+
+	/**
+	 * Get a read-only view of the pill positions. The view is live: it
+	 * always holds the pills currently left.
+	 *
+	 * @return the pill positions.
+	 */
+	public Set<PointXY> asSet() {
+		return view;
+	}
+
+	/**
+	 * Get the closest pill (by maze distance) to the given node.
+	 *
+	 * @param node - the index of the node.
+	 * @return the index of the node the pill is on, or NO_NODE if no pill can
+	 * be reached.
+	 */
+	public int getNearestPill(int node) {
+		if (nearest[node] == UNKNOWN) {
+			search(node);
+		}
+		return nearest[node];
+	}
+
+	/**
+	 * Get the first step along the shortest path from the given node to the
+	 * closest pill.
+	 *
+	 * @param node - the index of the node.
+	 * @return the index of the node to move to, or NO_NODE if the pill is on
+	 * the given node or no pill can be reached.
+	 */
+	public int getFirstStepToNearestPill(int node) {
+		if (nearest[node] == UNKNOWN) {
+			search(node);
+		}
+		return firstSteps[node];
+	}
+
+	/**
+	 * Search out from the given node for the closest pill, and record it.
+	 */
+	private void search(int start) {
+
+		firstSteps[start] = NodeIndex.NO_NODE;
+		if (pills.get(start)) {
+			setNearest(start, start);
+			return;
+		}
+
+		++stamp;
+		int head = 0;
+		int tail = 0;
+		stamps[start] = stamp;
+		queue[tail++] = start;
+
+		int goal = NodeIndex.NO_NODE;
+		while (goal == NodeIndex.NO_NODE && head < tail) {
+			int current = queue[head++];
+
+			for (int slot = 0; slot < NodeIndex.NUM_SLOTS; ++slot) {
+				int neighbour = index.getNeighbour(current, slot);
+				if (neighbour == NodeIndex.NO_NODE ||
+					stamps[neighbour] == stamp) {
+					continue;
+				}
+				stamps[neighbour] = stamp;
+				parents[neighbour] = current;
+				queue[tail++] = neighbour;
+
+				if (pills.get(neighbour)) {
+					goal = neighbour;
+					break;
+				}
+			}
+		}
+
+		if (goal == NodeIndex.NO_NODE) {
+			// Pills are never added, so this node never needs searching again.
+			nearest[start] = NodeIndex.NO_NODE;
+			return;
+		}
+		setNearest(start, goal);
+
+		// Walk back from the pill until we reach the step after the start.
+		int node = goal;
+		while (parents[node] != start) {
+			node = parents[node];
+		}
+		firstSteps[start] = node;
+	}
+
+	/**
+	 * Record the closest pill to the given node, and add the node to the
+	 * pill's list of dependents.
+	 */
+	private void setNearest(int node, int pill) {
+		nearest[node] = pill;
+		nextDependents[node] = firstDependents[pill];
+		firstDependents[pill] = node;
+	}
+
+	/**
+	 * The read-only Set view of the pills.
+	 */
+	private final class PillSet extends AbstractSet<PointXY> {
+
+		@Override
+		public int size() {
+			return numPills;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return (o instanceof PointXY) && hasPill((PointXY) o);
+		}
+
+		@Override
+		public Iterator<PointXY> iterator() {
+			return new Iterator<PointXY>() {
+
+				private int next = pills.nextSetBit(0);
+
+				@Override
+				public boolean hasNext() {
+					return next >= 0;
+				}
+
+				@Override
+				public PointXY next() {
+					if (next < 0) {
+						throw new NoSuchElementException();
+					}
+					PointXY pos = index.getPoint(next);
+					next = pills.nextSetBit(next + 1);
+					return pos;
+				}
+
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException(
+							"The pills are read-only.");
+				}
+			};
+		}
+	}
+
+}
@@ -1,7 +1,7 @@
 package logic;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 
@@ -29,7 +29,8 @@ public class PowerUpConfig {
 	public PowerUpConfig() {
 		this.numPredPow = 0;
 		this.numPreyPow = 0;
-		this.predatorPowerUps = new HashMap<PowerUpType, Integer>();
+		this.predatorPowerUps = 
+				new EnumMap<PowerUpType, Integer>(PowerUpType.class);
 		this.preyPowerUps = new ArrayList<PowerUp>();
 		
 		initialisePowerUps();
@@ -1,7 +1,7 @@
 package logic.powerup;
 
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Random;
 
 import utils.NumberUtils;
 import logic.Maze;
@@ -9,9 +9,22 @@ import logic.Maze;
 public class PowerUpCreator {
 
 	private Maze maze;
+	private Random random;
 	
 	public PowerUpCreator(Maze maze) {
+		this(maze, new Random());
+	}
+	
+	/**
+	 * Create a PowerUpCreator which uses the given Random for all of its 
+	 * random choices (so that a seeded game always gets the same power ups).
+	 * 
+	 * @param maze - the maze the power ups are used in.
+	 * @param random - the source of randomness to use.
+	 */
+	public PowerUpCreator(Maze maze, Random random) {
 		this.maze = maze;
+		this.random = random;
 	}
 	
 	public PowerUp createPredatorPowerUp(PowerUpType type, int strength) {
@@ -33,7 +46,7 @@ public class PowerUpCreator {
 				powerUp = new PowerUpSpeedUp(PowerUpTarget.Owner, strength);
 				break;
 			case Teleport:
-				powerUp = new PowerUpTeleport(maze.getRandomPoint());
+				powerUp = new PowerUpTeleport(maze.getRandomPoint(random));
 				break;
 			default:
 				throw new IllegalArgumentException("Unknown power up type.");
@@ -46,11 +59,18 @@ public class PowerUpCreator {
 	public PowerUp createRandomPredatorPowerUp(
 			Map<PowerUpType, Integer> powerUpDefs) {
 		
-		int randomNum = NumberUtils.randomInt(0, powerUpDefs.size() - 1);
+		// Walk the types in declaration order rather than the map's order, 
+		// which for a HashMap can change from run to run (so a seeded game 
+		// wouldn't always get the same power ups).
+		int randomNum = NumberUtils.randomInt(random, 0, powerUpDefs.size() - 1);
 		int count = 0;
-		for (Entry<PowerUpType, Integer> entry : powerUpDefs.entrySet()) {
+		for (PowerUpType type : PowerUpType.values()) {
+			Integer strength = powerUpDefs.get(type);
+			if (strength == null) {
+				continue;
+			}
 			if (randomNum == count) {
-				return createPredatorPowerUp(entry.getKey(), entry.getValue());
+				return createPredatorPowerUp(type, strength);
 			}
 			++count;
 		}
@@ -1,159 +1,295 @@
 package pathfinding;
 
-import java.util.LinkedList;
-import java.util.Map;
-import java.util.Queue;
+import java.util.Arrays;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
-import functional.BooleanSupplier;
 import geometry.PointXY;
+import logic.Direction;
 import logic.Maze;
-import logic.MazeNode;
 
+/**
+ * BFSPathFinder class.
+ *
+ * Finds shortest paths using Breadth-First Search. The results of each search
+ * are kept in a CompactPathStore, which holds the distance and first step
+ * between every pair of nodes rather than the paths themselves.
+ *
+ * generateAllPaths() splits the searches across a fork/join pool, as the
+ * search from each target node is independent of the others. The number of
+ * stored paths is updated as each search completes, so the progress of the
+ * generation can be followed from another thread.
+ *
+ * getPath(start, goals) does a single search out from the start which stops at
+ * the first goal it reaches, rather than looking up the path to every goal.
+ *
+ * Once every path has been generated, the store can be saved to (and later
+ * loaded from) the on-disk PathTableCache.
+ */
 class BFSPathFinder extends PathFinder {
-	
-	private ShortestPathStore pathStore;
-	
+
+	// The number of target nodes a single fork/join task searches from before
+	// it stops splitting its work
+	private static final int TARGETS_PER_TASK = 16;
+
+	private CompactPathStore pathStore;
+
+	// The number of threads used by generateAllPaths()
+	private final int parallelism;
+
+	// Working storage for multi-goal searches, one per calling thread
+	private final ThreadLocal<GoalSearch> goalSearch;
+
 	public BFSPathFinder(Maze maze) {
+		this(maze, Runtime.getRuntime().availableProcessors());
+	}
+
+	public BFSPathFinder(Maze maze, int parallelism) {
 		super(maze);
-		
-		this.pathStore = new ShortestPathStore();
+
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be at least 1.");
+		}
+
+		this.pathStore = new CompactPathStore(new NodeIndex(maze));
+		this.parallelism = parallelism;
+
+		final int size = pathStore.getIndex().size();
+		this.goalSearch = new ThreadLocal<GoalSearch>() {
+			@Override
+			protected GoalSearch initialValue() {
+				return new GoalSearch(size);
+			}
+		};
 	}
-	
+
 	@Override
 	public void generateAllPaths() {
-		
-		Map<PointXY, MazeNode> mazeNodes = getMaze().getNodes();
-		Set<PointXY> positions = mazeNodes.keySet();
-		for (PointXY pos : positions) {
-			allPathsSingleSource(pos);
+
+		int size = pathStore.getIndex().size();
+
+		// Don't bother with the pool if we're only using one thread
+		if (parallelism == 1) {
+			pathStore.fillRows(0, size);
+			return;
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			pool.invoke(new FillRowsTask(0, size));
+		} finally {
+			pool.shutdown();
 		}
-		
+
 	}
-	
-	private void allPathsSingleSource(PointXY pos) {
-		
-		// Specify the break condition - we don't want to stop until all the 
-		// paths have been found.
-		BooleanSupplier breakFunc = new BooleanSupplier() {
-			@Override
-			public boolean getAsBoolean() {
-				return false;
+
+	/**
+	 * Fork/join task which fills the path store rows for a range of targets,
+	 * splitting the range in half until it is small enough to search
+	 * directly.
+	 */
+	private class FillRowsTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+		private final int to;
+
+		FillRowsTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= TARGETS_PER_TASK) {
+				pathStore.fillRows(from, to);
+			} else {
+				int mid = (from + to) >>> 1;
+				invokeAll(new FillRowsTask(from, mid), new FillRowsTask(mid, to));
 			}
-		};
-		
-		// Find the paths from the point to all other points and add them to 
-		// the path store
-		allPathsSingleSource(pos, pathStore, breakFunc);
-		
+		}
+	}
+
+	@Override
+	public Path getPath(PointXY start, PointXY end) {
+
+		int startIndex = pathStore.indexOf(start);
+		int endIndex = pathStore.indexOf(end);
+		if (startIndex == NodeIndex.NO_NODE || endIndex == NodeIndex.NO_NODE) {
+			return new PointXYPath();
+		}
+
+		return pathStore.getPath(startIndex, endIndex);
 	}
-	
-	private void allPathsSingleSource(PointXY pos, ShortestPathStore store, 
-			BooleanSupplier breakFunc) {
-		
-		// Set up our data structures
+
+	@Override
+	public Path getPath(PointXY start, Set<PointXY> goals) {
+
+		if (goals.isEmpty()) {
+			return null;
+		}
+
 		Path path = new PointXYPath();
-		Queue<PointXY> queue = new  LinkedList<PointXY>();
-		
-		// Add the initial data
-		path.addToEnd(pos);
-		queue.add(pos);
-		store.addPath(path);
-		
-		// Get all the nodes in the maze
-		Map<PointXY, MazeNode> mazeNodes = getMaze().getNodes();
-		
-		// Do Breadth-First Search through the maze
-		while (!queue.isEmpty()) {
-			
-			PointXY current = queue.remove();
-			Path currentPath = store.getPath(pos, current);
-			
-			MazeNode node = mazeNodes.get(current);
-			Set<PointXY> neighbours = node.getNeighbours();
-			
-			for (PointXY neighbour : neighbours) {
-				
-				// Check if we've found a shorter path to this node previously.
-				// If so, there's no point going any further on this path, so 
-				// bail out.
-				if (store.pathExists(pos, neighbour)) {
-					Path neighbourPath = store.getPath(pos, neighbour);
-					if (neighbourPath.getLength() <= currentPath.getLength() + 1) {
-						continue;
-					}
+		int startIndex = pathStore.indexOf(start);
+		if (startIndex == NodeIndex.NO_NODE) {
+			return path;
+		}
+
+		// Do a single Breadth-First Search out from the start, stopping at
+		// the first goal we reach (which will be one of the closest).
+		NodeIndex index = pathStore.getIndex();
+		int goal = NodeIndex.NO_NODE;
+		if (goals.contains(start)) {
+			goal = startIndex;
+		}
+
+		GoalSearch search = goalSearch.get();
+		search.begin(startIndex);
+		while (goal == NodeIndex.NO_NODE && search.head < search.tail) {
+			int current = search.queue[search.head++];
+
+			for (int slot = 0; slot < NodeIndex.NUM_SLOTS; ++slot) {
+				int neighbour = index.getNeighbour(current, slot);
+				if (neighbour == NodeIndex.NO_NODE || search.visited(neighbour)) {
+					continue;
+				}
+				search.visit(neighbour, current);
+
+				if (goals.contains(index.getPoint(neighbour))) {
+					goal = neighbour;
+					break;
 				}
-				
-				Path neighbourPath = currentPath.deepCopy();
-				neighbourPath.addToEnd(neighbour);
-				store.addPath(neighbourPath);
-				
-				queue.add(neighbour);
-			}
-			
-			// If we've hit the break condition, stop searching
-			if (breakFunc.getAsBoolean()) {
-				break;
 			}
-			
 		}
-		
+
+		if (goal == NodeIndex.NO_NODE) {
+			return path;
+		}
+
+		// Walk back from the goal to the start, then reverse.
+		for (int node = goal; node != startIndex; node = search.parents[node]) {
+			path.addToEnd(index.getPoint(node));
+		}
+		path.addToEnd(start);
+		path.reverse();
+
+		return path;
 	}
 
-	private Path pathToTarget(final PointXY pos, final PointXY target) {
-		
-		// We want to start with an empty store, as the member store is in an 
-		// incomplete state, and may therefore prevent the algorithm finding 
-		// our desired path.
-		final ShortestPathStore localStore = new ShortestPathStore();
-		
-		// We want to stop searching as soon as we find the path we're looking 
-		// for
-		BooleanSupplier breakFunc = new BooleanSupplier() {
-			@Override
-			public boolean getAsBoolean() {
-				return localStore.pathExists(pos, target);
-			}
-		};
-		
-		// Find the path
-		allPathsSingleSource(pos, localStore, breakFunc);
-	
-		// Cache the paths we've found, so we don't have to do this work again
-		pathStore.addPaths(localStore);
-		
-		// Return our found path
-		return localStore.getPath(pos, target);
+	@Override
+	public int getDistance(PointXY start, PointXY end) {
+
+		int startIndex = pathStore.indexOf(start);
+		int endIndex = pathStore.indexOf(end);
+		if (startIndex == NodeIndex.NO_NODE || endIndex == NodeIndex.NO_NODE) {
+			return NO_PATH;
+		}
+
+		int distance = pathStore.getDistance(startIndex, endIndex);
+		if (distance == CompactPathStore.UNREACHABLE) {
+			return NO_PATH;
+		}
+		return distance;
 	}
-	
+
 	@Override
-	public Path getPath(PointXY start, PointXY end) {
-		if (pathStore.pathExists(start, end)) {
-			return pathStore.getPath(start, end);
-		} else {
-			return pathToTarget(start, end);
+	public Direction getFirstDirection(PointXY start, PointXY end) {
+
+		int startIndex = pathStore.indexOf(start);
+		int endIndex = pathStore.indexOf(end);
+		if (startIndex == NodeIndex.NO_NODE || endIndex == NodeIndex.NO_NODE) {
+			return Direction.None;
 		}
+
+		int slot = pathStore.getNextHop(startIndex, endIndex);
+		return NodeIndex.slotDirection(slot);
 	}
 
 	@Override
-	public Path getPath(PointXY start, Set<PointXY> goals) {
-		
-		Path shortestPath = null;
-		int shortestPathLength = Integer.MAX_VALUE;
-		for (PointXY goal : goals) {
-			Path path = getPath(start, goal);
-			if (path.getLength() < shortestPathLength) {
-				shortestPath = path;
-				shortestPathLength = path.getLength();
-			}
+	public PointXY getNextPoint(PointXY start, PointXY end) {
+
+		int startIndex = pathStore.indexOf(start);
+		int endIndex = pathStore.indexOf(end);
+		if (startIndex == NodeIndex.NO_NODE || endIndex == NodeIndex.NO_NODE) {
+			return null;
+		}
+		if (startIndex == endIndex) {
+			return start;
+		}
+
+		int slot = pathStore.getNextHop(startIndex, endIndex);
+		if (slot == NodeIndex.NO_NODE) {
+			return null;
+		}
+
+		NodeIndex index = pathStore.getIndex();
+		return index.getPoint(index.getNeighbour(startIndex, slot));
+	}
+
+	@Override
+	public boolean loadAllPaths() {
+		if (pathStore.isFull()) {
+			return true;
+		}
+		return PathTableCache.load(getMaze(), pathStore);
+	}
+
+	@Override
+	public void saveAllPaths() {
+		if (pathStore.isFull()) {
+			PathTableCache.save(getMaze(), pathStore);
 		}
-		
-		return shortestPath;
 	}
 
 	@Override
-	public int numStoredPaths() {
+	public long numStoredPaths() {
 		return pathStore.numPaths();
 	}
 
+	/**
+	 * The working storage for a multi-goal search, kept between searches so
+	 * that a search doesn't need to allocate. Nodes are marked as visited by
+	 * stamping them with the number of the current search, so nothing needs
+	 * clearing between searches.
+	 */
+	private static final class GoalSearch {
+
+		private final int[] queue;
+		private final int[] parents;
+		private final int[] stamps;
+		private int stamp;
+		private int head;
+		private int tail;
+
+		GoalSearch(int size) {
+			this.queue = new int[size];
+			this.parents = new int[size];
+			this.stamps = new int[size];
+			this.stamp = 0;
+		}
+
+		void begin(int start) {
+			stamp++;
+			if (stamp == Integer.MAX_VALUE) {
+				Arrays.fill(stamps, 0);
+				stamp = 1;
+			}
+			head = 0;
+			tail = 0;
+			visit(start, NodeIndex.NO_NODE);
+		}
+
+		boolean visited(int node) {
+			return stamps[node] == stamp;
+		}
+
+		void visit(int node, int parent) {
+			stamps[node] = stamp;
+			parents[node] = parent;
+			queue[tail++] = node;
+		}
+	}
+
 }
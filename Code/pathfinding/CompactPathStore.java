@@ -0,0 +1,374 @@
+package pathfinding;
+
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import geometry.PointXY;
+
+/**
+ * CompactPathStore class.
+ *
+ * Stores the shortest paths between nodes in a maze without storing the paths
+ * themselves. For each target node, a row holds the distance from every node
+ * in the maze to the target (as a short) and the neighbour slot of the first
+ * step to take from that node towards the target (as a byte). Paths are
+ * rebuilt from these rows on demand.
+ *
+ * Rows are filled by a breadth-first search out from the target and are
+ * allocated lazily, so memory is only used for the targets that have been
+ * searched. With every row filled, the store takes 3 bytes per pair of nodes.
+ *
+ * The store is thread-safe: rows can be filled from several threads at once.
+ * Each row is published in one step once it is complete, so readers never see
+ * a partially filled row.
+ *
+ * Rows can also be written out to, and read back from, a buffer (see 
+ * PathTableCache). Rows read back from a buffer are used in place, so a
+ * memory-mapped file doesn't need to be copied onto the heap.
+ *
+ * @author agent
+ * @version 2026-10-17
+ */
+class CompactPathStore {
+
+	// The distance stored for nodes which can't reach the target (read as an
+	// unsigned value)
+	static final int UNREACHABLE = 0xFFFF;
+
+	// The node index of the maze
+	private final NodeIndex index;
+
+	// The filled rows, indexed by target
+	private final AtomicReferenceArray<Row> rows;
+
+	// The number of rows which have been filled
+	private final AtomicInteger numRows;
+
+	/**
+	 * Constructor for CompactPathStore.
+	 *
+	 * @param index - the node index of the maze to store paths for.
+	 */
+	public CompactPathStore(NodeIndex index) {
+
+		int size = index.size();
+		if (size > UNREACHABLE) {
+			throw new IllegalArgumentException("Maze has too many nodes to "
+					+ "store distances as shorts.");
+		}
+
+		this.index = index;
+		this.rows = new AtomicReferenceArray<Row>(size);
+		this.numRows = new AtomicInteger(0);
+	}
+
+	/**
+	 * Get the node index used by this store.
+	 *
+	 * @return the node index used by this store.
+	 */
+	public NodeIndex getIndex() {
+		return index;
+	}
+
+	/**
+	 * Check whether the row for the given target has been filled.
+	 *
+	 * @param target - the index of the target node.
+	 * @return true if the row for the target has been filled, false otherwise.
+	 */
+	public boolean hasRow(int target) {
+		return rows.get(target) != null;
+	}
+
+	/**
+	 * Fill the row for the given target by doing a breadth-first search out
+	 * from the target. Does nothing if the row has already been filled.
+	 *
+	 * If two threads fill the same row at the same time, both do the search
+	 * but only the first to finish stores its result.
+	 *
+	 * @param target - the index of the target node.
+	 * @return the filled row for the target.
+	 */
+	private Row fillRow(int target) {
+
+		Row existing = rows.get(target);
+		if (existing != null) {
+			return existing;
+		}
+
+		int size = index.size();
+		short[] dist = new short[size];
+		byte[] hops = new byte[size];
+		for (int i = 0; i < size; ++i) {
+			dist[i] = (short) UNREACHABLE;
+			hops[i] = (byte) NodeIndex.NO_NODE;
+		}
+
+		// Do Breadth-First Search out from the target. As the maze is
+		// undirected, the first step from a node back towards the target is
+		// the step to the node from which it was discovered.
+		int[] queue = new int[size];
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = target;
+		dist[target] = 0;
+
+		while (head < tail) {
+			int current = queue[head++];
+			int nextDist = (dist[current] & 0xFFFF) + 1;
+
+			for (int slot = 0; slot < NodeIndex.NUM_SLOTS; ++slot) {
+				int neighbour = index.getNeighbour(current, slot);
+				if (neighbour == NodeIndex.NO_NODE ||
+					(dist[neighbour] & 0xFFFF) != UNREACHABLE) {
+					continue;
+				}
+				dist[neighbour] = (short) nextDist;
+				hops[neighbour] = (byte) oppositeSlot(slot);
+				queue[tail++] = neighbour;
+			}
+		}
+
+		Row row = new ArrayRow(dist, hops);
+		if (rows.compareAndSet(target, null, row)) {
+			numRows.incrementAndGet();
+			return row;
+		}
+		return rows.get(target);
+	}
+
+	/**
+	 * Fill the rows for every target in the range [from, to).
+	 *
+	 * @param from - the index of the first target to fill (inclusive).
+	 * @param to - the index of the last target to fill (exclusive).
+	 */
+	public void fillRows(int from, int to) {
+		for (int target = from; target < to; ++target) {
+			fillRow(target);
+		}
+	}
+
+	/**
+	 * Get the distance (number of steps) from the start node to the end node.
+	 * The row for the end node is filled if necessary.
+	 *
+	 * @param start - the index of the start node.
+	 * @param end - the index of the end node.
+	 * @return the distance from start to end, or UNREACHABLE if there is no
+	 * path between them.
+	 */
+	public int getDistance(int start, int end) {
+		return fillRow(end).distance(start);
+	}
+
+	/**
+	 * Get the neighbour slot of the first step on the shortest path from the
+	 * start node to the end node. The row for the end node is filled if
+	 * necessary.
+	 *
+	 * @param start - the index of the start node.
+	 * @param end - the index of the end node.
+	 * @return the neighbour slot of the first step, or NodeIndex.NO_NODE if
+	 * start and end are the same node or there is no path between them.
+	 */
+	public int getNextHop(int start, int end) {
+		return fillRow(end).nextHop(start);
+	}
+
+	/**
+	 * Rebuild the shortest path from the start node to the end node.
+	 *
+	 * @param start - the index of the start node.
+	 * @param end - the index of the end node.
+	 * @return the shortest path from start to end, or an empty Path if there
+	 * is no path between them.
+	 */
+	public Path getPath(int start, int end) {
+
+		Path path = new PointXYPath();
+		Row row = fillRow(end);
+		if (row.distance(start) == UNREACHABLE) {
+			return path;
+		}
+
+		int current = start;
+		path.addToEnd(index.getPoint(current));
+		while (current != end) {
+			current = index.getNeighbour(current, row.nextHop(current));
+			path.addToEnd(index.getPoint(current));
+		}
+
+		return path;
+	}
+
+	/**
+	 * Get the number of paths held in this store.
+	 *
+	 * @return the number of paths held in this store.
+	 */
+	public long numPaths() {
+		return (long) numRows.get() * index.size();
+	}
+
+	/**
+	 * Check whether the row for every target has been filled.
+	 *
+	 * @return true if every row has been filled, false otherwise.
+	 */
+	public boolean isFull() {
+		return numRows.get() == index.size();
+	}
+
+	/**
+	 * Get the number of bytes a single row takes up when written to a buffer.
+	 *
+	 * @return the number of bytes in a written row.
+	 */
+	public int rowBytes() {
+		return index.size() * 3;
+	}
+
+	/**
+	 * Write the row for the given target to the buffer: the distance from
+	 * every node as a short, followed by the first step from every node as a
+	 * byte. The row is filled first if necessary.
+	 *
+	 * @param target - the index of the target node.
+	 * @param out - the buffer to write to (with at least rowBytes() bytes
+	 * remaining).
+	 */
+	public void writeRow(int target, ByteBuffer out) {
+		Row row = fillRow(target);
+		int size = index.size();
+		for (int i = 0; i < size; ++i) {
+			out.putShort((short) row.distance(i));
+		}
+		for (int i = 0; i < size; ++i) {
+			out.put((byte) row.nextHop(i));
+		}
+	}
+
+	/**
+	 * Use the rows held in the buffer, as written by writeRow() for every 
+	 * target in order. The rows are read from the buffer in place, so the buffer
+	 * must not be changed afterwards. Rows which have already been filled are
+	 * kept.
+	 *
+	 * @param data - the buffer holding the rows, from its position onwards.
+	 */
+	public void readRows(ByteBuffer data) {
+		int size = index.size();
+		int start = data.position();
+		for (int target = 0; target < size; ++target) {
+			int rowStart = start + target * rowBytes();
+
+			ByteBuffer dist = data.duplicate();
+			dist.position(rowStart);
+			dist.limit(rowStart + size * 2);
+
+			ByteBuffer hops = data.duplicate();
+			hops.position(rowStart + size * 2);
+			hops.limit(rowStart + size * 3);
+
+			Row row = new BufferRow(dist.slice().asShortBuffer(), hops.slice());
+			if (rows.compareAndSet(target, null, row)) {
+				numRows.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Get the index of the node at the given point.
+	 *
+	 * @param point - the point to look up.
+	 * @return the index of the node, or NodeIndex.NO_NODE if there is no node
+	 * at that point.
+	 */
+	public int indexOf(PointXY point) {
+		return index.getIndex(point);
+	}
+
+	/**
+	 * Get the neighbour slot which reverses the given slot (i.e. Left <->
+	 * Right, Up <-> Down).
+	 *
+	 * @param slot - the slot to reverse.
+	 * @return the reverse of the given slot.
+	 */
+	private static int oppositeSlot(int slot) {
+		return slot ^ 1;
+	}
+
+	/**
+	 * A single filled row of the store: the distance from every node to one
+	 * target and the first step from every node towards it.
+	 */
+	private abstract static class Row {
+
+		/**
+		 * Get the distance from the given node to the target (unsigned).
+		 */
+		abstract int distance(int node);
+
+		/**
+		 * Get the neighbour slot of the first step from the given node
+		 * towards the target.
+		 */
+		abstract int nextHop(int node);
+	}
+
+	/**
+	 * A row filled by a search and held in arrays.
+	 */
+	private static final class ArrayRow extends Row {
+
+		private final short[] distances;
+		private final byte[] nextHops;
+
+		private ArrayRow(short[] distances, byte[] nextHops) {
+			this.distances = distances;
+			this.nextHops = nextHops;
+		}
+
+		@Override
+		int distance(int node) {
+			return distances[node] & 0xFFFF;
+		}
+
+		@Override
+		int nextHop(int node) {
+			return nextHops[node];
+		}
+	}
+
+	/**
+	 * A row read from a buffer, used in place. Only absolute gets are used,
+	 * so the row can be read from several threads at once.
+	 */
+	private static final class BufferRow extends Row {
+
+		private final ShortBuffer distances;
+		private final ByteBuffer nextHops;
+
+		private BufferRow(ShortBuffer distances, ByteBuffer nextHops) {
+			this.distances = distances;
+			this.nextHops = nextHops;
+		}
+
+		@Override
+		int distance(int node) {
+			return distances.get(node) & 0xFFFF;
+		}
+
+		@Override
+		int nextHop(int node) {
+			return nextHops.get(node);
+		}
+	}
+
+}
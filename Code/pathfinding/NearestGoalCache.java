@@ -0,0 +1,101 @@
+package pathfinding;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import geometry.PointXY;
+
+/**
+ * NearestGoalCache class.
+ * 
+ * Caches the shortest path from start points to the closest point in a set of
+ * 'goal' points (e.g. the pills remaining in the maze), so that repeatedly 
+ * asking for the closest goal from the same point doesn't search again.
+ * 
+ * The goal set is expected to only ever shrink. While that holds, the closest
+ * goal from a start point stays the closest for as long as it remains in the 
+ * set, so a cached path only needs dropping when its goal is removed. Callers 
+ * should tell the cache about removed goals through goalRemoved(); as a 
+ * safeguard, a cached path whose goal has gone from the set is never 
+ * returned.
+ * 
+ * @author agent
+ * @version 2026-10-17
+ */
+public class NearestGoalCache {
+
+	// The PathFinder used to search for the closest goal
+	private final PathFinder pathFinder;
+	
+	// The set of goals (this is not copied, so removals are seen by the cache)
+	private final Set<PointXY> goals;
+	
+	// The cached path to the closest goal, by start point
+	private final Map<PointXY, Path> closestPaths;
+	
+	/**
+	 * Constructor for NearestGoalCache.
+	 * 
+	 * @param pathFinder - the PathFinder used to search for the closest goal.
+	 * @param goals - the set of goal points.
+	 */
+	public NearestGoalCache(PathFinder pathFinder, Set<PointXY> goals) {
+		this.pathFinder = pathFinder;
+		this.goals = goals;
+		this.closestPaths = new HashMap<PointXY, Path>();
+	}
+	
+	/**
+	 * Get the shortest path from the provided start point to the closest 
+	 * point in the goal set.
+	 * 
+	 * @param start - the first point in the shortest path to find.
+	 * @return the shortest path from the start point to the closest goal, an 
+	 * empty Path if no goal can be reached, or null if the goal set is empty.
+	 */
+	public Path getPath(PointXY start) {
+		
+		Path path = closestPaths.get(start);
+		if (path != null && goals.contains(path.getEnd())) {
+			return path;
+		}
+		
+		path = pathFinder.getPath(start, goals);
+		if (path != null && !path.empty()) {
+			closestPaths.put(start, path);
+		} else {
+			closestPaths.remove(start);
+		}
+		
+		return path;
+	}
+	
+	/**
+	 * Inform the cache that a goal has been removed from the goal set. Any
+	 * cached paths leading to the goal are dropped.
+	 * 
+	 * @param goal - the removed goal.
+	 */
+	public void goalRemoved(PointXY goal) {
+		
+		Iterator<Path> iter = closestPaths.values().iterator();
+		while (iter.hasNext()) {
+			Path path = iter.next();
+			if (path.getEnd().equals(goal)) {
+				iter.remove();
+			}
+		}
+	}
+	
+	/**
+	 * Get the number of start points with a cached path.
+	 * 
+	 * @return the number of cached paths.
+	 */
+	public int size() {
+		return closestPaths.size();
+	}
+	
+}
@@ -0,0 +1,181 @@
+package pathfinding;
+
+import java.util.Arrays;
+
+import geometry.PointXY;
+import logic.Direction;
+import logic.Maze;
+
+/**
+ * NodeIndex class.
+ *
+ * Gives every node in a Maze a dense int index (0 to size() - 1) and holds
+ * the adjacency of the maze as a flat int array, so that searches through the
+ * maze can work on primitive arrays rather than hashing PointXYs.
+ *
+ * Nodes are indexed in grid order (by row, then by column), so the same maze
+ * always produces the same index. The index is built straight from the maze's
+ * cell path masks, and points are looked up by their maze cell index.
+ *
+ * Neighbours are stored in four slots per node, one for each of the
+ * directions Left, Right, Up and Down (in that order). A slot holds the index
+ * of the neighbouring node in that direction, or NO_NODE if there is no path
+ * in that direction.
+ *
+ * @author agent
+ * @version 2026-10-17
+ */
+public final class NodeIndex {
+
+	// The value used when there is no node (e.g. no neighbour in a direction)
+	public static final int NO_NODE = -1;
+
+	// The number of neighbour slots held for each node
+	public static final int NUM_SLOTS = 4;
+
+	// The maze the index was built from
+	private final Maze maze;
+
+	// The point of each node, by index
+	private final PointXY[] points;
+
+	// The index of each node, by maze cell index (NO_NODE for cells which
+	// aren't nodes of the maze)
+	private final int[] cellNodes;
+
+	// The neighbours of each node, NUM_SLOTS entries per node
+	private final int[] neighbours;
+
+	/**
+	 * Constructor for NodeIndex.
+	 *
+	 * @param maze - the maze to index.
+	 */
+	public NodeIndex(Maze maze) {
+
+		this.maze = maze;
+
+		// The maze grid is already in grid order, so the nodes are numbered
+		// in the order their cells appear.
+		int numCells = maze.getCellCount();
+		cellNodes = new int[numCells];
+		points = new PointXY[maze.numberOfNodes()];
+		int size = 0;
+		for (int cell = 0; cell < numCells; ++cell) {
+			if (maze.isNodeCell(cell)) {
+				cellNodes[cell] = size;
+				points[size++] = maze.getCellPoint(cell);
+			} else {
+				cellNodes[cell] = NO_NODE;
+			}
+		}
+
+		// Fill in the neighbour slots for each node from the cell path masks
+		neighbours = new int[points.length * NUM_SLOTS];
+		Arrays.fill(neighbours, NO_NODE);
+		for (int cell = 0; cell < numCells; ++cell) {
+			int node = cellNodes[cell];
+			if (node == NO_NODE) {
+				continue;
+			}
+			int mask = maze.getPathMask(cell);
+			for (int slot = 0; slot < NUM_SLOTS; ++slot) {
+				int bit = slotBit(slot);
+				if ((mask & bit) != 0) {
+					int neighbourCell = maze.getNeighbourCell(cell, bit);
+					if (neighbourCell != Maze.NO_CELL) {
+						neighbours[node * NUM_SLOTS + slot] = cellNodes[neighbourCell];
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Get the number of nodes in the index.
+	 *
+	 * @return the number of nodes in the index.
+	 */
+	public int size() {
+		return points.length;
+	}
+
+	/**
+	 * Get the index of the node at the given point.
+	 *
+	 * @param point - the point to look up.
+	 * @return the index of the node at the given point, or NO_NODE if there is
+	 * no node at that point.
+	 */
+	public int getIndex(PointXY point) {
+		int cell = maze.getCellIndex(point);
+		if (cell == Maze.NO_CELL) {
+			return NO_NODE;
+		}
+		return cellNodes[cell];
+	}
+
+	/**
+	 * Get the point of the node with the given index.
+	 *
+	 * @param index - the index of the node.
+	 * @return the point of the node with the given index.
+	 */
+	public PointXY getPoint(int index) {
+		return points[index];
+	}
+
+	/**
+	 * Get the index of the neighbour of the given node in the given slot.
+	 *
+	 * @param index - the index of the node.
+	 * @param slot - the neighbour slot (0 to NUM_SLOTS - 1).
+	 * @return the index of the neighbouring node, or NO_NODE if there is no
+	 * neighbour in that slot.
+	 */
+	public int getNeighbour(int index, int slot) {
+		return neighbours[index * NUM_SLOTS + slot];
+	}
+
+	/**
+	 * Get the direction of travel represented by a neighbour slot.
+	 *
+	 * @param slot - the neighbour slot (0 to NUM_SLOTS - 1).
+	 * @return the direction of travel for the slot, or Direction.None if the
+	 * slot is out of range.
+	 */
+	public static Direction slotDirection(int slot) {
+		switch (slot) {
+			case 0:
+				return Direction.Left;
+			case 1:
+				return Direction.Right;
+			case 2:
+				return Direction.Up;
+			case 3:
+				return Direction.Down;
+			default:
+				return Direction.None;
+		}
+	}
+
+	/**
+	 * Get the maze path bit for a neighbour slot.
+	 *
+	 * @param slot - the neighbour slot (0 to NUM_SLOTS - 1).
+	 * @return the path bit (Maze.WEST, EAST, NORTH or SOUTH) for the slot.
+	 */
+	private static int slotBit(int slot) {
+		switch (slot) {
+			case 0:
+				return Maze.WEST;
+			case 1:
+				return Maze.EAST;
+			case 2:
+				return Maze.NORTH;
+			default:
+				return Maze.SOUTH;
+		}
+	}
+
+}
@@ -3,6 +3,7 @@ package pathfinding;
 import java.util.Set;
 
 import geometry.PointXY;
+import logic.Direction;
 import logic.Maze;
 
 /**
@@ -13,10 +14,17 @@ import logic.Maze;
  * between points in the Maze, allowing for efficient lookup of a Path 
  * afterwards.
  * 
+ * Where only the distance to a point or the first step towards it is needed,
+ * getDistance(), getFirstDirection() and getNextPoint() should be preferred 
+ * over getPath(), as they can answer without building a Path.
+ * 
  * @author Simon Dicken
  */
 public abstract class PathFinder {
 	
+	// The distance returned when there is no path between two points
+	public static final int NO_PATH = -1;
+	
 	// The maze we're searching
 	private Maze maze;
 	
@@ -57,13 +65,74 @@ public abstract class PathFinder {
 	 */
 	public abstract Path getPath(PointXY start, Set<PointXY> goals);
 	
+	/**
+	 * Get the distance (i.e. the number of steps) along the shortest path from
+	 * the provided start point to the provided end point.
+	 * 
+	 * Note this is one less than the length of the corresponding Path, which 
+	 * counts the points in the path including the start point.
+	 * 
+	 * @param start - the first point in the shortest path.
+	 * @param end - the last point in the shortest path.
+	 * @return the number of steps from start to end, or NO_PATH if there is 
+	 * no path between them.
+	 */
+	public abstract int getDistance(PointXY start, PointXY end);
+	
+	/**
+	 * Get the direction of the first step along the shortest path from the 
+	 * provided start point to the provided end point.
+	 * 
+	 * @param start - the first point in the shortest path.
+	 * @param end - the last point in the shortest path.
+	 * @return the direction of the first step from start towards end, or
+	 * Direction.None if start and end are the same point or there is no path
+	 * between them.
+	 */
+	public abstract Direction getFirstDirection(PointXY start, PointXY end);
+	
+	/**
+	 * Get the second point along the shortest path from the provided start 
+	 * point to the provided end point (i.e. the point reached after the first
+	 * step).
+	 * 
+	 * @param start - the first point in the shortest path.
+	 * @param end - the last point in the shortest path.
+	 * @return the point reached after the first step from start towards end,
+	 * start if start and end are the same point, or null if there is no path
+	 * between them.
+	 */
+	public abstract PointXY getNextPoint(PointXY start, PointXY end);
+	
+	/**
+	 * Try to load every path from the on-disk cache (see PathTableCache) 
+	 * instead of generating them. PathFinders which don't support the cache 
+	 * always return false.
+	 * 
+	 * @return true if every path is now stored (whether loaded or already 
+	 * stored), false if generateAllPaths() still needs to be called.
+	 */
+	public boolean loadAllPaths() {
+		return false;
+	}
+	
+	/**
+	 * Save every stored path to the on-disk cache (see PathTableCache), so 
+	 * that later runs can load them rather than generate them. The paths are
+	 * written in the background. Does nothing if the PathFinder doesn't 
+	 * support the cache, the maze isn't seeded or not every path is stored.
+	 */
+	public void saveAllPaths() {
+		
+	}
+	
 	/**
 	 * Get the total number of Paths that have been calculated and cached by 
 	 * this PathFinder.
 	 * 
 	 * @return the number of cached Paths.
 	 */
-	public abstract int numStoredPaths();
+	public abstract long numStoredPaths();
 	
 	/**
 	 * Get the total number of possible Paths that this PathFinder could store.
@@ -72,8 +141,8 @@ public abstract class PathFinder {
 	 * 
 	 * @return the total number of possible Paths.
 	 */
-	public int numPossiblePaths() {
-		int size = getMaze().getNodes().size();
+	public long numPossiblePaths() {
+		long size = getMaze().numberOfNodes();
 		return size * size;
 	}
 	
@@ -86,4 +155,28 @@ public abstract class PathFinder {
 		return maze;
 	}
 	
+	/**
+	 * Get the direction of travel from one point to an adjacent point.
+	 * 
+	 * @param start - the point moved from.
+	 * @param end - the point moved to.
+	 * @return the direction of travel, or Direction.None if the points are 
+	 * not adjacent.
+	 */
+	protected static Direction directionBetween(PointXY start, PointXY end) {
+		
+		Direction dir = Direction.None;
+		if (start.getX() == end.getX() - 1) {
+			dir = Direction.Right;
+		} else if (start.getX() == end.getX() + 1) {
+			dir = Direction.Left;
+		} else if (start.getY() == end.getY() - 1) {
+			dir = Direction.Up;
+		} else if (start.getY() == end.getY() + 1) {
+			dir = Direction.Down;
+		}
+		
+		return dir;
+	}
+	
 }
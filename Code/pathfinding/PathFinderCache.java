@@ -0,0 +1,79 @@
+package pathfinding;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import logic.Maze;
+import logic.MazeCache;
+
+/**
+ * An in-memory cache of PathFinders for seeded mazes.
+ * 
+ * Seeded mazes are shared through the MazeCache, so a PathFinder built (and 
+ * filled with paths) for a seeded maze can be handed out again whenever the 
+ * same maze is played. As the paths are already stored, generating all paths 
+ * again is then close to free. PathFinders for unseeded mazes are never 
+ * cached.
+ * 
+ * The cache holds PathFinders for the most recently used mazes, up to 
+ * MazeCache.MAX_MAZES. Mazes are matched by identity.
+ * 
+ * @author agent
+ * @version 2026-10-17
+ */
+public class PathFinderCache {
+	
+	private static final Map<Maze, Map<PathFinderType, PathFinder>> pathFinders = 
+			new LinkedHashMap<Maze, Map<PathFinderType, PathFinder>>(16, 0.75f, true) {
+		
+		private static final long serialVersionUID = 1L;
+		
+		@Override
+		protected boolean removeEldestEntry(
+				Map.Entry<Maze, Map<PathFinderType, PathFinder>> eldest) {
+			return size() > MazeCache.MAX_MAZES;
+		}
+	};
+	
+	/**
+	 * Get a PathFinder of the given type for the given maze. If the maze is 
+	 * seeded, the PathFinder is taken from the cache if possible (or created 
+	 * and added to the cache if not). Otherwise a new PathFinder is created.
+	 * 
+	 * @param type - the type of PathFinder.
+	 * @param maze - the maze the PathFinder searches.
+	 * @return the PathFinder.
+	 */
+	public static PathFinder get(PathFinderType type, Maze maze) {
+		
+		if (maze.getSeed() == null) {
+			return PathFinderCreator.create(type, maze);
+		}
+		
+		synchronized (pathFinders) {
+			Map<PathFinderType, PathFinder> byType = pathFinders.get(maze);
+			if (byType == null) {
+				byType = new EnumMap<PathFinderType, PathFinder>(PathFinderType.class);
+				pathFinders.put(maze, byType);
+			}
+			
+			PathFinder pathFinder = byType.get(type);
+			if (pathFinder == null) {
+				pathFinder = PathFinderCreator.create(type, maze);
+				byType.put(type, pathFinder);
+			}
+			return pathFinder;
+		}
+	}
+	
+	/**
+	 * Remove all PathFinders from the cache.
+	 */
+	public static void clear() {
+		synchronized (pathFinders) {
+			pathFinders.clear();
+		}
+	}
+	
+}
@@ -5,6 +5,22 @@ import logic.Maze;
 public class PathFinderCreator {
 	
 	public static PathFinder create(PathFinderType type, Maze maze) {
+		return create(type, maze, Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Create a PathFinder of the given type, limiting the number of threads
+	 * it may use when generating all paths. (Only the BFS type makes use of
+	 * more than one thread.)
+	 * 
+	 * @param type - the type of PathFinder to create.
+	 * @param maze - the maze the PathFinder searches.
+	 * @param parallelism - the number of threads to use when generating all 
+	 * paths.
+	 * @return the created PathFinder.
+	 */
+	public static PathFinder create(PathFinderType type, Maze maze, 
+			int parallelism) {
 		
 		PathFinder pathFinder = null;
 		
@@ -13,7 +29,7 @@ public class PathFinderCreator {
 				pathFinder = new RecursivePathFinder(maze);
 				break;
 			case BFS:
-				pathFinder = new BFSPathFinder(maze);
+				pathFinder = new BFSPathFinder(maze, parallelism);
 				break;
 			default:
 				System.err.println("Unknown path finder type");
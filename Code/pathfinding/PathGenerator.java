@@ -12,16 +12,21 @@ public class PathGenerator implements ProgressTask {
 	
 	@Override
 	public void run() {
-		pathFinder.generateAllPaths();
+		// Only generate (and save) the paths if they couldn't be loaded
+		if (!pathFinder.loadAllPaths()) {
+			pathFinder.generateAllPaths();
+			pathFinder.saveAllPaths();
+		}
 	}
 
 	@Override
 	public float getProgress() {
-		int total = pathFinder.numPossiblePaths();
+		long total = pathFinder.numPossiblePaths();
 		
-		int current = pathFinder.numStoredPaths();
+		long current = pathFinder.numStoredPaths();
 		
-		float progress = current * 100f / total;
+		// Work in double, so that a full store reports exactly 100
+		float progress = (float) (current * 100.0 / total);
 		return progress;
 	}
 
@@ -0,0 +1,457 @@
+package pathfinding;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+import logic.Maze;
+
+/**
+ * PathTableCache class.
+ *
+ * An on-disk cache of the path tables held by BFSPathFinder. Once every path
+ * in a maze has been generated, the table is written to a file named after a
+ * hash of the maze's cells and path masks. On later runs with the same maze,
+ * the file is memory-mapped and used in place of generating the paths.
+ *
+ * The file layout is:
+ *
+ *   header    - magic number, version, maze hash, grid minX, minY, width and
+ *               height, number of nodes, CRC32 of the rows
+ *   masks     - one byte per grid cell: the path mask of the cell, plus
+ *               IN_MAZE if the cell is a node of the maze
+ *   rows      - one row per target node, as written by
+ *               CompactPathStore.writeRow()
+ *
+ * A file is only used if its header, grid and masks exactly match the maze
+ * and its rows match the CRC, so stale or corrupt files (or hash collisions)
+ * fall back to generating the paths, after which the file is replaced.
+ *
+ * Only seeded mazes are cached: an unseeded maze is new every game, so its
+ * file would never be read again. Only mazes of up to MAX_NODES nodes are
+ * cached, as the file size grows with the square of the number of nodes.
+ *
+ * Files are written on a background thread, so saving doesn't hold up
+ * loading a level. Only one file is written at a time, and a save made while
+ * another is being written is dropped, so a burst of new mazes (e.g. games
+ * played headless) can't queue up path tables in memory. Each file is
+ * written to a temporary file and then renamed, so a partially written file
+ * is never read (and a file cut short by a crash fails its length or CRC
+ * check). After each write, the least recently used files are deleted until
+ * the directory holds at most MAX_FILES files and MAX_DIRECTORY_BYTES bytes.
+ * A file counts as used when it is written or loaded.
+ *
+ * @author agent
+ * @version 2026-10-17
+ */
+public class PathTableCache {
+
+	// The largest maze (in nodes) whose table is cached (around 48MB)
+	public static final int MAX_NODES = 4096;
+
+	// The most path table files kept, and the most bytes they may take up
+	public static final int MAX_FILES = 16;
+	public static final long MAX_DIRECTORY_BYTES = 256L * 1024 * 1024;
+
+	private static final String PREFIX = "paths-";
+	private static final String SUFFIX = ".bin";
+
+	// Identifies a path table file ("ORPT") and the version of its layout
+	private static final int MAGIC = 0x4F525054;
+	private static final int VERSION = 1;
+
+	// The size of the header in bytes
+	private static final int HEADER_BYTES = 4 + 4 + 8 + 4 * 5 + 8;
+
+	// The flag used in the written masks for cells which are maze nodes
+	private static final int IN_MAZE = 0x10;
+
+	private static volatile File directory =
+			new File(System.getProperty("java.io.tmpdir"), "orion-paths");
+
+	private static volatile boolean enabled = true;
+
+	// Whether a file is waiting to be written, or being written
+	private static final AtomicBoolean writing = new AtomicBoolean(false);
+
+	// Writes the files, one at a time
+	private static final ExecutorService writer =
+			Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "path-table-writer");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		}
+	});
+
+	/**
+	 * Set the directory the path table files are kept in.
+	 *
+	 * @param dir - the directory to keep path table files in.
+	 */
+	public static void setDirectory(File dir) {
+		directory = dir;
+	}
+
+	/**
+	 * Get the directory the path table files are kept in.
+	 *
+	 * @return the directory path table files are kept in.
+	 */
+	public static File getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Turn the cache on or off. While off, nothing is loaded or saved.
+	 *
+	 * @param on - true to turn the cache on, false to turn it off.
+	 */
+	public static void setEnabled(boolean on) {
+		enabled = on;
+	}
+
+	/**
+	 * Check whether the cache is on.
+	 *
+	 * @return true if the cache is on, false otherwise.
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Load the path table for the given maze into the store, if there's a
+	 * valid file for it.
+	 *
+	 * @param maze - the maze the store is for.
+	 * @param store - the store to load the rows into.
+	 * @return true if the rows were loaded, false otherwise.
+	 */
+	static boolean load(Maze maze, CompactPathStore store) {
+
+		if (!cacheable(maze, store)) {
+			return false;
+		}
+
+		File file = getFile(maze);
+		if (!file.isFile()) {
+			return false;
+		}
+
+		int size = store.getIndex().size();
+		long expectedLength = HEADER_BYTES + maze.getCellCount() +
+				(long) store.rowBytes() * size;
+
+		FileChannel channel = null;
+		try {
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+			if (channel.size() != expectedLength) {
+				System.err.println("Path table file has the wrong length: " + file);
+				return false;
+			}
+
+			// The mapping stays valid after the channel is closed
+			MappedByteBuffer data =
+					channel.map(FileChannel.MapMode.READ_ONLY, 0, expectedLength);
+
+			long crc = readHeader(maze, size, data);
+			if (crc < 0 || !masksMatch(maze, data)) {
+				System.err.println("Path table file doesn't match maze: " + file);
+				return false;
+			}
+
+			if (checksum(data) != crc) {
+				System.err.println("Path table file is corrupt: " + file);
+				return false;
+			}
+
+			store.readRows(data);
+			file.setLastModified(System.currentTimeMillis());
+			return true;
+
+		} catch (IOException e) {
+			System.err.println("Failed to read path table file: " + e.toString());
+			return false;
+		} finally {
+			close(channel);
+		}
+	}
+
+	/**
+	 * Save the path table in the store to the file for the given maze, on the
+	 * background writer thread. Every row of the store should be filled (and
+	 * so the store must not change again). Nothing is saved if another file is
+	 * still being written.
+	 *
+	 * @param maze - the maze the store is for.
+	 * @param store - the store to save.
+	 */
+	static void save(final Maze maze, final CompactPathStore store) {
+
+		if (!cacheable(maze, store) || !writing.compareAndSet(false, true)) {
+			return;
+		}
+
+		writer.execute(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					write(maze, store);
+					prune();
+				} finally {
+					writing.set(false);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Write the path table in the store to the file for the given maze.
+	 */
+	private static void write(Maze maze, CompactPathStore store) {
+
+		File dir = directory;
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			System.err.println("Failed to create path table directory: " + dir);
+			return;
+		}
+
+		int size = store.getIndex().size();
+		File file = getFile(maze);
+		File temp = null;
+		FileChannel channel = null;
+		try {
+			temp = File.createTempFile(file.getName(), ".tmp", dir);
+			channel = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE);
+
+			// Write the rows first, after space for the header and masks, so
+			// the checksum is known when the header is written.
+			long rowsStart = HEADER_BYTES + maze.getCellCount();
+			channel.position(rowsStart);
+			CRC32 crc = new CRC32();
+			ByteBuffer row = ByteBuffer.allocate(store.rowBytes());
+			for (int target = 0; target < size; ++target) {
+				row.clear();
+				store.writeRow(target, row);
+				row.flip();
+				crc.update(row.array(), 0, row.limit());
+				writeFully(channel, row);
+			}
+
+			ByteBuffer head = ByteBuffer.allocate((int) rowsStart);
+			writeHeader(maze, size, crc.getValue(), head);
+			writeMasks(maze, head);
+			head.flip();
+			channel.position(0);
+			writeFully(channel, head);
+			close(channel);
+			channel = null;
+
+			try {
+				Files.move(temp.toPath(), file.toPath(),
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), file.toPath(),
+						StandardCopyOption.REPLACE_EXISTING);
+			}
+			temp = null;
+
+		} catch (IOException e) {
+			System.err.println("Failed to write path table file: " + e.toString());
+		} finally {
+			close(channel);
+			if (temp != null) {
+				temp.delete();
+			}
+		}
+	}
+
+	/**
+	 * Get the hash of the maze's grid and path masks, used to name its path
+	 * table file (64-bit FNV-1a).
+	 *
+	 * @param maze - the maze to hash.
+	 * @return the hash of the maze.
+	 */
+	public static long hashMaze(Maze maze) {
+		long hash = 0xcbf29ce484222325L;
+		int[] dims = new int[] {
+			maze.getMinX(), maze.getMinY(),
+			maze.getGridWidth(), maze.getGridHeight()
+		};
+		for (int dim : dims) {
+			for (int shift = 0; shift < 32; shift += 8) {
+				hash = (hash ^ ((dim >>> shift) & 0xFF)) * 0x100000001b3L;
+			}
+		}
+		int numCells = maze.getCellCount();
+		for (int cell = 0; cell < numCells; ++cell) {
+			hash = (hash ^ cellByte(maze, cell)) * 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	/**
+	 * Delete the least recently used path table files until there are at most
+	 * MAX_FILES of them, taking up at most MAX_DIRECTORY_BYTES.
+	 */
+	private static void prune() {
+
+		File[] files = directory.listFiles();
+		if (files == null) {
+			return;
+		}
+
+		int count = 0;
+		long total = 0;
+		for (int i = 0; i < files.length; ++i) {
+			String name = files[i].getName();
+			if (files[i].isFile() && name.startsWith(PREFIX) &&
+					name.endsWith(SUFFIX)) {
+				files[count++] = files[i];
+				total += files[i].length();
+			}
+		}
+
+		// Newest first
+		files = Arrays.copyOf(files, count);
+		Arrays.sort(files, new Comparator<File>() {
+
+			@Override
+			public int compare(File a, File b) {
+				return Long.compare(b.lastModified(), a.lastModified());
+			}
+		});
+
+		for (int i = files.length - 1;
+				i >= 0 && (i >= MAX_FILES || total > MAX_DIRECTORY_BYTES);
+				--i) {
+			long length = files[i].length();
+			if (files[i].delete()) {
+				total -= length;
+			}
+		}
+	}
+
+	private static boolean cacheable(Maze maze, CompactPathStore store) {
+		int size = store.getIndex().size();
+		return enabled && maze.getSeed() != null && size > 0 &&
+				size <= MAX_NODES;
+	}
+
+	private static File getFile(Maze maze) {
+		String name = String.format(PREFIX + "%016x" + SUFFIX, hashMaze(maze));
+		return new File(directory, name);
+	}
+
+	private static int cellByte(Maze maze, int cell) {
+		if (!maze.isNodeCell(cell)) {
+			return 0;
+		}
+		return maze.getPathMask(cell) | IN_MAZE;
+	}
+
+	private static void writeHeader(Maze maze, int size, long crc,
+			ByteBuffer out) {
+		out.putInt(MAGIC);
+		out.putInt(VERSION);
+		out.putLong(hashMaze(maze));
+		out.putInt(maze.getMinX());
+		out.putInt(maze.getMinY());
+		out.putInt(maze.getGridWidth());
+		out.putInt(maze.getGridHeight());
+		out.putInt(size);
+		out.putLong(crc);
+	}
+
+	/**
+	 * Read and check the header, leaving the buffer positioned at the masks.
+	 *
+	 * @return the CRC of the rows, or -1 if the header doesn't match.
+	 */
+	private static long readHeader(Maze maze, int size, ByteBuffer in) {
+		boolean valid = in.getInt() == MAGIC &&
+				in.getInt() == VERSION &&
+				in.getLong() == hashMaze(maze) &&
+				in.getInt() == maze.getMinX() &&
+				in.getInt() == maze.getMinY() &&
+				in.getInt() == maze.getGridWidth() &&
+				in.getInt() == maze.getGridHeight() &&
+				in.getInt() == size;
+		long crc = in.getLong();
+		return valid ? crc : -1;
+	}
+
+	private static void writeMasks(Maze maze, ByteBuffer out) {
+		int numCells = maze.getCellCount();
+		for (int cell = 0; cell < numCells; ++cell) {
+			out.put((byte) cellByte(maze, cell));
+		}
+	}
+
+	/**
+	 * Check the masks against the maze, leaving the buffer positioned at the
+	 * rows.
+	 */
+	private static boolean masksMatch(Maze maze, ByteBuffer in) {
+		int numCells = maze.getCellCount();
+		for (int cell = 0; cell < numCells; ++cell) {
+			if (in.get() != (byte) cellByte(maze, cell)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Get the CRC32 of the remaining bytes of the buffer, without moving its
+	 * position.
+	 */
+	private static long checksum(ByteBuffer in) {
+		ByteBuffer data = in.duplicate();
+		CRC32 crc = new CRC32();
+		byte[] chunk = new byte[64 * 1024];
+		while (data.hasRemaining()) {
+			int length = Math.min(chunk.length, data.remaining());
+			data.get(chunk, 0, length);
+			crc.update(chunk, 0, length);
+		}
+		return crc.getValue();
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer buffer)
+			throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	private static void close(FileChannel channel) {
+		if (channel != null) {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				System.err.println("Failed to close path table file: " + e.toString());
+			}
+		}
+	}
+
+}
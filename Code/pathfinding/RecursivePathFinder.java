@@ -2,6 +2,7 @@ package pathfinding;
 
 import geometry.PointXY;
 import geometry.PointXYPair;
+import logic.Direction;
 import logic.Maze;
 import logic.MazeNode;
 
@@ -409,12 +410,48 @@ class RecursivePathFinder extends PathFinder {
 		return path;
 	}
 	
+	@Override
+	public int getDistance(PointXY start, PointXY end) {
+		
+		Path path = getPath(start, end);
+		if (path == null || path.empty()) {
+			return NO_PATH;
+		}
+		
+		return path.getLength() - 1;
+	}
+	
+	@Override
+	public Direction getFirstDirection(PointXY start, PointXY end) {
+		
+		Path path = getPath(start, end);
+		if (path == null || path.getLength() < 2) {
+			return Direction.None;
+		}
+		
+		return directionBetween(path.getPoint(0), path.getPoint(1));
+	}
+	
+	@Override
+	public PointXY getNextPoint(PointXY start, PointXY end) {
+		
+		Path path = getPath(start, end);
+		if (path == null || path.empty()) {
+			return null;
+		}
+		if (path.getLength() == 1) {
+			return start;
+		}
+		
+		return path.getPoint(1);
+	}
+	
 	private Path createPath() {
 		return new PointXYPath();
 	}
 	
 	@Override
-	public int numStoredPaths() {
+	public long numStoredPaths() {
 		return allPaths.size();
 	}
 
@@ -3,6 +3,7 @@ package physics;
 import geometry.PointXY;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -30,6 +31,9 @@ public class PhysicsGameWorld {
 	private List<PhysicsBodyPrey> prey;
 	private List<PhysicsBodyPredatorPowerUp> predatorPowerUps;
 
+	// Read-only list of the predators then prey, rebuilt when one is removed
+	private List<PhysicsBodyAgent> agents;
+
 	// The type of debug information to process and display
 	private List<PhysicsBodyDebug> debugBodies;
 
@@ -54,6 +58,7 @@ public class PhysicsGameWorld {
 		createPredators(config, state);
 		createPrey(config, state);
 		createPredatorPowerUps(config, state);
+		updateAgents();
 	}
 
 	private void createSquares(PhysicsConfiguration config, GameState state) {
@@ -233,12 +238,17 @@ public class PhysicsGameWorld {
 	}
 
 	public List<PhysicsBodyAgent> getAgents() {
-		List<PhysicsBodyAgent> agents = new ArrayList<PhysicsBodyAgent>();
-		agents.addAll(predators);
-		agents.addAll(prey);
 		return agents;
 	}
 
+	private void updateAgents() {
+		List<PhysicsBodyAgent> all = new ArrayList<PhysicsBodyAgent>(
+				predators.size() + prey.size());
+		all.addAll(predators);
+		all.addAll(prey);
+		agents = Collections.unmodifiableList(all);
+	}
+
 	public List<PhysicsBodyPredatorPowerUp> getPredatorPowerUps() {
 		return predatorPowerUps;
 	}
@@ -264,9 +274,11 @@ public class PhysicsGameWorld {
 			throw new RuntimeException("Not implemented");
 		case Predator:
 			removeBodyFromList(toRemove, predators);
+			updateAgents();
 			break;
 		case Prey:
 			removeBodyFromList(toRemove, prey);
+			updateAgents();
 			break;
 		case Walls:
 			removeBodyFromList(toRemove, mazeSquares);
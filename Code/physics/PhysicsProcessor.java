@@ -1,5 +1,6 @@
 package physics;
 
+import ai.AIWorker;
 import logic.GameState;
 import geometry.PointXY;
 import callback.Sender;
@@ -61,4 +62,14 @@ public abstract class PhysicsProcessor extends Sender {
 	 */
 	public abstract void setDebugCategory(PhysicsDebugType type);
 	
+	/**
+	 * Set the worker the non-player moves are worked out on. The game state is
+	 * published to the worker after every step, and its latest moves are 
+	 * applied to the non-player agents before every step. If the worker is 
+	 * null (the default), the agents' moves are used as they are.
+	 * 
+	 * @param worker - the AI worker, or null.
+	 */
+	public abstract void setAIWorker(AIWorker worker);
+	
 }
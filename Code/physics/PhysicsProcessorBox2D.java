@@ -2,7 +2,6 @@ package physics;
 
 import geometry.PointXY;
 
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -12,9 +11,11 @@ import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.physics.box2d.World;
 
+import ai.AIWorker;
 import logic.Agent;
 import logic.GameState;
 import logic.Maze;
+import logic.MazePartition;
 import logic.MazeNode;
 import logic.Move;
 import logic.Direction;
@@ -50,6 +51,10 @@ public class PhysicsProcessorBox2D extends PhysicsProcessor {
 	private PhysicsDebugType debugType;
 	private boolean debugBodiesCreated;
 	
+	// Works out the non-player moves in the background (null if they're 
+	// worked out by the game logic)
+	private AIWorker aiWorker;
+	
 	/**
 	 * Constructor for PhysicsProcessorBox2D.
 	 * 
@@ -77,6 +82,8 @@ public class PhysicsProcessorBox2D extends PhysicsProcessor {
 		
 		this.debugType = PhysicsDebugType.DebugNone;
 		this.debugBodiesCreated = false;
+		
+		this.aiWorker = null;
 	}
 	
 	@Override
@@ -145,26 +152,45 @@ public class PhysicsProcessorBox2D extends PhysicsProcessor {
 	 */
 	private void postStep(GameState state) {
 		
-		List<PhysicsBody> bodiesToProcess = new ArrayList<PhysicsBody>();
-		bodiesToProcess.addAll(world.getPredators());
-		bodiesToProcess.addAll(world.getPrey());
-		bodiesToProcess.addAll(world.getPills());
-		bodiesToProcess.addAll(world.getPredatorPowerUps());
-		
 		// Remove 'dead' bodies from the game and inform the GameState of the 
 		// changes.
-		for (PhysicsBody body : bodiesToProcess) {
-			if (body.isFlaggedForDelete()) {
-				world.removeBody(body);
-				deleteFromGameState(body, state);
-			}
-		}
+		removeDeadBodies(world.getPredators(), state);
+		removeDeadBodies(world.getPrey(), state);
+		removeDeadBodies(world.getPills(), state);
+		removeDeadBodies(world.getPredatorPowerUps(), state);
 		
 		List<PhysicsBodyAgent> allAgents = world.getAgents();
 		for (PhysicsBodyAgent agent : allAgents) {
 			postProcessAgent(agent, state);
 		}
 		
+		// Hand the new positions over to the AI (never waits for it).
+		if (aiWorker != null) {
+			aiWorker.publish(state);
+		}
+	}
+	
+	/**
+	 * Remove any of the given bodies which are flagged for delete from the 
+	 * world and the game state. The bodies are removed from the list as it 
+	 * goes, so it is walked by index rather than copied first.
+	 * 
+	 * @param bodies - one of the world's lists of bodies.
+	 * @param state - a snapshot of the current game data.
+	 */
+	private void removeDeadBodies(List<? extends PhysicsBody> bodies, 
+			GameState state) {
+		
+		int i = 0;
+		while (i < bodies.size()) {
+			PhysicsBody body = bodies.get(i);
+			if (body.isFlaggedForDelete()) {
+				world.removeBody(body);
+				deleteFromGameState(body, state);
+			} else {
+				++i;
+			}
+		}
 	}
 	
 	/**
@@ -194,6 +220,12 @@ public class PhysicsProcessorBox2D extends PhysicsProcessor {
 		roundPosition(body, speed);
 		Vector2 bodyWorldPos = body.getPosition();
 		
+		// Pick up the latest move worked out in the background, if there is 
+		// one (otherwise the agent keeps its current move).
+		if (aiWorker != null && !agent.isPlayer()) {
+			aiWorker.applyMove(agent);
+		}
+		
 		Move move = agent.getNextMove();
 		Vector2 velocity = body.getLinearVelocity();
 		
@@ -232,11 +264,10 @@ public class PhysicsProcessorBox2D extends PhysicsProcessor {
 		Vector2 squareWorldPos = stateToWorld(bodyStatePos);
 		if (bodyWorldPos.equals(squareWorldPos)) {
 			Direction dir = getDirectionFromVelocity(body.getLinearVelocity());
-			MazeNode node = maze.getNode(bodyStatePos);
 
 			PointXY targetPos = getTarget(bodyStatePos, dir);
 			
-			if (!node.isNeighbour(targetPos)) {
+			if (!maze.areNeighbours(bodyStatePos, targetPos)) {
 				body.setLinearVelocity(new Vector2(0, 0));
 				agent.setCurrentDirection(Direction.None);
 			}
@@ -328,9 +359,8 @@ public class PhysicsProcessorBox2D extends PhysicsProcessor {
 
 			PointXY targetPos = getTarget(bodyStatePos, moveDir);
 			
-			MazeNode node = maze.getNode(bodyStatePos);
-			
-			if (node.isNeighbour(targetPos) || bodyStatePos.equals(targetPos)) {
+			if (maze.areNeighbours(bodyStatePos, targetPos) || 
+					bodyStatePos.equals(targetPos)) {
 				return true;
 			} else {
 				return false;
@@ -672,6 +702,11 @@ public class PhysicsProcessorBox2D extends PhysicsProcessor {
 		return world.getSquareSize();
 	}
 	
+	@Override
+	public void setAIWorker(AIWorker worker) {
+		this.aiWorker = worker;
+	}
+	
 	private void jogAgents(GameState state) {
 		Maze maze = state.getMaze();
 		
@@ -825,19 +860,20 @@ public class PhysicsProcessorBox2D extends PhysicsProcessor {
 	
 	private void processPartition(GameState state) {
 		
-		Map<Agent, Set<PointXY>> partition = state.getPartition();
-		
-		Set<Agent> agents = partition.keySet();
+		MazePartition partition = state.getPartition();
+		if (partition == null) {
+			return;
+		}
 		
-		for (Agent agent : agents) {
-			
-			Set<PointXY> agentPoints = partition.get(agent);
+		for (int i = 0; i < partition.size(); ++i) {
 			
-			for (PointXY pos : agentPoints) {
-				PhysicsBodyDebug body = findDebugBody(pos);
-				body.setAgentID(agent.getID());
+			int owner = partition.getOwner(i);
+			if (owner == MazePartition.NO_OWNER) {
+				continue;
 			}
 			
+			PhysicsBodyDebug body = findDebugBody(partition.getPoint(i));
+			body.setAgentID(owner);
 		}
 	}
 	
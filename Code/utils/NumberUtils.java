@@ -45,6 +45,27 @@ public class NumberUtils {
 		return r.nextInt((max - min) + 1) + min; // + 1 for inclusive
 	}
 	
+	/**
+	 * Generates a random int in the range: num1 (inclusive) to num2 (inclusive),
+	 * using the given Random.
+	 * 
+	 * @param r (Random)
+	 * @param num1 (int)
+	 * @param num2 (int)
+	 * @return random int in range (int)
+	 */
+	public static int randomInt(Random r, int num1, int num2) {
+		int min = num1;
+		int max = num2;
+		
+		if (num1 > num2) {
+			min = num2;
+			max = num1;
+		}
+		
+		return r.nextInt((max - min) + 1) + min; // + 1 for inclusive
+	}
+	
 	/**
 	 * Generates a random double in the range: num1 (inclusive) to num2 (inclusive).
 	 * 
@@ -53,6 +74,19 @@ public class NumberUtils {
 	 * @return random double in range (double)
 	 */
 	public static double randomDouble(double num1, double num2) {
+		return randomDouble(new Random(), num1, num2);
+	}
+	
+	/**
+	 * Generates a random double in the range: num1 (inclusive) to num2 (inclusive),
+	 * using the given Random.
+	 * 
+	 * @param r (Random)
+	 * @param num1 (double)
+	 * @param num2 (double)
+	 * @return random double in range (double)
+	 */
+	public static double randomDouble(Random r, double num1, double num2) {
 		double min = num1;
 		double max = num2;
 		
@@ -61,7 +95,6 @@ public class NumberUtils {
 			max = num1;
 		}
 		
-		Random r = new Random();
 		return r.nextDouble() * (max - min) + min;
 	}
 	